@@ -0,0 +1,178 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.jfr;
+
+import com.synopsys.integration.blackduck.service.model.HubEndpoints;
+import com.synopsys.integration.rest.HttpMethod;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The only class that refers to jdk.jfr. It's compiled apart from main and HubFlightRecorder only loads it, by name, once jdk.jfr is known to be there.
+ */
+class FlightRecorderEvents implements HubFlightRecorder.Events {
+    private static final String CATEGORY = "Black Duck";
+    private static final String SUBCATEGORY = "Hub";
+
+    private static final EventType REQUEST_EVENT_TYPE = EventType.getEventType(HubRequestEvent.class);
+    private static final EventType PAGINATION_EVENT_TYPE = EventType.getEventType(HubPaginationEvent.class);
+    private static final EventType BUCKET_FILL_EVENT_TYPE = EventType.getEventType(HubBucketFillEvent.class);
+    private static final EventType SCAN_COMMAND_EVENT_TYPE = EventType.getEventType(ScanCommandEvent.class);
+
+    @Override
+    public HubFlightRecorder.RequestRecording beginRequest(final String uri, final HttpMethod method) {
+        if (!REQUEST_EVENT_TYPE.isEnabled()) {
+            return HubFlightRecorder.NO_REQUEST_RECORDING;
+        }
+        final HubRequestEvent event = new HubRequestEvent();
+        event.endpoint = HubEndpoints.getEndpoint(uri);
+        event.method = method == null ? null : method.name();
+        event.begin();
+        return new HubFlightRecorder.RequestRecording() {
+            @Override
+            public boolean isRecording() {
+                return true;
+            }
+
+            @Override
+            public void end(final int statusCode, final long responseBytes) {
+                event.statusCode = statusCode;
+                event.responseBytes = responseBytes;
+                event.commit();
+            }
+        };
+    }
+
+    @Override
+    public HubFlightRecorder.PaginationRecording beginPagination(final String uri) {
+        if (!PAGINATION_EVENT_TYPE.isEnabled()) {
+            return HubFlightRecorder.NO_PAGINATION_RECORDING;
+        }
+        final HubPaginationEvent event = new HubPaginationEvent();
+        event.endpoint = HubEndpoints.getEndpoint(uri);
+        event.begin();
+        return (pageCount, itemCount) -> {
+            event.pageCount = pageCount;
+            event.itemCount = itemCount;
+            event.commit();
+        };
+    }
+
+    @Override
+    public HubFlightRecorder.BucketFillRecording beginBucketFill(final String uri) {
+        if (!BUCKET_FILL_EVENT_TYPE.isEnabled()) {
+            return HubFlightRecorder.NO_BUCKET_FILL_RECORDING;
+        }
+        final HubBucketFillEvent event = new HubBucketFillEvent();
+        event.uri = uri;
+        event.begin();
+        return succeeded -> {
+            event.succeeded = succeeded;
+            event.commit();
+        };
+    }
+
+    @Override
+    public HubFlightRecorder.ScanCommandRecording beginScanCommand(final String targetPath, final boolean dryRun) {
+        if (!SCAN_COMMAND_EVENT_TYPE.isEnabled()) {
+            return HubFlightRecorder.NO_SCAN_COMMAND_RECORDING;
+        }
+        final ScanCommandEvent event = new ScanCommandEvent();
+        event.targetPath = targetPath;
+        event.dryRun = dryRun;
+        event.begin();
+        return returnCode -> {
+            event.returnCode = returnCode;
+            event.commit();
+        };
+    }
+
+    @Name("com.synopsys.integration.blackduck.HubRequest")
+    @Label("Hub Request")
+    @Description("A request sent to the Hub, until its response has been read")
+    @Category({ CATEGORY, SUBCATEGORY })
+    static class HubRequestEvent extends Event {
+        @Label("Endpoint")
+        String endpoint;
+
+        @Label("Method")
+        String method;
+
+        @Label("Status Code")
+        int statusCode;
+
+        @Label("Response Bytes")
+        @DataAmount
+        long responseBytes;
+    }
+
+    @Name("com.synopsys.integration.blackduck.HubPagination")
+    @Label("Hub Pagination")
+    @Description("A walk over all the pages of a paged Hub request")
+    @Category({ CATEGORY, SUBCATEGORY })
+    static class HubPaginationEvent extends Event {
+        @Label("Endpoint")
+        String endpoint;
+
+        @Label("Page Count")
+        int pageCount;
+
+        @Label("Item Count")
+        int itemCount;
+    }
+
+    @Name("com.synopsys.integration.blackduck.HubBucketFill")
+    @Label("Hub Bucket Fill")
+    @Description("Retrieving one uri into a HubBucket")
+    @Category({ CATEGORY, SUBCATEGORY })
+    static class HubBucketFillEvent extends Event {
+        @Label("Uri")
+        String uri;
+
+        @Label("Succeeded")
+        boolean succeeded;
+    }
+
+    @Name("com.synopsys.integration.blackduck.ScanCommand")
+    @Label("Scan Command")
+    @Description("The signature scanner process, from start until it exits")
+    @Category({ CATEGORY, "Signature Scanner" })
+    static class ScanCommandEvent extends Event {
+        @Label("Target Path")
+        String targetPath;
+
+        @Label("Dry Run")
+        boolean dryRun;
+
+        @Label("Return Code")
+        int returnCode;
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.synopsys.integration.blackduck.service.jfr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicStatusLine;
+import org.junit.Test;
+
+import com.synopsys.integration.blackduck.rest.BlackduckRestConnection;
+import com.synopsys.integration.blackduck.service.HubRequestExecutor;
+import com.synopsys.integration.rest.request.Request;
+import com.synopsys.integration.rest.request.Response;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class FlightRecorderEventsTest {
+    private static final String JSON = "{\"name\":\"project\"}";
+
+    @Test
+    public void testRequestEventIsRecorded() throws Exception {
+        assumeTrue(HubFlightRecorder.isAvailable());
+
+        final Configuration configuration;
+        try (Reader reader = new InputStreamReader(getClass().getResourceAsStream("hub-common.jfc"), StandardCharsets.UTF_8)) {
+            configuration = Configuration.create(reader);
+        }
+
+        final Path recordingFile = Files.createTempFile("hub-common", ".jfr");
+        try (Recording recording = new Recording(configuration)) {
+            recording.start();
+            final HubRequestExecutor hubRequestExecutor = new HubRequestExecutor(createRestConnection());
+            try (Response response = hubRequestExecutor.execute(new Request.Builder("https://www.url.com/api/projects/1/versions").build())) {
+                assertEquals(JSON, response.getContentString());
+            }
+            recording.stop();
+            recording.dump(recordingFile);
+
+            final List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+            final RecordedEvent event = events.stream()
+                    .filter(recordedEvent -> "com.synopsys.integration.blackduck.HubRequest".equals(recordedEvent.getEventType().getName()))
+                    .findFirst()
+                    .orElseThrow(() -> new AssertionError("Expected a HubRequest event"));
+            assertEquals("/api/projects/{id}/versions", event.getString("endpoint"));
+            assertEquals("GET", event.getString("method"));
+            assertEquals(200, event.getInt("statusCode"));
+            assertEquals(JSON.length(), event.getLong("responseBytes"));
+            assertTrue(event.getDuration().toNanos() >= 0);
+        } finally {
+            Files.deleteIfExists(recordingFile);
+        }
+    }
+
+    private BlackduckRestConnection createRestConnection() throws Exception {
+        final BlackduckRestConnection restConnection = mock(BlackduckRestConnection.class);
+        when(restConnection.executeRequest(any(Request.class))).thenAnswer(invocation -> {
+            final CloseableHttpResponse closeableHttpResponse = mock(CloseableHttpResponse.class);
+            when(closeableHttpResponse.getStatusLine()).thenReturn(new BasicStatusLine(HttpVersion.HTTP_1_1, 200, "OK"));
+            when(closeableHttpResponse.getEntity()).thenReturn(new StringEntity(JSON, ContentType.APPLICATION_JSON));
+            return new Response(closeableHttpResponse);
+        });
+        return restConnection;
+    }
+
+}
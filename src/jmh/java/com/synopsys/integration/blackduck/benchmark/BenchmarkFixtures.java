@@ -0,0 +1,196 @@
+package com.synopsys.integration.blackduck.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.apache.commons.io.IOUtils;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Page payloads shaped like the ones the Hub returns. The notifications are the recorded fixtures from src/test/resources/json, the projects and BOM components are generated - there are no recorded ones.
+ */
+public class BenchmarkFixtures {
+    public static final String BASE_URL = "https://hub.example.com";
+    public static final String RULE_VIOLATION_NOTIFICATION = "/json/RuleViolationNotification_valid03.txt";
+    public static final String RULE_VIOLATION_CLEARED_NOTIFICATION = "/json/RuleViolationClearedNotification_valid04.txt";
+
+    private static final JsonParser JSON_PARSER = new JsonParser();
+
+    public static String loadFixture(final String resourceName) throws IOException {
+        try (InputStream inputStream = BenchmarkFixtures.class.getResourceAsStream(resourceName)) {
+            if (inputStream == null) {
+                throw new IOException("The fixture " + resourceName + " is not on the classpath - the jmh source set needs the test resources.");
+            }
+            return IOUtils.toString(inputStream, StandardCharsets.UTF_8);
+        }
+    }
+
+    public static JsonObject createProject(final int index) {
+        final String projectUri = BASE_URL + "/api/projects/" + uuid(index);
+        final JsonObject project = new JsonObject();
+        project.addProperty("name", "project-" + index);
+        project.addProperty("description", "A generated project used by the benchmarks, number " + index);
+        project.addProperty("projectLevelAdjustments", true);
+        project.addProperty("projectTier", 3);
+        project.addProperty("source", "CUSTOM");
+        project.addProperty("createdAt", "2018-09-21T18:00:17.457Z");
+        project.addProperty("updatedAt", "2018-09-22T10:12:44.001Z");
+        project.add("_meta", createMeta(projectUri, "versions", "canonicalVersion", "assignable-users", "assignable-usergroups", "users", "usergroups", "tags"));
+        return project;
+    }
+
+    public static JsonObject createBomComponent(final int index) {
+        final String componentUri = BASE_URL + "/api/components/" + uuid(index);
+        final String componentVersionUri = componentUri + "/versions/" + uuid(index + 1_000_000);
+        final JsonObject component = new JsonObject();
+        component.addProperty("componentName", "component-" + index);
+        component.addProperty("componentVersionName", "1." + index);
+        component.addProperty("component", componentUri);
+        component.addProperty("componentVersion", componentVersionUri);
+        component.addProperty("approvalStatus", "NOT_IN_VIOLATION");
+        component.addProperty("policyStatus", "NOT_IN_VIOLATION");
+        component.addProperty("reviewStatus", "NOT_REVIEWED");
+        component.addProperty("totalFileMatchCount", index % 17);
+        component.addProperty("releasedOn", "2017-01-01T00:00:00.000Z");
+
+        final JsonArray licenses = new JsonArray();
+        final JsonObject license = new JsonObject();
+        license.addProperty("licenseDisplay", "Apache License 2.0");
+        license.addProperty("license", BASE_URL + "/api/licenses/" + uuid(7));
+        licenses.add(license);
+        component.add("licenses", licenses);
+
+        final JsonArray usages = new JsonArray();
+        usages.add("DYNAMICALLY_LINKED");
+        component.add("usages", usages);
+        final JsonArray matchTypes = new JsonArray();
+        matchTypes.add("FILE_DEPENDENCY_DIRECT");
+        component.add("matchTypes", matchTypes);
+
+        final JsonArray origins = new JsonArray();
+        for (final String namespace : new String[] { "maven", "github" }) {
+            final JsonObject origin = new JsonObject();
+            origin.addProperty("name", namespace);
+            origin.addProperty("externalNamespace", namespace);
+            origin.addProperty("externalId", "org.example:component-" + index + ":1." + index);
+            origin.addProperty("externalNamespaceDistribution", false);
+            origins.add(origin);
+        }
+        component.add("origins", origins);
+
+        final JsonObject activityData = new JsonObject();
+        activityData.addProperty("commitCount12Month", index % 400);
+        activityData.addProperty("contributorCount12Month", index % 30);
+        activityData.addProperty("lastCommitDate", "2018-08-01T00:00:00.000Z");
+        activityData.addProperty("trending", "STABLE");
+        component.add("activityData", activityData);
+
+        component.add("securityRiskProfile", createRiskProfile(index));
+        component.add("licenseRiskProfile", createRiskProfile(index + 1));
+        component.add("operationalRiskProfile", createRiskProfile(index + 2));
+        component.add("versionRiskProfile", createRiskProfile(index + 3));
+        component.add("activityRiskProfile", createRiskProfile(index + 4));
+        component.add("_meta", createMeta(componentVersionUri, "matched-files", "policy-rules", "policy-status", "vulnerabilities", "origins", "comments"));
+        return component;
+    }
+
+    /**
+     * The recorded notifications predate policyInfos and the per-component policies, so those are filled in here with policyCount policies each.
+     */
+    public static String loadPolicyNotification(final String resourceName, final int policyCount) throws IOException {
+        final JsonObject notification = JSON_PARSER.parse(loadFixture(resourceName)).getAsJsonObject();
+        final JsonObject content = notification.getAsJsonObject("content");
+        final JsonArray policyInfos = new JsonArray();
+        final JsonArray policies = new JsonArray();
+        for (int i = 0; i < policyCount; i++) {
+            final String policyUri = BASE_URL + "/api/policy-rules/" + uuid(i);
+            final JsonObject policyInfo = new JsonObject();
+            policyInfo.addProperty("policyName", "policy-" + i);
+            policyInfo.addProperty("policy", policyUri);
+            policyInfos.add(policyInfo);
+            policies.add(policyUri);
+        }
+        content.add("policyInfos", policyInfos);
+        for (final JsonElement componentVersionStatus : content.getAsJsonArray("componentVersionStatuses")) {
+            final JsonObject status = componentVersionStatus.getAsJsonObject();
+            status.add("policies", policies);
+            status.addProperty("componentIssueLink", status.get("componentVersion").getAsString() + "/issues");
+        }
+        return notification.toString();
+    }
+
+    /**
+     * @return copies of the recorded notification with distinct hrefs
+     */
+    public static JsonObject createNotification(final String recordedNotification, final int index) {
+        final JsonObject notification = JSON_PARSER.parse(recordedNotification).getAsJsonObject();
+        notification.getAsJsonObject("_meta").addProperty("href", BASE_URL + "/api/notifications/" + uuid(index));
+        return notification;
+    }
+
+    public static String createPage(final String kind, final int itemCount) throws IOException {
+        final String recordedNotification = "notifications".equals(kind) ? loadPolicyNotification(RULE_VIOLATION_NOTIFICATION, 3) : null;
+        final JsonArray items = new JsonArray();
+        for (int i = 0; i < itemCount; i++) {
+            final JsonElement item;
+            if ("projects".equals(kind)) {
+                item = createProject(i);
+            } else if ("components".equals(kind)) {
+                item = createBomComponent(i);
+            } else if ("notifications".equals(kind)) {
+                item = createNotification(recordedNotification, i);
+            } else {
+                throw new IllegalArgumentException("Unknown kind of page: " + kind);
+            }
+            items.add(item);
+        }
+        final JsonObject page = new JsonObject();
+        page.addProperty("totalCount", itemCount);
+        page.add("items", items);
+        return page.toString();
+    }
+
+    private static JsonObject createMeta(final String href, final String... rels) {
+        final JsonObject meta = new JsonObject();
+        final JsonArray allow = new JsonArray();
+        allow.add("GET");
+        allow.add("PUT");
+        allow.add("DELETE");
+        meta.add("allow", allow);
+        meta.addProperty("href", href);
+        final JsonArray links = new JsonArray();
+        for (final String rel : rels) {
+            final JsonObject link = new JsonObject();
+            link.addProperty("rel", rel);
+            link.addProperty("href", href + "/" + rel);
+            links.add(link);
+        }
+        meta.add("links", links);
+        return meta;
+    }
+
+    private static JsonObject createRiskProfile(final int seed) {
+        final JsonObject riskProfile = new JsonObject();
+        final JsonArray counts = new JsonArray();
+        final String[] countTypes = { "HIGH", "MEDIUM", "LOW", "OK", "UNKNOWN" };
+        for (int i = 0; i < countTypes.length; i++) {
+            final JsonObject count = new JsonObject();
+            count.addProperty("countType", countTypes[i]);
+            count.addProperty("count", (seed + i) % 3);
+            counts.add(count);
+        }
+        riskProfile.add("counts", counts);
+        return riskProfile;
+    }
+
+    private static String uuid(final int index) {
+        return new UUID(0x5a01d0b3a6c4469aL, index).toString();
+    }
+
+}
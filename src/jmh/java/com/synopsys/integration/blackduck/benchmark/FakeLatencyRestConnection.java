@@ -0,0 +1,76 @@
+package com.synopsys.integration.blackduck.benchmark;
+
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.apache.http.HttpVersion;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.message.BasicHttpResponse;
+
+import com.synopsys.integration.blackduck.rest.BlackduckRestConnection;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.IntBufferedLogger;
+import com.synopsys.integration.rest.proxy.ProxyInfo;
+import com.synopsys.integration.rest.request.Request;
+import com.synopsys.integration.rest.request.Response;
+
+/**
+ * Answers every request after a fixed delay, without any network, so benchmarks measure how the library waits on the Hub rather than the Hub itself.
+ */
+public class FakeLatencyRestConnection extends BlackduckRestConnection {
+    private final long latencyMillis;
+    private final Function<Request, String> responseJson;
+    private final AtomicLong requestCount = new AtomicLong(0);
+
+    public FakeLatencyRestConnection(final long latencyMillis, final Function<Request, String> responseJson) throws Exception {
+        super(new IntBufferedLogger(), new URL("https://www.url.com"), 120, ProxyInfo.NO_PROXY_INFO);
+        this.latencyMillis = latencyMillis;
+        this.responseJson = responseJson;
+    }
+
+    @Override
+    public Response executeRequest(final Request request) throws IntegrationException {
+        requestCount.incrementAndGet();
+        if (latencyMillis > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(latencyMillis);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IntegrationException("Interrupted", e);
+            }
+        }
+        final FakeHttpResponse httpResponse = new FakeHttpResponse();
+        httpResponse.setEntity(new ByteArrayEntity(responseJson.apply(request).getBytes(StandardCharsets.UTF_8), ContentType.APPLICATION_JSON));
+        return new Response(httpResponse);
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    @Override
+    public void authenticateWithBlackduck() {
+    }
+
+    @Override
+    public void populateHttpClientBuilder(final HttpClientBuilder httpClientBuilder, final RequestConfig.Builder defaultRequestConfigBuilder) {
+    }
+
+    private static class FakeHttpResponse extends BasicHttpResponse implements CloseableHttpResponse {
+        public FakeHttpResponse() {
+            super(HttpVersion.HTTP_1_1, 200, "OK");
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+}
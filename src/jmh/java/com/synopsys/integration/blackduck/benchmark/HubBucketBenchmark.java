@@ -0,0 +1,85 @@
+package com.synopsys.integration.blackduck.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.synopsys.integration.blackduck.api.UriSingleResponse;
+import com.synopsys.integration.blackduck.api.core.HubResponse;
+import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionView;
+import com.synopsys.integration.blackduck.service.HubService;
+import com.synopsys.integration.blackduck.service.HubServicesFactory;
+import com.synopsys.integration.blackduck.service.bucket.HubBucket;
+import com.synopsys.integration.blackduck.service.bucket.HubBucketService;
+import com.synopsys.integration.blackduck.service.model.BoundedIoExecutorService;
+import com.synopsys.integration.log.IntBufferedLogger;
+
+/**
+ * Fills a bucket with distinct uris from a Hub that takes latencyMillis to answer each request, comparing the fixed pool a caller would pass today with the bounded (virtual threads where available) executor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class HubBucketBenchmark {
+    @Param({ "fixed", "bounded" })
+    public String executor;
+
+    @Param({ "16", "256" })
+    public int concurrency;
+
+    @Param({ "20" })
+    public long latencyMillis;
+
+    @Param({ "500" })
+    public int uriCount;
+
+    private ExecutorService executorService;
+    private HubBucketService hubBucketService;
+    private List<UriSingleResponse<? extends HubResponse>> uriSingleResponses;
+
+    @Setup
+    public void setup() throws Exception {
+        final FakeLatencyRestConnection restConnection = new FakeLatencyRestConnection(latencyMillis, request -> "{\"versionName\":\"1.0\",\"_meta\":{\"href\":\"" + request.getUri() + "\"}}");
+        final HubService hubService = new HubService(new IntBufferedLogger(), restConnection, HubServicesFactory.createDefaultGson(), HubServicesFactory.createDefaultJsonParser());
+        if ("fixed".equals(executor)) {
+            executorService = Executors.newFixedThreadPool(concurrency);
+        } else {
+            executorService = BoundedIoExecutorService.create(concurrency);
+        }
+        hubBucketService = new HubBucketService(hubService, new IntBufferedLogger(), executorService);
+
+        uriSingleResponses = new ArrayList<>();
+        for (int i = 0; i < uriCount; i++) {
+            uriSingleResponses.add(new UriSingleResponse<>("https://www.url.com/api/projects/1/versions/" + i, ProjectVersionView.class));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Benchmark
+    public HubBucket fillBucket() throws Exception {
+        return hubBucketService.startTheBucket(uriSingleResponses);
+    }
+
+}
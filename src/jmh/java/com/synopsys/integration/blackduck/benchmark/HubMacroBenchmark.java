@@ -0,0 +1,124 @@
+package com.synopsys.integration.blackduck.benchmark;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.synopsys.integration.blackduck.api.generated.discovery.ApiDiscovery;
+import com.synopsys.integration.blackduck.api.generated.view.CodeLocationView;
+import com.synopsys.integration.blackduck.api.generated.view.NotificationView;
+import com.synopsys.integration.blackduck.api.generated.view.ProjectView;
+import com.synopsys.integration.blackduck.report.api.ReportData;
+import com.synopsys.integration.blackduck.service.HubServicesFactory;
+import com.synopsys.integration.blackduck.simulator.HubSimulator;
+import com.synopsys.integration.blackduck.simulator.SyntheticHubData;
+import com.synopsys.integration.log.IntBufferedLogger;
+import com.synopsys.integration.log.IntLogger;
+
+/**
+ * Runs the main services end to end, over http, against a HubSimulator holding projectCount projects that takes latencyMillis to answer each request.
+ * The score is the end-to-end time of one call. The calls and requests counters are the totals of each iteration, so requests / calls is the number of requests one call makes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class HubMacroBenchmark {
+    @Param({ "1000", "100000" })
+    public int projectCount;
+
+    @Param({ "0", "20" })
+    public long latencyMillis;
+
+    private final IntLogger logger = new IntBufferedLogger();
+    private SyntheticHubData data;
+    private HubSimulator hubSimulator;
+    private HubServicesFactory hubServicesFactory;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Requests {
+        public long calls;
+        public long requests;
+
+        public void record(final long requestCount) {
+            calls++;
+            requests += requestCount;
+        }
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        data = new SyntheticHubData();
+        data.setProjectCount(projectCount);
+        data.setCodeLocationCount(projectCount);
+        hubSimulator = new HubSimulator(data).start();
+        hubSimulator.setLatency(latencyMillis, 0);
+        hubServicesFactory = new HubServicesFactory(HubServicesFactory.createDefaultGson(), HubServicesFactory.createDefaultJsonParser(), hubSimulator.createRestConnection(logger), logger);
+    }
+
+    @Setup(Level.Invocation)
+    public void resetRequestCounts() {
+        hubSimulator.resetRequestCounts();
+    }
+
+    @TearDown
+    public void tearDown() {
+        hubSimulator.close();
+    }
+
+    @Benchmark
+    public ProjectView findProjectByName(final Requests requests) throws Exception {
+        final ProjectView projectView = hubServicesFactory.createProjectService().getProjectByName(data.getProjectName(projectCount - 1));
+        requests.record(hubSimulator.getRequestCount());
+        return projectView;
+    }
+
+    @Benchmark
+    public List<ProjectView> getAllProjects(final Requests requests) throws Exception {
+        final List<ProjectView> projectViews = hubServicesFactory.createHubService().getAllResponses(ApiDiscovery.PROJECTS_LINK_RESPONSE);
+        requests.record(hubSimulator.getRequestCount());
+        return projectViews;
+    }
+
+    @Benchmark
+    public ReportData getRiskReportData(final Requests requests) throws Exception {
+        final ReportData reportData = hubServicesFactory.createReportService(TimeUnit.MINUTES.toMillis(5)).getRiskReportData(data.getProjectName(projectCount / 2), data.getVersionName(0));
+        requests.record(hubSimulator.getRequestCount());
+        return reportData;
+    }
+
+    @Benchmark
+    public List<NotificationView> getAllNotifications(final Requests requests) throws Exception {
+        final Date endDate = new Date(SyntheticHubData.NEWEST_NOTIFICATION_TIME);
+        final Date startDate = new Date(data.getNotificationTime(data.getNotificationCount() - 1));
+        final List<NotificationView> notificationViews = hubServicesFactory.createNotificationService().getAllNotifications(startDate, endDate);
+        requests.record(hubSimulator.getRequestCount());
+        return notificationViews;
+    }
+
+    @Benchmark
+    public List<CodeLocationView> getAllCodeLocations(final Requests requests) throws Exception {
+        final List<CodeLocationView> codeLocationViews = hubServicesFactory.createHubService().getAllResponses(ApiDiscovery.CODELOCATIONS_LINK_RESPONSE);
+        requests.record(hubSimulator.getRequestCount());
+        return codeLocationViews;
+    }
+
+}
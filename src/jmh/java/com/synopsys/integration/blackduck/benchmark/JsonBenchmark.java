@@ -0,0 +1,90 @@
+package com.synopsys.integration.blackduck.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.synopsys.integration.blackduck.api.core.HubResponse;
+import com.synopsys.integration.blackduck.api.generated.view.NotificationView;
+import com.synopsys.integration.blackduck.api.generated.view.ProjectView;
+import com.synopsys.integration.blackduck.api.generated.view.VersionBomComponentView;
+import com.synopsys.integration.blackduck.service.HubResponseTransformer;
+import com.synopsys.integration.blackduck.service.HubResponsesTransformer;
+import com.synopsys.integration.blackduck.service.HubServicesFactory;
+import com.synopsys.integration.blackduck.service.model.HubPage;
+import com.synopsys.integration.exception.IntegrationException;
+
+/**
+ * Decodes pages of projects, BOM components and notifications the way the transformers do once the response has arrived. Run with -prof gc for the allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JsonBenchmark {
+    @Param({ "projects", "components", "notifications" })
+    public String kind;
+
+    @Param({ "10", "1000" })
+    public int pageSize;
+
+    private final JsonParser jsonParser = HubServicesFactory.createDefaultJsonParser();
+    private HubResponseTransformer hubResponseTransformer;
+    private HubResponsesTransformer hubResponsesTransformer;
+    private Class<? extends HubResponse> viewClass;
+    private String pageJson;
+    private String itemJson;
+
+    @Setup
+    public void setup() throws IOException {
+        hubResponseTransformer = new HubResponseTransformer(null, HubServicesFactory.createDefaultGson(), jsonParser);
+        hubResponsesTransformer = new HubResponsesTransformer(null, hubResponseTransformer, jsonParser);
+        if ("projects".equals(kind)) {
+            viewClass = ProjectView.class;
+        } else if ("components".equals(kind)) {
+            viewClass = VersionBomComponentView.class;
+        } else {
+            viewClass = NotificationView.class;
+        }
+        pageJson = BenchmarkFixtures.createPage(kind, pageSize);
+        itemJson = jsonParser.parse(pageJson).getAsJsonObject().getAsJsonArray("items").get(0).toString();
+    }
+
+    @Benchmark
+    public HubResponse getResponseAs() {
+        return hubResponseTransformer.getResponseAs(itemJson, viewClass);
+    }
+
+    @Benchmark
+    public List<? extends HubResponse> getResponsesFromJsonObject() throws IntegrationException {
+        final JsonObject page = jsonParser.parse(pageJson).getAsJsonObject();
+        return hubResponsesTransformer.getResponses(page, viewClass);
+    }
+
+    @Benchmark
+    public HubPage<? extends HubResponse> readPage() throws IOException {
+        try (JsonReader jsonReader = new JsonReader(new StringReader(pageJson))) {
+            return hubResponsesTransformer.readPage(jsonReader, viewClass, Collections.emptyMap());
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.synopsys.integration.blackduck.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.synopsys.integration.blackduck.api.generated.view.VersionBomComponentView;
+import com.synopsys.integration.blackduck.exception.HubIntegrationException;
+import com.synopsys.integration.blackduck.service.HubRequestExecutor;
+import com.synopsys.integration.blackduck.service.HubResponseTransformer;
+import com.synopsys.integration.blackduck.service.HubResponsesTransformer;
+import com.synopsys.integration.blackduck.service.HubServicesFactory;
+import com.synopsys.integration.blackduck.service.model.HubPage;
+import com.synopsys.integration.blackduck.service.model.JsonRetainer;
+import com.synopsys.integration.blackduck.service.model.JsonRetention;
+import com.synopsys.integration.blackduck.service.model.LazyDecoder;
+
+/**
+ * Decodes a page of BOM components and reads what most callers read - the name, version, approval status and license display - with the components decoded eagerly or lazily. Without json retention the eager
+ * components are decoded straight from the stream, with EAGER retention they are decoded from a tree. Run with -prof gc for the allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LazyDecodingBenchmark {
+    @Param({ "100", "1000" })
+    public int pageSize;
+
+    @Param({ "false", "true" })
+    public boolean lazy;
+
+    @Param({ "NONE", "EAGER" })
+    public JsonRetention jsonRetention;
+
+    private LazyDecoder lazyDecoder;
+    private HubResponsesTransformer hubResponsesTransformer;
+    private String pageJson;
+
+    @Setup
+    public void setup() throws IOException {
+        final Gson gson = HubServicesFactory.createDefaultGson();
+        final JsonParser jsonParser = HubServicesFactory.createDefaultJsonParser();
+        lazyDecoder = new LazyDecoder(gson);
+        lazyDecoder.setLazy(VersionBomComponentView.class, lazy);
+        final HubResponseTransformer hubResponseTransformer = new HubResponseTransformer((HubRequestExecutor) null, gson, jsonParser, new JsonRetainer(gson, jsonRetention), lazyDecoder, Optional.empty());
+        hubResponsesTransformer = new HubResponsesTransformer((HubRequestExecutor) null, hubResponseTransformer, jsonParser, Optional.empty());
+        pageJson = BenchmarkFixtures.createPage("components", pageSize);
+    }
+
+    @Benchmark
+    public void readSummaries(final Blackhole blackhole) throws IOException, HubIntegrationException {
+        final HubPage<VersionBomComponentView> page;
+        try (JsonReader jsonReader = new JsonReader(new StringReader(pageJson))) {
+            page = hubResponsesTransformer.readPage(jsonReader, VersionBomComponentView.class, Collections.emptyMap());
+        }
+        for (final VersionBomComponentView component : page.getItems()) {
+            lazyDecoder.load(component, "licenses");
+            blackhole.consume(component.componentName);
+            blackhole.consume(component.componentVersionName);
+            blackhole.consume(component.approvalStatus);
+            blackhole.consume(component.licenses.get(0).licenseDisplay);
+        }
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.synopsys.integration.blackduck.benchmark;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.synopsys.integration.blackduck.api.generated.view.ProjectView;
+import com.synopsys.integration.blackduck.api.view.MetaHandler;
+import com.synopsys.integration.blackduck.exception.HubIntegrationException;
+import com.synopsys.integration.blackduck.service.HubResponseTransformer;
+import com.synopsys.integration.blackduck.service.HubServicesFactory;
+import com.synopsys.integration.log.IntBufferedLogger;
+
+/**
+ * Looks up links on a decoded project, both for a rel the project has and for one it doesn't - a miss costs an exception from getFirstLink, but nothing from findFirstLink.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MetaHandlerBenchmark {
+    private static final String MISSING_LINK = "no-such-link";
+
+    private MetaHandler metaHandler;
+    private ProjectView projectView;
+
+    @Setup
+    public void setup() {
+        final HubResponseTransformer hubResponseTransformer = new HubResponseTransformer(null, HubServicesFactory.createDefaultGson(), HubServicesFactory.createDefaultJsonParser());
+        projectView = hubResponseTransformer.getResponseAs(BenchmarkFixtures.createProject(0), ProjectView.class);
+        metaHandler = new MetaHandler(new IntBufferedLogger());
+    }
+
+    @Benchmark
+    public String getFirstLinkHit() throws HubIntegrationException {
+        return metaHandler.getFirstLink(projectView, ProjectView.USERGROUPS_LINK);
+    }
+
+    @Benchmark
+    public Object getFirstLinkMiss() {
+        try {
+            return metaHandler.getFirstLink(projectView, MISSING_LINK);
+        } catch (final HubIntegrationException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public String getFirstLinkSafelyHit() {
+        return metaHandler.getFirstLinkSafely(projectView, ProjectView.USERGROUPS_LINK);
+    }
+
+    @Benchmark
+    public String getFirstLinkSafelyMiss() {
+        return metaHandler.getFirstLinkSafely(projectView, MISSING_LINK);
+    }
+
+    @Benchmark
+    public Optional<String> findFirstLinkHit() {
+        return metaHandler.findFirstLink(projectView, ProjectView.USERGROUPS_LINK);
+    }
+
+    @Benchmark
+    public Optional<String> findFirstLinkMiss() {
+        return metaHandler.findFirstLink(projectView, MISSING_LINK);
+    }
+
+}
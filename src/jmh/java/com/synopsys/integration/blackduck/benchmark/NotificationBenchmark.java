@@ -0,0 +1,92 @@
+package com.synopsys.integration.blackduck.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import com.synopsys.integration.blackduck.api.generated.view.NotificationView;
+import com.synopsys.integration.blackduck.notification.CommonNotificationView;
+import com.synopsys.integration.blackduck.notification.NotificationDetailResult;
+import com.synopsys.integration.blackduck.notification.content.detail.NotificationContentDetail;
+import com.synopsys.integration.blackduck.notification.content.detail.NotificationContentDetailFactory;
+import com.synopsys.integration.blackduck.service.HubResponseTransformer;
+import com.synopsys.integration.blackduck.service.HubServicesFactory;
+
+/**
+ * Turns the recorded rule violation notifications, with policyCount policies each, into content details, and builds the details (and so their keys) directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class NotificationBenchmark {
+    @Param({ "/json/RuleViolationNotification_valid03.txt", "/json/RuleViolationClearedNotification_valid04.txt" })
+    public String fixture;
+
+    @Param({ "1", "10" })
+    public int policyCount;
+
+    private NotificationContentDetailFactory notificationContentDetailFactory;
+    private CommonNotificationView commonNotificationView;
+
+    @Setup
+    public void setup() throws IOException {
+        final Gson gson = HubServicesFactory.createDefaultGson();
+        final JsonParser jsonParser = HubServicesFactory.createDefaultJsonParser();
+        final HubResponseTransformer hubResponseTransformer = new HubResponseTransformer(null, gson, jsonParser);
+        final NotificationView notificationView = hubResponseTransformer.getResponseAs(BenchmarkFixtures.loadPolicyNotification(fixture, policyCount), NotificationView.class);
+        commonNotificationView = new CommonNotificationView(notificationView);
+        notificationContentDetailFactory = new NotificationContentDetailFactory(gson, jsonParser);
+    }
+
+    @Benchmark
+    public NotificationDetailResult generateContentDetails() {
+        return notificationContentDetailFactory.generateContentDetails(commonNotificationView);
+    }
+
+    @Benchmark
+    public List<String> createDetailKeys() {
+        final List<String> keys = new ArrayList<>(4);
+        for (int i = 0; i < 4; i++) {
+            // @formatter:off
+            final NotificationContentDetail detail = NotificationContentDetail.createDetail(
+                    NotificationContentDetail.CONTENT_KEY_GROUP_POLICY
+                    ,Optional.of("SB001")
+                    ,Optional.of("1")
+                    ,Optional.of("http://hub-server.com/api/projects/a3b48f57-9c00-453f-8672-804e08c317f2/versions/7d4fdbed-936b-468f-af7f-826dfc072c5b")
+                    ,Optional.of("SeaMonkey")
+                    ,Optional.empty()
+                    ,Optional.of("2.0." + i)
+                    ,Optional.of("http://hub-server.com/api/components/7792be90-bfd2-42d7-ae19-66e051978675/versions/5a01d0b3-a6c4-469a-b9c8-c5769cffae78")
+                    ,Optional.of("Rule " + i)
+                    ,Optional.of("http://hub-server.com/api/policy-rules/138d0d0f-45b5-4b4c-9c8d-3f8f7e47f9a2")
+                    ,Optional.empty()
+                    ,Optional.empty()
+                    ,Optional.empty()
+                    ,Optional.empty()
+                    );
+            // @formatter:on
+            keys.add(detail.getContentDetailKey());
+        }
+        return keys;
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.synopsys.integration.blackduck.benchmark;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.synopsys.integration.blackduck.service.model.ScannerSplitStream;
+import com.synopsys.integration.blackduck.service.model.StreamRedirectThread;
+import com.synopsys.integration.log.IntBufferedLogger;
+
+/**
+ * Pushes a generated scanner log of logMegabytes through the same pipeline ScanCommandCallable builds: the process' stderr, buffered like the one from a Process, is copied by a StreamRedirectThread into a ScannerSplitStream that writes to the standard out file.
+ * The redirect thread's run() is called on the benchmark thread rather than started, since the gc profiler only counts the allocations of the benchmark threads. Each operation is one whole log. The bytes counter is reported per second, so it reads as the pipeline's throughput - run with -prof gc for the allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class ScannerOutputBenchmark {
+    @Param({ "1", "4" })
+    public int logMegabytes;
+
+    @Param({ "file", "discard" })
+    public String sink;
+
+    private byte[] scannerLog;
+    private File standardOutFile;
+    private OutputStream outputFileStream;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Throughput {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        scannerLog = createScannerLog(logMegabytes * 1024 * 1024);
+        if ("file".equals(sink)) {
+            standardOutFile = File.createTempFile("CLI_Output", ".txt");
+            standardOutFile.deleteOnExit();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void openOutputFileStream() throws IOException {
+        if (standardOutFile != null) {
+            outputFileStream = new FileOutputStream(standardOutFile);
+        } else {
+            outputFileStream = new NullOutputStream();
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeOutputFileStream() throws IOException {
+        outputFileStream.close();
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (standardOutFile != null) {
+            standardOutFile.delete();
+        }
+    }
+
+    @Benchmark
+    public String redirectThroughSplitStream(final Throughput throughput) throws IOException {
+        final ScannerSplitStream splitOutputStream = new ScannerSplitStream(new IntBufferedLogger(), outputFileStream);
+        final StreamRedirectThread redirectThread = new StreamRedirectThread(createProcessStream(), splitOutputStream);
+        redirectThread.run();
+        splitOutputStream.flush();
+        throughput.bytes += scannerLog.length;
+        return splitOutputStream.getOutput();
+    }
+
+    @Benchmark
+    public void redirectOnly(final Throughput throughput) {
+        final StreamRedirectThread redirectThread = new StreamRedirectThread(createProcessStream(), outputFileStream);
+        redirectThread.run();
+        throughput.bytes += scannerLog.length;
+    }
+
+    @Benchmark
+    public String splitStreamOnly(final Throughput throughput) throws IOException {
+        final ScannerSplitStream splitOutputStream = new ScannerSplitStream(new IntBufferedLogger(), outputFileStream);
+        for (final byte b : scannerLog) {
+            splitOutputStream.write(b & 0xff);
+        }
+        splitOutputStream.flush();
+        throughput.bytes += scannerLog.length;
+        return splitOutputStream.getOutput();
+    }
+
+    private BufferedInputStream createProcessStream() {
+        return new BufferedInputStream(new ByteArrayInputStream(scannerLog));
+    }
+
+    /**
+     * Roughly what a verbose signature scan writes to stderr: mostly DEBUG, some INFO and WARN, and the occasional exception with its stack trace.
+     */
+    private static byte[] createScannerLog(final int size) {
+        final StringBuilder log = new StringBuilder(size + 1024);
+        int lineNumber = 0;
+        while (log.length() < size) {
+            final int kind = lineNumber % 50;
+            if (kind == 0) {
+                log.append("INFO: Scanning 1 directory of 312 files under /opt/build/workspace/project-").append(lineNumber).append("/target\n");
+            } else if (kind == 1) {
+                log.append("WARN: Unable to read the symbolic link /opt/build/workspace/project/node_modules/.bin/link-").append(lineNumber).append("\n");
+            } else if (kind == 2) {
+                log.append("ERROR: java.io.IOException: Exception: Permission denied for /opt/build/workspace/project/locked-").append(lineNumber).append("\n");
+                log.append("\tat com.blackducksoftware.scan.siggen.impl.FileSystemScanner.scan(FileSystemScanner.java:214)\n");
+                log.append("\tat com.blackducksoftware.scan.siggen.impl.FileSystemScanner.scanDirectory(FileSystemScanner.java:187)\n");
+                log.append("\tat com.blackducksoftware.scan.cli.ScanClient.run(ScanClient.java:96)\n");
+            } else if (kind == 3) {
+                log.append("INFO: Finished in ").append(lineNumber).append(" ms\r\n");
+            } else {
+                log.append("DEBUG: Computed the signature 0x").append(Integer.toHexString(lineNumber * 31)).append(" of /opt/build/workspace/project/src/main/java/com/example/Generated").append(lineNumber).append(".java\n");
+            }
+            lineNumber++;
+        }
+        return log.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+}
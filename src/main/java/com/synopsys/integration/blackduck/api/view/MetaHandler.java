@@ -23,95 +23,129 @@
  */
 package com.synopsys.integration.blackduck.api.view;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import com.synopsys.integration.blackduck.api.core.HubView;
 import com.synopsys.integration.blackduck.api.core.ResourceLink;
 import com.synopsys.integration.blackduck.api.core.ResourceMetadata;
 import com.synopsys.integration.blackduck.exception.HubIntegrationException;
+import com.synopsys.integration.blackduck.service.model.JsonRetainer;
 import com.synopsys.integration.log.IntLogger;
+import com.synopsys.integration.log.LogLevel;
 
+/**
+ * Looks up the links of a view. A short list of links is searched directly; a longer one through an index from rel to href, which is kept for the last view asked about, since a view is usually asked about several
+ * links in a row. Nothing is shared between MetaHandlers and no lock is taken. A missing link only costs an exception (and the list of the links that are there) when it is asked for with getFirstLink or getLinks.
+ * <p>
+ * The index notices when a view's list of links has been replaced or has grown or shrunk, but not when a link in it has been replaced or edited in place - set a new list on the view's _meta after changing links.
+ */
 public class MetaHandler {
+    // below this many links, searching the list is cheaper than building an index
+    private static final int INDEXED_LINK_COUNT = 16;
+
     private final IntLogger logger;
+    private final JsonRetainer jsonRetainer;
+    private volatile LinkIndex lastLinkIndex;
 
     public MetaHandler(final IntLogger logger) {
+        this(logger, null);
+    }
+
+    public MetaHandler(final IntLogger logger, final JsonRetainer jsonRetainer) {
         this.logger = logger;
+        this.jsonRetainer = jsonRetainer;
     }
 
     public boolean hasLink(final HubView view, final String linkKey) throws HubIntegrationException {
-        final ResourceMetadata meta = view._meta;
-        if (meta == null) {
-            return false;
-        }
-        final List<ResourceLink> links = meta.links;
+        final List<ResourceLink> links = getLinkList(view);
         if (links == null) {
             return false;
         }
-        for (final ResourceLink link : links) {
-            if (link.rel.equals(linkKey)) {
-                return true;
+        if (links.size() < INDEXED_LINK_COUNT) {
+            for (final ResourceLink link : links) {
+                if (linkKey.equals(link.rel)) {
+                    return true;
+                }
             }
+            return false;
         }
-        return false;
+        return getLinkIndex(view, links).hrefs.containsKey(linkKey);
     }
 
-    public String getFirstLink(final HubView view, final String linkKey) throws HubIntegrationException {
-        final List<ResourceLink> links = getLinkViews(view);
-        final StringBuilder linksAvailable = new StringBuilder();
-        linksAvailable.append("Could not find the link '" + linkKey + "', these are the available links : ");
-        int i = 0;
-        for (final ResourceLink link : links) {
-            if (link.rel.equals(linkKey)) {
-                return link.href;
+    /**
+     * @return the href of the first link with the rel, or empty if the view has no such link (or no links at all)
+     */
+    public Optional<String> findFirstLink(final HubView view, final String linkKey) {
+        final List<ResourceLink> links = getLinkList(view);
+        if (links == null) {
+            return Optional.empty();
+        }
+        if (links.size() < INDEXED_LINK_COUNT) {
+            for (final ResourceLink link : links) {
+                if (linkKey.equals(link.rel)) {
+                    return Optional.ofNullable(link.href);
+                }
             }
-            if (i > 0) {
-                linksAvailable.append(", ");
+            return Optional.empty();
+        }
+        final List<String> hrefs = getLinkIndex(view, links).hrefs.get(linkKey);
+        return hrefs == null ? Optional.empty() : Optional.ofNullable(hrefs.get(0));
+    }
+
+    /**
+     * @return the hrefs of every link with the rel, or an empty list if the view has no such link (or no links at all)
+     */
+    public List<String> findLinks(final HubView view, final String linkKey) {
+        final List<ResourceLink> links = getLinkList(view);
+        if (links == null) {
+            return Collections.emptyList();
+        }
+        if (links.size() < INDEXED_LINK_COUNT) {
+            final List<String> hrefs = new ArrayList<>();
+            for (final ResourceLink link : links) {
+                if (linkKey.equals(link.rel)) {
+                    hrefs.add(link.href);
+                }
             }
-            linksAvailable.append("'" + link.rel + "'");
-            i++;
+            return hrefs.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(hrefs);
         }
-        linksAvailable.append(". For View : " + view._meta.href);
-        throw new HubIntegrationException(linksAvailable.toString());
+        return getLinkIndex(view, links).hrefs.getOrDefault(linkKey, Collections.emptyList());
+    }
+
+    public String getFirstLink(final HubView view, final String linkKey) throws HubIntegrationException {
+        final Optional<String> link = findFirstLink(view, linkKey);
+        if (link.isPresent()) {
+            return link.get();
+        }
+        throw new HubIntegrationException(createMissingLinkMessage(view, linkKey));
     }
 
     public String getFirstLinkSafely(final HubView view, final String linkKey) {
-        try {
-            final String link = getFirstLink(view, linkKey);
-            return link;
-        } catch (final HubIntegrationException e) {
-            logger.debug("Link '" + linkKey + "' not found on view : " + view.json, e);
-            return null;
+        final Optional<String> link = findFirstLink(view, linkKey);
+        if (!link.isPresent() && isDebugEnabled()) {
+            logger.debug("Link '" + linkKey + "' not found on view : " + getJson(view));
         }
+        return link.orElse(null);
     }
 
     public List<String> getLinks(final HubView view, final String linkKey) throws HubIntegrationException {
-        final List<ResourceLink> links = getLinkViews(view);
-        final List<String> linkHrefs = new ArrayList<>();
-        final StringBuilder linksAvailable = new StringBuilder();
-        linksAvailable.append("Could not find the link '" + linkKey + "', these are the available links : ");
-        int i = 0;
-        for (final ResourceLink link : links) {
-            if (link.rel.equals(linkKey)) {
-                linkHrefs.add(link.href);
-            }
-            if (i > 0) {
-                linksAvailable.append(", ");
-            }
-            linksAvailable.append("'" + link.rel + "'");
-            i++;
-        }
-        if (!linkHrefs.isEmpty()) {
-            return linkHrefs;
+        final List<String> links = findLinks(view, linkKey);
+        if (links.isEmpty()) {
+            throw new HubIntegrationException(createMissingLinkMessage(view, linkKey));
         }
-        linksAvailable.append(". For View : " + view._meta.href);
-        throw new HubIntegrationException(linksAvailable.toString());
+        return new ArrayList<>(links);
     }
 
     public ResourceMetadata getMetaView(final HubView view) throws HubIntegrationException {
         final ResourceMetadata meta = view._meta;
         if (meta == null) {
-            throw new HubIntegrationException("Could not find meta information for this view : " + view.json);
+            throw new HubIntegrationException("Could not find meta information for this view : " + getJson(view));
         }
         return meta;
     }
@@ -120,7 +154,7 @@ public class MetaHandler {
         final ResourceMetadata meta = getMetaView(view);
         final List<ResourceLink> links = meta.links;
         if (links == null) {
-            throw new HubIntegrationException("Could not find any links for this view : " + view.json);
+            throw new HubIntegrationException("Could not find any links for this view : " + getJson(view));
         }
         return links;
     }
@@ -135,11 +169,82 @@ public class MetaHandler {
         final String href = meta.href;
         if (href == null) {
             if (logger != null) {
-                logger.error("Hub View has no href : " + view.json);
+                logger.error("Hub View has no href : " + getJson(view));
             }
             throw new HubIntegrationException("This Hub view does not have any href information.");
         }
         return href;
     }
 
+    private List<ResourceLink> getLinkList(final HubView view) {
+        final ResourceMetadata meta = view._meta;
+        return meta == null ? null : meta.links;
+    }
+
+    private LinkIndex getLinkIndex(final HubView view, final List<ResourceLink> links) {
+        LinkIndex linkIndex = lastLinkIndex;
+        if (linkIndex == null || !linkIndex.isIndexOf(view, links)) {
+            linkIndex = new LinkIndex(view, links);
+            lastLinkIndex = linkIndex;
+        }
+        return linkIndex;
+    }
+
+    private String createMissingLinkMessage(final HubView view, final String linkKey) throws HubIntegrationException {
+        final List<ResourceLink> links = getLinkViews(view);
+        final StringBuilder linksAvailable = new StringBuilder();
+        linksAvailable.append("Could not find the link '" + linkKey + "', these are the available links : ");
+        int i = 0;
+        for (final ResourceLink link : links) {
+            if (i > 0) {
+                linksAvailable.append(", ");
+            }
+            linksAvailable.append("'" + link.rel + "'");
+            i++;
+        }
+        linksAvailable.append(". For View : " + view._meta.href);
+        return linksAvailable.toString();
+    }
+
+    private String getJson(final HubView view) {
+        if (jsonRetainer != null) {
+            return jsonRetainer.getJson(view);
+        }
+        return view.json;
+    }
+
+    private boolean isDebugEnabled() {
+        if (logger == null) {
+            return false;
+        }
+        final LogLevel logLevel = logger.getLogLevel();
+        return logLevel == null || logLevel.isLoggable(LogLevel.DEBUG);
+    }
+
+    /**
+     * The hrefs of a view's links by rel. It only holds on to the view weakly, so the last index doesn't keep its view from being collected, and it no longer applies once the view's list of links has been replaced
+     * or resized.
+     */
+    private static class LinkIndex {
+        private final WeakReference<HubView> viewReference;
+        private final List<ResourceLink> links;
+        private final int linkCount;
+        private final Map<String, List<String>> hrefs = new HashMap<>();
+
+        public LinkIndex(final HubView view, final List<ResourceLink> links) {
+            viewReference = new WeakReference<>(view);
+            this.links = links;
+            linkCount = links.size();
+            final Map<String, List<String>> hrefLists = new HashMap<>();
+            for (final ResourceLink link : links) {
+                hrefLists.computeIfAbsent(link.rel, rel -> new ArrayList<>()).add(link.href);
+            }
+            hrefLists.forEach((rel, relHrefs) -> hrefs.put(rel, Collections.unmodifiableList(relHrefs)));
+        }
+
+        public boolean isIndexOf(final HubView view, final List<ResourceLink> viewLinks) {
+            return viewReference.get() == view && viewLinks == links && viewLinks.size() == linkCount;
+        }
+    }
+
 }
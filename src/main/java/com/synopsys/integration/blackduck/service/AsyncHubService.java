@@ -0,0 +1,206 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.synopsys.integration.blackduck.api.UriSingleResponse;
+import com.synopsys.integration.blackduck.api.core.HubPathMultipleResponses;
+import com.synopsys.integration.blackduck.api.core.HubPathSingleResponse;
+import com.synopsys.integration.blackduck.api.core.HubResponse;
+import com.synopsys.integration.blackduck.api.core.HubView;
+import com.synopsys.integration.blackduck.api.core.LinkMultipleResponses;
+import com.synopsys.integration.blackduck.api.core.LinkSingleResponse;
+import com.synopsys.integration.blackduck.exception.HubIntegrationException;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.request.Request;
+import com.synopsys.integration.rest.request.Response;
+
+/**
+ * Runs HubService calls on an executor and returns CompletableFutures, so many lookups can be started at once and composed. A failed future is completed with the same IntegrationException the HubService call threw (CompletableFuture
+ * wraps it in a CompletionException or ExecutionException - getResult unwraps it again). Cancelling a future that hasn't started yet keeps it from ever running, and cancelling one that is running interrupts its thread.
+ */
+public class AsyncHubService implements Closeable {
+    public static final int DEFAULT_THREAD_COUNT = 8;
+
+    private final HubService hubService;
+    private final ExecutorService executorService;
+    private final boolean shutdownExecutorWhenClosed;
+
+    public AsyncHubService(final HubService hubService) {
+        this(hubService, createExecutor(DEFAULT_THREAD_COUNT), true);
+    }
+
+    /**
+     * NOTE: it is up to the caller to shutdown the executorService.
+     */
+    public AsyncHubService(final HubService hubService, final ExecutorService executorService) {
+        this(hubService, executorService, false);
+    }
+
+    private AsyncHubService(final HubService hubService, final ExecutorService executorService, final boolean shutdownExecutorWhenClosed) {
+        this.hubService = hubService;
+        this.executorService = executorService;
+        this.shutdownExecutorWhenClosed = shutdownExecutorWhenClosed;
+    }
+
+    /**
+     * Waits for the future and reports a failure as the exception the HubService call threw.
+     */
+    public static <T> T getResult(final CompletableFuture<T> future) throws IntegrationException {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HubIntegrationException("Interrupted while waiting for an asynchronous Hub call.", e);
+        } catch (final CancellationException e) {
+            throw new HubIntegrationException("The asynchronous Hub call was cancelled.", e);
+        } catch (final ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    /**
+     * @return the IntegrationException behind a failure reported by a CompletableFuture (for example, in exceptionally or handle)
+     */
+    public static IntegrationException unwrap(final Throwable throwable) {
+        Throwable cause = throwable;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof IntegrationException) {
+            return (IntegrationException) cause;
+        }
+        return new HubIntegrationException(cause.getMessage(), cause);
+    }
+
+    public <T extends HubResponse> CompletableFuture<T> getResponse(final String uri, final Class<T> responseClass) {
+        return supplyAsync(() -> hubService.getResponse(uri, responseClass));
+    }
+
+    public <T extends HubResponse> CompletableFuture<T> getResponse(final UriSingleResponse<T> uriSingleResponse) {
+        return supplyAsync(() -> hubService.getResponse(uriSingleResponse));
+    }
+
+    public <T extends HubResponse> CompletableFuture<T> getResponse(final HubPathSingleResponse<T> hubPathSingleResponse) {
+        return supplyAsync(() -> hubService.getResponse(hubPathSingleResponse));
+    }
+
+    public <T extends HubResponse> CompletableFuture<T> getResponse(final HubView hubView, final LinkSingleResponse<T> linkSingleResponse) {
+        return supplyAsync(() -> hubService.getResponse(hubView, linkSingleResponse));
+    }
+
+    public <T extends HubResponse> CompletableFuture<List<T>> getAllResponses(final String uri, final Class<T> responseClass) {
+        return supplyAsync(() -> hubService.getAllResponses(uri, responseClass));
+    }
+
+    public <T extends HubResponse> CompletableFuture<List<T>> getAllResponses(final Request.Builder requestBuilder, final Class<T> responseClass) {
+        return supplyAsync(() -> hubService.getResponses(requestBuilder, responseClass, true));
+    }
+
+    public <T extends HubResponse> CompletableFuture<List<T>> getAllResponses(final HubPathMultipleResponses<T> hubPathMultipleResponses) {
+        return supplyAsync(() -> hubService.getAllResponses(hubPathMultipleResponses));
+    }
+
+    public <T extends HubResponse> CompletableFuture<List<T>> getAllResponses(final HubView hubView, final LinkMultipleResponses<T> linkMultipleResponses) {
+        return supplyAsync(() -> hubService.getAllResponses(hubView, linkMultipleResponses));
+    }
+
+    /**
+     * NOTE: it is up to the caller to close the Response.
+     */
+    public CompletableFuture<Response> executeRequest(final Request request) {
+        return supplyAsync(() -> hubService.executeRequest(request));
+    }
+
+    public HubService getHubService() {
+        return hubService;
+    }
+
+    @Override
+    public void close() {
+        if (shutdownExecutorWhenClosed) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private <T> CompletableFuture<T> supplyAsync(final HubCall<T> hubCall) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final Future<?> task = executorService.submit(hubService.getTracer().wrap(() -> {
+            try {
+                final T result = hubCall.call();
+                if (!future.complete(result)) {
+                    // nobody will ever see the result of a cancelled future, so nobody else will close it either
+                    closeQuietly(result);
+                }
+            } catch (final Exception | Error e) {
+                future.completeExceptionally(e);
+            }
+        }));
+        // CompletableFuture.cancel only completes the future, so the task behind it has to be cancelled as well
+        future.whenComplete((result, throwable) -> {
+            if (future.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return future;
+    }
+
+    private static void closeQuietly(final Object result) {
+        if (result instanceof Closeable) {
+            try {
+                ((Closeable) result).close();
+            } catch (final IOException e) {
+                // the result was never going to be used
+            }
+        }
+    }
+
+    private static ExecutorService createExecutor(final int threadCount) {
+        final AtomicInteger threadNumber = new AtomicInteger(0);
+        final ThreadFactory threadFactory = runnable -> {
+            final Thread thread = new Thread(runnable, "Hub Async Thread " + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(threadCount, threadFactory);
+    }
+
+    @FunctionalInterface
+    private interface HubCall<T> {
+        T call() throws IntegrationException;
+    }
+
+}
@@ -23,19 +23,21 @@
  */
 package com.synopsys.integration.blackduck.service;
 
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
-import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 import com.synopsys.integration.blackduck.api.UriSingleResponse;
 import com.synopsys.integration.blackduck.api.core.HubResponse;
 import com.synopsys.integration.blackduck.api.generated.view.NotificationUserView;
 import com.synopsys.integration.blackduck.api.generated.view.NotificationView;
+import com.synopsys.integration.blackduck.exception.HubIntegrationException;
 import com.synopsys.integration.blackduck.notification.CommonNotificationView;
 import com.synopsys.integration.blackduck.notification.CommonNotificationViewResults;
 import com.synopsys.integration.blackduck.notification.NotificationDetailResult;
@@ -43,16 +45,31 @@ import com.synopsys.integration.blackduck.notification.NotificationDetailResults
 import com.synopsys.integration.blackduck.notification.content.detail.NotificationContentDetailFactory;
 import com.synopsys.integration.blackduck.service.bucket.HubBucket;
 import com.synopsys.integration.blackduck.service.bucket.HubBucketService;
+import com.synopsys.integration.blackduck.service.json.HubDateTypeAdapter;
+import com.synopsys.integration.blackduck.service.model.HubExecutionContext;
 import com.synopsys.integration.exception.IntegrationException;
-import com.synopsys.integration.rest.RestConstants;
 
 public class CommonNotificationService {
+    public static final int DETAIL_BATCH_SIZE = 100;
+
     private final NotificationContentDetailFactory notificationContentDetailFactory;
     private final boolean oldestFirst;
+    private final Optional<ExecutorService> executorService;
 
     public CommonNotificationService(final NotificationContentDetailFactory notificationContentDetailFactory, final boolean oldestFirst) {
         this.notificationContentDetailFactory = notificationContentDetailFactory;
         this.oldestFirst = oldestFirst;
+        executorService = Optional.empty();
+    }
+
+    /**
+     * The content details of the notifications are generated on the executor, DETAIL_BATCH_SIZE notifications at a time - it should be a pool for cpu-bound work, like the cpu pool of a HubExecutionContext.
+     * NOTE: it is up to the caller to shutdown the executorService.
+     */
+    public CommonNotificationService(final NotificationContentDetailFactory notificationContentDetailFactory, final boolean oldestFirst, final ExecutorService executorService) {
+        this.notificationContentDetailFactory = notificationContentDetailFactory;
+        this.oldestFirst = oldestFirst;
+        this.executorService = Optional.of(executorService);
     }
 
     public List<CommonNotificationView> getCommonNotifications(final List<NotificationView> notificationViews) {
@@ -85,9 +102,7 @@ public class CommonNotificationService {
             return new NotificationDetailResults(Collections.emptyList(), Optional.empty(), Optional.empty());
         }
 
-        List<NotificationDetailResult> sortedDetails = commonNotifications.stream().map(view -> {
-            return notificationContentDetailFactory.generateContentDetails(view);
-        }).collect(Collectors.toList());
+        List<NotificationDetailResult> sortedDetails = generateContentDetails(commonNotifications);
 
         if (oldestFirst) {
             // we don't want to use the default sorting from the hub
@@ -106,18 +121,37 @@ public class CommonNotificationService {
         hubBucketService.addToTheBucket(hubBucket, uriResponseList);
     }
 
+    private List<NotificationDetailResult> generateContentDetails(final List<CommonNotificationView> commonNotifications) throws IntegrationException {
+        if (!executorService.isPresent() || commonNotifications.size() <= DETAIL_BATCH_SIZE) {
+            return commonNotifications.stream().map(notificationContentDetailFactory::generateContentDetails).collect(Collectors.toList());
+        }
+
+        final List<Callable<List<NotificationDetailResult>>> batches = new ArrayList<>();
+        for (int start = 0; start < commonNotifications.size(); start += DETAIL_BATCH_SIZE) {
+            final List<CommonNotificationView> batch = commonNotifications.subList(start, Math.min(start + DETAIL_BATCH_SIZE, commonNotifications.size()));
+            batches.add(() -> batch.stream().map(notificationContentDetailFactory::generateContentDetails).collect(Collectors.toList()));
+        }
+        try {
+            final List<NotificationDetailResult> details = new ArrayList<>(commonNotifications.size());
+            HubExecutionContext.invokeAll(executorService.get(), batches).forEach(details::addAll);
+            return details;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HubIntegrationException("Interrupted while generating the notification content details.", e);
+        } catch (final ExecutionException e) {
+            throw new HubIntegrationException(String.format("Could not generate the notification content details: %s", e.getCause().getMessage()), e.getCause());
+        }
+    }
+
     private DatePair getLatestCreatedAtString(final List<CommonNotificationView> views) {
         // sortedViews will be sorted most recent to oldest
         final List<CommonNotificationView> sortedViews = views.stream().sorted((left, right) -> {
             return right.getCreatedAt().compareTo(left.getCreatedAt());
         }).collect(Collectors.toList());
 
-        final SimpleDateFormat sdf = new SimpleDateFormat(RestConstants.JSON_DATE_FORMAT);
-        sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
-
         // we know that the first in the list is the most current
         final Date latestCreatedAtDate = sortedViews.get(0).getCreatedAt();
-        final String latestCreatedAtString = sdf.format(latestCreatedAtDate);
+        final String latestCreatedAtString = HubDateTypeAdapter.format(latestCreatedAtDate);
         return new DatePair(latestCreatedAtDate, latestCreatedAtString);
     }
 
@@ -0,0 +1,350 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.http.HttpStatus;
+
+import com.synopsys.integration.blackduck.exception.HubIntegrationException;
+import com.synopsys.integration.blackduck.rest.BlackduckRestConnection;
+import com.synopsys.integration.blackduck.service.jfr.HubFlightRecorder;
+import com.synopsys.integration.blackduck.service.metrics.HubRequestListener;
+import com.synopsys.integration.blackduck.service.metrics.MeteredResponse;
+import com.synopsys.integration.blackduck.service.model.AdaptiveConcurrencyLimiter;
+import com.synopsys.integration.blackduck.service.model.HedgingPolicy;
+import com.synopsys.integration.blackduck.service.model.HubEndpoints;
+import com.synopsys.integration.blackduck.service.model.RetryBudget;
+import com.synopsys.integration.blackduck.service.model.RetryPolicy;
+import com.synopsys.integration.blackduck.service.record.HubTrafficRecorder;
+import com.synopsys.integration.blackduck.service.trace.HubTracer;
+import com.synopsys.integration.blackduck.service.trace.SpanScope;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.HttpMethod;
+import com.synopsys.integration.rest.exception.IntegrationRestException;
+import com.synopsys.integration.rest.request.Request;
+import com.synopsys.integration.rest.request.Response;
+
+/**
+ * Every request HubService and its transformers send to the Hub goes through here, so anything that applies to all requests (like limiting how many are in flight) only has to be done once. GET requests can also be
+ * retried and hedged, since sending them twice is harmless.
+ */
+public class HubRequestExecutor {
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final BlackduckRestConnection restConnection;
+    private final Optional<AdaptiveConcurrencyLimiter> concurrencyLimiter;
+    private final Optional<RetryPolicy> retryPolicy;
+    private final Optional<HedgingPolicy> hedgingPolicy;
+    private final List<HubRequestListener> requestListeners = new CopyOnWriteArrayList<>();
+    private volatile HubTracer hubTracer = HubTracer.disabled();
+    private volatile HubTrafficRecorder trafficRecorder;
+
+    public HubRequestExecutor(final BlackduckRestConnection restConnection) {
+        this(restConnection, Optional.empty());
+    }
+
+    public HubRequestExecutor(final BlackduckRestConnection restConnection, final Optional<AdaptiveConcurrencyLimiter> concurrencyLimiter) {
+        this(restConnection, concurrencyLimiter, Optional.empty(), Optional.empty());
+    }
+
+    public HubRequestExecutor(final BlackduckRestConnection restConnection, final Optional<AdaptiveConcurrencyLimiter> concurrencyLimiter, final Optional<RetryPolicy> retryPolicy, final Optional<HedgingPolicy> hedgingPolicy) {
+        this.restConnection = restConnection;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.retryPolicy = retryPolicy;
+        this.hedgingPolicy = hedgingPolicy;
+    }
+
+    public Response execute(final Request request) throws IntegrationException {
+        if (HttpMethod.GET != request.getMethod()) {
+            return executeLimited(request);
+        }
+        recordHedgeableRequest();
+        if (!retryPolicy.isPresent()) {
+            return executeHedged(request);
+        }
+
+        final RetryPolicy policy = retryPolicy.get();
+        policy.getRetryBudget().recordRequest();
+        int attempt = 1;
+        while (true) {
+            try {
+                return executeHedged(request);
+            } catch (final IntegrationException e) {
+                if (!isRetryable(e) || attempt >= policy.getMaximumAttempts() || !policy.getRetryBudget().tryAcquireRetry()) {
+                    throw e;
+                }
+                sleep(policy.getBackoffMilliseconds(attempt));
+                attempt++;
+            }
+        }
+    }
+
+    public HubTracer getTracer() {
+        return hubTracer;
+    }
+
+    public void setTracer(final HubTracer hubTracer) {
+        this.hubTracer = hubTracer;
+    }
+
+    public HubTrafficRecorder getTrafficRecorder() {
+        return trafficRecorder;
+    }
+
+    /**
+     * Every request that reaches the Hub (including each retry and hedge) is recorded, or nothing is if the recorder is null.
+     */
+    public void setTrafficRecorder(final HubTrafficRecorder trafficRecorder) {
+        this.trafficRecorder = trafficRecorder;
+    }
+
+    public void addRequestListener(final HubRequestListener requestListener) {
+        requestListeners.add(requestListener);
+    }
+
+    public void removeRequestListener(final HubRequestListener requestListener) {
+        requestListeners.remove(requestListener);
+    }
+
+    public List<HubRequestListener> getRequestListeners() {
+        return Collections.unmodifiableList(requestListeners);
+    }
+
+    /**
+     * Tells the listeners how many pages a call that walked all the pages of the uri fetched.
+     */
+    public void recordPages(final String uri, final int pageCount, final int itemCount) {
+        if (!requestListeners.isEmpty()) {
+            final String endpoint = HubEndpoints.getEndpoint(uri);
+            for (final HubRequestListener requestListener : requestListeners) {
+                requestListener.pagesFetched(endpoint, pageCount, itemCount);
+            }
+        }
+    }
+
+    public BlackduckRestConnection getRestConnection() {
+        return restConnection;
+    }
+
+    public Optional<AdaptiveConcurrencyLimiter> getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    public Optional<RetryPolicy> getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    public Optional<HedgingPolicy> getHedgingPolicy() {
+        return hedgingPolicy;
+    }
+
+    /**
+     * Every GET earns its share of the hedging budget, once - the retry path below records against its own budget, so this only records when the hedging policy has a budget of its own.
+     */
+    private void recordHedgeableRequest() {
+        if (!hedgingPolicy.isPresent()) {
+            return;
+        }
+        final RetryBudget hedgingBudget = hedgingPolicy.get().getRetryBudget();
+        if (!retryPolicy.isPresent() || retryPolicy.get().getRetryBudget() != hedgingBudget) {
+            hedgingBudget.recordRequest();
+        }
+    }
+
+    private Response executeHedged(final Request request) throws IntegrationException {
+        if (!hedgingPolicy.isPresent()) {
+            return executeLimited(request);
+        }
+
+        final HedgingPolicy policy = hedgingPolicy.get();
+        final long hedgeDelay = policy.getHedgeDelayMilliseconds(request.getUri());
+        if (hedgeDelay < 0) {
+            return executeTimed(request, policy);
+        }
+
+        // the first request to finish claims the result, a slower duplicate closes its own response
+        final AtomicBoolean claimed = new AtomicBoolean(false);
+        final CompletionService<Response> completionService = new ExecutorCompletionService<>(policy.getExecutorService());
+        final Future<Response> original = completionService.submit(hubTracer.wrap(() -> executeClaimed(request, policy, claimed)));
+        Future<Response> hedge = null;
+        int outstanding = 1;
+        IntegrationException firstFailure = null;
+        try {
+            Future<Response> completed = completionService.poll(hedgeDelay, TimeUnit.MILLISECONDS);
+            if (completed == null && policy.getRetryBudget().tryAcquireRetry()) {
+                hedge = completionService.submit(hubTracer.wrap(() -> executeClaimed(request, policy, claimed)));
+                outstanding++;
+            }
+            while (outstanding > 0) {
+                if (completed == null) {
+                    completed = completionService.take();
+                }
+                outstanding--;
+                try {
+                    final Response response = completed.get();
+                    if (response != null) {
+                        return response;
+                    }
+                } catch (final ExecutionException e) {
+                    if (firstFailure == null) {
+                        firstFailure = unwrap(e);
+                    }
+                }
+                completed = null;
+            }
+            throw firstFailure != null ? firstFailure : new HubIntegrationException("No response was received for " + request.getUri());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HubIntegrationException("Interrupted while waiting for " + request.getUri(), e);
+        } finally {
+            original.cancel(true);
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+        }
+    }
+
+    private Response executeClaimed(final Request request, final HedgingPolicy policy, final AtomicBoolean claimed) throws IntegrationException, IOException {
+        final Response response = executeTimed(request, policy);
+        if (claimed.compareAndSet(false, true)) {
+            return response;
+        }
+        response.close();
+        return null;
+    }
+
+    private Response executeTimed(final Request request, final HedgingPolicy policy) throws IntegrationException {
+        final long start = System.currentTimeMillis();
+        final Response response = executeLimited(request);
+        policy.recordLatency(request.getUri(), System.currentTimeMillis() - start);
+        return response;
+    }
+
+    private Response executeLimited(final Request request) throws IntegrationException {
+        if (!concurrencyLimiter.isPresent()) {
+            return executeMetered(request);
+        }
+
+        final AdaptiveConcurrencyLimiter limiter = concurrencyLimiter.get();
+        limiter.acquire();
+        final long start = System.nanoTime();
+        AdaptiveConcurrencyLimiter.Outcome outcome = AdaptiveConcurrencyLimiter.Outcome.IGNORED;
+        try {
+            final Response response = executeMetered(request);
+            outcome = AdaptiveConcurrencyLimiter.Outcome.SUCCESS;
+            return response;
+        } catch (final IntegrationRestException e) {
+            if (isOverloaded(e.getHttpStatusCode())) {
+                outcome = AdaptiveConcurrencyLimiter.Outcome.OVERLOADED;
+            }
+            throw e;
+        } finally {
+            limiter.release(request.getUri(), System.nanoTime() - start, TimeUnit.NANOSECONDS, outcome);
+        }
+    }
+
+    private Response executeMetered(final Request request) throws IntegrationException {
+        final HubFlightRecorder.RequestRecording recording = HubFlightRecorder.beginRequest(request.getUri(), request.getMethod());
+        if (requestListeners.isEmpty() && !recording.isRecording() && !hubTracer.isEnabled()) {
+            return executeRecorded(request);
+        }
+
+        final String endpoint = HubEndpoints.getEndpoint(request.getUri());
+        final SpanScope span = hubTracer.startLeafSpan(request.getMethod() + " " + endpoint).setAttribute("uri", request.getUri());
+        final long start = System.nanoTime();
+        final Response response;
+        try {
+            response = executeRecorded(request);
+        } catch (final IntegrationException e) {
+            final int statusCode = e instanceof IntegrationRestException ? ((IntegrationRestException) e).getHttpStatusCode() : HubRequestListener.NO_RESPONSE_STATUS_CODE;
+            final long elapsed = System.nanoTime() - start;
+            for (final HubRequestListener requestListener : requestListeners) {
+                requestListener.requestFailed(endpoint, request.getMethod(), statusCode, elapsed);
+            }
+            recording.end(statusCode, 0);
+            span.setAttribute("statusCode", statusCode).close();
+            throw e;
+        }
+        final long elapsed = System.nanoTime() - start;
+        for (final HubRequestListener requestListener : requestListeners) {
+            requestListener.requestSucceeded(endpoint, request.getMethod(), elapsed);
+        }
+        final int statusCode = recording.isRecording() ? response.getStatusCode() : 0;
+        return new MeteredResponse(response.getActualResponse(), responseBytes -> {
+            for (final HubRequestListener requestListener : requestListeners) {
+                requestListener.responseRead(endpoint, responseBytes);
+            }
+            recording.end(statusCode, responseBytes);
+            span.setAttribute("responseBytes", responseBytes).close();
+        });
+    }
+
+    private Response executeRecorded(final Request request) throws IntegrationException {
+        final HubTrafficRecorder recorder = trafficRecorder;
+        if (recorder == null) {
+            return restConnection.executeRequest(request);
+        }
+        return recorder.execute(restConnection, request);
+    }
+
+    private IntegrationException unwrap(final ExecutionException e) {
+        if (e.getCause() instanceof IntegrationException) {
+            return (IntegrationException) e.getCause();
+        }
+        return new HubIntegrationException(e.getCause().getMessage(), e.getCause());
+    }
+
+    private void sleep(final long milliseconds) throws HubIntegrationException {
+        try {
+            Thread.sleep(milliseconds);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HubIntegrationException("Interrupted while waiting to retry a request.", e);
+        }
+    }
+
+    private boolean isRetryable(final IntegrationException e) {
+        if (e instanceof IntegrationRestException) {
+            final int statusCode = ((IntegrationRestException) e).getHttpStatusCode();
+            return isOverloaded(statusCode) || HttpStatus.SC_BAD_GATEWAY == statusCode || HttpStatus.SC_GATEWAY_TIMEOUT == statusCode;
+        }
+        return e.getCause() instanceof IOException;
+    }
+
+    private boolean isOverloaded(final int statusCode) {
+        return HttpStatus.SC_SERVICE_UNAVAILABLE == statusCode || TOO_MANY_REQUESTS == statusCode;
+    }
+
+}
@@ -24,49 +24,213 @@
 package com.synopsys.integration.blackduck.service;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpStatus;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
 import com.synopsys.integration.blackduck.api.core.HubResponse;
 import com.synopsys.integration.blackduck.exception.HubIntegrationException;
 import com.synopsys.integration.blackduck.rest.BlackduckRestConnection;
+import com.synopsys.integration.blackduck.service.cache.CachedResponse;
+import com.synopsys.integration.blackduck.service.cache.HubResponseCache;
+import com.synopsys.integration.blackduck.service.model.JsonRetainer;
+import com.synopsys.integration.blackduck.service.model.JsonRetention;
+import com.synopsys.integration.blackduck.service.model.LazyDecoder;
+import com.synopsys.integration.blackduck.service.model.RequestFactory;
+import com.synopsys.integration.blackduck.service.model.SingleFlight;
 import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.HttpMethod;
+import com.synopsys.integration.rest.exception.IntegrationRestException;
 import com.synopsys.integration.rest.request.Request;
 import com.synopsys.integration.rest.request.Response;
 
 public class HubResponseTransformer {
-    private final BlackduckRestConnection restConnection;
+    public static final String ETAG_HEADER = "ETag";
+    public static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+    public static final String IF_MODIFIED_SINCE_HEADER = "If-Modified-Since";
+
+    private final HubRequestExecutor hubRequestExecutor;
     private final JsonParser jsonParser;
     private final Gson gson;
+    private final JsonRetainer jsonRetainer;
+    private final LazyDecoder lazyDecoder;
+    private final Optional<HubResponseCache> responseCache;
+    private final SingleFlight<String, JsonElement> jsonElementRequestsInFlight = new SingleFlight<>();
+    private final SingleFlight<String, String> jsonRequestsInFlight = new SingleFlight<>();
 
     public HubResponseTransformer(final BlackduckRestConnection restConnection, final Gson gson, final JsonParser jsonParser) {
-        this.restConnection = restConnection;
+        this(restConnection, gson, jsonParser, new JsonRetainer(gson, JsonRetention.EAGER));
+    }
+
+    public HubResponseTransformer(final BlackduckRestConnection restConnection, final Gson gson, final JsonParser jsonParser, final JsonRetainer jsonRetainer) {
+        this(restConnection, gson, jsonParser, jsonRetainer, Optional.empty());
+    }
+
+    public HubResponseTransformer(final BlackduckRestConnection restConnection, final Gson gson, final JsonParser jsonParser, final JsonRetainer jsonRetainer, final Optional<HubResponseCache> responseCache) {
+        this(new HubRequestExecutor(restConnection), gson, jsonParser, jsonRetainer, responseCache);
+    }
+
+    public HubResponseTransformer(final HubRequestExecutor hubRequestExecutor, final Gson gson, final JsonParser jsonParser, final JsonRetainer jsonRetainer, final Optional<HubResponseCache> responseCache) {
+        this(hubRequestExecutor, gson, jsonParser, jsonRetainer, new LazyDecoder(gson, jsonRetainer), responseCache);
+    }
+
+    public HubResponseTransformer(final HubRequestExecutor hubRequestExecutor, final Gson gson, final JsonParser jsonParser, final JsonRetainer jsonRetainer, final LazyDecoder lazyDecoder,
+            final Optional<HubResponseCache> responseCache) {
+        this.hubRequestExecutor = hubRequestExecutor;
         this.jsonParser = jsonParser;
         this.gson = gson;
+        this.jsonRetainer = jsonRetainer;
+        this.lazyDecoder = lazyDecoder;
+        this.responseCache = responseCache;
     }
 
     public <T extends HubResponse> T getResponse(final Request request, final Class<T> clazz) throws IntegrationException {
-        try (Response response = restConnection.executeRequest(request)) {
-            final String jsonResponse = response.getContentString();
-            final JsonObject jsonObject = jsonParser.parse(jsonResponse).getAsJsonObject();
-            return getResponseAs(jsonObject, clazz);
+        if (!isSingleResource(request)) {
+            return getResponseAs(retrieveJsonElement(request), clazz);
+        }
+        if (responseCache.isPresent()) {
+            return getCachedResponse(request, clazz, responseCache.get());
+        }
+        // every caller gets its own view, decoded from the json shared by the concurrent identical requests
+        final JsonElement jsonElement = jsonElementRequestsInFlight.execute(request.getUri() + '|' + clazz.getName(), () -> retrieveJsonElement(request));
+        return getResponseAs(jsonElement, clazz);
+    }
+
+    private JsonElement retrieveJsonElement(final Request request) throws IntegrationException {
+        try (Response response = hubRequestExecutor.execute(request);
+                JsonReader jsonReader = new JsonReader(new InputStreamReader(response.getContent(), StandardCharsets.UTF_8))) {
+            return jsonParser.parse(jsonReader);
         } catch (final IOException e) {
             throw new HubIntegrationException(e.getMessage(), e);
         }
     }
 
+    /**
+     * Removes any cached responses for the uri - needed whenever the resource at the uri is changed.
+     */
+    public void invalidate(final String uri) {
+        responseCache.ifPresent(cache -> cache.invalidate(uri));
+    }
+
+    public Optional<HubResponseCache> getResponseCache() {
+        return responseCache;
+    }
+
+    public LazyDecoder getLazyDecoder() {
+        return lazyDecoder;
+    }
+
     public <T extends HubResponse> T getResponseAs(final JsonElement view, final Class<T> clazz) {
-        final T hubItem = gson.fromJson(view, clazz);
-        hubItem.json = gson.toJson(view);
+        final T hubItem = lazyDecoder.decode(view, clazz);
+        if (!lazyDecoder.isLazy(clazz)) {
+            jsonRetainer.retain(hubItem, view);
+        }
         return hubItem;
     }
 
+    /**
+     * @return true if responses of the class can be read straight from a JsonReader by readResponse, without a tree of their json - they have to be decoded lazily or have their json retained LAZYly or not at all.
+     */
+    public boolean canReadResponse(final Class<?> clazz) {
+        return lazyDecoder.isLazy(clazz) || JsonRetention.EAGER != jsonRetainer.getJsonRetention(clazz);
+    }
+
+    public <T extends HubResponse> T readResponse(final JsonReader jsonReader, final Class<T> clazz) throws IOException {
+        if (!lazyDecoder.isLazy(clazz) && JsonRetention.LAZY == jsonRetainer.getJsonRetention(clazz)) {
+            return jsonRetainer.readResponse(jsonReader, clazz);
+        }
+        return lazyDecoder.decode(jsonReader, clazz);
+    }
+
     public <T extends HubResponse> T getResponseAs(final String view, final Class<T> clazz) {
         final T hubItem = gson.fromJson(view, clazz);
         hubItem.json = view;
         return hubItem;
     }
 
+    /**
+     * Gets the response, checking with the Hub whether a cached response has changed even if it hasn't expired yet. Without a cache, this is the same as getResponse.
+     */
+    public <T extends HubResponse> T revalidateResponse(final Request request, final Class<T> clazz) throws IntegrationException {
+        if (responseCache.isPresent() && isSingleResource(request)) {
+            return getResponseAs(retrieveJson(request, clazz, responseCache.get()), clazz);
+        }
+        return getResponse(request, clazz);
+    }
+
+    private <T extends HubResponse> T getCachedResponse(final Request request, final Class<T> clazz, final HubResponseCache cache) throws IntegrationException {
+        final CachedResponse cachedResponse = cache.get(request.getUri(), clazz);
+        if (cachedResponse != null) {
+            return getResponseAs(cachedResponse.getJson(), clazz);
+        }
+        return getResponseAs(retrieveJson(request, clazz, cache), clazz);
+    }
+
+    private String retrieveJson(final Request request, final Class<? extends HubResponse> clazz, final HubResponseCache cache) throws IntegrationException {
+        return jsonRequestsInFlight.execute(request.getUri() + '|' + clazz.getName(), () -> {
+            final CachedResponse staleResponse = cache.getForRevalidation(request.getUri(), clazz);
+            final Request conditionalRequest = staleResponse == null ? request : createConditionalRequest(request, staleResponse);
+            try (Response response = hubRequestExecutor.execute(conditionalRequest)) {
+                final String json = response.getContentString();
+                cache.put(new CachedResponse(request.getUri(), clazz, json, System.currentTimeMillis(), response.getHeaderValue(ETAG_HEADER), response.getHeaderValue(Response.LAST_MODIFIED_HEADER_KEY)));
+                return json;
+            } catch (final IntegrationRestException e) {
+                if (staleResponse != null && HttpStatus.SC_NOT_MODIFIED == e.getHttpStatusCode()) {
+                    cache.put(staleResponse.revalidated(System.currentTimeMillis()));
+                    return staleResponse.getJson();
+                }
+                throw e;
+            } catch (final IOException e) {
+                throw new HubIntegrationException(e.getMessage(), e);
+            }
+        });
+    }
+
+    private Request createConditionalRequest(final Request request, final CachedResponse staleResponse) {
+        // the request's headers can be shared with other requests, so the conditional headers go into a copy
+        final Map<String, String> headers = new HashMap<>();
+        if (request.getAdditionalHeaders() != null) {
+            headers.putAll(request.getAdditionalHeaders());
+        }
+        if (StringUtils.isNotBlank(staleResponse.getETag())) {
+            headers.put(IF_NONE_MATCH_HEADER, staleResponse.getETag());
+        }
+        if (StringUtils.isNotBlank(staleResponse.getLastModified())) {
+            headers.put(IF_MODIFIED_SINCE_HEADER, staleResponse.getLastModified());
+        }
+        return new Request.Builder(request).additionalHeaders(headers).build();
+    }
+
+    private boolean isSingleResource(final Request request) {
+        // only the plain GET of a single resource is cached or shared between concurrent callers - the common GET request always has a limit and offset, but those don't change a single resource, anything else might
+        if (HttpMethod.GET != request.getMethod()) {
+            return false;
+        }
+        if (request.getQueryParameters() != null) {
+            for (final String parameter : request.getQueryParameters().keySet()) {
+                if (!RequestFactory.LIMIT_PARAMETER.equals(parameter) && !RequestFactory.OFFSET_PARAMETER.equals(parameter)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public String getJson(final HubResponse hubResponse) {
+        return jsonRetainer.getJson(hubResponse);
+    }
+
+    public JsonRetainer getJsonRetainer() {
+        return jsonRetainer;
+    }
+
 }
@@ -0,0 +1,174 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.synopsys.integration.blackduck.api.core.HubResponse;
+import com.synopsys.integration.blackduck.exception.HubIntegrationException;
+import com.synopsys.integration.blackduck.exception.UncheckedHubIntegrationException;
+import com.synopsys.integration.blackduck.service.model.HubPage;
+import com.synopsys.integration.blackduck.service.model.PagedRequest;
+import com.synopsys.integration.exception.IntegrationException;
+
+/**
+ * Walks all the pages of a paged Hub endpoint on demand. Nothing is requested until the first call to hasNext/next and, while the items of page N are being consumed, page N+1 is requested in the background, so at most two pages are held
+ * in memory no matter what the totalCount is.
+ * <p>
+ * Any IntegrationException encountered will be thrown as an UncheckedHubIntegrationException. If the iterator is not consumed to the end, close() should be called to stop any outstanding prefetch.
+ */
+public class HubResponsesIterator<T extends HubResponse> implements Iterator<T>, Closeable {
+    private final HubResponsesTransformer hubResponsesTransformer;
+    private final PagedRequest pagedRequest;
+    private final Class<T> clazz;
+    private final Map<String, Class<? extends T>> typeMap;
+    private final ExecutorService executorService;
+    private final boolean shutdownExecutorWhenDone;
+
+    private Iterator<T> currentItems = Collections.emptyIterator();
+    private Future<HubPage<T>> nextPage;
+    private int nextOffset;
+    private boolean done;
+
+    public HubResponsesIterator(final HubResponsesTransformer hubResponsesTransformer, final PagedRequest pagedRequest, final Class<T> clazz, final Map<String, Class<? extends T>> typeMap) {
+        this(hubResponsesTransformer, pagedRequest, clazz, typeMap, createPrefetchExecutor(), true);
+    }
+
+    /**
+     * NOTE: it is up to the caller to shutdown the executorService.
+     */
+    public HubResponsesIterator(final HubResponsesTransformer hubResponsesTransformer, final PagedRequest pagedRequest, final Class<T> clazz, final Map<String, Class<? extends T>> typeMap, final ExecutorService executorService) {
+        this(hubResponsesTransformer, pagedRequest, clazz, typeMap, executorService, false);
+    }
+
+    private HubResponsesIterator(final HubResponsesTransformer hubResponsesTransformer, final PagedRequest pagedRequest, final Class<T> clazz, final Map<String, Class<? extends T>> typeMap, final ExecutorService executorService,
+            final boolean shutdownExecutorWhenDone) {
+        this.hubResponsesTransformer = hubResponsesTransformer;
+        this.pagedRequest = pagedRequest;
+        this.clazz = clazz;
+        this.typeMap = typeMap;
+        this.executorService = executorService;
+        this.shutdownExecutorWhenDone = shutdownExecutorWhenDone;
+        nextOffset = pagedRequest.getOffset();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!currentItems.hasNext()) {
+            if (done) {
+                return false;
+            }
+            currentItems = retrieveNextPage().iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return currentItems.next();
+    }
+
+    @Override
+    public void close() {
+        done = true;
+        currentItems = Collections.emptyIterator();
+        if (nextPage != null) {
+            nextPage.cancel(true);
+            nextPage = null;
+        }
+        if (shutdownExecutorWhenDone) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private List<T> retrieveNextPage() {
+        final HubPage<T> page;
+        try {
+            if (nextPage == null) {
+                page = hubResponsesTransformer.getPage(createPagedRequest(nextOffset), clazz, typeMap);
+            } else {
+                page = waitForNextPage();
+            }
+        } catch (final IntegrationException e) {
+            close();
+            throw new UncheckedHubIntegrationException(e);
+        }
+
+        final int totalCount = page.getTotalCount();
+        nextOffset = hubResponsesTransformer.getNextOffset(pagedRequest, nextOffset, page.getItems().size());
+        if (page.getItems().isEmpty() || nextOffset >= totalCount) {
+            close();
+        } else {
+            final PagedRequest prefetchRequest = createPagedRequest(nextOffset);
+            nextPage = executorService.submit(hubResponsesTransformer.getTracer().wrap(() -> hubResponsesTransformer.getPage(prefetchRequest, clazz, typeMap)));
+        }
+        return page.getItems();
+    }
+
+    private HubPage<T> waitForNextPage() throws IntegrationException {
+        try {
+            return nextPage.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HubIntegrationException("Interrupted while waiting for the next page of responses.", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof IntegrationException) {
+                throw (IntegrationException) e.getCause();
+            }
+            throw new HubIntegrationException(e.getCause().getMessage(), e.getCause());
+        } finally {
+            nextPage = null;
+        }
+    }
+
+    private PagedRequest createPagedRequest(final int offset) {
+        return hubResponsesTransformer.createPagedRequest(pagedRequest, offset);
+    }
+
+    private static ExecutorService createPrefetchExecutor() {
+        // a single, daemon thread that goes away on its own if the iterator is abandoned without being closed
+        final ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(1, 1, 1L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            final Thread thread = new Thread(runnable, Thread.currentThread().getName() + "-Hub Page Prefetch Thread");
+            thread.setDaemon(true);
+            return thread;
+        });
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        return threadPoolExecutor;
+    }
+
+}
@@ -24,30 +24,58 @@
 package com.synopsys.integration.blackduck.service;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.input.CountingInputStream;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.synopsys.integration.blackduck.api.core.HubResponse;
 import com.synopsys.integration.blackduck.exception.HubIntegrationException;
 import com.synopsys.integration.blackduck.rest.BlackduckRestConnection;
+import com.synopsys.integration.blackduck.service.jfr.HubFlightRecorder;
+import com.synopsys.integration.blackduck.service.model.AdaptivePageSizePolicy;
+import com.synopsys.integration.blackduck.service.model.HubPage;
 import com.synopsys.integration.blackduck.service.model.PagedRequest;
+import com.synopsys.integration.blackduck.service.model.ParallelPaging;
+import com.synopsys.integration.blackduck.service.trace.HubTracer;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.rest.request.Response;
 
 public class HubResponsesTransformer {
-    private final BlackduckRestConnection restConnection;
+    private final HubRequestExecutor hubRequestExecutor;
     private final HubResponseTransformer hubResponseTransformer;
     private final JsonParser jsonParser;
+    private final Optional<AdaptivePageSizePolicy> pageSizePolicy;
 
     public HubResponsesTransformer(final BlackduckRestConnection restConnection, final HubResponseTransformer hubResponseTransformer, final JsonParser jsonParser) {
-        this.restConnection = restConnection;
+        this(restConnection, hubResponseTransformer, jsonParser, Optional.empty());
+    }
+
+    public HubResponsesTransformer(final BlackduckRestConnection restConnection, final HubResponseTransformer hubResponseTransformer, final JsonParser jsonParser, final Optional<AdaptivePageSizePolicy> pageSizePolicy) {
+        this(new HubRequestExecutor(restConnection), hubResponseTransformer, jsonParser, pageSizePolicy);
+    }
+
+    public HubResponsesTransformer(final HubRequestExecutor hubRequestExecutor, final HubResponseTransformer hubResponseTransformer, final JsonParser jsonParser, final Optional<AdaptivePageSizePolicy> pageSizePolicy) {
+        this.hubRequestExecutor = hubRequestExecutor;
         this.hubResponseTransformer = hubResponseTransformer;
         this.jsonParser = jsonParser;
+        this.pageSizePolicy = pageSizePolicy;
     }
 
     public <T extends HubResponse> List<T> getResponses(final PagedRequest pagedRequest, final Class<T> clazz) throws IntegrationException {
@@ -60,41 +88,203 @@ public class HubResponsesTransformer {
 
     public <T extends HubResponse> List<T> getResponses(final PagedRequest pagedRequest, final Class<T> clazz, final boolean getAll, final Map<String, Class<? extends T>> typeMap) throws IntegrationException {
         final List<T> allResponses = new LinkedList<>();
-        int totalCount = 0;
+        if (!getAll) {
+            allResponses.addAll(getPage(pagedRequest, clazz, typeMap).getItems());
+            return allResponses;
+        }
+
+        final HubFlightRecorder.PaginationRecording recording = HubFlightRecorder.beginPagination(pagedRequest.getRequestBuilder().getUri());
         int currentOffset = pagedRequest.getOffset();
-        try (Response initialResponse = restConnection.executeRequest(pagedRequest.createRequest())) {
-            final String initialJsonResponse = initialResponse.getContentString();
-            final JsonObject initialJsonObject = jsonParser.parse(initialJsonResponse).getAsJsonObject();
-            if (typeMap != null) {
-                allResponses.addAll(getResponses(initialJsonObject, clazz, typeMap));
-            } else {
-                allResponses.addAll(getResponses(initialJsonObject, clazz));
-            }
-            if (getAll) {
-                totalCount = initialJsonObject.get("totalCount").getAsInt();
-            } else {
-                return allResponses;
+        final HubPage<T> initialPage = getPage(createPagedRequest(pagedRequest, currentOffset), clazz, typeMap);
+        allResponses.addAll(initialPage.getItems());
+
+        final int totalCount = initialPage.getTotalCount();
+        int pageCount = 1;
+        if (pageSizePolicy.isPresent()) {
+            // the page size can change from one page to the next, so the next offset always comes from the items actually received
+            currentOffset += initialPage.getItems().size();
+            while (allResponses.size() < totalCount && currentOffset < totalCount) {
+                final List<T> items = getPage(createPagedRequest(pagedRequest, currentOffset), clazz, typeMap).getItems();
+                pageCount++;
+                if (items.isEmpty()) {
+                    break;
+                }
+                allResponses.addAll(items);
+                currentOffset += items.size();
             }
+        } else {
             while (allResponses.size() < totalCount && currentOffset < totalCount) {
                 currentOffset += pagedRequest.getLimit();
                 final PagedRequest offsetPagedRequest = new PagedRequest(pagedRequest.getRequestBuilder(), currentOffset, pagedRequest.getLimit());
-                try (Response response = restConnection.executeRequest(offsetPagedRequest.createRequest())) {
-                    final String jsonResponse = response.getContentString();
-                    final JsonObject jsonObject = jsonParser.parse(jsonResponse).getAsJsonObject();
-                    if (typeMap != null) {
-                        allResponses.addAll(getResponses(jsonObject, clazz, typeMap));
-                    } else {
-                        allResponses.addAll(getResponses(jsonObject, clazz));
-                    }
-                } catch (final IOException e) {
-                    throw new HubIntegrationException(e);
+                allResponses.addAll(getPage(offsetPagedRequest, clazz, typeMap).getItems());
+                pageCount++;
+            }
+        }
+        hubRequestExecutor.recordPages(pagedRequest.getRequestBuilder().getUri(), pageCount, allResponses.size());
+        recording.end(pageCount, allResponses.size());
+        return allResponses;
+    }
+
+    public <T extends HubResponse> List<T> getAllResponses(final PagedRequest pagedRequest, final Class<T> clazz, final Map<String, Class<? extends T>> typeMap, final ParallelPaging parallelPaging) throws IntegrationException {
+        final HubFlightRecorder.PaginationRecording recording = HubFlightRecorder.beginPagination(pagedRequest.getRequestBuilder().getUri());
+        final List<T> allResponses = new ArrayList<>();
+        final HubPage<T> initialPage = getPage(createPagedRequest(pagedRequest, pagedRequest.getOffset()), clazz, typeMap);
+        allResponses.addAll(initialPage.getItems());
+        if (pageSizePolicy.isPresent() && initialPage.getItems().isEmpty()) {
+            hubRequestExecutor.recordPages(pagedRequest.getRequestBuilder().getUri(), 1, 0);
+            recording.end(1, 0);
+            return allResponses;
+        }
+
+        // the pages are requested before any of them come back, so the rest of the walk sticks with the page size chosen after the first page
+        final int totalCount = initialPage.getTotalCount();
+        final int limit = determinePageSize(pagedRequest);
+        final int firstOffset = getNextOffset(pagedRequest, pagedRequest.getOffset(), initialPage.getItems().size());
+        int pageCount = 1 + fillShortPage(allResponses, pagedRequest, pagedRequest.getOffset(), firstOffset, totalCount, initialPage.getItems(), clazz, typeMap);
+        final Deque<PageInFlight<T>> pagesInFlight = new ArrayDeque<>();
+        try {
+            for (int offset = firstOffset; offset < totalCount; offset += limit) {
+                if (pagesInFlight.size() >= parallelPaging.getMaximumConcurrentPages()) {
+                    pageCount += addPage(allResponses, pagesInFlight.removeFirst(), pagedRequest, limit, totalCount, clazz, typeMap);
                 }
+                final PagedRequest offsetPagedRequest = new PagedRequest(pagedRequest.getRequestBuilder(), offset, limit);
+                pagesInFlight.addLast(new PageInFlight<>(offset, parallelPaging.getExecutorService().submit(getTracer().wrap(() -> getPage(offsetPagedRequest, clazz, typeMap)))));
+                pageCount++;
+            }
+            while (!pagesInFlight.isEmpty()) {
+                pageCount += addPage(allResponses, pagesInFlight.removeFirst(), pagedRequest, limit, totalCount, clazz, typeMap);
+            }
+        } finally {
+            // only non-empty if a page failed, so there is no point in finishing the rest
+            pagesInFlight.forEach(pageInFlight -> pageInFlight.page.cancel(true));
+        }
+        hubRequestExecutor.recordPages(pagedRequest.getRequestBuilder().getUri(), pageCount, allResponses.size());
+        recording.end(pageCount, allResponses.size());
+        return allResponses;
+    }
+
+    public HubTracer getTracer() {
+        return hubRequestExecutor.getTracer();
+    }
+
+    /**
+     * @return the page size to use for the next page of the request - the request's own limit unless an AdaptivePageSizePolicy is in use
+     */
+    public int determinePageSize(final PagedRequest pagedRequest) {
+        if (pageSizePolicy.isPresent()) {
+            return pageSizePolicy.get().getPageSize(pagedRequest.getRequestBuilder().getUri(), pagedRequest.getLimit());
+        }
+        return pagedRequest.getLimit();
+    }
+
+    /**
+     * @return the offset of the page after the one at the offset - past the items actually received when an AdaptivePageSizePolicy is in use, since the page size can change between pages, and past the request's limit otherwise
+     */
+    public int getNextOffset(final PagedRequest pagedRequest, final int offset, final int itemCount) {
+        if (pageSizePolicy.isPresent()) {
+            return offset + itemCount;
+        }
+        return offset + pagedRequest.getLimit();
+    }
+
+    public PagedRequest createPagedRequest(final PagedRequest pagedRequest, final int offset) {
+        return new PagedRequest(pagedRequest.getRequestBuilder(), offset, determinePageSize(pagedRequest));
+    }
+
+    public <T extends HubResponse> HubPage<T> getPage(final PagedRequest pagedRequest, final Class<T> clazz, final Map<String, Class<? extends T>> typeMap) throws IntegrationException {
+        final long start = System.nanoTime();
+        try (Response response = hubRequestExecutor.execute(pagedRequest.createRequest());
+                CountingInputStream content = new CountingInputStream(response.getContent());
+                JsonReader jsonReader = new JsonReader(new InputStreamReader(content, StandardCharsets.UTF_8))) {
+            final HubPage<T> page = readPage(jsonReader, clazz, typeMap);
+            if (pageSizePolicy.isPresent()) {
+                final long elapsedMilliseconds = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                pageSizePolicy.get().recordPage(pagedRequest.getRequestBuilder().getUri(), pagedRequest.getLimit(), page.getItems().size(), content.getByteCount(), elapsedMilliseconds);
             }
+            return page;
         } catch (final IOException e) {
             throw new HubIntegrationException(e.getMessage(), e);
         }
-        return allResponses;
+    }
+
+    /**
+     * Decodes the page as it is read, so only one item at a time is ever held as json - the full page is never held as a String or a JsonObject. Items that are decoded lazily, or that have none of
+     * their json retained, are not held as json at all.
+     */
+    public <T extends HubResponse> HubPage<T> readPage(final JsonReader jsonReader, final Class<T> clazz, final Map<String, Class<? extends T>> typeMap) throws IOException {
+        final List<T> items = new ArrayList<>();
+        Integer totalCount = null;
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            final String name = jsonReader.nextName();
+            if ("totalCount".equals(name) && jsonReader.peek() == JsonToken.NUMBER) {
+                totalCount = jsonReader.nextInt();
+            } else if ("items".equals(name) && jsonReader.peek() == JsonToken.BEGIN_ARRAY) {
+                final boolean readItems = (typeMap == null || typeMap.isEmpty()) && hubResponseTransformer.canReadResponse(clazz);
+                jsonReader.beginArray();
+                while (jsonReader.hasNext()) {
+                    if (readItems) {
+                        items.add(hubResponseTransformer.readResponse(jsonReader, clazz));
+                    } else {
+                        final JsonElement element = jsonParser.parse(jsonReader);
+                        items.add(hubResponseTransformer.getResponseAs(element, determineClass(element, clazz, typeMap)));
+                    }
+                }
+                jsonReader.endArray();
+            } else {
+                jsonReader.skipValue();
+            }
+        }
+        jsonReader.endObject();
+
+        if (totalCount == null) {
+            totalCount = items.size();
+        }
+        return new HubPage<>(totalCount, items);
+    }
+
+    /**
+     * @return the number of extra pages it took to fill the page in, if it was short
+     */
+    private <T extends HubResponse> int addPage(final List<T> allResponses, final PageInFlight<T> pageInFlight, final PagedRequest pagedRequest, final int limit, final int totalCount, final Class<T> clazz,
+            final Map<String, Class<? extends T>> typeMap) throws IntegrationException {
+        final List<T> items = waitForPage(pageInFlight.page).getItems();
+        allResponses.addAll(items);
+        return fillShortPage(allResponses, pagedRequest, pageInFlight.offset, pageInFlight.offset + limit, totalCount, items, clazz, typeMap);
+    }
 
+    /**
+     * A server that caps its pages below the requested limit answers with short pages, and the next page has already been requested from where the full page would have ended - so the rest of a short page is fetched before
+     * moving on, or the items in between would be skipped.
+     * @return the number of extra pages it took
+     */
+    private <T extends HubResponse> int fillShortPage(final List<T> allResponses, final PagedRequest pagedRequest, final int pageOffset, final int nextPageOffset, final int totalCount, final List<T> pageItems, final Class<T> clazz,
+            final Map<String, Class<? extends T>> typeMap) throws IntegrationException {
+        final int pageEnd = Math.min(nextPageOffset, totalCount);
+        int offset = pageOffset + pageItems.size();
+        List<T> items = pageItems;
+        int extraPages = 0;
+        while (!items.isEmpty() && offset < pageEnd) {
+            items = getPage(new PagedRequest(pagedRequest.getRequestBuilder(), offset, pageEnd - offset), clazz, typeMap).getItems();
+            allResponses.addAll(items);
+            offset += items.size();
+            extraPages++;
+        }
+        return extraPages;
+    }
+
+    private <T extends HubResponse> HubPage<T> waitForPage(final Future<HubPage<T>> pageFuture) throws IntegrationException {
+        try {
+            return pageFuture.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HubIntegrationException("Interrupted while waiting for a page of responses.", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof IntegrationException) {
+                throw (IntegrationException) e.getCause();
+            }
+            throw new HubIntegrationException(e.getCause().getMessage(), e.getCause());
+        }
     }
 
     public <T extends HubResponse> List<T> getResponses(final JsonArray responsesArray, final Class<T> clazz) {
@@ -122,18 +312,33 @@ public class HubResponsesTransformer {
         final JsonElement responsesElement = jsonObject.get("items");
         final JsonArray responsesArray = responsesElement.getAsJsonArray();
         for (final JsonElement element : responsesArray) {
-            Class<? extends T> actualClass = clazz;
+            final T item = hubResponseTransformer.getResponseAs(element, determineClass(element, clazz, typeMap));
+            responseList.add(item);
+        }
+        return responseList;
+    }
+
+    private <T extends HubResponse> Class<? extends T> determineClass(final JsonElement element, final Class<T> clazz, final Map<String, Class<? extends T>> typeMap) {
+        if (typeMap != null && element.isJsonObject()) {
             final JsonObject elementObject = element.getAsJsonObject();
             if (elementObject.has("type")) {
                 final String type = elementObject.get("type").getAsString();
                 if (typeMap.containsKey(type)) {
-                    actualClass = typeMap.get(type);
+                    return typeMap.get(type);
                 }
             }
-            final T item = hubResponseTransformer.getResponseAs(element, actualClass);
-            responseList.add(item);
         }
-        return responseList;
+        return clazz;
+    }
+
+    private static class PageInFlight<T extends HubResponse> {
+        private final int offset;
+        private final Future<HubPage<T>> page;
+
+        private PageInFlight(final int offset, final Future<HubPage<T>> page) {
+            this.offset = offset;
+            this.page = page;
+        }
     }
 
 }
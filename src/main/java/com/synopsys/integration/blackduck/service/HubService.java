@@ -29,6 +29,12 @@ import java.net.URL;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -46,11 +52,20 @@ import com.synopsys.integration.blackduck.api.core.ResourceLink;
 import com.synopsys.integration.blackduck.api.core.ResourceMetadata;
 import com.synopsys.integration.blackduck.api.view.MetaHandler;
 import com.synopsys.integration.blackduck.exception.HubIntegrationException;
+import com.synopsys.integration.blackduck.exception.UncheckedHubIntegrationException;
 import com.synopsys.integration.blackduck.rest.BlackduckRestConnection;
+import com.synopsys.integration.blackduck.service.cache.HubResponseCache;
+import com.synopsys.integration.blackduck.service.model.AdaptiveConcurrencyLimiter;
+import com.synopsys.integration.blackduck.service.model.HubServiceOptions;
+import com.synopsys.integration.blackduck.service.model.JsonRetainer;
+import com.synopsys.integration.blackduck.service.model.LazyDecoder;
 import com.synopsys.integration.blackduck.service.model.PagedRequest;
+import com.synopsys.integration.blackduck.service.model.ParallelPaging;
 import com.synopsys.integration.blackduck.service.model.RequestFactory;
+import com.synopsys.integration.blackduck.service.trace.HubTracer;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.log.IntLogger;
+import com.synopsys.integration.rest.HttpMethod;
 import com.synopsys.integration.rest.request.Request;
 import com.synopsys.integration.rest.request.Response;
 
@@ -59,6 +74,7 @@ public class HubService {
     public static final HubPath SCANSUMMARIES_PATH = new HubPath("/api/scan-summaries");
 
     private final BlackduckRestConnection restConnection;
+    private final HubRequestExecutor hubRequestExecutor;
     private final MetaHandler metaHandler;
     private final HubResponseTransformer hubResponseTransformer;
     private final HubResponsesTransformer hubResponsesTransformer;
@@ -67,13 +83,19 @@ public class HubService {
     private final Gson gson;
 
     public HubService(final IntLogger logger, final BlackduckRestConnection restConnection, final Gson gson, final JsonParser jsonParser) {
-        this.restConnection = restConnection;
+        this(logger, new HubRequestExecutor(restConnection), gson, jsonParser, HubServiceOptions.createDefault());
+    }
+
+    public HubService(final IntLogger logger, final HubRequestExecutor hubRequestExecutor, final Gson gson, final JsonParser jsonParser, final HubServiceOptions options) {
+        this.hubRequestExecutor = hubRequestExecutor;
+        restConnection = hubRequestExecutor.getRestConnection();
         hubBaseUrl = restConnection.getBaseUrl();
         this.jsonParser = jsonParser;
         this.gson = gson;
-        metaHandler = new MetaHandler(logger);
-        hubResponseTransformer = new HubResponseTransformer(restConnection, gson, jsonParser);
-        hubResponsesTransformer = new HubResponsesTransformer(restConnection, hubResponseTransformer, jsonParser);
+        final JsonRetainer jsonRetainer = new JsonRetainer(gson, options.getJsonRetention());
+        metaHandler = new MetaHandler(logger, jsonRetainer);
+        hubResponseTransformer = new HubResponseTransformer(hubRequestExecutor, gson, jsonParser, jsonRetainer, new LazyDecoder(gson, jsonRetainer), options.getResponseCache());
+        hubResponsesTransformer = new HubResponsesTransformer(hubRequestExecutor, hubResponseTransformer, jsonParser, options.getPageSizePolicy());
     }
 
     public BlackduckRestConnection getRestConnection() {
@@ -96,6 +118,28 @@ public class HubService {
         return gson.toJson(obj);
     }
 
+    /**
+     * @return the json of the response, even when the response was decoded without populating its json field, or null if the json was not retained
+     */
+    public String getJson(final HubResponse hubResponse) {
+        return hubResponseTransformer.getJson(hubResponse);
+    }
+
+    public LazyDecoder getLazyDecoder() {
+        return hubResponseTransformer.getLazyDecoder();
+    }
+
+    /**
+     * Decodes the named fields of a response that was decoded lazily - see LazyDecoder.
+     */
+    public <T extends HubResponse> T load(final T hubResponse, final String... fieldNames) throws HubIntegrationException {
+        return hubResponseTransformer.getLazyDecoder().load(hubResponse, fieldNames);
+    }
+
+    public <T extends HubResponse> T loadAll(final T hubResponse) throws HubIntegrationException {
+        return hubResponseTransformer.getLazyDecoder().loadAll(hubResponse);
+    }
+
     public boolean hasLink(final HubView view, final String linkKey) throws HubIntegrationException {
         return metaHandler.hasLink(view, linkKey);
     }
@@ -112,6 +156,14 @@ public class HubService {
         return metaHandler.getLinks(view, linkKey);
     }
 
+    public Optional<String> findFirstLink(final HubView view, final String linkKey) {
+        return metaHandler.findFirstLink(view, linkKey);
+    }
+
+    public List<String> findLinks(final HubView view, final String linkKey) {
+        return metaHandler.findLinks(view, linkKey);
+    }
+
     public ResourceMetadata getMetaView(final HubView view) throws HubIntegrationException {
         return metaHandler.getMetaView(view);
     }
@@ -143,6 +195,23 @@ public class HubService {
         return getResponses(hubPathMultipleResponses, requestBuilder, true);
     }
 
+    public <T extends HubResponse> List<T> getAllResponses(final HubPathMultipleResponses<T> hubPathMultipleResponses, final ParallelPaging parallelPaging) throws IntegrationException {
+        final String uri = pieceTogetherUri(hubBaseUrl, hubPathMultipleResponses.hubPath.getPath());
+        final Request.Builder requestBuilder = RequestFactory.createCommonGetRequestBuilder(uri);
+        return hubResponsesTransformer.getAllResponses(new PagedRequest(requestBuilder), hubPathMultipleResponses.responseClass, null, parallelPaging);
+    }
+
+    public <T extends HubResponse> List<T> getAllResponses(final HubPathMultipleResponses<T> hubPathMultipleResponses, final Request.Builder requestBuilder, final ParallelPaging parallelPaging) throws IntegrationException {
+        return getAllResponses(hubPathMultipleResponses, requestBuilder, null, parallelPaging);
+    }
+
+    public <T extends HubResponse> List<T> getAllResponses(final HubPathMultipleResponses<T> hubPathMultipleResponses, final Request.Builder requestBuilder, final Map<String, Class<? extends T>> typeMap, final ParallelPaging parallelPaging)
+            throws IntegrationException {
+        final String uri = pieceTogetherUri(hubBaseUrl, hubPathMultipleResponses.hubPath.getPath());
+        requestBuilder.uri(uri);
+        return hubResponsesTransformer.getAllResponses(new PagedRequest(requestBuilder), hubPathMultipleResponses.responseClass, typeMap, parallelPaging);
+    }
+
     public <T extends HubResponse> List<T> getResponses(final HubPathMultipleResponses<T> hubPathMultipleResponses, final boolean getAll) throws IntegrationException {
         final String uri = pieceTogetherUri(hubBaseUrl, hubPathMultipleResponses.hubPath.getPath());
         final Request.Builder requestBuilder = RequestFactory.createCommonGetRequestBuilder(uri);
@@ -177,8 +246,31 @@ public class HubService {
         return getResponses(hubView, linkMultipleResponses, requestBuilder, true);
     }
 
+    public <T extends HubResponse> List<T> getAllResponses(final HubView hubView, final LinkMultipleResponses<T> linkMultipleResponses, final ParallelPaging parallelPaging) throws IntegrationException {
+        final String uri = metaHandler.findFirstLink(hubView, linkMultipleResponses.link).orElse(null);
+        if (StringUtils.isBlank(uri)) {
+            return Collections.emptyList();
+        }
+        final Request.Builder requestBuilder = RequestFactory.createCommonGetRequestBuilder(uri);
+        return hubResponsesTransformer.getAllResponses(new PagedRequest(requestBuilder), linkMultipleResponses.responseClass, null, parallelPaging);
+    }
+
+    public <T extends HubResponse> List<T> getAllResponses(final HubView hubView, final LinkMultipleResponses<T> linkMultipleResponses, final Request.Builder requestBuilder, final ParallelPaging parallelPaging) throws IntegrationException {
+        return getAllResponses(hubView, linkMultipleResponses, requestBuilder, null, parallelPaging);
+    }
+
+    public <T extends HubResponse> List<T> getAllResponses(final HubView hubView, final LinkMultipleResponses<T> linkMultipleResponses, final Request.Builder requestBuilder, final Map<String, Class<? extends T>> typeMap,
+            final ParallelPaging parallelPaging) throws IntegrationException {
+        final String uri = metaHandler.findFirstLink(hubView, linkMultipleResponses.link).orElse(null);
+        if (StringUtils.isBlank(uri)) {
+            return Collections.emptyList();
+        }
+        requestBuilder.uri(uri);
+        return hubResponsesTransformer.getAllResponses(new PagedRequest(requestBuilder), linkMultipleResponses.responseClass, typeMap, parallelPaging);
+    }
+
     public <T extends HubResponse> List<T> getResponses(final HubView hubView, final LinkMultipleResponses<T> linkMultipleResponses, final boolean getAll) throws IntegrationException {
-        final String uri = metaHandler.getFirstLinkSafely(hubView, linkMultipleResponses.link);
+        final String uri = metaHandler.findFirstLink(hubView, linkMultipleResponses.link).orElse(null);
         if (StringUtils.isBlank(uri)) {
             return Collections.emptyList();
         }
@@ -187,7 +279,7 @@ public class HubService {
     }
 
     public <T extends HubResponse> List<T> getResponses(final HubView hubView, final LinkMultipleResponses<T> linkMultipleResponses, final Request.Builder requestBuilder, final boolean getAll) throws IntegrationException {
-        final String uri = metaHandler.getFirstLinkSafely(hubView, linkMultipleResponses.link);
+        final String uri = metaHandler.findFirstLink(hubView, linkMultipleResponses.link).orElse(null);
         if (StringUtils.isBlank(uri)) {
             return Collections.emptyList();
         }
@@ -197,7 +289,7 @@ public class HubService {
 
     public <T extends HubResponse> List<T> getResponses(final HubView hubView, final LinkMultipleResponses<T> linkMultipleResponses, final Request.Builder requestBuilder, final boolean getAll, final Map<String, Class<? extends T>> typeMap)
             throws IntegrationException {
-        final String uri = metaHandler.getFirstLinkSafely(hubView, linkMultipleResponses.link);
+        final String uri = metaHandler.findFirstLink(hubView, linkMultipleResponses.link).orElse(null);
         if (StringUtils.isBlank(uri)) {
             return Collections.emptyList();
         }
@@ -206,7 +298,7 @@ public class HubService {
     }
 
     public <T extends HubResponse> T getResponse(final HubView hubView, final LinkSingleResponse<T> linkSingleResponse) throws IntegrationException {
-        final String uri = metaHandler.getFirstLinkSafely(hubView, linkSingleResponse.link);
+        final String uri = metaHandler.findFirstLink(hubView, linkSingleResponse.link).orElse(null);
         if (StringUtils.isBlank(uri)) {
             return null;
         }
@@ -221,6 +313,15 @@ public class HubService {
         return getResponses(uri, responseClass, true);
     }
 
+    public <T extends HubResponse> List<T> getAllResponses(final String uri, final Class<T> responseClass, final ParallelPaging parallelPaging) throws IntegrationException {
+        final Request.Builder requestBuilder = RequestFactory.createCommonGetRequestBuilder(uri);
+        return getAllResponses(requestBuilder, responseClass, parallelPaging);
+    }
+
+    public <T extends HubResponse> List<T> getAllResponses(final Request.Builder requestBuilder, final Class<T> responseClass, final ParallelPaging parallelPaging) throws IntegrationException {
+        return hubResponsesTransformer.getAllResponses(new PagedRequest(requestBuilder), responseClass, null, parallelPaging);
+    }
+
     public <T extends HubResponse> List<T> getResponses(final String uri, final Class<T> responseClass, final boolean getAll) throws IntegrationException {
         final Request.Builder requestBuilder = RequestFactory.createCommonGetRequestBuilder(uri);
         return getResponses(requestBuilder, responseClass, getAll);
@@ -235,6 +336,52 @@ public class HubService {
         return hubResponseTransformer.getResponse(request, responseClass);
     }
 
+    // ------------------------------------------------
+    // lazily walking all the pages of responses
+    // ------------------------------------------------
+    public <T extends HubResponse> Stream<T> streamAllResponses(final HubPathMultipleResponses<T> hubPathMultipleResponses) {
+        return streamAllResponses(hubPathMultipleResponses, RequestFactory.createCommonGetRequestBuilder());
+    }
+
+    public <T extends HubResponse> Stream<T> streamAllResponses(final HubPathMultipleResponses<T> hubPathMultipleResponses, final Request.Builder requestBuilder) {
+        try {
+            requestBuilder.uri(pieceTogetherUri(hubBaseUrl, hubPathMultipleResponses.hubPath.getPath()));
+        } catch (final HubIntegrationException e) {
+            throw new UncheckedHubIntegrationException(e);
+        }
+        return streamAllResponses(requestBuilder, hubPathMultipleResponses.responseClass);
+    }
+
+    public <T extends HubResponse> Stream<T> streamAllResponses(final HubView hubView, final LinkMultipleResponses<T> linkMultipleResponses) {
+        final String uri = metaHandler.findFirstLink(hubView, linkMultipleResponses.link).orElse(null);
+        if (StringUtils.isBlank(uri)) {
+            return Stream.empty();
+        }
+        return streamAllResponses(RequestFactory.createCommonGetRequestBuilder(uri), linkMultipleResponses.responseClass);
+    }
+
+    public <T extends HubResponse> Stream<T> streamAllResponses(final String uri, final Class<T> responseClass) {
+        return streamAllResponses(RequestFactory.createCommonGetRequestBuilder(uri), responseClass);
+    }
+
+    /**
+     * The Stream should be closed if it is not consumed to the end so that any outstanding prefetch is stopped. None of the streamAllResponses methods throw a checked exception - any IntegrationException, whether it comes
+     * from building the uri or from a page, is thrown as an UncheckedHubIntegrationException.
+     */
+    public <T extends HubResponse> Stream<T> streamAllResponses(final Request.Builder requestBuilder, final Class<T> responseClass) {
+        final HubResponsesIterator<T> hubResponsesIterator = getResponsesIterator(requestBuilder, responseClass);
+        final Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(hubResponsesIterator, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(hubResponsesIterator::close);
+    }
+
+    public <T extends HubResponse> HubResponsesIterator<T> getResponsesIterator(final Request.Builder requestBuilder, final Class<T> responseClass) {
+        return new HubResponsesIterator<>(hubResponsesTransformer, new PagedRequest(requestBuilder), responseClass, null);
+    }
+
+    public <T extends HubResponse> HubResponsesIterator<T> getResponsesIterator(final Request.Builder requestBuilder, final Class<T> responseClass, final Map<String, Class<? extends T>> typeMap, final ExecutorService executorService) {
+        return new HubResponsesIterator<>(hubResponsesTransformer, new PagedRequest(requestBuilder), responseClass, typeMap, executorService);
+    }
+
     // ------------------------------------------------
     // getting responses from a UriSingleResponse
     // ------------------------------------------------
@@ -243,16 +390,24 @@ public class HubService {
         return hubResponseTransformer.getResponse(request, uriSingleResponse.responseClass);
     }
 
+    /**
+     * Gets the response, checking with the Hub whether a cached copy has changed (using its ETag/Last-Modified) even if it has not expired yet. Without a response cache this always retrieves the full response.
+     */
+    public <T extends HubResponse> T revalidateResponse(final UriSingleResponse<T> uriSingleResponse) throws IntegrationException {
+        final Request request = RequestFactory.createCommonGetRequest(uriSingleResponse.uri);
+        return hubResponseTransformer.revalidateResponse(request, uriSingleResponse.responseClass);
+    }
+
     // ------------------------------------------------
     // handling plain requests
     // ------------------------------------------------
     public Response executeGetRequest(final String uri) throws IntegrationException {
-        return restConnection.executeRequest(RequestFactory.createCommonGetRequest(uri));
+        return hubRequestExecutor.execute(RequestFactory.createCommonGetRequest(uri));
     }
 
     public Response executeGetRequest(final HubPath path) throws IntegrationException {
         final String uri = pieceTogetherUri(restConnection.getBaseUrl(), path.getPath());
-        return restConnection.executeRequest(RequestFactory.createCommonGetRequest(uri));
+        return hubRequestExecutor.execute(RequestFactory.createCommonGetRequest(uri));
     }
 
     public Response executeRequest(final HubPath path, final Request.Builder requestBuilder) throws IntegrationException {
@@ -262,7 +417,29 @@ public class HubService {
     }
 
     public Response executeRequest(final Request request) throws IntegrationException {
-        return restConnection.executeRequest(request);
+        try {
+            return hubRequestExecutor.execute(request);
+        } finally {
+            if (HttpMethod.PUT == request.getMethod() || HttpMethod.PATCH == request.getMethod() || HttpMethod.DELETE == request.getMethod()) {
+                hubResponseTransformer.invalidate(request.getUri());
+            }
+        }
+    }
+
+    public Optional<AdaptiveConcurrencyLimiter> getConcurrencyLimiter() {
+        return hubRequestExecutor.getConcurrencyLimiter();
+    }
+
+    public HubTracer getTracer() {
+        return hubRequestExecutor.getTracer();
+    }
+
+    public HubRequestExecutor getHubRequestExecutor() {
+        return hubRequestExecutor;
+    }
+
+    public Optional<HubResponseCache> getResponseCache() {
+        return hubResponseTransformer.getResponseCache();
     }
 
     // ------------------------------------------------
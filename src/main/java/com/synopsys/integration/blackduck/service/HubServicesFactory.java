@@ -23,8 +23,16 @@
  */
 package com.synopsys.integration.blackduck.service;
 
+import java.io.Closeable;
 import java.net.URL;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutorService;
 
 import org.apache.commons.lang3.builder.RecursiveToStringStyle;
@@ -34,10 +42,27 @@ import org.apache.http.impl.client.HttpClientBuilder;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonParser;
+import com.synopsys.integration.blackduck.api.core.HubResponse;
 import com.synopsys.integration.blackduck.notification.content.detail.NotificationContentDetailFactory;
 import com.synopsys.integration.blackduck.rest.BlackduckRestConnection;
 import com.synopsys.integration.blackduck.service.bucket.HubBucketService;
+import com.synopsys.integration.blackduck.service.cache.HubResponseCache;
+import com.synopsys.integration.blackduck.service.json.GeneratedTypeAdapterFactory;
+import com.synopsys.integration.blackduck.service.json.HubDateTypeAdapter;
+import com.synopsys.integration.blackduck.service.metrics.HubRequestListener;
+import com.synopsys.integration.blackduck.service.model.AdaptiveConcurrencyLimiter;
+import com.synopsys.integration.blackduck.service.model.AdaptivePageSizePolicy;
 import com.synopsys.integration.blackduck.service.model.BlackDuckPhoneHomeCallable;
+import com.synopsys.integration.blackduck.service.model.BoundedIoExecutorService;
+import com.synopsys.integration.blackduck.service.model.HedgingPolicy;
+import com.synopsys.integration.blackduck.service.model.HubExecutionContext;
+import com.synopsys.integration.blackduck.service.model.HubServiceOptions;
+import com.synopsys.integration.blackduck.service.model.JsonRetention;
+import com.synopsys.integration.blackduck.service.model.RetryPolicy;
+import com.synopsys.integration.blackduck.service.record.HubTrafficRecorder;
+import com.synopsys.integration.blackduck.service.trace.HubTracer;
+import com.synopsys.integration.blackduck.signaturescanner.command.ScanCommandRunner;
+import com.synopsys.integration.blackduck.signaturescanner.command.ScanPathsUtility;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.log.IntLogger;
 import com.synopsys.integration.phonehome.PhoneHomeCallable;
@@ -45,23 +70,49 @@ import com.synopsys.integration.phonehome.PhoneHomeClient;
 import com.synopsys.integration.phonehome.PhoneHomeRequestBody;
 import com.synopsys.integration.phonehome.PhoneHomeService;
 import com.synopsys.integration.phonehome.google.analytics.GoogleAnalyticsConstants;
-import com.synopsys.integration.rest.RestConstants;
 import com.synopsys.integration.util.IntEnvironmentVariables;
 import com.synopsys.integration.util.IntegrationEscapeUtil;
 
-public class HubServicesFactory {
+/**
+ * Every service the factory creates shares one HubService, so they share its link indexes, in-flight requests and settings - the cache, limiter, listeners and policies set on the factory. The HubService is created the
+ * first time a service needs it, and changing a setting drops it, so the services created after the change get a new HubService with the new setting while the services created before it keep the old one.
+ * <p>
+ * The methods that take no executor and always ran on the calling thread still do. Parallel work is opt-in: either pass an executor, for example one of the pools of getExecutionContext(), or use a method documented to
+ * run on the HubExecutionContext (createAsyncHubService, createPhoneHomeService and createScanCommandRunner). The context is the one set with setExecutionContext, or else one the factory creates the first time it is
+ * needed and keeps until the factory is closed - a caller that uses it must close() the factory. Closing the factory closes the HubExecutionContext it created (one that was set is up to the caller to close), and no more
+ * services can be created.
+ */
+public class HubServicesFactory implements Closeable {
     private final IntEnvironmentVariables intEnvironmentVariables;
     private final Gson gson;
     private final JsonParser jsonParser;
     private final BlackduckRestConnection restConnection;
     private final IntLogger logger;
+    private JsonRetention jsonRetention = JsonRetention.EAGER;
+    private final Set<Class<? extends HubResponse>> lazyResponseClasses = new CopyOnWriteArraySet<>();
+    private Optional<AdaptivePageSizePolicy> pageSizePolicy = Optional.empty();
+    private Optional<HubResponseCache> responseCache = Optional.empty();
+    private Optional<AdaptiveConcurrencyLimiter> concurrencyLimiter = Optional.empty();
+    private Optional<RetryPolicy> retryPolicy = Optional.empty();
+    private Optional<HedgingPolicy> hedgingPolicy = Optional.empty();
+    private final List<HubRequestListener> requestListeners = new CopyOnWriteArrayList<>();
+    private HubTracer hubTracer = HubTracer.disabled();
+    private HubTrafficRecorder trafficRecorder;
+    private HubService hubService;
+    private HubService lazyHubService;
+    private HubExecutionContext executionContext;
+    private HubExecutionContext defaultExecutionContext;
+    private boolean closed;
 
     public static Gson createDefaultGson() {
         return createDefaultGsonBuilder().create();
     }
 
+    /**
+     * Dates are read and written by HubDateTypeAdapter, and the views and notification contents are read by generated adapters instead of reflection.
+     */
     public static GsonBuilder createDefaultGsonBuilder() {
-        return new GsonBuilder().setDateFormat(RestConstants.JSON_DATE_FORMAT);
+        return new GsonBuilder().registerTypeAdapter(Date.class, new HubDateTypeAdapter()).registerTypeAdapterFactory(new GeneratedTypeAdapterFactory());
     }
 
     public static JsonParser createDefaultJsonParser() {
@@ -85,10 +136,173 @@ public class HubServicesFactory {
         intEnvironmentVariables.putAll(environmentVariables);
     }
 
+    /**
+     * Controls whether the HubServices created from now on populate the json field of every response they decode. Use HubService.getJson to read the json of a response when the retention is not EAGER.
+     */
+    public synchronized void setJsonRetention(final JsonRetention jsonRetention) {
+        this.jsonRetention = jsonRetention;
+        hubService = null;
+        lazyHubService = null;
+    }
+
+    public JsonRetention getJsonRetention() {
+        return jsonRetention;
+    }
+
+    /**
+     * Responses of the class decoded by the HubService of createLazyHubService start out with only their plain fields, and the rest are decoded when loaded - see LazyDecoder. The services the factory creates never
+     * decode lazily, since they read the deferred fields without loading them. The json of a lazy response is retained as the JsonRetention says, and its deferred values are kept aside until they are loaded, which
+     * makes this cheaper than decoding eagerly for callers that read a few fields of many large responses, like the BOM components of a version. With JsonRetention.NONE only the deferred values are kept (see
+     * LazyDecodingBenchmark).
+     */
+    public synchronized void setLazyDecoding(final Class<? extends HubResponse> responseClass, final boolean lazy) {
+        if (lazy) {
+            lazyResponseClasses.add(responseClass);
+        } else {
+            lazyResponseClasses.remove(responseClass);
+        }
+        hubService = null;
+        lazyHubService = null;
+    }
+
+    /**
+     * The policy is shared by every HubService created from now on, so what it learns about an endpoint carries over from one service to the next.
+     */
+    public synchronized void setPageSizePolicy(final AdaptivePageSizePolicy pageSizePolicy) {
+        this.pageSizePolicy = Optional.ofNullable(pageSizePolicy);
+        hubService = null;
+        lazyHubService = null;
+    }
+
+    public Optional<AdaptivePageSizePolicy> getPageSizePolicy() {
+        return pageSizePolicy;
+    }
+
+    /**
+     * The cache is shared by every HubService created from now on. Changes made through HubService.executeRequest invalidate the entries for the uri that was changed.
+     */
+    public synchronized void setResponseCache(final HubResponseCache responseCache) {
+        this.responseCache = Optional.ofNullable(responseCache);
+        hubService = null;
+        lazyHubService = null;
+    }
+
+    public Optional<HubResponseCache> getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * The limiter is shared by every HubService created from now on, so it limits the requests in flight across all of them.
+     */
+    public synchronized void setConcurrencyLimiter(final AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = Optional.ofNullable(concurrencyLimiter);
+        hubService = null;
+        lazyHubService = null;
+    }
+
+    public Optional<AdaptiveConcurrencyLimiter> getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * Failed GET requests are retried according to the policy. The policy's RetryBudget is shared by every HubService created from now on.
+     */
+    public synchronized void setRetryPolicy(final RetryPolicy retryPolicy) {
+        this.retryPolicy = Optional.ofNullable(retryPolicy);
+        hubService = null;
+        lazyHubService = null;
+    }
+
+    public Optional<RetryPolicy> getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Slow GET requests are hedged according to the policy. To keep retries and hedges under one cap, give it the same RetryBudget as the RetryPolicy.
+     */
+    public synchronized void setHedgingPolicy(final HedgingPolicy hedgingPolicy) {
+        this.hedgingPolicy = Optional.ofNullable(hedgingPolicy);
+        hubService = null;
+        lazyHubService = null;
+    }
+
+    public Optional<HedgingPolicy> getHedgingPolicy() {
+        return hedgingPolicy;
+    }
+
+    /**
+     * The listener is told about the requests of every HubService created from now on - an InMemoryHubRequestMetrics will collect metrics for all of them.
+     */
+    public synchronized void addRequestListener(final HubRequestListener requestListener) {
+        requestListeners.add(requestListener);
+        hubService = null;
+        lazyHubService = null;
+    }
+
+    public List<HubRequestListener> getRequestListeners() {
+        return Collections.unmodifiableList(requestListeners);
+    }
+
+    /**
+     * The tracer is used by every HubService created from now on - for example new HubTracer(new JsonSpanExporter(logger, directory)) writes every trace to the directory.
+     */
+    public synchronized void setTracer(final HubTracer hubTracer) {
+        this.hubTracer = hubTracer == null ? HubTracer.disabled() : hubTracer;
+        hubService = null;
+        lazyHubService = null;
+    }
+
+    public HubTracer getTracer() {
+        return hubTracer;
+    }
+
+    /**
+     * Every HubService created from now on records its traffic with the recorder - it is up to the caller to close it, which finishes the archive. Pass null to stop recording.
+     */
+    public synchronized void setTrafficRecorder(final HubTrafficRecorder trafficRecorder) {
+        this.trafficRecorder = trafficRecorder;
+        hubService = null;
+        lazyHubService = null;
+    }
+
+    public HubTrafficRecorder getTrafficRecorder() {
+        return trafficRecorder;
+    }
+
     public BinaryScannerService createBinaryScannerService() {
         return new BinaryScannerService(createHubService(), logger);
     }
 
+    /**
+     * The HubExecutionContext the services run their parallel work on - its snapshots show how busy each pool is. Unless one was set, the factory creates it here, and only close() shuts its pools down.
+     */
+    public synchronized HubExecutionContext getExecutionContext() {
+        if (closed) {
+            throw new IllegalStateException("The HubServicesFactory has been closed.");
+        }
+        if (executionContext != null) {
+            return executionContext;
+        }
+        if (defaultExecutionContext == null) {
+            defaultExecutionContext = new HubExecutionContext();
+        }
+        return defaultExecutionContext;
+    }
+
+    /**
+     * The services created from now on run their parallel work on the context. NOTE: it is up to the caller to close the context. Pass null to go back to the context the factory creates.
+     */
+    public synchronized void setExecutionContext(final HubExecutionContext executionContext) {
+        this.executionContext = executionContext;
+    }
+
+    /**
+     * Phone home requests are sent on the io pool of the HubExecutionContext.
+     */
+    public PhoneHomeService createPhoneHomeService() {
+        return new PhoneHomeService(logger, getExecutionContext().getIoExecutorService());
+    }
+
     public PhoneHomeService createPhoneHomeService(final ExecutorService executorService) {
         return new PhoneHomeService(logger, executorService);
     }
@@ -130,6 +344,14 @@ public class HubServicesFactory {
         return new CommonNotificationService(notificationContentDetailFactory, oldestFirst);
     }
 
+    /**
+     * The content details of large lists of notifications are generated on the executor - getExecutionContext().getCpuExecutorService() is meant for this.
+     * NOTE: it is up to the caller to shutdown the executorService, or to close the factory if it is one of the pools of getExecutionContext().
+     */
+    public CommonNotificationService createCommonNotificationService(final NotificationContentDetailFactory notificationContentDetailFactory, final boolean oldestFirst, final ExecutorService executorService) {
+        return new CommonNotificationService(notificationContentDetailFactory, oldestFirst, executorService);
+    }
+
     public LicenseService createLicenseService() {
         return new LicenseService(createHubService(), logger, createComponentService());
     }
@@ -146,8 +368,55 @@ public class HubServicesFactory {
         return new HubRegistrationService(createHubService(), logger);
     }
 
-    public HubService createHubService() {
-        return new HubService(logger, restConnection, gson, jsonParser);
+    /**
+     * @return the HubService shared by the services the factory creates
+     */
+    public synchronized HubService createHubService() {
+        if (hubService == null) {
+            hubService = newHubService();
+        }
+        return hubService;
+    }
+
+    /**
+     * @return a HubService that decodes the classes given to setLazyDecoding lazily - the caller has to load the fields it reads
+     */
+    public synchronized HubService createLazyHubService() {
+        if (lazyHubService == null) {
+            lazyHubService = newHubService();
+            lazyResponseClasses.forEach(responseClass -> lazyHubService.getLazyDecoder().setLazy(responseClass, true));
+        }
+        return lazyHubService;
+    }
+
+    private HubService newHubService() {
+        if (closed) {
+            throw new IllegalStateException("The HubServicesFactory has been closed.");
+        }
+        final HubRequestExecutor hubRequestExecutor = new HubRequestExecutor(restConnection, concurrencyLimiter, retryPolicy, hedgingPolicy);
+        requestListeners.forEach(hubRequestExecutor::addRequestListener);
+        hubRequestExecutor.setTracer(hubTracer);
+        hubRequestExecutor.setTrafficRecorder(trafficRecorder);
+        final HubServiceOptions options = new HubServiceOptions.Builder()
+                .jsonRetention(jsonRetention)
+                .pageSizePolicy(pageSizePolicy.orElse(null))
+                .responseCache(responseCache.orElse(null))
+                .build();
+        return new HubService(logger, hubRequestExecutor, gson, jsonParser, options);
+    }
+
+    /**
+     * The AsyncHubServices run their calls on the io pool of the HubExecutionContext - closing one of them leaves the pool running.
+     */
+    public AsyncHubService createAsyncHubService() {
+        return new AsyncHubService(createHubService(), getExecutionContext().getIoExecutorService());
+    }
+
+    /**
+     * NOTE: it is up to the caller to shutdown the executorService.
+     */
+    public AsyncHubService createAsyncHubService(final ExecutorService executorService) {
+        return new AsyncHubService(createHubService(), executorService);
     }
 
     public ComponentService createComponentService() {
@@ -173,10 +442,29 @@ public class HubServicesFactory {
         return new HubBucketService(createHubService(), logger);
     }
 
+    /**
+     * The bucket is filled on the executor - getExecutionContext().getIoExecutorService() is meant for this.
+     * NOTE: it is up to the caller to shutdown the executorService, or to close the factory if it is one of the pools of getExecutionContext().
+     */
     public HubBucketService createHubBucketService(final ExecutorService executorService) {
         return new HubBucketService(createHubService(), logger, executorService);
     }
 
+    /**
+     * The scans are run on the process pool of the HubExecutionContext - pass the runner to ScanJobManager.createFullScanManager or createScanManagerWithNoInstaller.
+     */
+    public ScanCommandRunner createScanCommandRunner(final ScanPathsUtility scanPathsUtility) {
+        return new ScanCommandRunner(logger, intEnvironmentVariables, scanPathsUtility, getExecutionContext().getProcessExecutorService());
+    }
+
+    /**
+     * An executor for HubBucketService and AsyncHubService fan-outs that runs on virtual threads when the JDK has them, bounded by the number of requests in flight rather than by the number of threads.
+     * NOTE: it is up to the caller to shutdown the executor.
+     */
+    public BoundedIoExecutorService createIoExecutorService(final int maximumConcurrentRequests) {
+        return BoundedIoExecutorService.create(maximumConcurrentRequests);
+    }
+
     public BlackduckRestConnection getRestConnection() {
         return restConnection;
     }
@@ -193,9 +481,24 @@ public class HubServicesFactory {
         return intEnvironmentVariables;
     }
 
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        hubService = null;
+        lazyHubService = null;
+        if (defaultExecutionContext != null) {
+            defaultExecutionContext.close();
+            defaultExecutionContext = null;
+        }
+    }
+
     @Override
     public String toString() {
-        return ReflectionToStringBuilder.toString(this, RecursiveToStringStyle.JSON_STYLE);
+        return new ReflectionToStringBuilder(this, RecursiveToStringStyle.JSON_STYLE).setExcludeFieldNames("hubService", "lazyHubService", "executionContext", "defaultExecutionContext").toString();
     }
 
 }
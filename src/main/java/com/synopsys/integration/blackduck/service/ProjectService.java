@@ -210,6 +210,16 @@ public class ProjectService extends DataService {
     }
 
     public List<ComponentVersionVulnerabilities> getComponentVersionVulnerabilities(final ProjectVersionView projectVersionView) throws IntegrationException {
+        return hubService.getTracer().trace("ProjectService.getComponentVersionVulnerabilities", () -> collectComponentVersionVulnerabilities(projectVersionView));
+    }
+
+    public List<ComponentVersionVulnerabilities> getComponentVersionVulnerabilities(final String projectName, final String projectVersionName) throws IntegrationException {
+        final ProjectVersionWrapper projectVersionWrapper = getProjectVersion(projectName, projectVersionName);
+        final ProjectVersionView projectVersionView = projectVersionWrapper.getProjectVersionView();
+        return getComponentVersionVulnerabilities(projectVersionView);
+    }
+
+    private List<ComponentVersionVulnerabilities> collectComponentVersionVulnerabilities(final ProjectVersionView projectVersionView) throws IntegrationException {
         final List<VersionBomComponentView> versionBomComponentViews = getComponentsForProjectVersion(projectVersionView);
         final List<ComponentVersionView> componentVersionViews = new ArrayList<>();
         for (final VersionBomComponentView versionBomComponentView : versionBomComponentViews) {
@@ -227,12 +237,6 @@ public class ProjectService extends DataService {
         return componentVersionVulnerabilitiesList;
     }
 
-    public List<ComponentVersionVulnerabilities> getComponentVersionVulnerabilities(final String projectName, final String projectVersionName) throws IntegrationException {
-        final ProjectVersionWrapper projectVersionWrapper = getProjectVersion(projectName, projectVersionName);
-        final ProjectVersionView projectVersionView = projectVersionWrapper.getProjectVersionView();
-        return getComponentVersionVulnerabilities(projectVersionView);
-    }
-
     public List<VersionBomComponentModel> getComponentsWithMatchedFilesForProjectVersion(final String projectName, final String projectVersionName) throws IntegrationException {
         final ProjectView project = getProjectByName(projectName);
         final ProjectVersionView version = getProjectVersion(project, projectVersionName);
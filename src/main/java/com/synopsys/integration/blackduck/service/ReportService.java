@@ -133,6 +133,10 @@ public class ReportService extends DataService {
     }
 
     public ReportData getRiskReportData(final ProjectView project, final ProjectVersionView version) throws IntegrationException {
+        return hubService.getTracer().trace("ReportService.getRiskReportData", () -> createRiskReportData(project, version));
+    }
+
+    private ReportData createRiskReportData(final ProjectView project, final ProjectVersionView version) throws IntegrationException {
         final String originalProjectUrl = hubService.getHref(project);
         final String originalVersionUrl = hubService.getHref(version);
         final ReportData reportData = new ReportData();
@@ -83,7 +83,7 @@ public class ScanStatusService extends DataService {
      * If the timeout is exceeded, a HubTimeoutExceededException will be thrown.
      */
     public void assertScansFinished(final List<ScanSummaryView> pendingScans) throws InterruptedException, HubTimeoutExceededException, IntegrationException {
-        waitForScansToComplete(pendingScans, timeoutInMilliseconds);
+        hubService.getTracer().traceInterruptibly("ScanStatusService.assertScansFinished", () -> waitForScansToComplete(pendingScans, timeoutInMilliseconds));
     }
 
     public void assertScansFinished(final String projectName, final String projectVersion) throws InterruptedException, IntegrationException {
@@ -178,7 +178,7 @@ public class ScanStatusService extends DataService {
             pendingScans = new ArrayList<>();
             for (final ScanSummaryView scanSummaryItem : allScanSummaries) {
                 if (isPending(scanSummaryItem.status)) {
-                    logger.debug("Adding pending scan: " + scanSummaryItem.json);
+                    logger.debug("Adding pending scan: " + hubService.getJson(scanSummaryItem));
                     pendingScans.add(scanSummaryItem);
                 }
             }
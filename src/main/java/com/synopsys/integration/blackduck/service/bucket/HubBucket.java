@@ -26,18 +26,50 @@ package com.synopsys.integration.blackduck.service.bucket;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 
 import com.synopsys.integration.blackduck.api.UriSingleResponse;
 import com.synopsys.integration.blackduck.api.core.HubResponse;
 
 public class HubBucket {
     private final Map<String, HubBucketItem<HubResponse>> bucket = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Void>> urisBeingFilled = new ConcurrentHashMap<>();
 
     public boolean contains(final String uri) {
         return bucket.containsKey(uri);
     }
 
+    /**
+     * Claims the uri for filling, so concurrent attempts to fill the same uri don't each retrieve it.
+     * @return true if the caller should retrieve the uri and then call finishFilling, false if the uri is already in the bucket or another caller is filling it - call awaitFilling before reading the uri then
+     */
+    public boolean startFilling(final String uri) {
+        return !bucket.containsKey(uri) && urisBeingFilled.putIfAbsent(uri, new CompletableFuture<>()) == null;
+    }
+
+    public void finishFilling(final String uri) {
+        final CompletableFuture<Void> filling = urisBeingFilled.remove(uri);
+        if (filling != null) {
+            filling.complete(null);
+        }
+    }
+
+    /**
+     * Waits until the caller that claimed the uri has put it in the bucket, so a caller that lost the claim doesn't read the uri before it's there.
+     */
+    public void awaitFilling(final String uri) throws InterruptedException {
+        final CompletableFuture<Void> filling = urisBeingFilled.get(uri);
+        if (filling != null) {
+            try {
+                filling.get();
+            } catch (final ExecutionException e) {
+                // finishFilling never completes exceptionally
+            }
+        }
+    }
+
     public Set<String> getAvailableUris() {
         return bucket.keySet();
     }
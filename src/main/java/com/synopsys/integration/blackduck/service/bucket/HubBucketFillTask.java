@@ -26,6 +26,7 @@ package com.synopsys.integration.blackduck.service.bucket;
 import com.synopsys.integration.blackduck.api.UriSingleResponse;
 import com.synopsys.integration.blackduck.api.core.HubResponse;
 import com.synopsys.integration.blackduck.service.HubService;
+import com.synopsys.integration.blackduck.service.jfr.HubFlightRecorder;
 
 public class HubBucketFillTask implements Runnable {
     private final HubService hubService;
@@ -40,13 +41,25 @@ public class HubBucketFillTask implements Runnable {
 
     @Override
     public void run() {
-        if (!hubBucket.contains(uriSingleResponse.uri)) {
+        if (hubBucket.startFilling(uriSingleResponse.uri)) {
+            final HubFlightRecorder.BucketFillRecording recording = HubFlightRecorder.beginBucketFill(uriSingleResponse.uri);
+            boolean succeeded = false;
             try {
                 final HubResponse hubResponse = hubService.getResponse(uriSingleResponse);
                 hubBucket.addValid(uriSingleResponse.uri, hubResponse);
+                succeeded = true;
             } catch (final Exception e) {
                 // it is up to the consumer of the bucket to log or handle any/all Exceptions
                 hubBucket.addError(uriSingleResponse.uri, e);
+            } finally {
+                hubBucket.finishFilling(uriSingleResponse.uri);
+                recording.end(succeeded);
+            }
+        } else {
+            try {
+                hubBucket.awaitFilling(uriSingleResponse.uri);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
         }
     }
@@ -0,0 +1,52 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.bucket;
+
+import com.synopsys.integration.blackduck.api.UriSingleResponse;
+import com.synopsys.integration.blackduck.api.core.HubResponse;
+import com.synopsys.integration.blackduck.service.HubService;
+
+public class HubBucketRevalidateTask implements Runnable {
+    private final HubService hubService;
+    private final HubBucket hubBucket;
+    private final UriSingleResponse<? extends HubResponse> uriSingleResponse;
+
+    public HubBucketRevalidateTask(final HubService hubService, final HubBucket hubBucket, final UriSingleResponse<? extends HubResponse> uriSingleResponse) {
+        this.hubService = hubService;
+        this.hubBucket = hubBucket;
+        this.uriSingleResponse = uriSingleResponse;
+    }
+
+    @Override
+    public void run() {
+        try {
+            final HubResponse hubResponse = hubService.revalidateResponse(uriSingleResponse);
+            hubBucket.addValid(uriSingleResponse.uri, hubResponse);
+        } catch (final Exception e) {
+            // it is up to the consumer of the bucket to log or handle any/all Exceptions
+            hubBucket.addError(uriSingleResponse.uri, e);
+        }
+    }
+
+}
@@ -27,13 +27,17 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 import com.synopsys.integration.blackduck.api.UriSingleResponse;
 import com.synopsys.integration.blackduck.api.core.HubResponse;
 import com.synopsys.integration.blackduck.service.DataService;
 import com.synopsys.integration.blackduck.service.HubService;
+import com.synopsys.integration.blackduck.service.model.HubExecutionContext;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.log.IntLogger;
 
@@ -45,6 +49,10 @@ public class HubBucketService extends DataService {
         executorService = Optional.empty();
     }
 
+    /**
+     * The fill tasks run on the executor, and adding to the bucket waits for all of them - the calling thread runs the tasks that haven't started yet itself.
+     * NOTE: it is up to the caller to shutdown the executorService.
+     */
     public HubBucketService(final HubService hubService, final IntLogger logger, final ExecutorService executorService) {
         super(hubService, logger);
         this.executorService = Optional.of(executorService);
@@ -74,11 +82,34 @@ public class HubBucketService extends DataService {
         final List<HubBucketFillTask> taskList = uriSingleResponses.stream().map(uriSingleResponse -> {
             return new HubBucketFillTask(hubService, hubBucket, uriSingleResponse);
         }).collect(Collectors.toList());
+        executeTasks(taskList);
+    }
+
+    /**
+     * Refreshes every valid response in the bucket. When the HubService has a response cache, each response is revalidated with its ETag/Last-Modified so only the responses that changed are downloaded again.
+     */
+    public void revalidateTheBucket(final HubBucket hubBucket) {
+        final List<HubBucketRevalidateTask> taskList = new ArrayList<>();
+        for (final String uri : hubBucket.getAvailableUris()) {
+            final Optional<HubResponse> hubResponse = hubBucket.get(uri).getHubResponse();
+            if (hubResponse.isPresent()) {
+                taskList.add(new HubBucketRevalidateTask(hubService, hubBucket, new UriSingleResponse<>(uri, hubResponse.get().getClass())));
+            }
+        }
+        executeTasks(taskList);
+    }
+
+    private void executeTasks(final List<? extends Runnable> taskList) {
         if (executorService.isPresent()) {
             // NOTE: it is up to the user of the bucket service to shutdown the executor
-            taskList.forEach(task -> {
-                executorService.get().execute(task);
-            });
+            final List<Callable<Object>> callables = taskList.stream().map(task -> Executors.callable(hubService.getTracer().wrap(task))).collect(Collectors.toList());
+            try {
+                HubExecutionContext.invokeAll(executorService.get(), callables);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (final ExecutionException e) {
+                logger.error(String.format("Could not fill the bucket: %s", e.getCause().getMessage()), e.getCause());
+            }
         } else {
             taskList.forEach(task -> {
                 task.run();
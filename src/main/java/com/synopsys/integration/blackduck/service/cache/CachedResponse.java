@@ -0,0 +1,103 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.cache;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.synopsys.integration.blackduck.api.core.HubResponse;
+import com.synopsys.integration.util.Stringable;
+
+public class CachedResponse extends Stringable {
+    private final String uri;
+    private final Class<? extends HubResponse> responseClass;
+    private final String json;
+    private final long createdTime;
+    private final String eTag;
+    private final String lastModified;
+
+    public CachedResponse(final String uri, final Class<? extends HubResponse> responseClass, final String json, final long createdTime) {
+        this(uri, responseClass, json, createdTime, null, null);
+    }
+
+    public CachedResponse(final String uri, final Class<? extends HubResponse> responseClass, final String json, final long createdTime, final String eTag, final String lastModified) {
+        this.uri = uri;
+        this.responseClass = responseClass;
+        this.json = json;
+        this.createdTime = createdTime;
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * @return a copy of this response that is considered retrieved at the given time - used when the Hub confirms that the response has not changed
+     */
+    public CachedResponse revalidated(final long revalidatedTime) {
+        return new CachedResponse(uri, responseClass, json, revalidatedTime, eTag, lastModified);
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public Class<? extends HubResponse> getResponseClass() {
+        return responseClass;
+    }
+
+    public String getJson() {
+        return json;
+    }
+
+    /**
+     * @return when the response was retrieved, in milliseconds since the epoch
+     */
+    public long getCreatedTime() {
+        return createdTime;
+    }
+
+    /**
+     * @return the ETag header of the response, or null if there wasn't one
+     */
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * @return the Last-Modified header of the response, exactly as it was received, or null if there wasn't one
+     */
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    public boolean canBeRevalidated() {
+        return StringUtils.isNotBlank(eTag) || StringUtils.isNotBlank(lastModified);
+    }
+
+    /**
+     * @return the weight of the entry, for caches that are bounded by weight rather than by the number of entries
+     */
+    public long getWeight() {
+        return json == null ? 0 : json.length();
+    }
+
+}
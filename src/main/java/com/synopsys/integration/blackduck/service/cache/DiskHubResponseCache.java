@@ -0,0 +1,424 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.synopsys.integration.blackduck.api.core.HubResponse;
+import com.synopsys.integration.log.IntLogger;
+
+/**
+ * Keeps responses in a directory so they survive the JVM, letting a new process start with the responses of the previous one. Each entry is its own file holding the uri, class, time of retrieval, validators and raw json.
+ * Entries are written to a temporary file and moved into place, and every process using the directory coordinates through a lock file, so several processes on one host can share it. Instances in one JVM that share a
+ * directory also share a monitor, since a JVM can only hold one lock on the file.
+ * <p>
+ * The directory is bounded by its total size. Each instance keeps a running total of what it wrote, and only once that passes the limit is the directory listed: the least recently used entries (by file modification time,
+ * which is updated on every hit) are then deleted until the directory is a tenth below the limit. Entries written by other processes are only counted at that point, so the directory can briefly grow past the limit.
+ * <p>
+ * Problems with the disk are logged and treated as a miss, since the cache is never the only source of a response.
+ */
+public class DiskHubResponseCache implements HubResponseCache {
+    public static final long DEFAULT_MAXIMUM_BYTES = 256L * 1024 * 1024;
+    public static final long DEFAULT_TIME_TO_LIVE_MILLISECONDS = TimeUnit.HOURS.toMillis(1);
+
+    private static final String ENTRY_SUFFIX = ".entry";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final String LOCK_FILE_NAME = ".lock";
+    private static final int FORMAT_VERSION = 1;
+    private static final ConcurrentMap<Path, Object> DIRECTORY_MONITORS = new ConcurrentHashMap<>();
+
+    private final Path directory;
+    private final IntLogger logger;
+    private final long maximumBytes;
+    private final long defaultTimeToLive;
+    private final Map<Class<?>, Long> timeToLiveOverrides = new HashMap<>();
+    private final LongSupplier clock;
+    private final Object directoryMonitor;
+    // -1 until the directory has been listed once
+    private long estimatedBytes = -1;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    public DiskHubResponseCache(final File directory, final IntLogger logger) throws IOException {
+        this(directory, logger, DEFAULT_MAXIMUM_BYTES, DEFAULT_TIME_TO_LIVE_MILLISECONDS);
+    }
+
+    public DiskHubResponseCache(final File directory, final IntLogger logger, final long maximumBytes, final long defaultTimeToLiveMilliseconds) throws IOException {
+        this(directory, logger, maximumBytes, defaultTimeToLiveMilliseconds, System::currentTimeMillis);
+    }
+
+    DiskHubResponseCache(final File directory, final IntLogger logger, final long maximumBytes, final long defaultTimeToLiveMilliseconds, final LongSupplier clock) throws IOException {
+        this.directory = directory.toPath();
+        this.logger = logger;
+        this.maximumBytes = maximumBytes;
+        defaultTimeToLive = defaultTimeToLiveMilliseconds;
+        this.clock = clock;
+        Files.createDirectories(this.directory);
+        directoryMonitor = DIRECTORY_MONITORS.computeIfAbsent(this.directory.toRealPath(), path -> new Object());
+    }
+
+    /**
+     * A time to live of 0 or less keeps responses of the class out of the cache entirely.
+     */
+    public synchronized void setTimeToLive(final Class<? extends HubResponse> responseClass, final long timeToLive, final TimeUnit timeUnit) {
+        timeToLiveOverrides.put(responseClass, timeUnit.toMillis(timeToLive));
+    }
+
+    public synchronized long getTimeToLiveMilliseconds(final Class<?> responseClass) {
+        return timeToLiveOverrides.getOrDefault(responseClass, defaultTimeToLive);
+    }
+
+    public File getDirectory() {
+        return directory.toFile();
+    }
+
+    @Override
+    public synchronized CachedResponse get(final String uri, final Class<? extends HubResponse> responseClass) {
+        final CachedResponse cachedResponse = read(uri, responseClass);
+        if (cachedResponse == null) {
+            missCount++;
+            return null;
+        }
+        if (isExpired(cachedResponse)) {
+            if (!cachedResponse.canBeRevalidated()) {
+                delete(getEntryPath(uri, responseClass));
+                evictionCount++;
+            }
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        touch(getEntryPath(uri, responseClass));
+        return cachedResponse;
+    }
+
+    @Override
+    public synchronized CachedResponse getForRevalidation(final String uri, final Class<? extends HubResponse> responseClass) {
+        final CachedResponse cachedResponse = read(uri, responseClass);
+        if (cachedResponse != null && cachedResponse.canBeRevalidated()) {
+            return cachedResponse;
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized void put(final CachedResponse cachedResponse) {
+        if (getTimeToLiveMilliseconds(cachedResponse.getResponseClass()) <= 0) {
+            return;
+        }
+        final Path entryPath = getEntryPath(cachedResponse.getUri(), cachedResponse.getResponseClass());
+        try {
+            whileLocked(false, () -> {
+                final byte[] entry = encode(cachedResponse);
+                final long replacedBytes = sizeOf(entryPath);
+                final Path temporaryPath = Files.createTempFile(directory, entryPath.getFileName().toString(), TEMPORARY_SUFFIX);
+                try {
+                    Files.write(temporaryPath, entry);
+                    moveIntoPlace(temporaryPath, entryPath);
+                    touch(entryPath);
+                } finally {
+                    Files.deleteIfExists(temporaryPath);
+                }
+                if (estimatedBytes >= 0) {
+                    estimatedBytes += entry.length - replacedBytes;
+                }
+                if (estimatedBytes < 0 || estimatedBytes > maximumBytes) {
+                    evict();
+                }
+                return null;
+            });
+        } catch (final IOException | OverlappingFileLockException e) {
+            logger.debug("Could not write the cached response for " + cachedResponse.getUri() + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public synchronized void invalidate(final String uri) {
+        try {
+            whileLocked(false, () -> {
+                for (final Path entryPath : listEntries(hash(uri) + "-*" + ENTRY_SUFFIX)) {
+                    deleteEntry(entryPath);
+                }
+                return null;
+            });
+        } catch (final IOException | OverlappingFileLockException e) {
+            logger.debug("Could not invalidate the cached responses for " + uri + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public synchronized void invalidateAll() {
+        try {
+            whileLocked(false, () -> {
+                for (final Path entryPath : listEntries("*" + ENTRY_SUFFIX)) {
+                    Files.deleteIfExists(entryPath);
+                }
+                estimatedBytes = 0;
+                return null;
+            });
+        } catch (final IOException | OverlappingFileLockException e) {
+            logger.debug("Could not invalidate the cached responses: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public synchronized HubResponseCacheStatistics getStatistics() {
+        long entryCount = 0;
+        long weight = 0;
+        try {
+            for (final Path entryPath : listEntries("*" + ENTRY_SUFFIX)) {
+                entryCount++;
+                weight += sizeOf(entryPath);
+            }
+        } catch (final IOException e) {
+            logger.debug("Could not read the cache directory: " + e.getMessage(), e);
+        }
+        return new HubResponseCacheStatistics(hitCount, missCount, evictionCount, entryCount, weight);
+    }
+
+    private CachedResponse read(final String uri, final Class<? extends HubResponse> responseClass) {
+        final Path entryPath = getEntryPath(uri, responseClass);
+        if (!Files.exists(entryPath)) {
+            return null;
+        }
+        try {
+            final CachedResponse cachedResponse = decode(ByteBuffer.wrap(whileLocked(true, () -> Files.readAllBytes(entryPath))));
+            // two uris can hash to the same file name, or the file could be from an older format - either way it isn't the entry being looked for
+            if (cachedResponse == null || !uri.equals(cachedResponse.getUri()) || responseClass != cachedResponse.getResponseClass()) {
+                return null;
+            }
+            return cachedResponse;
+        } catch (final NoSuchFileException e) {
+            return null;
+        } catch (final IOException | RuntimeException e) {
+            logger.debug("Could not read the cached response for " + uri + ": " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    private byte[] encode(final CachedResponse cachedResponse) throws IOException {
+        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(byteArrayOutputStream)) {
+            output.writeInt(FORMAT_VERSION);
+            writeString(output, cachedResponse.getUri());
+            writeString(output, cachedResponse.getResponseClass().getName());
+            output.writeLong(cachedResponse.getCreatedTime());
+            writeString(output, StringUtils.defaultString(cachedResponse.getETag()));
+            writeString(output, StringUtils.defaultString(cachedResponse.getLastModified()));
+            writeString(output, cachedResponse.getJson());
+        }
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    private CachedResponse decode(final ByteBuffer buffer) {
+        if (buffer.remaining() < 4 || buffer.getInt() != FORMAT_VERSION) {
+            return null;
+        }
+        final String uri = readString(buffer);
+        final String className = readString(buffer);
+        final long createdTime = buffer.getLong();
+        final String eTag = StringUtils.defaultIfEmpty(readString(buffer), null);
+        final String lastModified = StringUtils.defaultIfEmpty(readString(buffer), null);
+        final String json = readString(buffer);
+
+        final Class<? extends HubResponse> responseClass;
+        try {
+            responseClass = Class.forName(className).asSubclass(HubResponse.class);
+        } catch (final ClassNotFoundException e) {
+            return null;
+        }
+        return new CachedResponse(uri, responseClass, json, createdTime, eTag, lastModified);
+    }
+
+    private void writeString(final DataOutputStream output, final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private String readString(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Lists the whole directory, so it is only called once the running total passes the limit - it deletes down to a tenth below the limit so that it isn't needed again for a while.
+     */
+    private void evict() throws IOException {
+        final List<Path> entryPaths = listEntries("*" + ENTRY_SUFFIX);
+        long totalBytes = 0;
+        for (final Path entryPath : entryPaths) {
+            totalBytes += sizeOf(entryPath);
+        }
+        estimatedBytes = totalBytes;
+        if (totalBytes <= maximumBytes) {
+            return;
+        }
+
+        final long targetBytes = maximumBytes - maximumBytes / 10;
+        final Map<Path, FileTime> lastUsedTimes = new HashMap<>();
+        for (final Path entryPath : entryPaths) {
+            lastUsedTimes.put(entryPath, lastModifiedTime(entryPath));
+        }
+        entryPaths.sort(Comparator.comparing(lastUsedTimes::get));
+        for (final Path entryPath : entryPaths) {
+            if (estimatedBytes <= targetBytes) {
+                break;
+            }
+            deleteEntry(entryPath);
+            evictionCount++;
+        }
+    }
+
+    private void deleteEntry(final Path entryPath) throws IOException {
+        final long bytes = sizeOf(entryPath);
+        if (Files.deleteIfExists(entryPath) && estimatedBytes >= 0) {
+            estimatedBytes = Math.max(0, estimatedBytes - bytes);
+        }
+    }
+
+    private boolean isExpired(final CachedResponse cachedResponse) {
+        return clock.getAsLong() - cachedResponse.getCreatedTime() >= getTimeToLiveMilliseconds(cachedResponse.getResponseClass());
+    }
+
+    private void moveIntoPlace(final Path temporaryPath, final Path entryPath) throws IOException {
+        try {
+            Files.move(temporaryPath, entryPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final AtomicMoveNotSupportedException e) {
+            Files.move(temporaryPath, entryPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void touch(final Path entryPath) {
+        try {
+            Files.setLastModifiedTime(entryPath, FileTime.fromMillis(clock.getAsLong()));
+        } catch (final IOException e) {
+            // only affects which entries get evicted first
+        }
+    }
+
+    private void delete(final Path entryPath) {
+        try {
+            whileLocked(false, () -> {
+                deleteEntry(entryPath);
+                return null;
+            });
+        } catch (final IOException | OverlappingFileLockException e) {
+            logger.debug("Could not delete " + entryPath + ": " + e.getMessage(), e);
+        }
+    }
+
+    private List<Path> listEntries(final String glob) throws IOException {
+        final List<Path> entryPaths = new ArrayList<>();
+        try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory, glob)) {
+            directoryStream.forEach(entryPaths::add);
+        }
+        return entryPaths;
+    }
+
+    private long sizeOf(final Path entryPath) {
+        try {
+            return Files.size(entryPath);
+        } catch (final IOException e) {
+            // deleted by another process
+            return 0;
+        }
+    }
+
+    private FileTime lastModifiedTime(final Path entryPath) {
+        try {
+            return Files.getLastModifiedTime(entryPath);
+        } catch (final IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private <T> T whileLocked(final boolean shared, final LockedAction<T> action) throws IOException {
+        synchronized (directoryMonitor) {
+            try (FileChannel lockChannel = FileChannel.open(directory.resolve(LOCK_FILE_NAME), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                final FileLock lock = lockChannel.lock(0, Long.MAX_VALUE, shared);
+                try {
+                    return action.run();
+                } finally {
+                    lock.release();
+                }
+            }
+        }
+    }
+
+    private interface LockedAction<T> {
+        T run() throws IOException;
+    }
+
+    private Path getEntryPath(final String uri, final Class<?> responseClass) {
+        return directory.resolve(hash(uri) + "-" + hash(responseClass.getName()) + ENTRY_SUFFIX);
+    }
+
+    private String hash(final String value) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-1").digest(value.getBytes(StandardCharsets.UTF_8));
+            final StringBuilder hex = new StringBuilder();
+            for (final byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (final NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-1
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
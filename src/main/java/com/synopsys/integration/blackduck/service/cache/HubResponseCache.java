@@ -0,0 +1,53 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.cache;
+
+import com.synopsys.integration.blackduck.api.core.HubResponse;
+
+/**
+ * A cache of single GET responses, kept as their raw json so every caller gets its own copy of the view. Implementations must be safe to use from multiple threads.
+ */
+public interface HubResponseCache {
+    /**
+     * @return the cached response, or null if there is no current entry for the uri and class
+     */
+    CachedResponse get(String uri, Class<? extends HubResponse> responseClass);
+
+    /**
+     * @return the cached response even if it is no longer current, as long as it can still be revalidated with the Hub, or null if there is no such entry
+     */
+    CachedResponse getForRevalidation(String uri, Class<? extends HubResponse> responseClass);
+
+    void put(CachedResponse cachedResponse);
+
+    /**
+     * Removes the entries for the uri, whatever class they were cached as.
+     */
+    void invalidate(String uri);
+
+    void invalidateAll();
+
+    HubResponseCacheStatistics getStatistics();
+
+}
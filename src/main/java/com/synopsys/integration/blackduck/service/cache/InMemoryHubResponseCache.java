@@ -0,0 +1,195 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.cache;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import com.synopsys.integration.blackduck.api.core.HubResponse;
+
+/**
+ * Keeps the most recently used responses in memory, bounded by the number of entries and by their weight (the length of their json). Entries expire after a time to live, which can be set per response class. Expired entries with an
+ * ETag or Last-Modified header stay around (until they are evicted) so they can be revalidated.
+ */
+public class InMemoryHubResponseCache implements HubResponseCache {
+    public static final int DEFAULT_MAXIMUM_ENTRIES = 1000;
+    public static final long DEFAULT_MAXIMUM_WEIGHT = Long.MAX_VALUE;
+    public static final long DEFAULT_TIME_TO_LIVE_MILLISECONDS = TimeUnit.MINUTES.toMillis(5);
+
+    private final LinkedHashMap<CacheKey, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Class<?>, Long> timeToLiveOverrides = new HashMap<>();
+    private final int maximumEntries;
+    private final long maximumWeight;
+    private final long defaultTimeToLive;
+    private final LongSupplier clock;
+
+    private long weight;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    public InMemoryHubResponseCache() {
+        this(DEFAULT_MAXIMUM_ENTRIES, DEFAULT_MAXIMUM_WEIGHT, DEFAULT_TIME_TO_LIVE_MILLISECONDS);
+    }
+
+    public InMemoryHubResponseCache(final int maximumEntries, final long maximumWeight, final long defaultTimeToLiveMilliseconds) {
+        this(maximumEntries, maximumWeight, defaultTimeToLiveMilliseconds, System::currentTimeMillis);
+    }
+
+    InMemoryHubResponseCache(final int maximumEntries, final long maximumWeight, final long defaultTimeToLiveMilliseconds, final LongSupplier clock) {
+        this.maximumEntries = maximumEntries;
+        this.maximumWeight = maximumWeight;
+        defaultTimeToLive = defaultTimeToLiveMilliseconds;
+        this.clock = clock;
+    }
+
+    /**
+     * A time to live of 0 or less keeps responses of the class out of the cache entirely.
+     */
+    public synchronized void setTimeToLive(final Class<? extends HubResponse> responseClass, final long timeToLive, final TimeUnit timeUnit) {
+        timeToLiveOverrides.put(responseClass, timeUnit.toMillis(timeToLive));
+    }
+
+    public synchronized long getTimeToLiveMilliseconds(final Class<?> responseClass) {
+        return timeToLiveOverrides.getOrDefault(responseClass, defaultTimeToLive);
+    }
+
+    @Override
+    public synchronized CachedResponse get(final String uri, final Class<? extends HubResponse> responseClass) {
+        final CacheKey key = new CacheKey(uri, responseClass);
+        final CachedResponse cachedResponse = entries.get(key);
+        if (cachedResponse == null) {
+            missCount++;
+            return null;
+        }
+        if (isExpired(cachedResponse)) {
+            // an expired entry that can be revalidated is kept, since revalidating is much cheaper than retrieving the response again
+            if (!cachedResponse.canBeRevalidated()) {
+                remove(key);
+                evictionCount++;
+            }
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return cachedResponse;
+    }
+
+    @Override
+    public synchronized CachedResponse getForRevalidation(final String uri, final Class<? extends HubResponse> responseClass) {
+        final CachedResponse cachedResponse = entries.get(new CacheKey(uri, responseClass));
+        if (cachedResponse != null && cachedResponse.canBeRevalidated()) {
+            return cachedResponse;
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized void put(final CachedResponse cachedResponse) {
+        if (getTimeToLiveMilliseconds(cachedResponse.getResponseClass()) <= 0 || cachedResponse.getWeight() > maximumWeight) {
+            return;
+        }
+        final CacheKey key = new CacheKey(cachedResponse.getUri(), cachedResponse.getResponseClass());
+        remove(key);
+        entries.put(key, cachedResponse);
+        weight += cachedResponse.getWeight();
+        evictIfNecessary();
+    }
+
+    @Override
+    public synchronized void invalidate(final String uri) {
+        final Iterator<Map.Entry<CacheKey, CachedResponse>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<CacheKey, CachedResponse> entry = iterator.next();
+            if (entry.getKey().uri.equals(uri)) {
+                weight -= entry.getValue().getWeight();
+                iterator.remove();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void invalidateAll() {
+        entries.clear();
+        weight = 0;
+    }
+
+    @Override
+    public synchronized HubResponseCacheStatistics getStatistics() {
+        return new HubResponseCacheStatistics(hitCount, missCount, evictionCount, entries.size(), weight);
+    }
+
+    private boolean isExpired(final CachedResponse cachedResponse) {
+        return clock.getAsLong() - cachedResponse.getCreatedTime() >= getTimeToLiveMilliseconds(cachedResponse.getResponseClass());
+    }
+
+    private void remove(final CacheKey key) {
+        final CachedResponse removed = entries.remove(key);
+        if (removed != null) {
+            weight -= removed.getWeight();
+        }
+    }
+
+    private void evictIfNecessary() {
+        // the map is in access order, so the first entries are the least recently used
+        final Iterator<CachedResponse> iterator = entries.values().iterator();
+        while ((entries.size() > maximumEntries || weight > maximumWeight) && iterator.hasNext()) {
+            weight -= iterator.next().getWeight();
+            iterator.remove();
+            evictionCount++;
+        }
+    }
+
+    private static class CacheKey {
+        private final String uri;
+        private final Class<?> responseClass;
+
+        public CacheKey(final String uri, final Class<?> responseClass) {
+            this.uri = uri;
+            this.responseClass = responseClass;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * uri.hashCode() + responseClass.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CacheKey)) {
+                return false;
+            }
+            final CacheKey other = (CacheKey) obj;
+            return uri.equals(other.uri) && responseClass.equals(other.responseClass);
+        }
+    }
+
+}
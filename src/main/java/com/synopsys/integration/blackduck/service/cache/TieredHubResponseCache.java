@@ -0,0 +1,98 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.cache;
+
+import com.synopsys.integration.blackduck.api.core.HubResponse;
+
+/**
+ * Puts a fast cache (typically an InMemoryHubResponseCache) in front of a slower, larger one (typically a DiskHubResponseCache). Responses found only in the slower cache are copied into the faster one.
+ */
+public class TieredHubResponseCache implements HubResponseCache {
+    private final HubResponseCache firstTier;
+    private final HubResponseCache secondTier;
+
+    public TieredHubResponseCache(final HubResponseCache firstTier, final HubResponseCache secondTier) {
+        this.firstTier = firstTier;
+        this.secondTier = secondTier;
+    }
+
+    @Override
+    public CachedResponse get(final String uri, final Class<? extends HubResponse> responseClass) {
+        CachedResponse cachedResponse = firstTier.get(uri, responseClass);
+        if (cachedResponse == null) {
+            cachedResponse = secondTier.get(uri, responseClass);
+            if (cachedResponse != null) {
+                firstTier.put(cachedResponse);
+            }
+        }
+        return cachedResponse;
+    }
+
+    @Override
+    public CachedResponse getForRevalidation(final String uri, final Class<? extends HubResponse> responseClass) {
+        final CachedResponse cachedResponse = firstTier.getForRevalidation(uri, responseClass);
+        if (cachedResponse != null) {
+            return cachedResponse;
+        }
+        return secondTier.getForRevalidation(uri, responseClass);
+    }
+
+    @Override
+    public void put(final CachedResponse cachedResponse) {
+        firstTier.put(cachedResponse);
+        secondTier.put(cachedResponse);
+    }
+
+    @Override
+    public void invalidate(final String uri) {
+        firstTier.invalidate(uri);
+        secondTier.invalidate(uri);
+    }
+
+    @Override
+    public void invalidateAll() {
+        firstTier.invalidateAll();
+        secondTier.invalidateAll();
+    }
+
+    /**
+     * A request only reaches the second tier when it misses the first, so the hits of both tiers count as hits, but only the misses of the second tier are real misses.
+     */
+    @Override
+    public HubResponseCacheStatistics getStatistics() {
+        final HubResponseCacheStatistics firstTierStatistics = firstTier.getStatistics();
+        final HubResponseCacheStatistics secondTierStatistics = secondTier.getStatistics();
+        return new HubResponseCacheStatistics(firstTierStatistics.getHitCount() + secondTierStatistics.getHitCount(), secondTierStatistics.getMissCount(),
+                firstTierStatistics.getEvictionCount() + secondTierStatistics.getEvictionCount(), secondTierStatistics.getEntryCount(), secondTierStatistics.getWeight());
+    }
+
+    public HubResponseCache getFirstTier() {
+        return firstTier;
+    }
+
+    public HubResponseCache getSecondTier() {
+        return secondTier;
+    }
+
+}
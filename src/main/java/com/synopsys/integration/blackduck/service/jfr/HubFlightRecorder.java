@@ -0,0 +1,118 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.jfr;
+
+import com.synopsys.integration.rest.HttpMethod;
+
+/**
+ * Emits Java Flight Recorder events for Hub requests, pagination walks, bucket fills and scan commands. On a JVM without JFR, or while no recording has the event enabled, every begin method returns a shared recording that
+ * does nothing, so the cost is a single check. The hub-common.jfc profile next to this class enables all of the events.
+ * <p>
+ * The events themselves live in the jfr source set, because jdk.jfr isn't part of the Java 8 api this library compiles against. They're loaded reflectively, so nothing in main refers to jdk.jfr.
+ */
+public final class HubFlightRecorder {
+    public interface RequestRecording {
+        boolean isRecording();
+
+        void end(int statusCode, long responseBytes);
+    }
+
+    public interface PaginationRecording {
+        void end(int pageCount, int itemCount);
+    }
+
+    public interface BucketFillRecording {
+        void end(boolean succeeded);
+    }
+
+    public interface ScanCommandRecording {
+        void end(int returnCode);
+    }
+
+    interface Events {
+        RequestRecording beginRequest(String uri, HttpMethod method);
+
+        PaginationRecording beginPagination(String uri);
+
+        BucketFillRecording beginBucketFill(String uri);
+
+        ScanCommandRecording beginScanCommand(String targetPath, boolean dryRun);
+    }
+
+    static final RequestRecording NO_REQUEST_RECORDING = new RequestRecording() {
+        @Override
+        public boolean isRecording() {
+            return false;
+        }
+
+        @Override
+        public void end(final int statusCode, final long responseBytes) {
+        }
+    };
+    static final PaginationRecording NO_PAGINATION_RECORDING = (pageCount, itemCount) -> {
+    };
+    static final BucketFillRecording NO_BUCKET_FILL_RECORDING = succeeded -> {
+    };
+    static final ScanCommandRecording NO_SCAN_COMMAND_RECORDING = returnCode -> {
+    };
+
+    private static final String EVENTS_CLASS_NAME = HubFlightRecorder.class.getPackage().getName() + ".FlightRecorderEvents";
+    private static final Events EVENTS = loadEvents();
+    private static final boolean AVAILABLE = EVENTS != null;
+
+    private HubFlightRecorder() {
+    }
+
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    public static RequestRecording beginRequest(final String uri, final HttpMethod method) {
+        return AVAILABLE ? EVENTS.beginRequest(uri, method) : NO_REQUEST_RECORDING;
+    }
+
+    public static PaginationRecording beginPagination(final String uri) {
+        return AVAILABLE ? EVENTS.beginPagination(uri) : NO_PAGINATION_RECORDING;
+    }
+
+    public static BucketFillRecording beginBucketFill(final String uri) {
+        return AVAILABLE ? EVENTS.beginBucketFill(uri) : NO_BUCKET_FILL_RECORDING;
+    }
+
+    public static ScanCommandRecording beginScanCommand(final String targetPath, final boolean dryRun) {
+        return AVAILABLE ? EVENTS.beginScanCommand(targetPath, dryRun) : NO_SCAN_COMMAND_RECORDING;
+    }
+
+    private static Events loadEvents() {
+        final ClassLoader classLoader = HubFlightRecorder.class.getClassLoader();
+        try {
+            // the events can only be loaded once jdk.jfr is known to be there
+            Class.forName("jdk.jfr.Event", false, classLoader);
+            return Class.forName(EVENTS_CLASS_NAME, true, classLoader).asSubclass(Events.class).getDeclaredConstructor().newInstance();
+        } catch (final ReflectiveOperationException | LinkageError | ClassCastException e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,150 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.json;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.Locale;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.synopsys.integration.rest.RestConstants;
+
+/**
+ * Reads and writes dates in the Hub's format (RestConstants.JSON_DATE_FORMAT) without a SimpleDateFormat per call. Dates are always written in UTC, like 2018-09-01T12:30:00.000Z, which is also the one format read
+ * without a formatter. Any other ISO-8601 date and time is read as well, in UTC if it has no offset.
+ * <p>
+ * The SimpleDateFormat that Gson used before read the same instants, since the pattern's X takes the Z as an offset. It wrote dates in the JVM's default time zone though, like 2016-09-21T14:00:17.457-04 in New York,
+ * where they are now always written in UTC. Both forms are read back as the same instant.
+ */
+public class HubDateTypeAdapter extends TypeAdapter<Date> {
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+    private static final int UTC_LENGTH = "yyyy-MM-ddTHH:mm:ss.SSSZ".length();
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(RestConstants.JSON_DATE_FORMAT, Locale.US).withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter PARSER = new DateTimeFormatterBuilder()
+            .append(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+            .optionalStart().appendOffset("+HH:MM:ss", "Z").optionalEnd()
+            .optionalStart().appendOffset("+HHmm", "Z").optionalEnd()
+            .toFormatter(Locale.US);
+
+    public static String format(final Date date) {
+        final long millis = date.getTime();
+        final LocalDate localDate = LocalDate.ofEpochDay(Math.floorDiv(millis, MILLIS_PER_DAY));
+        if (localDate.getYear() < 0 || localDate.getYear() > 9999) {
+            return FORMATTER.format(date.toInstant());
+        }
+        final int millisOfDay = (int) Math.floorMod(millis, MILLIS_PER_DAY);
+        final char[] chars = "0000-00-00T00:00:00.000Z".toCharArray();
+        writeDigits(chars, 0, 4, localDate.getYear());
+        writeDigits(chars, 5, 2, localDate.getMonthValue());
+        writeDigits(chars, 8, 2, localDate.getDayOfMonth());
+        writeDigits(chars, 11, 2, millisOfDay / 3600000);
+        writeDigits(chars, 14, 2, millisOfDay / 60000 % 60);
+        writeDigits(chars, 17, 2, millisOfDay / 1000 % 60);
+        writeDigits(chars, 20, 3, millisOfDay % 1000);
+        return new String(chars);
+    }
+
+    /**
+     * @throws DateTimeException if the string isn't an ISO-8601 date and time
+     */
+    public static Date parse(final String dateString) {
+        if (isUtcFormat(dateString)) {
+            final LocalDate localDate = LocalDate.of(readDigits(dateString, 0, 4), readDigits(dateString, 5, 2), readDigits(dateString, 8, 2));
+            final LocalTime localTime = LocalTime.of(readDigits(dateString, 11, 2), readDigits(dateString, 14, 2), readDigits(dateString, 17, 2));
+            return new Date(localDate.toEpochDay() * MILLIS_PER_DAY + localTime.toSecondOfDay() * 1000L + readDigits(dateString, 20, 3));
+        }
+        final TemporalAccessor parsed = PARSER.parse(dateString);
+        if (parsed.isSupported(ChronoField.OFFSET_SECONDS)) {
+            return Date.from(OffsetDateTime.from(parsed).toInstant());
+        }
+        return Date.from(LocalDateTime.from(parsed).toInstant(ZoneOffset.UTC));
+    }
+
+    @Override
+    public void write(final JsonWriter out, final Date value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+        } else {
+            out.value(format(value));
+        }
+    }
+
+    @Override
+    public Date read(final JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        final String dateString = in.nextString();
+        try {
+            return parse(dateString);
+        } catch (final DateTimeException e) {
+            throw new JsonSyntaxException(dateString, e);
+        }
+    }
+
+    private static boolean isUtcFormat(final String dateString) {
+        if (dateString.length() != UTC_LENGTH || dateString.charAt(UTC_LENGTH - 1) != 'Z') {
+            return false;
+        }
+        for (int i = 0; i < UTC_LENGTH - 1; i++) {
+            final char expected = "0000-00-00T00:00:00.000".charAt(i);
+            final char actual = dateString.charAt(i);
+            if (expected == '0' ? actual < '0' || actual > '9' : actual != expected) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int readDigits(final String dateString, final int start, final int length) {
+        int value = 0;
+        for (int i = start; i < start + length; i++) {
+            value = value * 10 + dateString.charAt(i) - '0';
+        }
+        return value;
+    }
+
+    private static void writeDigits(final char[] chars, final int start, final int length, int value) {
+        for (int i = start + length - 1; i >= start; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+}
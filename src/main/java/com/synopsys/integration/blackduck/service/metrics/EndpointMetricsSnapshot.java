@@ -0,0 +1,92 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+import com.synopsys.integration.util.Stringable;
+
+/**
+ * The metrics of one endpoint at the time the snapshot was taken. Latencies are in microseconds.
+ */
+public class EndpointMetricsSnapshot extends Stringable {
+    private final String endpoint;
+    private final long requestCount;
+    private final Map<Integer, Long> errorCounts;
+    private final Histogram latencyMicroseconds;
+    private final long responseBytes;
+    private final Histogram pagesPerCall;
+
+    public EndpointMetricsSnapshot(final String endpoint, final long requestCount, final Map<Integer, Long> errorCounts, final Histogram latencyMicroseconds, final long responseBytes, final Histogram pagesPerCall) {
+        this.endpoint = endpoint;
+        this.requestCount = requestCount;
+        this.errorCounts = Collections.unmodifiableMap(errorCounts);
+        this.latencyMicroseconds = latencyMicroseconds;
+        this.responseBytes = responseBytes;
+        this.pagesPerCall = pagesPerCall;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @return every request sent, including the ones that failed
+     */
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    /**
+     * @return the number of failed requests by status code - HubRequestListener.NO_RESPONSE_STATUS_CODE counts the requests that got no response
+     */
+    public Map<Integer, Long> getErrorCounts() {
+        return errorCounts;
+    }
+
+    public long getErrorCount() {
+        return errorCounts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public Histogram getLatencyMicroseconds() {
+        return latencyMicroseconds;
+    }
+
+    public long getLatencyMicroseconds(final double percentile) {
+        return latencyMicroseconds.getValueAtPercentile(percentile);
+    }
+
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+
+    /**
+     * @return the number of pages fetched by each call that walked all the pages of this endpoint
+     */
+    public Histogram getPagesPerCall() {
+        return pagesPerCall;
+    }
+
+}
@@ -0,0 +1,76 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.metrics;
+
+import com.synopsys.integration.util.Stringable;
+
+/**
+ * The state of one pool of a HubExecutionContext at the time the snapshot was taken.
+ */
+public class ExecutionPoolSnapshot extends Stringable {
+    private final String name;
+    private final int maximumConcurrentTasks;
+    private final int runningTaskCount;
+    private final int queuedTaskCount;
+    private final long completedTaskCount;
+
+    public ExecutionPoolSnapshot(final String name, final int maximumConcurrentTasks, final int runningTaskCount, final int queuedTaskCount, final long completedTaskCount) {
+        this.name = name;
+        this.maximumConcurrentTasks = maximumConcurrentTasks;
+        this.runningTaskCount = runningTaskCount;
+        this.queuedTaskCount = queuedTaskCount;
+        this.completedTaskCount = completedTaskCount;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaximumConcurrentTasks() {
+        return maximumConcurrentTasks;
+    }
+
+    public int getRunningTaskCount() {
+        return runningTaskCount;
+    }
+
+    /**
+     * @return the tasks submitted that are waiting for a thread
+     */
+    public int getQueuedTaskCount() {
+        return queuedTaskCount;
+    }
+
+    public long getCompletedTaskCount() {
+        return completedTaskCount;
+    }
+
+    /**
+     * @return the share of the pool that was busy, from 0 to 1
+     */
+    public double getUtilization() {
+        return (double) runningTaskCount / maximumConcurrentTasks;
+    }
+
+}
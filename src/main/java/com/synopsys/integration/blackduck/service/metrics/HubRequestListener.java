@@ -0,0 +1,59 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.metrics;
+
+import com.synopsys.integration.rest.HttpMethod;
+
+/**
+ * Told about every request HubService sends to the Hub. The endpoint is the request's path with its ids replaced by {id}, for example /api/projects/{id}/versions. Listeners are called on the thread that sent the request,
+ * so they must be quick and thread safe.
+ */
+public interface HubRequestListener {
+    /**
+     * The status code given to requestFailed when no response was received at all.
+     */
+    int NO_RESPONSE_STATUS_CODE = 0;
+
+    /**
+     * @param elapsedNanoseconds the time until the response headers were received
+     */
+    default void requestSucceeded(final String endpoint, final HttpMethod method, final long elapsedNanoseconds) {
+    }
+
+    default void requestFailed(final String endpoint, final HttpMethod method, final int statusCode, final long elapsedNanoseconds) {
+    }
+
+    /**
+     * Called once the body of a successful response has been read, or the response has been closed.
+     */
+    default void responseRead(final String endpoint, final long responseBytes) {
+    }
+
+    /**
+     * Called once for every call that walks all the pages of a paged request.
+     */
+    default void pagesFetched(final String endpoint, final int pageCount, final int itemCount) {
+    }
+
+}
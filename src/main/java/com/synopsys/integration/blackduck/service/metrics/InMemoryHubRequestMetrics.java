@@ -0,0 +1,107 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.metrics;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import com.synopsys.integration.rest.HttpMethod;
+
+/**
+ * Keeps the metrics of every endpoint in memory, to be read with getSnapshots - for example by a scraper on a timer.
+ */
+public class InMemoryHubRequestMetrics implements HubRequestListener {
+    private final Map<String, EndpointMetrics> endpointMetrics = new ConcurrentHashMap<>();
+
+    @Override
+    public void requestSucceeded(final String endpoint, final HttpMethod method, final long elapsedNanoseconds) {
+        getEndpointMetrics(endpoint).recordRequest(elapsedNanoseconds);
+    }
+
+    @Override
+    public void requestFailed(final String endpoint, final HttpMethod method, final int statusCode, final long elapsedNanoseconds) {
+        final EndpointMetrics metrics = getEndpointMetrics(endpoint);
+        metrics.recordRequest(elapsedNanoseconds);
+        metrics.errorCounts.computeIfAbsent(statusCode, code -> new AtomicLong()).incrementAndGet();
+    }
+
+    @Override
+    public void responseRead(final String endpoint, final long responseBytes) {
+        getEndpointMetrics(endpoint).responseBytes.addAndGet(responseBytes);
+    }
+
+    @Override
+    public void pagesFetched(final String endpoint, final int pageCount, final int itemCount) {
+        getEndpointMetrics(endpoint).pagesPerCall.record(pageCount);
+    }
+
+    /**
+     * @return a snapshot of every endpoint seen so far, sorted by endpoint
+     */
+    public List<EndpointMetricsSnapshot> getSnapshots() {
+        return endpointMetrics.keySet().stream().sorted().map(this::createSnapshot).collect(Collectors.toList());
+    }
+
+    public Optional<EndpointMetricsSnapshot> getSnapshot(final String endpoint) {
+        if (!endpointMetrics.containsKey(endpoint)) {
+            return Optional.empty();
+        }
+        return Optional.of(createSnapshot(endpoint));
+    }
+
+    public void reset() {
+        endpointMetrics.clear();
+    }
+
+    private EndpointMetrics getEndpointMetrics(final String endpoint) {
+        return endpointMetrics.computeIfAbsent(endpoint, key -> new EndpointMetrics());
+    }
+
+    private EndpointMetricsSnapshot createSnapshot(final String endpoint) {
+        final EndpointMetrics metrics = getEndpointMetrics(endpoint);
+        final Map<Integer, Long> errorCounts = new HashMap<>();
+        metrics.errorCounts.forEach((statusCode, count) -> errorCounts.put(statusCode, count.get()));
+        return new EndpointMetricsSnapshot(endpoint, metrics.requestCount.get(), errorCounts, metrics.latencyMicroseconds.copy(), metrics.responseBytes.get(), metrics.pagesPerCall.copy());
+    }
+
+    private static class EndpointMetrics {
+        private final AtomicLong requestCount = new AtomicLong();
+        private final Map<Integer, AtomicLong> errorCounts = new ConcurrentHashMap<>();
+        private final Histogram latencyMicroseconds = new Histogram();
+        private final AtomicLong responseBytes = new AtomicLong();
+        private final Histogram pagesPerCall = new Histogram();
+
+        public void recordRequest(final long elapsedNanoseconds) {
+            requestCount.incrementAndGet();
+            latencyMicroseconds.record(TimeUnit.NANOSECONDS.toMicros(elapsedNanoseconds));
+        }
+    }
+
+}
@@ -0,0 +1,133 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.metrics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.http.client.methods.CloseableHttpResponse;
+
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.request.Response;
+
+/**
+ * Counts the bytes read from the body of the response and hands the count to the consumer once the body has been read or the response is closed, whichever comes first.
+ */
+public class MeteredResponse extends Response {
+    private final LongConsumer responseBytesConsumer;
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicBoolean reported = new AtomicBoolean(false);
+
+    public MeteredResponse(final CloseableHttpResponse response, final LongConsumer responseBytesConsumer) {
+        super(response);
+        this.responseBytesConsumer = responseBytesConsumer;
+    }
+
+    @Override
+    public InputStream getContent() throws IntegrationException {
+        final InputStream content = super.getContent();
+        if (content == null) {
+            return null;
+        }
+        return new CountingStream(content);
+    }
+
+    @Override
+    public String getContentString(final Charset encoding) throws IntegrationException {
+        try (InputStream content = getContent()) {
+            if (content == null) {
+                return null;
+            }
+            return IOUtils.toString(content, encoding);
+        } catch (final IOException e) {
+            throw new IntegrationException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            report();
+        }
+    }
+
+    private void report() {
+        if (reported.compareAndSet(false, true)) {
+            responseBytesConsumer.accept(bytesRead.get());
+        }
+    }
+
+    private class CountingStream extends FilterInputStream {
+        public CountingStream(final InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int read = super.read();
+            count(read == -1 ? -1 : 1);
+            return read;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            final int read = super.read(b, off, len);
+            count(read);
+            return read;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            final long skipped = super.skip(n);
+            bytesRead.addAndGet(skipped);
+            return skipped;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                report();
+            }
+        }
+
+        private void count(final int read) {
+            if (read == -1) {
+                report();
+            } else {
+                bytesRead.addAndGet(read);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,203 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.model;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.synopsys.integration.blackduck.exception.HubIntegrationException;
+
+/**
+ * Limits the number of requests in flight to the Hub, adapting the limit as it goes (additive increase, multiplicative decrease). While latency stays near the best latency seen recently, the limit grows by roughly one request
+ * per round trip. When latency climbs past the tolerance, or the Hub answers 429 or 503, the limit is cut - but only by requests sent after the last cut, so a burst of failures from requests that were already in flight counts as one signal.
+ * Callers over the limit wait for a request to finish.
+ * <p>
+ * The best latency is kept per endpoint template (see HubEndpoints.getEndpoint), as HedgingPolicy does, so a large page isn't held against the latency of a small GET.
+ */
+public class AdaptiveConcurrencyLimiter {
+    public static final int DEFAULT_INITIAL_LIMIT = 8;
+    public static final int DEFAULT_MINIMUM_LIMIT = 1;
+    public static final int DEFAULT_MAXIMUM_LIMIT = 128;
+    public static final double DEFAULT_LATENCY_TOLERANCE = 2.0;
+
+    private static final double LATENCY_BACKOFF_RATIO = 0.9;
+    private static final double OVERLOAD_BACKOFF_RATIO = 0.5;
+    private static final int BASELINE_WINDOW = 100;
+
+    public enum Outcome {
+        /** The request completed - its latency is used to adjust the limit. */
+        SUCCESS,
+        /** The Hub said it was overloaded (429 or 503). */
+        OVERLOADED,
+        /** The request failed for some other reason, which says nothing about the load on the Hub. */
+        IGNORED;
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitAvailable = lock.newCondition();
+    private final int minimumLimit;
+    private final int maximumLimit;
+    private final double latencyTolerance;
+
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private final Map<String, LatencyBaseline> latencyBaselines = new HashMap<>();
+    private boolean decreased;
+    private long lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimiter() {
+        this(DEFAULT_INITIAL_LIMIT, DEFAULT_MINIMUM_LIMIT, DEFAULT_MAXIMUM_LIMIT, DEFAULT_LATENCY_TOLERANCE);
+    }
+
+    public AdaptiveConcurrencyLimiter(final int initialLimit, final int minimumLimit, final int maximumLimit, final double latencyTolerance) {
+        if (minimumLimit < 1 || maximumLimit < minimumLimit || initialLimit < minimumLimit || initialLimit > maximumLimit) {
+            throw new IllegalArgumentException("The limits must satisfy 1 <= minimum <= initial <= maximum.");
+        }
+        this.minimumLimit = minimumLimit;
+        this.maximumLimit = maximumLimit;
+        this.latencyTolerance = latencyTolerance;
+        limit = initialLimit;
+    }
+
+    /**
+     * Waits until the request can be sent. Every acquire must be followed by exactly one release.
+     */
+    public void acquire() throws HubIntegrationException {
+        lock.lock();
+        try {
+            waiting++;
+            try {
+                while (inFlight >= getLimit()) {
+                    permitAvailable.await();
+                }
+            } finally {
+                waiting--;
+            }
+            inFlight++;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HubIntegrationException("Interrupted while waiting to send a request to the Hub.", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases a request without saying which endpoint it was sent to, so its latency is compared against every other request released this way.
+     */
+    public void release(final long latency, final TimeUnit timeUnit, final Outcome outcome) {
+        release(null, latency, timeUnit, outcome);
+    }
+
+    public void release(final String uri, final long latency, final TimeUnit timeUnit, final Outcome outcome) {
+        final long latencyNanos = timeUnit.toNanos(latency);
+        lock.lock();
+        try {
+            final int inFlightBeforeRelease = inFlight;
+            inFlight--;
+            if (Outcome.OVERLOADED == outcome) {
+                decrease(latencyNanos, OVERLOAD_BACKOFF_RATIO);
+            } else if (Outcome.SUCCESS == outcome) {
+                final long baselineLatencyNanos = latencyBaselines.computeIfAbsent(HubEndpoints.getEndpoint(uri), endpoint -> new LatencyBaseline()).record(latencyNanos);
+                if (latencyNanos > baselineLatencyNanos * latencyTolerance) {
+                    decrease(latencyNanos, LATENCY_BACKOFF_RATIO);
+                } else if (inFlightBeforeRelease * 2 >= limit) {
+                    // only grow when the limit is actually being used, otherwise an idle client would drift to the maximum
+                    limit = Math.min(maximumLimit, limit + 1.0 / limit);
+                }
+            }
+            permitAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of requests waiting for the limit
+     */
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void decrease(final long latencyNanos, final double ratio) {
+        final long now = System.nanoTime();
+        final long sentNanos = now - latencyNanos;
+        if (!decreased || sentNanos - lastDecreaseNanos >= 0) {
+            limit = Math.max(minimumLimit, limit * ratio);
+            decreased = true;
+            lastDecreaseNanos = now;
+        }
+    }
+
+    private static class LatencyBaseline {
+        private long baselineLatencyNanos = Long.MAX_VALUE;
+        private long windowMinimumLatencyNanos = Long.MAX_VALUE;
+        private int windowSampleCount;
+
+        /**
+         * @return the baseline to compare the latency against, including the latency itself
+         */
+        private long record(final long latencyNanos) {
+            final long baseline = Math.min(baselineLatencyNanos, latencyNanos);
+            // the baseline is the best latency of the previous window, so it can rise again if the Hub gets slower for good
+            windowMinimumLatencyNanos = Math.min(windowMinimumLatencyNanos, latencyNanos);
+            baselineLatencyNanos = baseline;
+            windowSampleCount++;
+            if (windowSampleCount >= BASELINE_WINDOW) {
+                baselineLatencyNanos = windowMinimumLatencyNanos;
+                windowMinimumLatencyNanos = Long.MAX_VALUE;
+                windowSampleCount = 0;
+            }
+            return baseline;
+        }
+    }
+
+}
@@ -0,0 +1,139 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Picks the page size used when walking all the pages of an endpoint. The size for each endpoint is grown or shrunk after every page so that a page stays around the target size in bytes and the target time, which means endpoints
+ * with small views (users, groups) are walked in fewer requests and endpoints with large views (BOM components) don't produce huge, slow pages.
+ * <p>
+ * Endpoints are identified as HubEndpoints.getEndpoint identifies them, so '/api/projects/{id}/versions' covers the versions of every project. Either a full uri or a path in that form can be given when pinning a size or setting
+ * a ceiling.
+ */
+public class AdaptivePageSizePolicy {
+    public static final int DEFAULT_MINIMUM_PAGE_SIZE = 10;
+    public static final int DEFAULT_MAXIMUM_PAGE_SIZE = 1000;
+    public static final long DEFAULT_TARGET_PAGE_BYTES = 512 * 1024;
+    public static final long DEFAULT_TARGET_PAGE_MILLISECONDS = 2000;
+
+    private final Map<String, Integer> pageSizes = new ConcurrentHashMap<>();
+    private final Map<String, Integer> pinnedPageSizes = new ConcurrentHashMap<>();
+    private final Map<String, Integer> maximumPageSizes = new ConcurrentHashMap<>();
+
+    private int minimumPageSize = DEFAULT_MINIMUM_PAGE_SIZE;
+    private int maximumPageSize = DEFAULT_MAXIMUM_PAGE_SIZE;
+    private long targetPageBytes = DEFAULT_TARGET_PAGE_BYTES;
+    private long targetPageMilliseconds = DEFAULT_TARGET_PAGE_MILLISECONDS;
+
+    /**
+     * @return the page size to use for the next page of the endpoint, or the given page size if nothing has been learned about the endpoint yet
+     */
+    public int getPageSize(final String uri, final int requestedPageSize) {
+        final String endpoint = HubEndpoints.getEndpoint(uri);
+        final Integer pinnedPageSize = pinnedPageSizes.get(endpoint);
+        if (pinnedPageSize != null) {
+            return pinnedPageSize;
+        }
+        return limit(endpoint, pageSizes.getOrDefault(endpoint, requestedPageSize));
+    }
+
+    /**
+     * Adjusts the page size of the endpoint based on a page that was just retrieved. Pages are shrunk right away, but only ever doubled in size, so one unusually fast page can't cause a huge jump.
+     */
+    public void recordPage(final String uri, final int pageSize, final int itemCount, final long responseBytes, final long elapsedMilliseconds) {
+        final String endpoint = HubEndpoints.getEndpoint(uri);
+        if (itemCount <= 0 || pinnedPageSizes.containsKey(endpoint)) {
+            return;
+        }
+
+        final long bytesPerItem = Math.max(1, responseBytes / itemCount);
+        long desiredPageSize = targetPageBytes / bytesPerItem;
+        if (elapsedMilliseconds > 0) {
+            desiredPageSize = Math.min(desiredPageSize, itemCount * targetPageMilliseconds / elapsedMilliseconds);
+        }
+        if (desiredPageSize > pageSize) {
+            desiredPageSize = Math.min(desiredPageSize, pageSize * 2L);
+        }
+        pageSizes.put(endpoint, limit(endpoint, (int) Math.min(Integer.MAX_VALUE, desiredPageSize)));
+    }
+
+    /**
+     * Always use the given page size for the endpoint.
+     */
+    public void pinPageSize(final String endpoint, final int pageSize) {
+        pinnedPageSizes.put(HubEndpoints.getEndpoint(endpoint), pageSize);
+    }
+
+    public void unpinPageSize(final String endpoint) {
+        pinnedPageSizes.remove(HubEndpoints.getEndpoint(endpoint));
+    }
+
+    public void setMaximumPageSize(final String endpoint, final int maximumPageSize) {
+        maximumPageSizes.put(HubEndpoints.getEndpoint(endpoint), maximumPageSize);
+    }
+
+    public int getMaximumPageSize(final String endpoint) {
+        return maximumPageSizes.getOrDefault(HubEndpoints.getEndpoint(endpoint), maximumPageSize);
+    }
+
+    public void setMinimumPageSize(final int minimumPageSize) {
+        this.minimumPageSize = minimumPageSize;
+    }
+
+    public int getMinimumPageSize() {
+        return minimumPageSize;
+    }
+
+    public void setMaximumPageSize(final int maximumPageSize) {
+        this.maximumPageSize = maximumPageSize;
+    }
+
+    public int getMaximumPageSize() {
+        return maximumPageSize;
+    }
+
+    public void setTargetPageBytes(final long targetPageBytes) {
+        this.targetPageBytes = targetPageBytes;
+    }
+
+    public long getTargetPageBytes() {
+        return targetPageBytes;
+    }
+
+    public void setTargetPageMilliseconds(final long targetPageMilliseconds) {
+        this.targetPageMilliseconds = targetPageMilliseconds;
+    }
+
+    public long getTargetPageMilliseconds() {
+        return targetPageMilliseconds;
+    }
+
+    private int limit(final String endpoint, final int pageSize) {
+        final int ceiling = maximumPageSizes.getOrDefault(endpoint, maximumPageSize);
+        return Math.max(Math.min(minimumPageSize, ceiling), Math.min(pageSize, ceiling));
+    }
+
+}
@@ -0,0 +1,235 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.model;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An executor for I/O-bound fan-outs (bucket fills, AsyncHubService calls) that is bounded by the number of tasks running at once rather than by the number of threads. On a JDK with virtual threads (21+), every task gets its own
+ * virtual thread and waits for a permit before it runs, so thousands of tasks can be queued for the cost of a few kilobytes each. On older JDKs this falls back to a fixed pool of daemon platform threads, one per permit.
+ * <p>
+ * The library is built for Java 8, so virtual threads are found through reflection.
+ */
+public class BoundedIoExecutorService extends AbstractExecutorService {
+    public static final int DEFAULT_MAXIMUM_CONCURRENT_TASKS = 64;
+
+    private final ExecutorService executorService;
+    private final Semaphore permits;
+    private final int maximumConcurrentTasks;
+    private final boolean virtualThreads;
+    private final AtomicInteger waitingTaskCount = new AtomicInteger(0);
+    private final AtomicLong completedTaskCount = new AtomicLong(0);
+    private final ThreadLocal<Boolean> holdsPermit = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    public static BoundedIoExecutorService create() {
+        return create(DEFAULT_MAXIMUM_CONCURRENT_TASKS);
+    }
+
+    public static BoundedIoExecutorService create(final int maximumConcurrentTasks) {
+        final ExecutorService virtualThreadExecutor = createVirtualThreadExecutor();
+        if (virtualThreadExecutor != null) {
+            return new BoundedIoExecutorService(virtualThreadExecutor, maximumConcurrentTasks, true);
+        }
+        return createPlatformThreadExecutor(maximumConcurrentTasks);
+    }
+
+    /**
+     * The fixed pool path, regardless of whether virtual threads are available - mainly for comparison.
+     */
+    public static BoundedIoExecutorService createPlatformThreadExecutor(final int maximumConcurrentTasks) {
+        final AtomicInteger threadNumber = new AtomicInteger(0);
+        final ExecutorService fixedThreadPool = Executors.newFixedThreadPool(maximumConcurrentTasks, runnable -> {
+            final Thread thread = new Thread(runnable, "Hub I/O Thread " + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        return new BoundedIoExecutorService(fixedThreadPool, maximumConcurrentTasks, false);
+    }
+
+    public static boolean isVirtualThreadsAvailable() {
+        return getVirtualThreadExecutorFactory() != null;
+    }
+
+    private BoundedIoExecutorService(final ExecutorService executorService, final int maximumConcurrentTasks, final boolean virtualThreads) {
+        if (maximumConcurrentTasks < 1) {
+            throw new IllegalArgumentException("The maximum number of concurrent tasks must be at least 1.");
+        }
+        this.executorService = executorService;
+        this.maximumConcurrentTasks = maximumConcurrentTasks;
+        this.virtualThreads = virtualThreads;
+        permits = new Semaphore(maximumConcurrentTasks);
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        waitingTaskCount.incrementAndGet();
+        try {
+            executorService.execute(new BoundedTask(command));
+        } catch (final RuntimeException e) {
+            waitingTaskCount.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the command on the calling thread within the same bound as the submitted tasks: the thread waits for a permit first, unless it already holds one because it is running one of this executor's tasks (a task that fans
+     * out and runs part of the work itself is still only one task running).
+     */
+    public void runInCallingThread(final Runnable command) throws InterruptedException {
+        if (holdsPermit.get()) {
+            command.run();
+            return;
+        }
+        permits.acquire();
+        holdsPermit.set(Boolean.TRUE);
+        try {
+            command.run();
+        } finally {
+            holdsPermit.set(Boolean.FALSE);
+            permits.release();
+        }
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public int getMaximumConcurrentTasks() {
+        return maximumConcurrentTasks;
+    }
+
+    public int getRunningTaskCount() {
+        return maximumConcurrentTasks - permits.availablePermits();
+    }
+
+    /**
+     * @return the tasks that have been submitted but are not running yet, whether they wait for a permit or for a thread
+     */
+    public int getWaitingTaskCount() {
+        return waitingTaskCount.get();
+    }
+
+    public long getCompletedTaskCount() {
+        return completedTaskCount.get();
+    }
+
+    @Override
+    public void shutdown() {
+        executorService.shutdown();
+    }
+
+    /**
+     * @return the submitted tasks that never started - on virtual threads this is always empty, and the tasks waiting for a permit are cancelled (or run, if they aren't a Future) with their thread interrupted instead
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+        final List<Runnable> boundedTasks = executorService.shutdownNow();
+        final List<Runnable> tasks = new ArrayList<>(boundedTasks.size());
+        for (final Runnable boundedTask : boundedTasks) {
+            waitingTaskCount.decrementAndGet();
+            tasks.add(((BoundedTask) boundedTask).command);
+        }
+        return tasks;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return executorService.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return executorService.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return executorService.awaitTermination(timeout, unit);
+    }
+
+    private class BoundedTask implements Runnable {
+        private final Runnable command;
+
+        private BoundedTask(final Runnable command) {
+            this.command = command;
+        }
+
+        @Override
+        public void run() {
+            try {
+                permits.acquire();
+            } catch (final InterruptedException e) {
+                // the executor is being shut down - the command must still complete, or whoever waits on it would wait forever
+                waitingTaskCount.decrementAndGet();
+                Thread.currentThread().interrupt();
+                if (command instanceof Future) {
+                    ((Future<?>) command).cancel(false);
+                } else {
+                    command.run();
+                }
+                return;
+            }
+            waitingTaskCount.decrementAndGet();
+            holdsPermit.set(Boolean.TRUE);
+            try {
+                command.run();
+            } finally {
+                holdsPermit.set(Boolean.FALSE);
+                permits.release();
+                completedTaskCount.incrementAndGet();
+            }
+        }
+    }
+
+    private static ExecutorService createVirtualThreadExecutor() {
+        final Method virtualThreadExecutorFactory = getVirtualThreadExecutorFactory();
+        if (virtualThreadExecutorFactory == null) {
+            return null;
+        }
+        try {
+            return (ExecutorService) virtualThreadExecutorFactory.invoke(null);
+        } catch (final ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Method getVirtualThreadExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (final NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+}
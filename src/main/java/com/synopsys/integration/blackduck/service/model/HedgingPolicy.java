@@ -0,0 +1,133 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * When a GET takes longer than the given percentile of the recent latencies for its endpoint, a duplicate request is sent and whichever answers first is used. Until an endpoint has enough samples, its requests are not
+ * hedged. Hedged requests are paid for from the same RetryBudget as retries.
+ * <br/>
+ * NOTE: it is up to the caller to shutdown the executorService.
+ */
+public class HedgingPolicy {
+    public static final double DEFAULT_PERCENTILE = 0.95;
+    public static final int DEFAULT_MINIMUM_SAMPLES = 20;
+    public static final int DEFAULT_SAMPLE_WINDOW = 256;
+
+    private final ExecutorService executorService;
+    private final RetryBudget retryBudget;
+    private final Map<String, LatencyWindow> latencyWindows = new ConcurrentHashMap<>();
+    private double percentile = DEFAULT_PERCENTILE;
+    private int minimumSamples = DEFAULT_MINIMUM_SAMPLES;
+    private int sampleWindow = DEFAULT_SAMPLE_WINDOW;
+
+    public HedgingPolicy(final ExecutorService executorService, final RetryBudget retryBudget) {
+        this.executorService = executorService;
+        this.retryBudget = retryBudget;
+    }
+
+    /**
+     * @return how long to wait for the first response before hedging, or -1 if requests to this uri shouldn't be hedged yet
+     */
+    public long getHedgeDelayMilliseconds(final String uri) {
+        final LatencyWindow latencyWindow = latencyWindows.get(HubEndpoints.getEndpoint(uri));
+        if (latencyWindow == null) {
+            return -1;
+        }
+        return latencyWindow.getPercentile(percentile, minimumSamples);
+    }
+
+    public void recordLatency(final String uri, final long elapsedMilliseconds) {
+        latencyWindows.computeIfAbsent(HubEndpoints.getEndpoint(uri), endpoint -> new LatencyWindow(sampleWindow)).record(elapsedMilliseconds);
+    }
+
+    public ExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    public RetryBudget getRetryBudget() {
+        return retryBudget;
+    }
+
+    public double getPercentile() {
+        return percentile;
+    }
+
+    public void setPercentile(final double percentile) {
+        this.percentile = percentile;
+    }
+
+    public int getMinimumSamples() {
+        return minimumSamples;
+    }
+
+    public void setMinimumSamples(final int minimumSamples) {
+        this.minimumSamples = minimumSamples;
+    }
+
+    public int getSampleWindow() {
+        return sampleWindow;
+    }
+
+    /**
+     * Only applies to endpoints that haven't been seen yet.
+     */
+    public void setSampleWindow(final int sampleWindow) {
+        this.sampleWindow = sampleWindow;
+    }
+
+    private static class LatencyWindow {
+        private final long[] samples;
+        private int count;
+        private int next;
+
+        public LatencyWindow(final int size) {
+            samples = new long[size];
+        }
+
+        public synchronized void record(final long elapsedMilliseconds) {
+            samples[next] = elapsedMilliseconds;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        public long getPercentile(final double percentile, final int minimumSamples) {
+            final long[] sorted;
+            synchronized (this) {
+                if (count == 0 || count < minimumSamples) {
+                    return -1;
+                }
+                sorted = Arrays.copyOf(samples, count);
+            }
+            Arrays.sort(sorted);
+            final int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.model;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Identifies the endpoint of a uri, for everything that keeps track of requests per endpoint (page sizes, latencies, metrics): the path of the uri with any ids replaced by '{id}', so '/api/projects/{id}/versions' covers the
+ * versions of every project. A path already in that form identifies itself.
+ */
+public class HubEndpoints {
+    private static final Pattern ID_SEGMENT = Pattern.compile("[0-9]+|[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+    public static String getEndpoint(final String uri) {
+        String path = StringUtils.defaultString(uri);
+        try {
+            final String uriPath = new URI(path).getRawPath();
+            if (uriPath != null) {
+                path = uriPath;
+            }
+        } catch (final URISyntaxException e) {
+            // '{id}' is not valid in a uri, so templates are used as given
+            path = StringUtils.substringBefore(path, "?");
+        }
+
+        final String[] segments = StringUtils.split(path, '/');
+        final StringBuilder endpoint = new StringBuilder();
+        for (final String segment : segments) {
+            endpoint.append('/');
+            endpoint.append(ID_SEGMENT.matcher(segment).matches() ? "{id}" : segment);
+        }
+        return endpoint.toString();
+    }
+
+}
@@ -0,0 +1,192 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.model;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.synopsys.integration.blackduck.service.metrics.ExecutionPoolSnapshot;
+
+/**
+ * The pools the library runs its parallel work on, kept apart so one kind of work can't starve another:
+ * <ul>
+ * <li>io - requests to the Hub (AsyncHubService calls, bucket fills, phone home), a BoundedIoExecutorService</li>
+ * <li>cpu - decoding that needs no I/O (notification content details), one thread per processor by default</li>
+ * <li>process - external processes (signature scans)</li>
+ * </ul>
+ * Every pool is bounded by the number of tasks it runs at once and queues the rest. The platform threads are named after their pool and are daemons, so a context that is never closed doesn't keep the JVM alive.
+ * <p>
+ * close() is orderly: the pools stop taking tasks, the tasks already submitted get the shutdown timeout to finish, and whatever is still running after that is interrupted.
+ */
+public class HubExecutionContext implements Closeable {
+    public static final String IO_POOL = "io";
+    public static final String CPU_POOL = "cpu";
+    public static final String PROCESS_POOL = "process";
+
+    public static final int DEFAULT_IO_CONCURRENCY = BoundedIoExecutorService.DEFAULT_MAXIMUM_CONCURRENT_TASKS;
+    public static final int DEFAULT_PROCESS_CONCURRENCY = 2;
+    public static final long DEFAULT_SHUTDOWN_TIMEOUT_MILLISECONDS = TimeUnit.SECONDS.toMillis(30);
+
+    private final BoundedIoExecutorService ioExecutorService;
+    private final ThreadPoolExecutor cpuExecutorService;
+    private final ThreadPoolExecutor processExecutorService;
+    private long shutdownTimeoutMilliseconds = DEFAULT_SHUTDOWN_TIMEOUT_MILLISECONDS;
+
+    public HubExecutionContext() {
+        this(DEFAULT_IO_CONCURRENCY, Runtime.getRuntime().availableProcessors(), DEFAULT_PROCESS_CONCURRENCY);
+    }
+
+    public HubExecutionContext(final int ioConcurrency, final int cpuConcurrency, final int processConcurrency) {
+        if (cpuConcurrency < 1 || processConcurrency < 1) {
+            throw new IllegalArgumentException("Every pool must be able to run at least 1 task at once.");
+        }
+        ioExecutorService = BoundedIoExecutorService.create(ioConcurrency);
+        cpuExecutorService = createThreadPool("Hub CPU Thread", cpuConcurrency);
+        processExecutorService = createThreadPool("Hub Process Thread", processConcurrency);
+    }
+
+    /**
+     * Runs the tasks on the executor and waits for all of them. The calling thread runs the tasks that haven't started yet itself rather than just waiting for them, so a task that fans out on the same executor can't deadlock
+     * it. On a BoundedIoExecutorService the calling thread runs them within the executor's bound, see BoundedIoExecutorService.runInCallingThread.
+     * @return the results, in the order of the tasks
+     * @throws ExecutionException for the first task that failed, once every task is done
+     */
+    public static <T> List<T> invokeAll(final ExecutorService executorService, final List<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
+        final List<FutureTask<T>> futureTasks = new ArrayList<>(tasks.size());
+        for (final Callable<T> task : tasks) {
+            final FutureTask<T> futureTask = new FutureTask<>(task);
+            futureTasks.add(futureTask);
+            executorService.execute(futureTask);
+        }
+
+        final List<T> results = new ArrayList<>(futureTasks.size());
+        ExecutionException firstFailure = null;
+        for (final FutureTask<T> futureTask : futureTasks) {
+            // a no-op when the task has already been started by the executor
+            if (executorService instanceof BoundedIoExecutorService) {
+                ((BoundedIoExecutorService) executorService).runInCallingThread(futureTask);
+            } else {
+                futureTask.run();
+            }
+            try {
+                results.add(futureTask.get());
+            } catch (final ExecutionException e) {
+                results.add(null);
+                if (firstFailure == null) {
+                    firstFailure = e;
+                }
+            }
+        }
+        if (firstFailure != null) {
+            throw firstFailure;
+        }
+        return results;
+    }
+
+    public BoundedIoExecutorService getIoExecutorService() {
+        return ioExecutorService;
+    }
+
+    public ExecutorService getCpuExecutorService() {
+        return cpuExecutorService;
+    }
+
+    public ExecutorService getProcessExecutorService() {
+        return processExecutorService;
+    }
+
+    public List<ExecutionPoolSnapshot> getSnapshots() {
+        return Arrays.asList(getSnapshot(IO_POOL), getSnapshot(CPU_POOL), getSnapshot(PROCESS_POOL));
+    }
+
+    public ExecutionPoolSnapshot getSnapshot(final String poolName) {
+        if (IO_POOL.equals(poolName)) {
+            return new ExecutionPoolSnapshot(IO_POOL, ioExecutorService.getMaximumConcurrentTasks(), ioExecutorService.getRunningTaskCount(), ioExecutorService.getWaitingTaskCount(), ioExecutorService.getCompletedTaskCount());
+        } else if (CPU_POOL.equals(poolName)) {
+            return createSnapshot(CPU_POOL, cpuExecutorService);
+        } else if (PROCESS_POOL.equals(poolName)) {
+            return createSnapshot(PROCESS_POOL, processExecutorService);
+        }
+        throw new IllegalArgumentException(String.format("There is no pool named %s.", poolName));
+    }
+
+    public void setShutdownTimeoutMilliseconds(final long shutdownTimeoutMilliseconds) {
+        this.shutdownTimeoutMilliseconds = shutdownTimeoutMilliseconds;
+    }
+
+    public long getShutdownTimeoutMilliseconds() {
+        return shutdownTimeoutMilliseconds;
+    }
+
+    public boolean isShutdown() {
+        return ioExecutorService.isShutdown() && cpuExecutorService.isShutdown() && processExecutorService.isShutdown();
+    }
+
+    public boolean isTerminated() {
+        return ioExecutorService.isTerminated() && cpuExecutorService.isTerminated() && processExecutorService.isTerminated();
+    }
+
+    @Override
+    public void close() {
+        final List<ExecutorService> executorServices = Arrays.asList(ioExecutorService, cpuExecutorService, processExecutorService);
+        executorServices.forEach(ExecutorService::shutdown);
+
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMilliseconds);
+        try {
+            for (final ExecutorService executorService : executorServices) {
+                executorService.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executorServices.forEach(ExecutorService::shutdownNow);
+    }
+
+    private ExecutionPoolSnapshot createSnapshot(final String name, final ThreadPoolExecutor threadPoolExecutor) {
+        return new ExecutionPoolSnapshot(name, threadPoolExecutor.getMaximumPoolSize(), threadPoolExecutor.getActiveCount(), threadPoolExecutor.getQueue().size(), threadPoolExecutor.getCompletedTaskCount());
+    }
+
+    private static ThreadPoolExecutor createThreadPool(final String threadName, final int threadCount) {
+        final AtomicInteger threadNumber = new AtomicInteger(0);
+        final ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(threadCount, threadCount, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            final Thread thread = new Thread(runnable, threadName + " " + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // idle pools give their threads back
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        return threadPoolExecutor;
+    }
+
+}
@@ -0,0 +1,103 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.model;
+
+import java.util.Optional;
+
+import com.synopsys.integration.blackduck.service.cache.HubResponseCache;
+
+/**
+ * How a HubService decodes and pages its responses, and whether it caches them - everything is off by default, with the json of every response retained.
+ */
+public class HubServiceOptions {
+    private final JsonRetention jsonRetention;
+    private final AdaptivePageSizePolicy pageSizePolicy;
+    private final HubResponseCache responseCache;
+
+    public static HubServiceOptions createDefault() {
+        return new Builder().build();
+    }
+
+    private HubServiceOptions(final JsonRetention jsonRetention, final AdaptivePageSizePolicy pageSizePolicy, final HubResponseCache responseCache) {
+        this.jsonRetention = jsonRetention;
+        this.pageSizePolicy = pageSizePolicy;
+        this.responseCache = responseCache;
+    }
+
+    public JsonRetention getJsonRetention() {
+        return jsonRetention;
+    }
+
+    public Optional<AdaptivePageSizePolicy> getPageSizePolicy() {
+        return Optional.ofNullable(pageSizePolicy);
+    }
+
+    public Optional<HubResponseCache> getResponseCache() {
+        return Optional.ofNullable(responseCache);
+    }
+
+    public static class Builder {
+        private JsonRetention jsonRetention = JsonRetention.EAGER;
+        private AdaptivePageSizePolicy pageSizePolicy;
+        private HubResponseCache responseCache;
+
+        public HubServiceOptions build() {
+            return new HubServiceOptions(jsonRetention, pageSizePolicy, responseCache);
+        }
+
+        public JsonRetention getJsonRetention() {
+            return jsonRetention;
+        }
+
+        public Builder jsonRetention(final JsonRetention jsonRetention) {
+            this.jsonRetention = jsonRetention;
+            return this;
+        }
+
+        public AdaptivePageSizePolicy getPageSizePolicy() {
+            return pageSizePolicy;
+        }
+
+        /**
+         * @param pageSizePolicy the policy that sizes the pages, or null to use the requested limit
+         */
+        public Builder pageSizePolicy(final AdaptivePageSizePolicy pageSizePolicy) {
+            this.pageSizePolicy = pageSizePolicy;
+            return this;
+        }
+
+        public HubResponseCache getResponseCache() {
+            return responseCache;
+        }
+
+        /**
+         * @param responseCache the cache of single responses, or null to not cache them
+         */
+        public Builder responseCache(final HubResponseCache responseCache) {
+            this.responseCache = responseCache;
+            return this;
+        }
+    }
+
+}
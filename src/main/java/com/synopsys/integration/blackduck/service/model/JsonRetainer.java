@@ -0,0 +1,121 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.model;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.synopsys.integration.blackduck.api.core.HubResponse;
+import com.synopsys.integration.blackduck.api.generated.view.NotificationUserView;
+import com.synopsys.integration.blackduck.api.generated.view.NotificationView;
+
+/**
+ * Applies a JsonRetention to decoded responses and hands out the json of a response when it is asked for. The retention can be changed for specific response classes.
+ * <p>
+ * LAZY responses keep their json aside and only write it out the first time it is asked for. Responses read from a stream (see readResponse) keep the text copied while they were read, without a tree at all. Responses that
+ * were decoded from a tree keep that tree, which is only the case for single responses and pages that need a type map.
+ * <p>
+ * Notifications are always retained EAGERly, since their content is only available through the json (see NotificationContentDetailFactory).
+ */
+public class JsonRetainer {
+    private final Gson gson;
+    private final JsonRetention defaultJsonRetention;
+    private final Map<Class<?>, JsonRetention> jsonRetentionOverrides = new ConcurrentHashMap<>();
+    private final WeakIdentityMap<HubResponse, Object> retainedJson = new WeakIdentityMap<>();
+
+    public JsonRetainer(final Gson gson, final JsonRetention defaultJsonRetention) {
+        this.gson = gson;
+        this.defaultJsonRetention = defaultJsonRetention;
+        jsonRetentionOverrides.put(NotificationView.class, JsonRetention.EAGER);
+        jsonRetentionOverrides.put(NotificationUserView.class, JsonRetention.EAGER);
+    }
+
+    public void setJsonRetention(final Class<? extends HubResponse> responseClass, final JsonRetention jsonRetention) {
+        jsonRetentionOverrides.put(responseClass, jsonRetention);
+    }
+
+    public JsonRetention getJsonRetention(final Class<?> responseClass) {
+        return jsonRetentionOverrides.getOrDefault(responseClass, defaultJsonRetention);
+    }
+
+    public void retain(final HubResponse hubResponse, final JsonElement json) {
+        final JsonRetention jsonRetention = getJsonRetention(hubResponse.getClass());
+        if (JsonRetention.EAGER == jsonRetention) {
+            hubResponse.json = gson.toJson(json);
+        } else if (JsonRetention.LAZY == jsonRetention) {
+            retainedJson.put(hubResponse, json);
+        }
+    }
+
+    /**
+     * Applies the retention to a response whose json is already text.
+     */
+    public void retain(final HubResponse hubResponse, final String json) {
+        final JsonRetention jsonRetention = getJsonRetention(hubResponse.getClass());
+        if (JsonRetention.EAGER == jsonRetention) {
+            hubResponse.json = json;
+        } else if (JsonRetention.LAZY == jsonRetention) {
+            retainedJson.put(hubResponse, json);
+        }
+    }
+
+    /**
+     * Reads a response of a LAZY class from the stream, keeping a copy of the text of its json without parsing it into a tree.
+     */
+    public <T extends HubResponse> T readResponse(final JsonReader jsonReader, final Class<T> responseClass) throws IOException {
+        final StringWriter json = new StringWriter();
+        LazyDecoder.copyValue(jsonReader, new JsonWriter(json));
+        final String text = json.toString();
+        final T hubResponse = gson.fromJson(text, responseClass);
+        retain(hubResponse, text);
+        return hubResponse;
+    }
+
+    /**
+     * @return the json of the response, creating it from the retained json if it has not been created yet, or null if the json was not retained at all.
+     */
+    public String getJson(final HubResponse hubResponse) {
+        if (hubResponse == null) {
+            return null;
+        }
+        if (hubResponse.json == null) {
+            // the json field is set before the retained json is let go, so a second thread asking at the same time finds one or the other
+            final Object json = retainedJson.get(hubResponse);
+            if (json instanceof JsonElement) {
+                hubResponse.json = gson.toJson((JsonElement) json);
+            } else if (json != null) {
+                hubResponse.json = (String) json;
+            }
+            retainedJson.remove(hubResponse);
+        }
+        return hubResponse.json;
+    }
+
+}
@@ -0,0 +1,43 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.model;
+
+/**
+ * How much of the original json a HubResponse should keep in its json field.
+ */
+public enum JsonRetention {
+    /**
+     * The json field is always populated as the response is decoded. This is the default.
+     */
+    EAGER,
+    /**
+     * The text of the json is kept aside and the json field is only populated the first time it is asked for through a JsonRetainer (for example, HubService.getJson).
+     */
+    LAZY,
+    /**
+     * The json is dropped as soon as the response is decoded and the json field is never populated.
+     */
+    NONE;
+
+}
@@ -0,0 +1,342 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.model;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.synopsys.integration.blackduck.api.core.HubResponse;
+import com.synopsys.integration.blackduck.exception.HubIntegrationException;
+
+/**
+ * Decodes responses, putting off the nested objects and arrays of the response classes that are set to be decoded lazily. A lazily decoded response starts out with only its plain fields (strings, numbers, enums, dates)
+ * and its _meta - every other field stays null until it is loaded. The json of a lazily decoded response is retained by the JsonRetainer like that of any other response; the nested values that were put off are kept aside
+ * until they are loaded, and with JsonRetention.NONE they are all that is kept.
+ * <p>
+ * Since the views expose public fields there is no way to notice the first access of one, so the caller loads the fields it is about to read: load(bomComponent, "licenses").
+ */
+public class LazyDecoder {
+    private static final String META_FIELD = "_meta";
+
+    private final Gson gson;
+    private final TypeAdapter<JsonElement> jsonElementAdapter;
+    private final Set<Class<?>> lazyResponseClasses = ConcurrentHashMap.newKeySet();
+    private final Map<Class<?>, Map<String, Field>> jsonFieldsByClass = new ConcurrentHashMap<>();
+    private final JsonRetainer jsonRetainer;
+    // the deferred values of each response not fully loaded yet - a JsonObject of them when decoded from a tree, the text of the response when read from a stream
+    private final WeakIdentityMap<HubResponse, Object> deferredJson = new WeakIdentityMap<>();
+
+    public LazyDecoder(final Gson gson) {
+        this(gson, new JsonRetainer(gson, JsonRetention.EAGER));
+    }
+
+    public LazyDecoder(final Gson gson, final JsonRetainer jsonRetainer) {
+        this.gson = gson;
+        this.jsonRetainer = jsonRetainer;
+        jsonElementAdapter = gson.getAdapter(JsonElement.class);
+    }
+
+    public void setLazy(final Class<? extends HubResponse> responseClass, final boolean lazy) {
+        if (lazy) {
+            lazyResponseClasses.add(responseClass);
+        } else {
+            lazyResponseClasses.remove(responseClass);
+        }
+    }
+
+    public boolean isLazy(final Class<?> responseClass) {
+        return lazyResponseClasses.contains(responseClass);
+    }
+
+    /**
+     * Only the json of lazily decoded responses is retained here - the caller retains the json of the others.
+     */
+    public <T extends HubResponse> T decode(final JsonElement json, final Class<T> responseClass) {
+        if (!isLazy(responseClass)) {
+            return gson.fromJson(json, responseClass);
+        }
+        if (!json.isJsonObject()) {
+            final T response = gson.fromJson(json, responseClass);
+            jsonRetainer.retain(response, json);
+            return response;
+        }
+
+        final Map<String, Field> jsonFields = getJsonFields(responseClass);
+        final JsonObject plainJson = new JsonObject();
+        final JsonObject deferredValues = new JsonObject();
+        for (final Map.Entry<String, JsonElement> member : json.getAsJsonObject().entrySet()) {
+            if (isDeferred(member.getKey(), member.getValue().isJsonObject() || member.getValue().isJsonArray(), jsonFields)) {
+                deferredValues.add(member.getKey(), member.getValue());
+            } else {
+                plainJson.add(member.getKey(), member.getValue());
+            }
+        }
+        final T response = gson.fromJson(plainJson, responseClass);
+        jsonRetainer.retain(response, json);
+        if (deferredValues.size() > 0) {
+            deferredJson.put(response, deferredValues);
+        }
+        return response;
+    }
+
+    /**
+     * Decodes the next response of the reader without building a tree of its nested objects and arrays - they are copied straight into text. This is how pages of lazy responses are read.
+     */
+    public <T extends HubResponse> T decode(final JsonReader jsonReader, final Class<T> responseClass) throws IOException {
+        if (!isLazy(responseClass) || jsonReader.peek() != JsonToken.BEGIN_OBJECT) {
+            return gson.fromJson(jsonReader, responseClass);
+        }
+
+        // without any json to retain, only the deferred values are copied
+        final boolean retainJson = JsonRetention.NONE != jsonRetainer.getJsonRetention(responseClass);
+        final Map<String, Field> jsonFields = getJsonFields(responseClass);
+        final JsonObject plainJson = new JsonObject();
+        final StringWriter json = new StringWriter();
+        final JsonWriter jsonWriter = new JsonWriter(json);
+        boolean deferred = false;
+        jsonReader.beginObject();
+        jsonWriter.beginObject();
+        while (jsonReader.hasNext()) {
+            final String name = jsonReader.nextName();
+            final JsonToken token = jsonReader.peek();
+            if (isDeferred(name, token == JsonToken.BEGIN_OBJECT || token == JsonToken.BEGIN_ARRAY, jsonFields)) {
+                jsonWriter.name(name);
+                copyValue(jsonReader, jsonWriter);
+                deferred = true;
+            } else {
+                final JsonElement value = jsonElementAdapter.read(jsonReader);
+                plainJson.add(name, value);
+                if (retainJson) {
+                    jsonWriter.name(name);
+                    jsonElementAdapter.write(jsonWriter, value);
+                }
+            }
+        }
+        jsonReader.endObject();
+        jsonWriter.endObject();
+
+        final T response = gson.fromJson(plainJson, responseClass);
+        final String text = json.toString();
+        if (retainJson) {
+            jsonRetainer.retain(response, text);
+        }
+        if (deferred) {
+            deferredJson.put(response, text);
+        }
+        return response;
+    }
+
+    /**
+     * Decodes the named fields of the response if they were put off - fields that were already decoded, or that the response doesn't have, are left alone.
+     */
+    public <T extends HubResponse> T load(final T response, final String... fieldNames) throws HubIntegrationException {
+        final Object deferredValues = deferredJson.get(response);
+        if (deferredValues == null) {
+            return response;
+        }
+        final Set<String> fieldsToLoad = new HashSet<>(Arrays.asList(fieldNames));
+        fieldsToLoad.retainAll(getUnloadedFields(response));
+        if (!fieldsToLoad.isEmpty()) {
+            readFields(response, deferredValues, fieldsToLoad);
+            if (getDeferredFields(response).isEmpty()) {
+                deferredJson.remove(response);
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Decodes every field of the response that was put off, leaving it as if it had not been decoded lazily.
+     */
+    public <T extends HubResponse> T loadAll(final T response) throws HubIntegrationException {
+        return load(response, getDeferredFields(response).toArray(new String[0]));
+    }
+
+    /**
+     * @return the fields of the response that haven't been decoded yet
+     */
+    public Set<String> getDeferredFields(final HubResponse response) throws HubIntegrationException {
+        final Object deferredValues = deferredJson.get(response);
+        if (deferredValues == null) {
+            return new LinkedHashSet<>();
+        }
+        final Set<String> unloadedFields = getUnloadedFields(response);
+        final Set<String> deferredFields = new LinkedHashSet<>();
+        if (deferredValues instanceof JsonObject) {
+            for (final String name : ((JsonObject) deferredValues).keySet()) {
+                if (unloadedFields.contains(name)) {
+                    deferredFields.add(name);
+                }
+            }
+            return deferredFields;
+        }
+        final Map<String, Field> jsonFields = getJsonFields(response.getClass());
+        try (JsonReader jsonReader = new JsonReader(new StringReader((String) deferredValues))) {
+            jsonReader.beginObject();
+            while (jsonReader.hasNext()) {
+                final String name = jsonReader.nextName();
+                final JsonToken token = jsonReader.peek();
+                if (unloadedFields.contains(name) && isDeferred(name, token == JsonToken.BEGIN_OBJECT || token == JsonToken.BEGIN_ARRAY, jsonFields)) {
+                    deferredFields.add(name);
+                }
+                jsonReader.skipValue();
+            }
+        } catch (final IOException e) {
+            throw new HubIntegrationException(String.format("Could not read the json of %s: %s", response.getClass().getSimpleName(), e.getMessage()), e);
+        }
+        return deferredFields;
+    }
+
+    private boolean isDeferred(final String name, final boolean nested, final Map<String, Field> jsonFields) {
+        return nested && !META_FIELD.equals(name) && jsonFields.containsKey(name);
+    }
+
+    private Set<String> getUnloadedFields(final HubResponse response) throws HubIntegrationException {
+        final Set<String> unloadedFields = new HashSet<>();
+        for (final Map.Entry<String, Field> jsonField : getJsonFields(response.getClass()).entrySet()) {
+            try {
+                if (jsonField.getValue().get(response) == null) {
+                    unloadedFields.add(jsonField.getKey());
+                }
+            } catch (final IllegalAccessException e) {
+                throw new HubIntegrationException(String.format("Could not read the field %s of %s: %s", jsonField.getKey(), response.getClass().getSimpleName(), e.getMessage()), e);
+            }
+        }
+        return unloadedFields;
+    }
+
+    private void readFields(final HubResponse response, final Object deferredValues, final Set<String> fieldNames) throws HubIntegrationException {
+        final Map<String, Field> jsonFields = getJsonFields(response.getClass());
+        String fieldName = null;
+        if (deferredValues instanceof JsonObject) {
+            try {
+                for (final String name : fieldNames) {
+                    fieldName = name;
+                    final JsonElement value = ((JsonObject) deferredValues).get(name);
+                    if (value != null) {
+                        final Field field = jsonFields.get(name);
+                        field.set(response, gson.getAdapter(TypeToken.get(field.getGenericType())).fromJsonTree(value));
+                    }
+                }
+            } catch (final IllegalAccessException e) {
+                throw new HubIntegrationException(String.format("Could not load the field %s of %s: %s", fieldName, response.getClass().getSimpleName(), e.getMessage()), e);
+            }
+            return;
+        }
+        try (JsonReader jsonReader = new JsonReader(new StringReader((String) deferredValues))) {
+            jsonReader.beginObject();
+            while (jsonReader.hasNext()) {
+                fieldName = jsonReader.nextName();
+                if (fieldNames.contains(fieldName)) {
+                    final Field field = jsonFields.get(fieldName);
+                    field.set(response, gson.getAdapter(TypeToken.get(field.getGenericType())).read(jsonReader));
+                } else {
+                    jsonReader.skipValue();
+                }
+            }
+        } catch (final IOException | IllegalAccessException e) {
+            throw new HubIntegrationException(String.format("Could not load the field %s of %s: %s", fieldName, response.getClass().getSimpleName(), e.getMessage()), e);
+        }
+    }
+
+    static void copyValue(final JsonReader jsonReader, final JsonWriter jsonWriter) throws IOException {
+        int depth = 0;
+        do {
+            switch (jsonReader.peek()) {
+            case BEGIN_OBJECT:
+                jsonReader.beginObject();
+                jsonWriter.beginObject();
+                depth++;
+                break;
+            case END_OBJECT:
+                jsonReader.endObject();
+                jsonWriter.endObject();
+                depth--;
+                break;
+            case BEGIN_ARRAY:
+                jsonReader.beginArray();
+                jsonWriter.beginArray();
+                depth++;
+                break;
+            case END_ARRAY:
+                jsonReader.endArray();
+                jsonWriter.endArray();
+                depth--;
+                break;
+            case NAME:
+                jsonWriter.name(jsonReader.nextName());
+                break;
+            case STRING:
+                jsonWriter.value(jsonReader.nextString());
+                break;
+            case NUMBER:
+                jsonWriter.jsonValue(jsonReader.nextString());
+                break;
+            case BOOLEAN:
+                jsonWriter.value(jsonReader.nextBoolean());
+                break;
+            default:
+                jsonReader.nextNull();
+                jsonWriter.nullValue();
+                break;
+            }
+        } while (depth > 0);
+    }
+
+    private Map<String, Field> getJsonFields(final Class<?> responseClass) {
+        return jsonFieldsByClass.computeIfAbsent(responseClass, ignored -> {
+            final Map<String, Field> jsonFields = new HashMap<>();
+            for (Class<?> current = responseClass; current != null && current != Object.class; current = current.getSuperclass()) {
+                for (final Field field : current.getDeclaredFields()) {
+                    final int modifiers = field.getModifiers();
+                    if (Modifier.isPublic(modifiers) && !Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !Modifier.isFinal(modifiers)) {
+                        final SerializedName serializedName = field.getAnnotation(SerializedName.class);
+                        jsonFields.putIfAbsent(serializedName == null ? field.getName() : serializedName.value(), field);
+                    }
+                }
+            }
+            return jsonFields;
+        });
+    }
+
+}
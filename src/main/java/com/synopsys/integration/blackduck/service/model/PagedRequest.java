@@ -23,7 +23,9 @@
  */
 package com.synopsys.integration.blackduck.service.model;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.lang3.math.NumberUtils;
@@ -62,16 +64,21 @@ public class PagedRequest {
     }
 
     public Request createRequest() {
-        final Request request = requestBuilder.build();
+        // the builder's query parameters are shared by every page (possibly across threads) so each request gets its own copy
+        final Map<String, Set<String>> queryParameters = new HashMap<>();
+        if (requestBuilder.getQueryParameters() != null) {
+            requestBuilder.getQueryParameters().forEach((key, values) -> queryParameters.put(key, new HashSet<>(values)));
+        }
+
         final Set<String> limitValue = new HashSet<>();
         limitValue.add(String.valueOf(getLimit()));
 
         final Set<String> offsetValue = new HashSet<>();
         offsetValue.add(String.valueOf(getOffset()));
 
-        request.getQueryParameters().put("limit", limitValue);
-        request.getQueryParameters().put("offset", offsetValue);
-        return request;
+        queryParameters.put("limit", limitValue);
+        queryParameters.put("offset", offsetValue);
+        return new Request(requestBuilder.getUri(), requestBuilder.getMethod(), requestBuilder.getMimeType(), requestBuilder.getBodyEncoding(), queryParameters, requestBuilder.getAdditionalHeaders(), requestBuilder.getBodyContent());
     }
 
     public Request.Builder getRequestBuilder() {
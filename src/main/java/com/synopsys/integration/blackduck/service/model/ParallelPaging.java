@@ -0,0 +1,59 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.model;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Once the first page (and so the totalCount) is known, the remaining pages will be requested on the executorService with at most maximumConcurrentPages requests in flight. The results are always assembled in offset order.
+ * <p>
+ * NOTE: it is up to the caller to shutdown the executorService.
+ */
+public class ParallelPaging {
+    public static final int DEFAULT_MAXIMUM_CONCURRENT_PAGES = 4;
+
+    private final ExecutorService executorService;
+    private final int maximumConcurrentPages;
+
+    public ParallelPaging(final ExecutorService executorService) {
+        this(executorService, DEFAULT_MAXIMUM_CONCURRENT_PAGES);
+    }
+
+    public ParallelPaging(final ExecutorService executorService, final int maximumConcurrentPages) {
+        if (maximumConcurrentPages < 1) {
+            throw new IllegalArgumentException("At least one page must be allowed in flight, but " + maximumConcurrentPages + " was provided.");
+        }
+        this.executorService = executorService;
+        this.maximumConcurrentPages = maximumConcurrentPages;
+    }
+
+    public ExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    public int getMaximumConcurrentPages() {
+        return maximumConcurrentPages;
+    }
+
+}
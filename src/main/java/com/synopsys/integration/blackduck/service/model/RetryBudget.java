@@ -0,0 +1,69 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.model;
+
+/**
+ * Caps retries (and hedged requests) at a fraction of the original requests, so a struggling Hub isn't buried under extra traffic. Every request earns a fraction of a retry, up to a fixed reserve, and every retry spends one.
+ */
+public class RetryBudget {
+    public static final double DEFAULT_RETRY_RATIO = 0.1;
+    public static final int DEFAULT_MAXIMUM_RESERVE = 10;
+
+    private final double retryRatio;
+    private final double maximumReserve;
+    private double reserve;
+
+    public RetryBudget() {
+        this(DEFAULT_RETRY_RATIO, DEFAULT_MAXIMUM_RESERVE);
+    }
+
+    public RetryBudget(final double retryRatio, final int maximumReserve) {
+        if (retryRatio < 0 || maximumReserve < 0) {
+            throw new IllegalArgumentException("The retry ratio and maximum reserve can not be negative.");
+        }
+        this.retryRatio = retryRatio;
+        this.maximumReserve = maximumReserve;
+        reserve = maximumReserve;
+    }
+
+    public synchronized void recordRequest() {
+        reserve = Math.min(maximumReserve, reserve + retryRatio);
+    }
+
+    /**
+     * @return true if the retry can be sent, in which case it has been paid for
+     */
+    public synchronized boolean tryAcquireRetry() {
+        if (reserve < 1) {
+            return false;
+        }
+        reserve -= 1;
+        return true;
+    }
+
+    public synchronized int getAvailableRetries() {
+        return (int) reserve;
+    }
+
+}
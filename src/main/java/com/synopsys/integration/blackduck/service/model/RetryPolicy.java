@@ -0,0 +1,90 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.model;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How GET requests are retried after a connection failure or a 429, 502, 503 or 504 from the Hub. The wait before each retry is picked at random between zero and an exponentially growing ceiling (full jitter), so clients
+ * that failed together don't come back together. Every retry has to be paid for from the shared RetryBudget.
+ */
+public class RetryPolicy {
+    public static final int DEFAULT_MAXIMUM_ATTEMPTS = 3;
+    public static final long DEFAULT_BASE_DELAY_MILLISECONDS = 100;
+    public static final long DEFAULT_MAXIMUM_DELAY_MILLISECONDS = 5000;
+
+    private final RetryBudget retryBudget;
+    private int maximumAttempts = DEFAULT_MAXIMUM_ATTEMPTS;
+    private long baseDelayMilliseconds = DEFAULT_BASE_DELAY_MILLISECONDS;
+    private long maximumDelayMilliseconds = DEFAULT_MAXIMUM_DELAY_MILLISECONDS;
+
+    public RetryPolicy() {
+        this(new RetryBudget());
+    }
+
+    public RetryPolicy(final RetryBudget retryBudget) {
+        this.retryBudget = retryBudget;
+    }
+
+    /**
+     * @param attempt the attempt that just failed, starting at 1
+     */
+    public long getBackoffMilliseconds(final int attempt) {
+        final int doublings = Math.min(attempt - 1, 30);
+        final long ceiling = Math.min(maximumDelayMilliseconds, baseDelayMilliseconds << doublings);
+        if (ceiling <= 0) {
+            return 0;
+        }
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    public RetryBudget getRetryBudget() {
+        return retryBudget;
+    }
+
+    public int getMaximumAttempts() {
+        return maximumAttempts;
+    }
+
+    public void setMaximumAttempts(final int maximumAttempts) {
+        this.maximumAttempts = maximumAttempts;
+    }
+
+    public long getBaseDelayMilliseconds() {
+        return baseDelayMilliseconds;
+    }
+
+    public void setBaseDelayMilliseconds(final long baseDelayMilliseconds) {
+        this.baseDelayMilliseconds = baseDelayMilliseconds;
+    }
+
+    public long getMaximumDelayMilliseconds() {
+        return maximumDelayMilliseconds;
+    }
+
+    public void setMaximumDelayMilliseconds(final long maximumDelayMilliseconds) {
+        this.maximumDelayMilliseconds = maximumDelayMilliseconds;
+    }
+
+}
@@ -0,0 +1,90 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.model;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+import com.synopsys.integration.blackduck.exception.HubIntegrationException;
+import com.synopsys.integration.exception.IntegrationException;
+
+/**
+ * Makes concurrent calls for the same key share a single execution - the first caller does the work and every caller that arrives while it is in progress gets the same result (or exception). Once the call completes, the next
+ * caller for the key starts a new one, so nothing is cached.
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> callsInFlight = new ConcurrentHashMap<>();
+
+    @FunctionalInterface
+    public interface Call<V> {
+        V call() throws IntegrationException;
+    }
+
+    public V execute(final K key, final Call<V> call) throws IntegrationException {
+        final CompletableFuture<V> newCall = new CompletableFuture<>();
+        final CompletableFuture<V> callInFlight = callsInFlight.putIfAbsent(key, newCall);
+        if (callInFlight != null) {
+            return waitFor(callInFlight);
+        }
+
+        try {
+            final V result = call.call();
+            newCall.complete(result);
+            return result;
+        } catch (final IntegrationException | RuntimeException | Error e) {
+            newCall.completeExceptionally(e);
+            throw e;
+        } finally {
+            callsInFlight.remove(key, newCall);
+        }
+    }
+
+    public int getCallsInFlight() {
+        return callsInFlight.size();
+    }
+
+    private V waitFor(final CompletableFuture<V> callInFlight) throws IntegrationException {
+        try {
+            return callInFlight.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HubIntegrationException("Interrupted while waiting for the same request made by another thread.", e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IntegrationException) {
+                throw (IntegrationException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new HubIntegrationException(cause.getMessage(), cause);
+        }
+    }
+
+}
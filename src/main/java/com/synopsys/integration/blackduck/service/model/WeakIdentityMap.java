@@ -0,0 +1,100 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.model;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * A map that compares its keys by identity and does not keep them from being garbage collected. The Hub views compare themselves reflectively, field by field, so they can't be used as keys in a WeakHashMap without paying for that
+ * comparison (and misbehaving when a view is modified).
+ * <p>
+ * The map is safe to use from many threads at once without a lock of its own, so parallel decodes don't queue up on it.
+ */
+public class WeakIdentityMap<K, V> {
+    private final ConcurrentMap<IdentityWeakReference<K>, V> map = new ConcurrentHashMap<>();
+    private final ReferenceQueue<K> referenceQueue = new ReferenceQueue<>();
+
+    public V get(final K key) {
+        expungeStaleEntries();
+        return map.get(new IdentityWeakReference<>(key, null));
+    }
+
+    public void put(final K key, final V value) {
+        expungeStaleEntries();
+        map.put(new IdentityWeakReference<>(key, referenceQueue), value);
+    }
+
+    public V computeIfAbsent(final K key, final Function<? super K, ? extends V> mappingFunction) {
+        expungeStaleEntries();
+        return map.computeIfAbsent(new IdentityWeakReference<>(key, referenceQueue), reference -> mappingFunction.apply(key));
+    }
+
+    public V remove(final K key) {
+        expungeStaleEntries();
+        return map.remove(new IdentityWeakReference<>(key, null));
+    }
+
+    public int size() {
+        expungeStaleEntries();
+        return map.size();
+    }
+
+    private void expungeStaleEntries() {
+        Object staleReference;
+        while ((staleReference = referenceQueue.poll()) != null) {
+            map.remove(staleReference);
+        }
+    }
+
+    private static class IdentityWeakReference<T> extends WeakReference<T> {
+        private final int hashCode;
+
+        public IdentityWeakReference(final T referent, final ReferenceQueue<? super T> referenceQueue) {
+            super(referent, referenceQueue);
+            hashCode = System.identityHashCode(referent);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof IdentityWeakReference)) {
+                return false;
+            }
+            final Object referent = get();
+            return referent != null && referent == ((IdentityWeakReference<?>) obj).get();
+        }
+    }
+
+}
@@ -0,0 +1,81 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.record;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.google.gson.Gson;
+
+/**
+ * The exchanges a HubTrafficRecorder wrote, in the order they were recorded.
+ */
+public class HubTrafficArchive {
+    private final List<RecordedExchange> exchanges;
+
+    public HubTrafficArchive(final List<RecordedExchange> exchanges) {
+        this.exchanges = Collections.unmodifiableList(exchanges);
+    }
+
+    public static HubTrafficArchive read(final File archiveFile) throws IOException {
+        final Gson gson = new Gson();
+        final List<RecordedExchange> exchanges = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(Files.newInputStream(archiveFile.toPath())), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (StringUtils.isNotBlank(line)) {
+                    exchanges.add(gson.fromJson(line, RecordedExchange.class));
+                }
+            }
+        }
+        return new HubTrafficArchive(exchanges);
+    }
+
+    public List<RecordedExchange> getExchanges() {
+        return exchanges;
+    }
+
+    /**
+     * @return the scheme, host and port of the recorded Hub, like https://hub.example.com:443, or null if nothing was recorded
+     */
+    public String getOrigin() {
+        if (exchanges.isEmpty()) {
+            return null;
+        }
+        final URI uri = URI.create(exchanges.get(0).getUri());
+        return uri.getScheme() + "://" + uri.getRawAuthority();
+    }
+
+}
@@ -0,0 +1,213 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.record;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.util.EntityUtils;
+
+import com.google.gson.Gson;
+import com.synopsys.integration.blackduck.exception.HubIntegrationException;
+import com.synopsys.integration.blackduck.rest.BlackduckRestConnection;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.IntLogger;
+import com.synopsys.integration.rest.exception.IntegrationRestException;
+import com.synopsys.integration.rest.request.Request;
+import com.synopsys.integration.rest.request.Response;
+
+/**
+ * Writes every request sent to the Hub, and the response it got back, to a gzipped archive with one json line per request, so the traffic can be replayed later without the Hub. The headers that carry credentials are
+ * scrubbed before anything is written. A request that never got a response (like a timeout) isn't recorded, and an exchange that can't be written is logged and dropped.
+ */
+public class HubTrafficRecorder implements Closeable {
+    public static final String SCRUBBED_VALUE = "<scrubbed>";
+
+    private static final Set<String> SCRUBBED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    private static final int MAXIMUM_REQUEST_BODY_LENGTH = 1024 * 1024;
+
+    static {
+        SCRUBBED_HEADERS.addAll(Arrays.asList("Authorization", "Proxy-Authorization", "Cookie", "Set-Cookie", "X-CSRF-TOKEN"));
+    }
+
+    private final IntLogger logger;
+    private final File archiveFile;
+    private final Gson gson = new Gson();
+    private final long startNanos = System.nanoTime();
+    private Writer writer;
+
+    public HubTrafficRecorder(final IntLogger logger, final File archiveFile) throws IOException {
+        this.logger = logger;
+        this.archiveFile = archiveFile;
+        writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(archiveFile.toPath())), StandardCharsets.UTF_8));
+    }
+
+    public static boolean isScrubbed(final String headerName) {
+        return SCRUBBED_HEADERS.contains(headerName);
+    }
+
+    public File getArchiveFile() {
+        return archiveFile;
+    }
+
+    /**
+     * Executes the request and records it. The response body is read completely so it can be recorded, and the response handed back reads from that copy.
+     */
+    public Response execute(final BlackduckRestConnection restConnection, final Request request) throws IntegrationException {
+        final long offsetMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        final long start = System.nanoTime();
+        final Response response;
+        try {
+            response = restConnection.executeRequest(request);
+        } catch (final IntegrationRestException e) {
+            record(request, offsetMillis, start, e.getHttpStatusCode(), Collections.emptyMap(), e.getHttpResponseContent(), false);
+            throw e;
+        }
+
+        final CloseableHttpResponse actualResponse = response.getActualResponse();
+        final HttpEntity entity = actualResponse.getEntity();
+        byte[] body = null;
+        if (entity != null) {
+            try {
+                body = EntityUtils.toByteArray(entity);
+            } catch (final IOException e) {
+                closeQuietly(response);
+                throw new HubIntegrationException(String.format("Could not read the response from %s: %s", request.getUri(), e.getMessage()), e);
+            }
+            final ByteArrayEntity bufferedEntity = new ByteArrayEntity(body);
+            bufferedEntity.setContentType(entity.getContentType());
+            bufferedEntity.setContentEncoding(entity.getContentEncoding());
+            actualResponse.setEntity(bufferedEntity);
+        }
+
+        final Map<String, String> responseHeaders = new LinkedHashMap<>();
+        for (final Header header : actualResponse.getAllHeaders()) {
+            responseHeaders.merge(header.getName(), isScrubbed(header.getName()) ? SCRUBBED_VALUE : header.getValue(), (first, second) -> first + ", " + second);
+        }
+        if (body == null) {
+            record(request, offsetMillis, start, response.getStatusCode(), responseHeaders, null, false);
+        } else if (isText(entity)) {
+            record(request, offsetMillis, start, response.getStatusCode(), responseHeaders, new String(body, StandardCharsets.UTF_8), false);
+        } else {
+            record(request, offsetMillis, start, response.getStatusCode(), responseHeaders, Base64.getEncoder().encodeToString(body), true);
+        }
+        return response;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    private void record(final Request request, final long offsetMillis, final long start, final int statusCode, final Map<String, String> responseHeaders, final String responseBody, final boolean responseBodyBase64) {
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        final Map<String, String> requestHeaders = new LinkedHashMap<>();
+        if (request.getAdditionalHeaders() != null) {
+            request.getAdditionalHeaders().forEach((name, value) -> requestHeaders.put(name, isScrubbed(name) ? SCRUBBED_VALUE : value));
+        }
+        final RecordedExchange exchange = new RecordedExchange(offsetMillis, elapsedMillis, request.getMethod().name(), createFullUri(request), requestHeaders, readRequestBody(request), statusCode, responseHeaders,
+                responseBody, responseBodyBase64);
+        final String line = gson.toJson(exchange);
+        synchronized (this) {
+            if (writer == null) {
+                return;
+            }
+            try {
+                writer.write(line);
+                writer.write('\n');
+            } catch (final IOException e) {
+                logger.debug(String.format("Could not record the request to %s in %s: %s", request.getUri(), archiveFile.getAbsolutePath(), e.getMessage()));
+            }
+        }
+    }
+
+    private String createFullUri(final Request request) {
+        final Map<String, Set<String>> queryParameters = request.getPopulatedQueryParameters();
+        if (queryParameters == null || queryParameters.isEmpty()) {
+            return request.getUri();
+        }
+        try {
+            final URIBuilder uriBuilder = new URIBuilder(request.getUri());
+            queryParameters.forEach((name, values) -> values.forEach(value -> uriBuilder.addParameter(name, value)));
+            return uriBuilder.build().toString();
+        } catch (final URISyntaxException e) {
+            return request.getUri();
+        }
+    }
+
+    private String readRequestBody(final Request request) {
+        if (request.getBodyContent() == null) {
+            return null;
+        }
+        final HttpEntity entity = request.createHttpEntity();
+        if (entity == null || !entity.isRepeatable() || entity.getContentLength() > MAXIMUM_REQUEST_BODY_LENGTH) {
+            return null;
+        }
+        try {
+            return EntityUtils.toString(entity, StandardCharsets.UTF_8);
+        } catch (final IOException e) {
+            return null;
+        }
+    }
+
+    private boolean isText(final HttpEntity entity) {
+        final String contentType = entity.getContentType() == null ? null : entity.getContentType().getValue();
+        return contentType == null || StringUtils.containsIgnoreCase(contentType, "json") || StringUtils.startsWithIgnoreCase(contentType, "text") || StringUtils.containsIgnoreCase(contentType, "xml");
+    }
+
+    private void closeQuietly(final Response response) {
+        try {
+            response.close();
+        } catch (final IOException e) {
+            logger.debug("Could not close the response: " + e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,124 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.record;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * One request sent to the Hub and the response it got back, as written to a traffic archive. A response body that isn't text is kept base64 encoded.
+ */
+public class RecordedExchange {
+    private final long offsetMillis;
+    private final long elapsedMillis;
+    private final String method;
+    private final String uri;
+    private final Map<String, String> requestHeaders;
+    private final String requestBody;
+    private final int statusCode;
+    private final Map<String, String> responseHeaders;
+    private final String responseBody;
+    private final boolean responseBodyBase64;
+
+    public RecordedExchange(final long offsetMillis, final long elapsedMillis, final String method, final String uri, final Map<String, String> requestHeaders, final String requestBody, final int statusCode,
+            final Map<String, String> responseHeaders, final String responseBody, final boolean responseBodyBase64) {
+        this.offsetMillis = offsetMillis;
+        this.elapsedMillis = elapsedMillis;
+        this.method = method;
+        this.uri = uri;
+        this.requestHeaders = requestHeaders;
+        this.requestBody = requestBody;
+        this.statusCode = statusCode;
+        this.responseHeaders = responseHeaders;
+        this.responseBody = responseBody;
+        this.responseBodyBase64 = responseBodyBase64;
+    }
+
+    /**
+     * @return when the request was sent, in milliseconds since the recording started
+     */
+    public long getOffsetMillis() {
+        return offsetMillis;
+    }
+
+    /**
+     * @return how long the Hub took to send the whole response
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return the full uri, including the query parameters
+     */
+    public String getUri() {
+        return uri;
+    }
+
+    public Map<String, String> getRequestHeaders() {
+        return requestHeaders;
+    }
+
+    /**
+     * @return the request body, or null if there was none or it couldn't be read more than once
+     */
+    public String getRequestBody() {
+        return requestBody;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public Map<String, String> getResponseHeaders() {
+        return responseHeaders;
+    }
+
+    /**
+     * @return the response body as text, or null if there was none
+     */
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public boolean isResponseBodyBase64() {
+        return responseBodyBase64;
+    }
+
+    /**
+     * @return the response body as the Hub sent it, or null if there was none
+     */
+    public byte[] getResponseBodyBytes() {
+        if (responseBody == null) {
+            return null;
+        }
+        return responseBodyBase64 ? Base64.getDecoder().decode(responseBody) : responseBody.getBytes(StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,123 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.trace;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The chain of spans that determined how long a trace took. Working back from the end of a span, the child that finished last is on the critical path, then the child that finished last before that one started, and so
+ * on - children that ran alongside one of those are not, since finishing them sooner wouldn't have made the span end sooner. Time not covered by any critical child belongs to the span itself.
+ */
+public class CriticalPath {
+    private final long totalNanos;
+    private final List<Segment> segments;
+
+    public static class Segment {
+        private final Span span;
+        private final long selfNanos;
+
+        public Segment(final Span span, final long selfNanos) {
+            this.span = span;
+            this.selfNanos = selfNanos;
+        }
+
+        public Span getSpan() {
+            return span;
+        }
+
+        /**
+         * @return the time on the critical path spent in this span itself rather than in one of its children
+         */
+        public long getSelfNanos() {
+            return selfNanos;
+        }
+    }
+
+    public static CriticalPath compute(final Span rootSpan) {
+        final List<Segment> segments = new ArrayList<>();
+        addSegments(rootSpan, rootSpan.getStartNanos(), rootSpan.getEndNanos(), segments);
+        return new CriticalPath(rootSpan.getDurationNanos(), segments);
+    }
+
+    private static void addSegments(final Span span, final long start, final long end, final List<Segment> segments) {
+        final List<Span> endedChildren = span.getChildren().stream()
+                                                 .filter(Span::isEnded)
+                                                 .sorted(Comparator.comparingLong(Span::getEndNanos).reversed())
+                                                 .collect(Collectors.toList());
+        final List<Segment> childSegments = new ArrayList<>();
+        long cursor = end;
+        long selfNanos = 0;
+        for (final Span child : endedChildren) {
+            final long childStart = Math.max(start, child.getStartNanos());
+            final long childEnd = Math.min(cursor, child.getEndNanos());
+            if (child.getEndNanos() > cursor || childEnd <= childStart) {
+                continue;
+            }
+            selfNanos += cursor - childEnd;
+            // walking backwards, so the segments of earlier children go in front
+            final List<Segment> segmentsOfChild = new ArrayList<>();
+            addSegments(child, childStart, childEnd, segmentsOfChild);
+            childSegments.addAll(0, segmentsOfChild);
+            cursor = childStart;
+        }
+        selfNanos += Math.max(0, cursor - start);
+        segments.add(new Segment(span, selfNanos));
+        segments.addAll(childSegments);
+    }
+
+    private CriticalPath(final long totalNanos, final List<Segment> segments) {
+        this.totalNanos = totalNanos;
+        this.segments = segments;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return every span on the critical path, parents before children and earlier before later
+     */
+    public List<Segment> getSegments() {
+        return segments;
+    }
+
+    /**
+     * @return the critical path time by span name, largest first - where to look to make the trace faster
+     */
+    public Map<String, Long> getNanosByName() {
+        final Map<String, Long> nanosByName = new LinkedHashMap<>();
+        for (final Segment segment : segments) {
+            nanosByName.merge(segment.getSpan().getName(), segment.getSelfNanos(), Long::sum);
+        }
+        return nanosByName.entrySet().stream()
+                       .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                       .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (first, second) -> first, LinkedHashMap::new));
+    }
+
+}
@@ -0,0 +1,172 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.trace;
+
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+/**
+ * Lightweight tracing of service calls. A span started while another is open on the same thread becomes its child, and a root span is handed to the SpanExporter once it ends. Work handed to another thread only joins
+ * the trace if it is wrapped first. The disabled tracer (the default) creates no spans at all.
+ */
+public class HubTracer {
+    @FunctionalInterface
+    public interface TracedCall<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    @FunctionalInterface
+    public interface InterruptibleTracedRunnable<E extends Exception> {
+        void run() throws InterruptedException, E;
+    }
+
+    private static final HubTracer DISABLED = new HubTracer(null);
+
+    private final SpanExporter spanExporter;
+    private final ThreadLocal<Span> currentSpan = new ThreadLocal<>();
+
+    public static HubTracer disabled() {
+        return DISABLED;
+    }
+
+    public HubTracer(final SpanExporter spanExporter) {
+        this.spanExporter = spanExporter;
+    }
+
+    public boolean isEnabled() {
+        return spanExporter != null;
+    }
+
+    public SpanScope startSpan(final String name) {
+        if (!isEnabled()) {
+            return SpanScope.NONE;
+        }
+        final Span parent = currentSpan.get();
+        final Span span = new Span(name, parent);
+        if (parent != null) {
+            parent.addChild(span);
+        }
+        currentSpan.set(span);
+        return new SpanScope(this, span, true, parent);
+    }
+
+    /**
+     * Runs the call inside a span of its own, which ends when the call returns or throws.
+     */
+    public <T, E extends Exception> T trace(final String name, final TracedCall<T, E> call) throws E {
+        final SpanScope spanScope = startSpan(name);
+        try {
+            return call.call();
+        } finally {
+            spanScope.close();
+        }
+    }
+
+    /**
+     * Like trace, for work that waits and so can be interrupted.
+     */
+    public <E extends Exception> void traceInterruptibly(final String name, final InterruptibleTracedRunnable<E> runnable) throws InterruptedException, E {
+        final SpanScope spanScope = startSpan(name);
+        try {
+            runnable.run();
+        } finally {
+            spanScope.close();
+        }
+    }
+
+    /**
+     * Starts a span that can't have children, so it doesn't become the current span - for work that ends after the method that started it returns, like reading a response. Outside of any span there is nothing for it to
+     * join, so no span is started - otherwise every untraced request would be exported as a trace of its own.
+     */
+    public SpanScope startLeafSpan(final String name) {
+        final Span parent = currentSpan.get();
+        if (!isEnabled() || parent == null) {
+            return SpanScope.NONE;
+        }
+        final Span span = new Span(name, parent);
+        parent.addChild(span);
+        return new SpanScope(this, span, false, null);
+    }
+
+    public Optional<Span> getCurrentSpan() {
+        return Optional.ofNullable(currentSpan.get());
+    }
+
+    /**
+     * @return the runnable, made to run inside the span that is open now
+     */
+    public Runnable wrap(final Runnable runnable) {
+        final Span span = currentSpan.get();
+        if (span == null) {
+            return runnable;
+        }
+        return () -> {
+            final Span previousSpan = currentSpan.get();
+            currentSpan.set(span);
+            try {
+                runnable.run();
+            } finally {
+                restore(previousSpan);
+            }
+        };
+    }
+
+    /**
+     * @return the callable, made to run inside the span that is open now
+     */
+    public <T> Callable<T> wrap(final Callable<T> callable) {
+        final Span span = currentSpan.get();
+        if (span == null) {
+            return callable;
+        }
+        return () -> {
+            final Span previousSpan = currentSpan.get();
+            currentSpan.set(span);
+            try {
+                return callable.call();
+            } finally {
+                restore(previousSpan);
+            }
+        };
+    }
+
+    void endSpan(final Span span, final boolean current, final Span previousSpan) {
+        span.end();
+        if (current) {
+            restore(previousSpan);
+        }
+        if (!span.getParent().isPresent()) {
+            spanExporter.export(span);
+        }
+    }
+
+    private void restore(final Span previousSpan) {
+        if (previousSpan == null) {
+            currentSpan.remove();
+        } else {
+            currentSpan.set(previousSpan);
+        }
+    }
+
+}
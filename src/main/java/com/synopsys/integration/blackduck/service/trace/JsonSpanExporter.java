@@ -0,0 +1,113 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.trace;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.synopsys.integration.log.IntLogger;
+
+/**
+ * Writes every finished trace to its own json file in the directory: the span tree with its timings, followed by the critical path summary. A trace that can't be written is logged and dropped.
+ */
+public class JsonSpanExporter implements SpanExporter {
+    private final IntLogger logger;
+    private final File directory;
+    private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private final AtomicLong traceCount = new AtomicLong();
+
+    public JsonSpanExporter(final IntLogger logger, final File directory) {
+        this.logger = logger;
+        this.directory = directory;
+    }
+
+    @Override
+    public void export(final Span rootSpan) {
+        final String fileName = String.format("trace-%d-%d.json", rootSpan.getStartTimeMillis(), traceCount.incrementAndGet());
+        final File traceFile = new File(directory, fileName);
+        try {
+            Files.createDirectories(directory.toPath());
+            try (Writer writer = new OutputStreamWriter(Files.newOutputStream(traceFile.toPath()), StandardCharsets.UTF_8)) {
+                gson.toJson(toJson(rootSpan), writer);
+            }
+        } catch (final IOException e) {
+            logger.debug(String.format("Could not write the trace %s: %s", traceFile.getAbsolutePath(), e.getMessage()));
+        }
+    }
+
+    public JsonObject toJson(final Span rootSpan) {
+        final JsonObject trace = createSpanJson(rootSpan, rootSpan.getStartNanos());
+        final CriticalPath criticalPath = CriticalPath.compute(rootSpan);
+        final JsonArray criticalPathJson = new JsonArray();
+        for (final Map.Entry<String, Long> entry : criticalPath.getNanosByName().entrySet()) {
+            final JsonObject nameJson = new JsonObject();
+            nameJson.addProperty("name", entry.getKey());
+            nameJson.addProperty("milliseconds", toMilliseconds(entry.getValue()));
+            nameJson.addProperty("percent", criticalPath.getTotalNanos() == 0 ? 0.0 : 100.0 * entry.getValue() / criticalPath.getTotalNanos());
+            criticalPathJson.add(nameJson);
+        }
+        trace.add("criticalPath", criticalPathJson);
+        return trace;
+    }
+
+    private JsonObject createSpanJson(final Span span, final long traceStartNanos) {
+        final JsonObject spanJson = new JsonObject();
+        spanJson.addProperty("name", span.getName());
+        spanJson.addProperty("thread", span.getThreadName());
+        spanJson.addProperty("startMilliseconds", toMilliseconds(span.getStartNanos() - traceStartNanos));
+        if (span.isEnded()) {
+            spanJson.addProperty("durationMilliseconds", toMilliseconds(span.getDurationNanos()));
+        }
+        final Map<String, String> attributes = span.getAttributes();
+        if (!attributes.isEmpty()) {
+            final JsonObject attributesJson = new JsonObject();
+            attributes.forEach(attributesJson::addProperty);
+            spanJson.add("attributes", attributesJson);
+        }
+        final JsonArray children = new JsonArray();
+        for (final Span child : span.getChildren()) {
+            children.add(createSpanJson(child, traceStartNanos));
+        }
+        if (children.size() > 0) {
+            spanJson.add("children", children);
+        }
+        return spanJson;
+    }
+
+    private double toMilliseconds(final long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+}
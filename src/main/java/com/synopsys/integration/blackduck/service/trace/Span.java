@@ -0,0 +1,121 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.trace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * One timed operation - a service method or a single request to the Hub - and the operations it started. Times are from System.nanoTime, so they only mean something relative to each other.
+ */
+public class Span {
+    private final String name;
+    private final Span parent;
+    private final String threadName;
+    private final long startTimeMillis;
+    private final long startNanos;
+    private final Map<String, String> attributes = new LinkedHashMap<>();
+    private final List<Span> children = new ArrayList<>();
+    private volatile long endNanos;
+
+    Span(final String name, final Span parent) {
+        this(name, parent, System.nanoTime());
+    }
+
+    Span(final String name, final Span parent, final long startNanos) {
+        this.name = name;
+        this.parent = parent;
+        this.startNanos = startNanos;
+        threadName = Thread.currentThread().getName();
+        startTimeMillis = System.currentTimeMillis();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Optional<Span> getParent() {
+        return Optional.ofNullable(parent);
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    public long getStartTimeMillis() {
+        return startTimeMillis;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    /**
+     * @return the end of the span, or 0 if it is still open
+     */
+    public long getEndNanos() {
+        return endNanos;
+    }
+
+    public boolean isEnded() {
+        return endNanos != 0;
+    }
+
+    /**
+     * @return the duration of the span, or 0 if it is still open
+     */
+    public long getDurationNanos() {
+        return isEnded() ? endNanos - startNanos : 0;
+    }
+
+    public synchronized Map<String, String> getAttributes() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(attributes));
+    }
+
+    public synchronized List<Span> getChildren() {
+        return Collections.unmodifiableList(new ArrayList<>(children));
+    }
+
+    synchronized void setAttribute(final String key, final String value) {
+        attributes.put(key, value);
+    }
+
+    synchronized void addChild(final Span child) {
+        children.add(child);
+    }
+
+    void end() {
+        end(System.nanoTime());
+    }
+
+    void end(final long endNanos) {
+        // a span that ends in the same nanosecond it started still has to look ended
+        this.endNanos = Math.max(startNanos + 1, endNanos);
+    }
+
+}
@@ -0,0 +1,58 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.service.trace;
+
+/**
+ * A span started by HubTracer - closing it ends the span. A span from startSpan is meant for try-with-resources on the thread that started it, a leaf span can be closed from anywhere.
+ */
+public class SpanScope implements AutoCloseable {
+    static final SpanScope NONE = new SpanScope(null, null, false, null);
+
+    private final HubTracer hubTracer;
+    private final Span span;
+    private final boolean current;
+    private final Span previousSpan;
+
+    SpanScope(final HubTracer hubTracer, final Span span, final boolean current, final Span previousSpan) {
+        this.hubTracer = hubTracer;
+        this.span = span;
+        this.current = current;
+        this.previousSpan = previousSpan;
+    }
+
+    public SpanScope setAttribute(final String key, final Object value) {
+        if (span != null) {
+            span.setAttribute(key, String.valueOf(value));
+        }
+        return this;
+    }
+
+    @Override
+    public void close() {
+        if (span != null) {
+            hubTracer.endSpan(span, current, previousSpan);
+        }
+    }
+
+}
@@ -36,6 +36,7 @@ import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import com.synopsys.integration.blackduck.exception.ScanFailedException;
+import com.synopsys.integration.blackduck.service.jfr.HubFlightRecorder;
 import com.synopsys.integration.blackduck.service.model.ScannerSplitStream;
 import com.synopsys.integration.blackduck.service.model.StreamRedirectThread;
 import com.synopsys.integration.log.IntLogger;
@@ -81,6 +82,7 @@ public class ScanCommandCallable implements Callable<ScanCommandOutput> {
                 }
                 processBuilder.environment().put("BD_HUB_NO_PROMPT", "true");
 
+                final HubFlightRecorder.ScanCommandRecording recording = HubFlightRecorder.beginScanCommand(scanCommand.getTargetPath(), scanCommand.isDryRun());
                 final Process hubCliProcess = processBuilder.start();
 
                 // The cli logs go the error stream for some reason
@@ -101,6 +103,7 @@ public class ScanCommandCallable implements Callable<ScanCommandOutput> {
                     if (redirectThread.isAlive()) {
                         redirectThread.interrupt();
                     }
+                    recording.end(returnCode);
                 }
 
                 splitOutputStream.flush();
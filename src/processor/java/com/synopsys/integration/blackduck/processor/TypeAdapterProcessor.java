@@ -0,0 +1,442 @@
+/**
+ * hub-common
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates a Gson TypeAdapter for every class in the packages named by a GenerateTypeAdapters annotation, so those classes are decoded by plain field assignments instead of reflection. The adapters, and a
+ * GeneratedTypeAdapterFactory that hands them out, are written to the package of the annotation.
+ * <p>
+ * A class only gets an adapter if it is a public, concrete, non-generic class with a public no-argument constructor whose json fields (the non-static, non-transient fields of it and its superclasses) are all public and
+ * not final. Anything else is left to Gson's reflective binding.
+ */
+@SupportedAnnotationTypes(TypeAdapterProcessor.ANNOTATION_NAME)
+public class TypeAdapterProcessor extends AbstractProcessor {
+    public static final String ANNOTATION_NAME = "com.synopsys.integration.blackduck.service.json.GenerateTypeAdapters";
+    public static final String FACTORY_NAME = "GeneratedTypeAdapterFactory";
+
+    private static final String SERIALIZED_NAME = "com.google.gson.annotations.SerializedName";
+    private static final String JSON_ADAPTER = "com.google.gson.annotations.JsonAdapter";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        for (final TypeElement annotation : annotations) {
+            for (final Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                final PackageElement targetPackage = processingEnv.getElementUtils().getPackageOf(element);
+                final List<String> packageNames = getAnnotationValues(element, annotation);
+                try {
+                    generate(targetPackage.getQualifiedName().toString(), packageNames, element);
+                } catch (final IOException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write the type adapters: " + e.getMessage(), element);
+                }
+            }
+        }
+        return true;
+    }
+
+    private List<String> getAnnotationValues(final Element element, final TypeElement annotation) {
+        final List<String> values = new ArrayList<>();
+        for (final AnnotationMirror annotationMirror : element.getAnnotationMirrors()) {
+            if (annotationMirror.getAnnotationType().asElement().equals(annotation)) {
+                for (final Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : processingEnv.getElementUtils().getElementValuesWithDefaults(annotationMirror).entrySet()) {
+                    if (entry.getKey().getSimpleName().contentEquals("value")) {
+                        for (final Object value : (List<?>) entry.getValue().getValue()) {
+                            values.add((String) ((AnnotationValue) value).getValue());
+                        }
+                    }
+                }
+            }
+        }
+        return values;
+    }
+
+    private void generate(final String targetPackage, final List<String> packageNames, final Element origin) throws IOException {
+        final Map<String, TypeElement> candidates = new TreeMap<>();
+        for (final String packageName : packageNames) {
+            final PackageElement packageElement = processingEnv.getElementUtils().getPackageElement(packageName);
+            if (packageElement == null) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not find the package " + packageName, origin);
+                continue;
+            }
+            addCandidates(packageElement.getEnclosedElements(), candidates);
+        }
+
+        final Map<String, AdaptedClass> adaptedClasses = new LinkedHashMap<>();
+        final Set<String> adapterNames = new HashSet<>();
+        for (final TypeElement candidate : candidates.values()) {
+            final List<JsonField> fields = getJsonFields(candidate);
+            if (fields != null) {
+                final AdaptedClass adaptedClass = new AdaptedClass(candidate, createAdapterName(candidate, adapterNames), fields);
+                adaptedClasses.put(adaptedClass.className, adaptedClass);
+                writeAdapter(targetPackage, adaptedClass, origin);
+            }
+        }
+        writeFactory(targetPackage, adaptedClasses.values(), origin);
+    }
+
+    private void addCandidates(final List<? extends Element> elements, final Map<String, TypeElement> candidates) {
+        for (final TypeElement typeElement : ElementFilter.typesIn(elements)) {
+            if (typeElement.getModifiers().contains(Modifier.PUBLIC) && (typeElement.getNestingKind() == NestingKind.TOP_LEVEL || typeElement.getModifiers().contains(Modifier.STATIC))) {
+                candidates.put(typeElement.getQualifiedName().toString(), typeElement);
+                addCandidates(typeElement.getEnclosedElements(), candidates);
+            }
+        }
+    }
+
+    /**
+     * @return the fields Gson would bind for the class, or null if the class can't get a generated adapter
+     */
+    private List<JsonField> getJsonFields(final TypeElement typeElement) {
+        if (typeElement.getKind() != ElementKind.CLASS || typeElement.getModifiers().contains(Modifier.ABSTRACT) || !typeElement.getTypeParameters().isEmpty() || hasAnnotation(typeElement, JSON_ADAPTER)
+                || !hasPublicNoArgumentConstructor(typeElement)) {
+            return null;
+        }
+
+        final List<JsonField> fields = new ArrayList<>();
+        final Set<String> names = new HashSet<>();
+        TypeElement current = typeElement;
+        while (current != null && !current.getQualifiedName().contentEquals(Object.class.getName())) {
+            for (final VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                final Set<Modifier> modifiers = field.getModifiers();
+                if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) {
+                    continue;
+                }
+                if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.FINAL) || hasAnnotation(field, JSON_ADAPTER) || containsTypeVariable(field.asType())) {
+                    return null;
+                }
+                final JsonField jsonField = new JsonField(field, getSerializedNames(field));
+                for (final String name : jsonField.names) {
+                    if (!names.add(name)) {
+                        // Gson refuses to bind a class with two fields of the same json name, so it shouldn't be adapted either
+                        return null;
+                    }
+                }
+                fields.add(jsonField);
+            }
+            final TypeMirror superclass = current.getSuperclass();
+            if (superclass.getKind() != TypeKind.DECLARED) {
+                break;
+            }
+            if (!((DeclaredType) superclass).getTypeArguments().isEmpty()) {
+                return null;
+            }
+            current = (TypeElement) ((DeclaredType) superclass).asElement();
+        }
+        return fields;
+    }
+
+    private boolean hasPublicNoArgumentConstructor(final TypeElement typeElement) {
+        for (final ExecutableElement constructor : ElementFilter.constructorsIn(typeElement.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean containsTypeVariable(final TypeMirror typeMirror) {
+        if (typeMirror.getKind() == TypeKind.TYPEVAR) {
+            return true;
+        }
+        if (typeMirror.getKind() == TypeKind.ARRAY) {
+            return containsTypeVariable(((ArrayType) typeMirror).getComponentType());
+        }
+        if (typeMirror.getKind() == TypeKind.DECLARED) {
+            for (final TypeMirror typeArgument : ((DeclaredType) typeMirror).getTypeArguments()) {
+                if (typeArgument.getKind() != TypeKind.DECLARED && typeArgument.getKind() != TypeKind.ARRAY) {
+                    // wildcards and type variables are left to Gson
+                    return true;
+                }
+                if (containsTypeVariable(typeArgument)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean hasAnnotation(final Element element, final String annotationName) {
+        return getAnnotation(element, annotationName) != null;
+    }
+
+    private AnnotationMirror getAnnotation(final Element element, final String annotationName) {
+        for (final AnnotationMirror annotationMirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) annotationMirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName)) {
+                return annotationMirror;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the json name of the field followed by its alternate names, the way Gson reads them
+     */
+    private List<String> getSerializedNames(final VariableElement field) {
+        final AnnotationMirror serializedName = getAnnotation(field, SERIALIZED_NAME);
+        if (serializedName == null) {
+            return Collections.singletonList(field.getSimpleName().toString());
+        }
+        final List<String> names = new ArrayList<>();
+        for (final Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : processingEnv.getElementUtils().getElementValuesWithDefaults(serializedName).entrySet()) {
+            final String key = entry.getKey().getSimpleName().toString();
+            if ("value".equals(key)) {
+                names.add(0, (String) entry.getValue().getValue());
+            } else if ("alternate".equals(key)) {
+                for (final Object alternate : (List<?>) entry.getValue().getValue()) {
+                    names.add((String) ((AnnotationValue) alternate).getValue());
+                }
+            }
+        }
+        return names;
+    }
+
+    private String createAdapterName(final TypeElement typeElement, final Set<String> adapterNames) {
+        final String packageName = processingEnv.getElementUtils().getPackageOf(typeElement).getQualifiedName().toString();
+        final String nestedName = typeElement.getQualifiedName().toString().substring(packageName.length() + 1).replace('.', '_');
+        String adapterName = nestedName + "TypeAdapter";
+        if (!adapterNames.add(adapterName)) {
+            final String lastSegment = packageName.substring(packageName.lastIndexOf('.') + 1);
+            adapterName = Character.toUpperCase(lastSegment.charAt(0)) + lastSegment.substring(1) + adapterName;
+            int suffix = 2;
+            while (!adapterNames.add(adapterName)) {
+                adapterName = adapterName + suffix++;
+            }
+        }
+        return adapterName;
+    }
+
+    private void writeAdapter(final String targetPackage, final AdaptedClass adaptedClass, final Element origin) throws IOException {
+        final StringBuilder source = new StringBuilder();
+        source.append("package ").append(targetPackage).append(";\n\n");
+        source.append("import java.io.IOException;\n\n");
+        source.append("import com.google.gson.Gson;\n");
+        source.append("import com.google.gson.JsonSyntaxException;\n");
+        source.append("import com.google.gson.TypeAdapter;\n");
+        source.append("import com.google.gson.reflect.TypeToken;\n");
+        source.append("import com.google.gson.stream.JsonReader;\n");
+        source.append("import com.google.gson.stream.JsonToken;\n");
+        source.append("import com.google.gson.stream.JsonWriter;\n\n");
+        source.append("/**\n * Generated by ").append(TypeAdapterProcessor.class.getName()).append(" - do not edit.\n */\n");
+        source.append("final class ").append(adaptedClass.adapterName).append(" extends TypeAdapter<").append(adaptedClass.className).append("> {\n");
+        source.append("    private final TypeAdapter<").append(adaptedClass.className).append("> delegate;\n");
+        for (int i = 0; i < adaptedClass.fields.size(); i++) {
+            source.append("    private final TypeAdapter<").append(adaptedClass.fields.get(i).getBoxedTypeName()).append("> adapter").append(i).append(";\n");
+        }
+        source.append("\n    ").append(adaptedClass.adapterName).append("(final Gson gson, final TypeAdapter<").append(adaptedClass.className).append("> delegate) {\n");
+        source.append("        this.delegate = delegate;\n");
+        for (int i = 0; i < adaptedClass.fields.size(); i++) {
+            source.append("        adapter").append(i).append(" = gson.getAdapter(").append(adaptedClass.fields.get(i).getTypeExpression()).append(");\n");
+        }
+        source.append("    }\n\n");
+
+        source.append("    @Override\n");
+        source.append("    public void write(final JsonWriter out, final ").append(adaptedClass.className).append(" value) throws IOException {\n");
+        source.append("        delegate.write(out, value);\n");
+        source.append("    }\n\n");
+
+        source.append("    @Override\n");
+        source.append("    public ").append(adaptedClass.className).append(" read(final JsonReader in) throws IOException {\n");
+        source.append("        if (in.peek() == JsonToken.NULL) {\n");
+        source.append("            in.nextNull();\n");
+        source.append("            return null;\n");
+        source.append("        }\n");
+        source.append("        final ").append(adaptedClass.className).append(" value = new ").append(adaptedClass.className).append("();\n");
+        source.append("        try {\n");
+        source.append("            in.beginObject();\n");
+        source.append("            while (in.hasNext()) {\n");
+        source.append("                switch (in.nextName()) {\n");
+        for (int i = 0; i < adaptedClass.fields.size(); i++) {
+            final JsonField field = adaptedClass.fields.get(i);
+            for (final String name : field.names) {
+                source.append("                    case \"").append(escape(name)).append("\":\n");
+            }
+            if (field.isPrimitive()) {
+                source.append("                    {\n");
+                source.append("                        final ").append(field.getBoxedTypeName()).append(" fieldValue = adapter").append(i).append(".read(in);\n");
+                source.append("                        if (fieldValue != null) {\n");
+                source.append("                            value.").append(field.fieldName).append(" = fieldValue;\n");
+                source.append("                        }\n");
+                source.append("                        break;\n");
+                source.append("                    }\n");
+            } else {
+                source.append("                        value.").append(field.fieldName).append(" = adapter").append(i).append(".read(in);\n");
+                source.append("                        break;\n");
+            }
+        }
+        source.append("                    default:\n");
+        source.append("                        in.skipValue();\n");
+        source.append("                }\n");
+        source.append("            }\n");
+        source.append("            in.endObject();\n");
+        source.append("        } catch (final IllegalStateException e) {\n");
+        source.append("            throw new JsonSyntaxException(e);\n");
+        source.append("        }\n");
+        source.append("        return value;\n");
+        source.append("    }\n\n");
+        source.append("}\n");
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(targetPackage + "." + adaptedClass.adapterName, origin).openWriter()) {
+            writer.write(source.toString());
+        }
+    }
+
+    private void writeFactory(final String targetPackage, final Iterable<AdaptedClass> adaptedClasses, final Element origin) throws IOException {
+        final StringBuilder source = new StringBuilder();
+        source.append("package ").append(targetPackage).append(";\n\n");
+        source.append("import java.util.Collections;\n");
+        source.append("import java.util.HashMap;\n");
+        source.append("import java.util.Map;\n");
+        source.append("import java.util.Set;\n\n");
+        source.append("import com.google.gson.Gson;\n");
+        source.append("import com.google.gson.TypeAdapter;\n");
+        source.append("import com.google.gson.TypeAdapterFactory;\n");
+        source.append("import com.google.gson.reflect.TypeToken;\n\n");
+        source.append("/**\n");
+        source.append(" * Generated by ").append(TypeAdapterProcessor.class.getName()).append(" - do not edit.\n");
+        source.append(" * <p>\n");
+        source.append(" * Hands out the generated adapters, which read the adapted classes the way Gson's reflective binding would with the default field naming and exclusion policies, and leave writing to that binding.\n");
+        source.append(" */\n");
+        source.append("public final class ").append(FACTORY_NAME).append(" implements TypeAdapterFactory {\n");
+        source.append("    private static final Map<Class<?>, Integer> ADAPTER_INDEXES = new HashMap<>();\n\n");
+        source.append("    static {\n");
+        int index = 0;
+        for (final AdaptedClass adaptedClass : adaptedClasses) {
+            source.append("        ADAPTER_INDEXES.put(").append(adaptedClass.className).append(".class, ").append(index++).append(");\n");
+        }
+        source.append("    }\n\n");
+        source.append("    public static Set<Class<?>> getAdaptedClasses() {\n");
+        source.append("        return Collections.unmodifiableSet(ADAPTER_INDEXES.keySet());\n");
+        source.append("    }\n\n");
+        source.append("    @Override\n");
+        source.append("    @SuppressWarnings({ \"unchecked\", \"rawtypes\" })\n");
+        source.append("    public <T> TypeAdapter<T> create(final Gson gson, final TypeToken<T> type) {\n");
+        source.append("        final Integer adapterIndex = ADAPTER_INDEXES.get(type.getRawType());\n");
+        source.append("        if (adapterIndex == null) {\n");
+        source.append("            return null;\n");
+        source.append("        }\n");
+        source.append("        final TypeAdapter delegate = gson.getDelegateAdapter(this, type);\n");
+        source.append("        switch (adapterIndex) {\n");
+        index = 0;
+        for (final AdaptedClass adaptedClass : adaptedClasses) {
+            source.append("            case ").append(index++).append(":\n");
+            source.append("                return (TypeAdapter<T>) new ").append(adaptedClass.adapterName).append("(gson, delegate);\n");
+        }
+        source.append("            default:\n");
+        source.append("                return null;\n");
+        source.append("        }\n");
+        source.append("    }\n\n");
+        source.append("}\n");
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(targetPackage + "." + FACTORY_NAME, origin).openWriter()) {
+            writer.write(source.toString());
+        }
+    }
+
+    private String escape(final String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static class AdaptedClass {
+        private final String className;
+        private final String adapterName;
+        private final List<JsonField> fields;
+
+        public AdaptedClass(final TypeElement typeElement, final String adapterName, final List<JsonField> fields) {
+            className = typeElement.getQualifiedName().toString();
+            this.adapterName = adapterName;
+            this.fields = fields;
+        }
+    }
+
+    private class JsonField {
+        private final String fieldName;
+        private final TypeMirror type;
+        private final List<String> names;
+
+        public JsonField(final VariableElement field, final List<String> names) {
+            fieldName = field.getSimpleName().toString();
+            type = field.asType();
+            this.names = names;
+        }
+
+        public boolean isPrimitive() {
+            return type.getKind().isPrimitive();
+        }
+
+        public String getBoxedTypeName() {
+            if (isPrimitive()) {
+                return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+            }
+            return type.toString();
+        }
+
+        /**
+         * @return the argument for Gson.getAdapter - a class literal, or a TypeToken for a parameterized type
+         */
+        public String getTypeExpression() {
+            if (isPrimitive() || !type.toString().contains("<")) {
+                return processingEnv.getTypeUtils().erasure(type).toString() + ".class";
+            }
+            return "new TypeToken<" + type.toString() + ">() {}";
+        }
+    }
+
+}
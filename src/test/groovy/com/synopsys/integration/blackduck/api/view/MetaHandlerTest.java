@@ -25,13 +25,16 @@ package com.synopsys.integration.blackduck.api.view;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import org.junit.Assert;
 import org.junit.Test;
 
 import com.google.gson.Gson;
 import com.synopsys.integration.blackduck.api.core.HubView;
+import com.synopsys.integration.blackduck.api.core.ResourceLink;
 import com.synopsys.integration.blackduck.api.generated.view.ProjectView;
 import com.synopsys.integration.blackduck.exception.HubIntegrationException;
 import com.synopsys.integration.log.IntBufferedLogger;
@@ -108,4 +111,67 @@ public class MetaHandlerTest {
         assertEquals(0, nonHttpLinkCount);
     }
 
+    @Test
+    public void testFindLinks() throws Exception {
+        final MetaHandler metaHandler = getMetaHandler();
+        final HubView hubItem = getTestHubItem();
+
+        assertEquals(Optional.empty(), metaHandler.findFirstLink(hubItem, "users"));
+        assertTrue(metaHandler.findLinks(hubItem, "users").isEmpty());
+        assertEquals(metaHandler.getFirstLink(hubItem, "canonicalVersion"), metaHandler.findFirstLink(hubItem, "canonicalVersion").get());
+        assertEquals(2, metaHandler.findLinks(hubItem, "canonicalVersion").size());
+        assertEquals("http://DoodleDoodleDoo", metaHandler.findLinks(hubItem, "canonicalVersion").get(1));
+
+        hubItem._meta = null;
+        assertEquals(Optional.empty(), metaHandler.findFirstLink(hubItem, "canonicalVersion"));
+    }
+
+    @Test
+    public void testLinksChangedAfterLookup() throws Exception {
+        final MetaHandler metaHandler = getMetaHandler();
+        final HubView hubItem = getTestHubItem();
+        assertFalse(metaHandler.findFirstLink(hubItem, "users").isPresent());
+
+        final ResourceLink usersLink = new ResourceLink();
+        usersLink.rel = "users";
+        usersLink.href = "http://hub-server.com/api/users";
+        hubItem._meta.links.add(usersLink);
+        assertEquals(usersLink.href, metaHandler.findFirstLink(hubItem, "users").get());
+
+        hubItem._meta.links = new ArrayList<>();
+        assertFalse(metaHandler.hasLink(hubItem, "users"));
+        assertFalse(new MetaHandler(logger).hasLink(hubItem, "canonicalVersion"));
+    }
+
+    @Test
+    public void testLinksChangedAfterLookupOnAnIndexedView() throws Exception {
+        final MetaHandler metaHandler = getMetaHandler();
+        final HubView hubItem = getTestHubItem();
+        for (int i = 0; i < 20; i++) {
+            hubItem._meta.links.add(createLink("version", "http://hub-server.com/api/versions/" + i));
+        }
+        assertEquals(20, metaHandler.findLinks(hubItem, "version").size());
+        assertEquals("http://hub-server.com/api/versions/0", metaHandler.getFirstLink(hubItem, "version"));
+        assertFalse(metaHandler.hasLink(hubItem, "users"));
+
+        hubItem._meta.links.add(createLink("users", "http://hub-server.com/api/users"));
+        assertEquals("http://hub-server.com/api/users", metaHandler.getFirstLink(hubItem, "users"));
+
+        final List<ResourceLink> links = new ArrayList<>(hubItem._meta.links);
+        links.set(0, createLink("project", "http://hub-server.com/api/projects/1"));
+        hubItem._meta.links = links;
+        assertEquals("http://hub-server.com/api/projects/1", metaHandler.getFirstLink(hubItem, "project"));
+
+        final HubView otherHubItem = getTestHubItem();
+        assertFalse(metaHandler.hasLink(otherHubItem, "users"));
+        assertEquals("http://hub-server.com/api/users", metaHandler.getFirstLink(hubItem, "users"));
+    }
+
+    private ResourceLink createLink(final String rel, final String href) {
+        final ResourceLink link = new ResourceLink();
+        link.rel = rel;
+        link.href = href;
+        return link;
+    }
+
 }
@@ -0,0 +1,145 @@
+package com.synopsys.integration.blackduck.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.URL;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.junit.Test;
+
+import com.synopsys.integration.blackduck.api.generated.view.ProjectView;
+import com.synopsys.integration.blackduck.rest.BlackduckRestConnection;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.IntBufferedLogger;
+import com.synopsys.integration.rest.exception.IntegrationRestException;
+import com.synopsys.integration.rest.request.Request;
+import com.synopsys.integration.rest.request.Response;
+
+public class AsyncHubServiceTest {
+    @Test
+    public void testResponsesCanBeComposed() throws Exception {
+        final HubService hubService = createHubService(new AtomicInteger(0), new CountDownLatch(0));
+        try (AsyncHubService asyncHubService = new AsyncHubService(hubService)) {
+            final CompletableFuture<ProjectView> project = asyncHubService.getResponse("https://www.url.com/api/projects/1", ProjectView.class);
+            final CompletableFuture<List<ProjectView>> projects = asyncHubService.getAllResponses("https://www.url.com/api/projects", ProjectView.class);
+            final CompletableFuture<String> names = project.thenCombine(projects, (single, all) -> single.name + ":" + all.size());
+
+            assertEquals("project:1", AsyncHubService.getResult(names));
+        }
+    }
+
+    @Test
+    public void testFailuresKeepTheirType() throws Exception {
+        final HubService hubService = createHubService(new AtomicInteger(0), new CountDownLatch(0));
+        try (AsyncHubService asyncHubService = new AsyncHubService(hubService)) {
+            final CompletableFuture<ProjectView> missing = asyncHubService.getResponse("https://www.url.com/api/projects/missing", ProjectView.class);
+            try {
+                AsyncHubService.getResult(missing);
+                fail("Expected the 404 to be reported");
+            } catch (final IntegrationRestException e) {
+                assertEquals(404, e.getHttpStatusCode());
+            }
+
+            final CompletableFuture<Integer> statusCode = missing.thenApply(project -> 200).exceptionally(throwable -> ((IntegrationRestException) AsyncHubService.unwrap(throwable)).getHttpStatusCode());
+            assertEquals(Integer.valueOf(404), AsyncHubService.getResult(statusCode));
+        }
+    }
+
+    @Test
+    public void testCancelledCallsNeverRun() throws Exception {
+        final AtomicInteger requestCount = new AtomicInteger(0);
+        final CountDownLatch release = new CountDownLatch(1);
+        final HubService hubService = createHubService(requestCount, release);
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            final AsyncHubService asyncHubService = new AsyncHubService(hubService, executorService);
+            final CompletableFuture<ProjectView> running = asyncHubService.getResponse("https://www.url.com/api/projects/1", ProjectView.class);
+            final CompletableFuture<ProjectView> queued = asyncHubService.getResponse("https://www.url.com/api/projects/2", ProjectView.class);
+            assertTrue(queued.cancel(true));
+            release.countDown();
+
+            assertEquals("project", AsyncHubService.getResult(running).name);
+            executorService.shutdown();
+            executorService.awaitTermination(5, TimeUnit.SECONDS);
+            assertEquals(1, requestCount.get());
+            try {
+                AsyncHubService.getResult(queued);
+                fail("Expected the cancellation to be reported");
+            } catch (final IntegrationException e) {
+                assertTrue(e.getMessage().contains("cancelled"));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testResponseOfACancelledRequestIsClosed() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CloseableHttpResponse closeableHttpResponse = mock(CloseableHttpResponse.class);
+        final BlackduckRestConnection restConnection = mock(BlackduckRestConnection.class);
+        when(restConnection.getBaseUrl()).thenReturn(new URL("https://www.url.com"));
+        when(restConnection.executeRequest(any(Request.class))).thenAnswer(invocation -> {
+            started.countDown();
+            // the request doesn't notice the interrupt of the cancellation, as a blocking read wouldn't
+            while (release.getCount() > 0) {
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    // keep waiting
+                }
+            }
+            return new Response(closeableHttpResponse);
+        });
+        final HubService hubService = new HubService(new IntBufferedLogger(), restConnection, HubServicesFactory.createDefaultGson(), HubServicesFactory.createDefaultJsonParser());
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            final AsyncHubService asyncHubService = new AsyncHubService(hubService, executorService);
+            final CompletableFuture<Response> response = asyncHubService.executeRequest(new Request.Builder("https://www.url.com/api/projects/1").build());
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertTrue(response.cancel(true));
+            release.countDown();
+
+            executorService.shutdown();
+            assertTrue(executorService.awaitTermination(5, TimeUnit.SECONDS));
+            verify(closeableHttpResponse).close();
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private HubService createHubService(final AtomicInteger requestCount, final CountDownLatch release) throws Exception {
+        final BlackduckRestConnection restConnection = mock(BlackduckRestConnection.class);
+        when(restConnection.getBaseUrl()).thenReturn(new URL("https://www.url.com"));
+        when(restConnection.executeRequest(any(Request.class))).thenAnswer(invocation -> {
+            final Request request = invocation.getArgument(0);
+            requestCount.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            if (request.getUri().endsWith("missing")) {
+                throw new IntegrationRestException(404, "Not Found", "", "Not Found");
+            }
+            final String json = request.getUri().endsWith("projects") ? "{\"totalCount\":1,\"items\":[{\"name\":\"project\"}]}" : "{\"name\":\"project\"}";
+            final CloseableHttpResponse closeableHttpResponse = mock(CloseableHttpResponse.class);
+            when(closeableHttpResponse.getEntity()).thenReturn(new StringEntity(json, ContentType.APPLICATION_JSON));
+            return new Response(closeableHttpResponse);
+        });
+        return new HubService(new IntBufferedLogger(), restConnection, HubServicesFactory.createDefaultGson(), HubServicesFactory.createDefaultJsonParser());
+    }
+
+}
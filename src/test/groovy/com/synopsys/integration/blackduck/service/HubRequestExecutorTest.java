@@ -0,0 +1,144 @@
+package com.synopsys.integration.blackduck.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.junit.Test;
+
+import com.synopsys.integration.blackduck.rest.BlackduckRestConnection;
+import com.synopsys.integration.blackduck.service.model.HedgingPolicy;
+import com.synopsys.integration.blackduck.service.model.RetryBudget;
+import com.synopsys.integration.blackduck.service.model.RetryPolicy;
+import com.synopsys.integration.rest.HttpMethod;
+import com.synopsys.integration.rest.exception.IntegrationRestException;
+import com.synopsys.integration.rest.request.Request;
+import com.synopsys.integration.rest.request.Response;
+
+public class HubRequestExecutorTest {
+    private static final String URI = "https://www.url.com/api/projects/1";
+
+    @Test
+    public void testRetriesUnavailableGets() throws Exception {
+        final AtomicInteger requestCount = new AtomicInteger(0);
+        final BlackduckRestConnection restConnection = createRestConnection(requestCount, 2, 0);
+        final HubRequestExecutor hubRequestExecutor = new HubRequestExecutor(restConnection, Optional.empty(), Optional.of(createRetryPolicy(new RetryBudget())), Optional.empty());
+
+        assertNotNull(hubRequestExecutor.execute(new Request.Builder(URI).build()));
+        assertEquals(3, requestCount.get());
+    }
+
+    @Test
+    public void testRetriesStopWhenTheBudgetIsSpent() throws Exception {
+        final AtomicInteger requestCount = new AtomicInteger(0);
+        final BlackduckRestConnection restConnection = createRestConnection(requestCount, Integer.MAX_VALUE, 0);
+        final RetryBudget retryBudget = new RetryBudget(0.1, 1);
+        final HubRequestExecutor hubRequestExecutor = new HubRequestExecutor(restConnection, Optional.empty(), Optional.of(createRetryPolicy(retryBudget)), Optional.empty());
+
+        try {
+            hubRequestExecutor.execute(new Request.Builder(URI).build());
+            fail("Expected the 503 to be thrown");
+        } catch (final IntegrationRestException e) {
+            assertEquals(503, e.getHttpStatusCode());
+        }
+        assertEquals(2, requestCount.get());
+        assertEquals(0, retryBudget.getAvailableRetries());
+    }
+
+    @Test
+    public void testOnlyGetsAreRetried() throws Exception {
+        final AtomicInteger requestCount = new AtomicInteger(0);
+        final BlackduckRestConnection restConnection = createRestConnection(requestCount, 1, 0);
+        final HubRequestExecutor hubRequestExecutor = new HubRequestExecutor(restConnection, Optional.empty(), Optional.of(createRetryPolicy(new RetryBudget())), Optional.empty());
+
+        try {
+            hubRequestExecutor.execute(new Request.Builder(URI).method(HttpMethod.DELETE).build());
+            fail("Expected the 503 to be thrown");
+        } catch (final IntegrationRestException e) {
+            assertEquals(1, requestCount.get());
+        }
+    }
+
+    @Test
+    public void testSlowGetsAreHedged() throws Exception {
+        final AtomicInteger requestCount = new AtomicInteger(0);
+        final BlackduckRestConnection restConnection = createRestConnection(requestCount, 0, 2000);
+        final ExecutorService executorService = Executors.newCachedThreadPool();
+        try {
+            final HedgingPolicy hedgingPolicy = new HedgingPolicy(executorService, new RetryBudget());
+            hedgingPolicy.setMinimumSamples(1);
+            hedgingPolicy.recordLatency(URI, 10);
+            final HubRequestExecutor hubRequestExecutor = new HubRequestExecutor(restConnection, Optional.empty(), Optional.empty(), Optional.of(hedgingPolicy));
+
+            final long start = System.currentTimeMillis();
+            assertNotNull(hubRequestExecutor.execute(new Request.Builder(URI).build()));
+            assertEquals(2, requestCount.get());
+            if (System.currentTimeMillis() - start >= 2000) {
+                fail("Expected the hedged request to answer before the slow one");
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testHedgesKeepBeingIssuedWithoutARetryPolicy() throws Exception {
+        // every original request is slow and every hedge is fast, as long as each GET gets its hedge
+        final AtomicInteger requestCount = new AtomicInteger(0);
+        final BlackduckRestConnection restConnection = mock(BlackduckRestConnection.class);
+        when(restConnection.executeRequest(any(Request.class))).thenAnswer(invocation -> {
+            if (requestCount.incrementAndGet() % 2 == 1) {
+                Thread.sleep(300);
+            }
+            return new Response(mock(CloseableHttpResponse.class));
+        });
+        final ExecutorService executorService = Executors.newCachedThreadPool();
+        try {
+            final HedgingPolicy hedgingPolicy = new HedgingPolicy(executorService, new RetryBudget(1.0, 1));
+            hedgingPolicy.setMinimumSamples(1);
+            hedgingPolicy.recordLatency(URI, 10);
+            final HubRequestExecutor hubRequestExecutor = new HubRequestExecutor(restConnection, Optional.empty(), Optional.empty(), Optional.of(hedgingPolicy));
+
+            for (int i = 0; i < 12; i++) {
+                assertNotNull(hubRequestExecutor.execute(new Request.Builder(URI).build()));
+            }
+            assertEquals(24, requestCount.get());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private RetryPolicy createRetryPolicy(final RetryBudget retryBudget) {
+        final RetryPolicy retryPolicy = new RetryPolicy(retryBudget);
+        retryPolicy.setBaseDelayMilliseconds(1);
+        return retryPolicy;
+    }
+
+    /**
+     * The first failureCount requests get a 503 and the first request waits firstRequestDelay before it answers.
+     */
+    private BlackduckRestConnection createRestConnection(final AtomicInteger requestCount, final int failureCount, final long firstRequestDelay) throws Exception {
+        final BlackduckRestConnection restConnection = mock(BlackduckRestConnection.class);
+        when(restConnection.executeRequest(any(Request.class))).thenAnswer(invocation -> {
+            final int requestNumber = requestCount.incrementAndGet();
+            if (requestNumber == 1 && firstRequestDelay > 0) {
+                Thread.sleep(firstRequestDelay);
+            }
+            if (requestNumber <= failureCount) {
+                throw new IntegrationRestException(503, "Service Unavailable", "", "Service Unavailable");
+            }
+            return new Response(mock(CloseableHttpResponse.class));
+        });
+        return restConnection;
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.synopsys.integration.blackduck.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import com.synopsys.integration.blackduck.api.generated.view.ProjectView;
+import com.synopsys.integration.blackduck.service.model.PagedRequest;
+import com.synopsys.integration.blackduck.service.model.RequestFactory;
+import com.synopsys.integration.log.IntBufferedLogger;
+
+public class HubResponsesIteratorTest {
+    @Test
+    public void testNothingIsRequestedUntilConsumed() throws Exception {
+        final PagedRestConnectionTestHelper testHelper = new PagedRestConnectionTestHelper(250, false);
+        final HubResponsesIterator<ProjectView> iterator = createIterator(testHelper);
+
+        assertTrue(testHelper.getRequestedOffsets().isEmpty());
+        assertEquals("project0", iterator.next().name);
+        iterator.close();
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testAllPagesAreWalkedInOrder() throws Exception {
+        final PagedRestConnectionTestHelper testHelper = new PagedRestConnectionTestHelper(250, true);
+        final HubResponsesIterator<ProjectView> iterator = createIterator(testHelper);
+
+        int expected = 0;
+        while (iterator.hasNext()) {
+            assertEquals("project" + expected, iterator.next().name);
+            expected++;
+        }
+        assertEquals(250, expected);
+        assertEquals(new HashSet<>(Arrays.asList(0, 100, 200)), testHelper.getRequestedOffsets());
+    }
+
+    @Test
+    public void testStreamStopsRequestingWhenShortCircuited() throws Exception {
+        final PagedRestConnectionTestHelper testHelper = new PagedRestConnectionTestHelper(1000, false);
+        final HubService hubService = new HubService(new IntBufferedLogger(), testHelper.createRestConnection(), HubServicesFactory.createDefaultGson(), HubServicesFactory.createDefaultJsonParser());
+
+        final List<String> names;
+        try (Stream<ProjectView> projectViews = hubService.streamAllResponses(RequestFactory.createCommonGetRequestBuilder("http://www.url.com/api/projects", 100, 0), ProjectView.class)) {
+            names = projectViews.limit(150).map(projectView -> projectView.name).collect(Collectors.toList());
+        }
+        assertEquals(150, names.size());
+        assertEquals("project149", names.get(149));
+        assertTrue(testHelper.getRequestedOffsets().size() <= 3);
+    }
+
+    private HubResponsesIterator<ProjectView> createIterator(final PagedRestConnectionTestHelper testHelper) throws Exception {
+        final PagedRequest pagedRequest = new PagedRequest(RequestFactory.createCommonGetRequestBuilder("http://www.url.com/api/projects", 100, 0));
+        return new HubResponsesIterator<>(testHelper.createTransformer(), pagedRequest, ProjectView.class, null);
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.synopsys.integration.blackduck.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import com.google.gson.stream.JsonReader;
+import com.synopsys.integration.blackduck.api.core.HubResponse;
+import com.synopsys.integration.blackduck.api.generated.view.ProjectView;
+import com.synopsys.integration.blackduck.service.model.AdaptivePageSizePolicy;
+import com.synopsys.integration.blackduck.service.model.HubPage;
+import com.synopsys.integration.blackduck.service.model.PagedRequest;
+import com.synopsys.integration.blackduck.service.model.ParallelPaging;
+import com.synopsys.integration.blackduck.service.model.RequestFactory;
+
+public class HubResponsesTransformerTest {
+    @Test
+    public void testParallelPagingKeepsOffsetOrder() throws Exception {
+        final HubResponsesTransformer hubResponsesTransformer = new PagedRestConnectionTestHelper(1234, true).createTransformer();
+        final PagedRequest pagedRequest = new PagedRequest(RequestFactory.createCommonGetRequestBuilder("http://www.url.com/api/projects", 50, 0));
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            final List<ProjectView> parallelProjects = hubResponsesTransformer.getAllResponses(pagedRequest, ProjectView.class, null, new ParallelPaging(executorService, 6));
+            assertEquals(1234, parallelProjects.size());
+            for (int i = 0; i < 1234; i++) {
+                assertEquals("project" + i, parallelProjects.get(i).name);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testParallelPagingMatchesSerialPaging() throws Exception {
+        final HubResponsesTransformer hubResponsesTransformer = new PagedRestConnectionTestHelper(1234, false).createTransformer();
+        final PagedRequest pagedRequest = new PagedRequest(RequestFactory.createCommonGetRequestBuilder("http://www.url.com/api/projects", 100, 0));
+        final Map<String, Class<? extends HubResponse>> typeMap = new HashMap<>();
+        typeMap.put("PROJECT", ProjectView.class);
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(3);
+        try {
+            final List<HubResponse> serialResponses = hubResponsesTransformer.getResponses(pagedRequest, HubResponse.class, true, typeMap);
+            final List<HubResponse> parallelResponses = hubResponsesTransformer.getAllResponses(pagedRequest, HubResponse.class, typeMap, new ParallelPaging(executorService));
+            assertEquals(serialResponses.size(), parallelResponses.size());
+            for (int i = 0; i < serialResponses.size(); i++) {
+                assertEquals(ProjectView.class, parallelResponses.get(i).getClass());
+                assertEquals(serialResponses.get(i).json, parallelResponses.get(i).json);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testReadPageIgnoresFieldOrderAndUnknownFields() throws Exception {
+        final HubResponsesTransformer hubResponsesTransformer = new PagedRestConnectionTestHelper(0, false).createTransformer();
+        final String json = "{\"items\":[{\"name\":\"first\",\"type\":\"PROJECT\",\"nested\":{\"items\":[1,2]}},{\"name\":\"second\"}],\"appliedFilters\":[],\"_meta\":{\"href\":\"http://www.url.com\"},\"totalCount\":27}";
+        final Map<String, Class<? extends HubResponse>> typeMap = new HashMap<>();
+        typeMap.put("PROJECT", ProjectView.class);
+
+        final HubPage<HubResponse> page = hubResponsesTransformer.readPage(new JsonReader(new StringReader(json)), HubResponse.class, typeMap);
+        assertEquals(27, page.getTotalCount());
+        assertEquals(2, page.getItems().size());
+        assertEquals("first", ((ProjectView) page.getItems().get(0)).name);
+        assertEquals(HubResponse.class, page.getItems().get(1).getClass());
+        assertTrue(page.getItems().get(1).json.contains("second"));
+    }
+
+    @Test
+    public void testSerialPagingWithoutAPolicyStepsByTheLimit() throws Exception {
+        final PagedRestConnectionTestHelper pagedRestConnectionTestHelper = new PagedRestConnectionTestHelper(250, false);
+        pagedRestConnectionTestHelper.setMaximumPageSize(50);
+        final HubResponsesTransformer hubResponsesTransformer = pagedRestConnectionTestHelper.createTransformer();
+        final PagedRequest pagedRequest = new PagedRequest(RequestFactory.createCommonGetRequestBuilder("http://www.url.com/api/projects", 100, 0));
+
+        final List<ProjectView> projects = hubResponsesTransformer.getResponses(pagedRequest, ProjectView.class);
+        assertEquals(150, projects.size());
+        assertEquals(new HashSet<>(Arrays.asList(0, 100, 200, 300)), pagedRestConnectionTestHelper.getRequestedOffsets());
+    }
+
+    @Test
+    public void testParallelPagingFillsInShortPages() throws Exception {
+        final PagedRestConnectionTestHelper pagedRestConnectionTestHelper = new PagedRestConnectionTestHelper(1234, true);
+        pagedRestConnectionTestHelper.setMaximumPageSize(30);
+        final HubResponsesTransformer hubResponsesTransformer = pagedRestConnectionTestHelper.createTransformer();
+        final PagedRequest pagedRequest = new PagedRequest(RequestFactory.createCommonGetRequestBuilder("http://www.url.com/api/projects", 100, 0));
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            final List<ProjectView> projects = hubResponsesTransformer.getAllResponses(pagedRequest, ProjectView.class, null, new ParallelPaging(executorService, 4));
+            assertEquals(1234, projects.size());
+            for (int i = 0; i < 1234; i++) {
+                assertEquals("project" + i, projects.get(i).name);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testChangingPageSizeMidWalkKeepsEveryItem() throws Exception {
+        final AdaptivePageSizePolicy pageSizePolicy = new AdaptivePageSizePolicy();
+        // every item is about 40 bytes, so this shrinks the pages to ~25 items after the first one
+        pageSizePolicy.setTargetPageBytes(1000);
+        final PagedRestConnectionTestHelper pagedRestConnectionTestHelper = new PagedRestConnectionTestHelper(1234, false);
+        final HubResponsesTransformer hubResponsesTransformer = pagedRestConnectionTestHelper.createTransformer(Optional.of(pageSizePolicy));
+        final PagedRequest pagedRequest = new PagedRequest(RequestFactory.createCommonGetRequestBuilder("http://www.url.com/api/projects", 100, 0));
+
+        final List<ProjectView> projects = hubResponsesTransformer.getResponses(pagedRequest, ProjectView.class);
+        assertEquals(1234, projects.size());
+        for (int i = 0; i < 1234; i++) {
+            assertEquals("project" + i, projects.get(i).name);
+        }
+        assertTrue(pagedRestConnectionTestHelper.getRequestedOffsets().contains(100));
+        assertTrue(pagedRestConnectionTestHelper.getRequestedOffsets().size() > 13);
+    }
+
+}
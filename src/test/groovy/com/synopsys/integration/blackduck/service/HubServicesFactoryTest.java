@@ -0,0 +1,75 @@
+package com.synopsys.integration.blackduck.service;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.synopsys.integration.blackduck.api.generated.view.ProjectView;
+import com.synopsys.integration.blackduck.rest.BlackduckRestConnection;
+import com.synopsys.integration.blackduck.service.model.HubExecutionContext;
+import com.synopsys.integration.blackduck.service.model.JsonRetention;
+import com.synopsys.integration.log.IntBufferedLogger;
+
+public class HubServicesFactoryTest {
+    @Test
+    public void testServicesShareOneHubService() {
+        final HubServicesFactory hubServicesFactory = createHubServicesFactory();
+        final HubService hubService = hubServicesFactory.createHubService();
+
+        assertSame(hubService, hubServicesFactory.createHubService());
+        assertSame(hubService, hubServicesFactory.createProjectService().hubService);
+        assertSame(hubService, hubServicesFactory.createCodeLocationService().hubService);
+        assertSame(hubService, hubServicesFactory.createAsyncHubService().getHubService());
+    }
+
+    @Test
+    public void testChangingASettingCreatesANewHubService() {
+        final HubServicesFactory hubServicesFactory = createHubServicesFactory();
+        final HubService hubService = hubServicesFactory.createHubService();
+
+        hubServicesFactory.setJsonRetention(JsonRetention.NONE);
+        final HubService changedHubService = hubServicesFactory.createHubService();
+        assertNotSame(hubService, changedHubService);
+        assertSame(changedHubService, hubServicesFactory.createComponentService().hubService);
+    }
+
+    @Test
+    public void testCloseShutsDownTheExecutionContext() throws Exception {
+        final HubServicesFactory hubServicesFactory = createHubServicesFactory();
+        final HubExecutionContext executionContext = hubServicesFactory.getExecutionContext();
+        final AsyncHubService asyncHubService = hubServicesFactory.createAsyncHubService();
+        hubServicesFactory.createAsyncHubService().close();
+
+        final CompletableFuture<ProjectView> project = asyncHubService.getResponse("https://www.url.com/api/projects/1", ProjectView.class);
+        project.handle((result, throwable) -> result).get(5, TimeUnit.SECONDS);
+
+        hubServicesFactory.close();
+        assertTrue(hubServicesFactory.isClosed());
+        assertTrue(executionContext.isTerminated());
+        try {
+            asyncHubService.getResponse("https://www.url.com/api/projects/1", ProjectView.class);
+            fail("Expected the io pool to be shut down");
+        } catch (final RejectedExecutionException e) {
+            // expected
+        }
+        try {
+            hubServicesFactory.createProjectService();
+            fail("Expected the closed factory to refuse to create services");
+        } catch (final IllegalStateException e) {
+            // expected
+        }
+    }
+
+    private HubServicesFactory createHubServicesFactory() {
+        return new HubServicesFactory(HubServicesFactory.createDefaultGson(), HubServicesFactory.createDefaultJsonParser(), mock(BlackduckRestConnection.class), new IntBufferedLogger());
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.synopsys.integration.blackduck.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import com.synopsys.integration.blackduck.rest.BlackduckRestConnection;
+import com.synopsys.integration.blackduck.service.model.AdaptivePageSizePolicy;
+import com.synopsys.integration.rest.request.Request;
+import com.synopsys.integration.rest.request.Response;
+
+public class PagedRestConnectionTestHelper {
+    private final int totalCount;
+    private final boolean randomDelays;
+    private final Set<Integer> requestedOffsets = ConcurrentHashMap.newKeySet();
+    private int maximumPageSize = Integer.MAX_VALUE;
+
+    public PagedRestConnectionTestHelper(final int totalCount, final boolean randomDelays) {
+        this.totalCount = totalCount;
+        this.randomDelays = randomDelays;
+    }
+
+    public HubResponsesTransformer createTransformer() throws Exception {
+        return createTransformer(Optional.empty());
+    }
+
+    public HubResponsesTransformer createTransformer(final Optional<AdaptivePageSizePolicy> pageSizePolicy) throws Exception {
+        final BlackduckRestConnection restConnection = createRestConnection();
+        final Gson gson = HubServicesFactory.createDefaultGson();
+        final JsonParser jsonParser = HubServicesFactory.createDefaultJsonParser();
+        final HubResponseTransformer hubResponseTransformer = new HubResponseTransformer(restConnection, gson, jsonParser);
+        return new HubResponsesTransformer(restConnection, hubResponseTransformer, jsonParser, pageSizePolicy);
+    }
+
+    public BlackduckRestConnection createRestConnection() throws Exception {
+        final BlackduckRestConnection restConnection = mock(BlackduckRestConnection.class);
+        when(restConnection.executeRequest(any(Request.class))).thenAnswer(invocation -> {
+            final Request request = invocation.getArgument(0);
+            final int offset = Integer.parseInt(request.getQueryParameters().get("offset").iterator().next());
+            final int limit = Integer.parseInt(request.getQueryParameters().get("limit").iterator().next());
+            requestedOffsets.add(offset);
+            if (randomDelays) {
+                Thread.sleep(ThreadLocalRandom.current().nextInt(5));
+            }
+            return createPageResponse(offset, Math.min(limit, maximumPageSize));
+        });
+        return restConnection;
+    }
+
+    /**
+     * Makes the fake server return pages shorter than the requested limit, as the Hub does for some endpoints.
+     */
+    public void setMaximumPageSize(final int maximumPageSize) {
+        this.maximumPageSize = maximumPageSize;
+    }
+
+    public Set<Integer> getRequestedOffsets() {
+        return requestedOffsets;
+    }
+
+    private Response createPageResponse(final int offset, final int limit) throws Exception {
+        final StringBuilder json = new StringBuilder();
+        json.append("{\"totalCount\":" + totalCount + ",\"items\":[");
+        for (int i = offset; i < Math.min(offset + limit, totalCount); i++) {
+            if (i > offset) {
+                json.append(",");
+            }
+            json.append("{\"name\":\"project" + i + "\",\"type\":\"PROJECT\"}");
+        }
+        json.append("]}");
+
+        final CloseableHttpResponse closeableHttpResponse = mock(CloseableHttpResponse.class);
+        when(closeableHttpResponse.getEntity()).thenReturn(new StringEntity(json.toString(), ContentType.APPLICATION_JSON));
+        return new Response(closeableHttpResponse);
+    }
+
+}
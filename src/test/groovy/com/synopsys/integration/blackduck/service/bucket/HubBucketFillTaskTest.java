@@ -0,0 +1,57 @@
+package com.synopsys.integration.blackduck.service.bucket;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.synopsys.integration.blackduck.api.UriSingleResponse;
+import com.synopsys.integration.blackduck.api.generated.view.ProjectView;
+import com.synopsys.integration.blackduck.service.HubService;
+
+public class HubBucketFillTaskTest {
+    private static final String PROJECT_URI = "https://www.url.com/api/projects/1";
+
+    @Test
+    public void testLosingTaskWaitsForTheWinner() throws Exception {
+        final CountDownLatch winnerStarted = new CountDownLatch(1);
+        final CountDownLatch releaseWinner = new CountDownLatch(1);
+        final HubService hubService = mock(HubService.class);
+        when(hubService.getResponse(any(UriSingleResponse.class))).thenAnswer(invocation -> {
+            winnerStarted.countDown();
+            releaseWinner.await();
+            return new ProjectView();
+        });
+
+        final HubBucket hubBucket = new HubBucket();
+        final UriSingleResponse<ProjectView> uriSingleResponse = new UriSingleResponse<>(PROJECT_URI, ProjectView.class);
+        final Thread winner = new Thread(new HubBucketFillTask(hubService, hubBucket, uriSingleResponse));
+        winner.start();
+        assertTrue(winnerStarted.await(10, TimeUnit.SECONDS));
+
+        final CountDownLatch loserDone = new CountDownLatch(1);
+        final Thread loser = new Thread(() -> {
+            new HubBucketFillTask(hubService, hubBucket, uriSingleResponse).run();
+            loserDone.countDown();
+        });
+        loser.start();
+        assertFalse(loserDone.await(100, TimeUnit.MILLISECONDS));
+
+        releaseWinner.countDown();
+        assertTrue(loserDone.await(10, TimeUnit.SECONDS));
+        assertTrue(hubBucket.contains(PROJECT_URI));
+        assertTrue(hubBucket.getResponse(PROJECT_URI).isPresent());
+        verify(hubService, times(1)).getResponse(any(UriSingleResponse.class));
+        winner.join();
+        assertFalse(hubBucket.getError(PROJECT_URI).isPresent());
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.synopsys.integration.blackduck.service.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.synopsys.integration.blackduck.api.generated.view.LicenseView;
+import com.synopsys.integration.blackduck.api.generated.view.ProjectView;
+import com.synopsys.integration.log.IntBufferedLogger;
+
+public class DiskHubResponseCacheTest {
+    private File tempDirectory;
+
+    @Before
+    public void createTempDirectory() throws Exception {
+        tempDirectory = Files.createTempDirectory("hub_response_cache").toFile();
+    }
+
+    @After
+    public void deleteTempDirectory() {
+        FileUtils.deleteQuietly(tempDirectory);
+    }
+
+    @Test
+    public void testResponsesSurviveANewInstance() throws Exception {
+        final DiskHubResponseCache cache = new DiskHubResponseCache(tempDirectory, new IntBufferedLogger());
+        cache.put(new CachedResponse("https://www.url.com/api/projects/1", ProjectView.class, "{\"name\":\"project\"}", System.currentTimeMillis(), "\"etag\"", null));
+
+        final DiskHubResponseCache newCache = new DiskHubResponseCache(tempDirectory, new IntBufferedLogger());
+        final CachedResponse cachedResponse = newCache.get("https://www.url.com/api/projects/1", ProjectView.class);
+        assertNotNull(cachedResponse);
+        assertEquals("{\"name\":\"project\"}", cachedResponse.getJson());
+        assertEquals("\"etag\"", cachedResponse.getETag());
+        assertNull(cachedResponse.getLastModified());
+        assertNull(newCache.get("https://www.url.com/api/projects/1", LicenseView.class));
+    }
+
+    @Test
+    public void testExpiredResponsesAreKeptOnlyForRevalidation() throws Exception {
+        final AtomicLong now = new AtomicLong(0);
+        final DiskHubResponseCache cache = new DiskHubResponseCache(tempDirectory, new IntBufferedLogger(), Long.MAX_VALUE, 1000, now::get);
+        cache.put(new CachedResponse("uri1", ProjectView.class, "{}", 0, "\"etag\"", null));
+        cache.put(new CachedResponse("uri2", ProjectView.class, "{}", 0));
+
+        now.set(5000);
+        assertNull(cache.get("uri1", ProjectView.class));
+        assertNull(cache.get("uri2", ProjectView.class));
+        assertNotNull(cache.getForRevalidation("uri1", ProjectView.class));
+        assertEquals(1, cache.getStatistics().getEntryCount());
+
+        cache.invalidate("uri1");
+        assertNull(cache.getForRevalidation("uri1", ProjectView.class));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreEvicted() throws Exception {
+        final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+        final String json = "{\"name\":\"" + new String(new char[1000]).replace('\0', 'x') + "\"}";
+        final DiskHubResponseCache cache = new DiskHubResponseCache(tempDirectory, new IntBufferedLogger(), 2500, 60000, now::get);
+        cache.put(new CachedResponse("uri1", ProjectView.class, json, now.get()));
+        now.addAndGet(1000);
+        cache.put(new CachedResponse("uri2", ProjectView.class, json, now.get()));
+        now.addAndGet(1000);
+        assertNotNull(cache.get("uri1", ProjectView.class));
+        cache.put(new CachedResponse("uri3", ProjectView.class, json, now.get()));
+
+        assertNotNull(cache.get("uri1", ProjectView.class));
+        assertNull(cache.get("uri2", ProjectView.class));
+        assertNotNull(cache.get("uri3", ProjectView.class));
+    }
+
+    @Test
+    public void testInstancesInOneJvmShareTheDirectory() throws Exception {
+        final DiskHubResponseCache cache = new DiskHubResponseCache(tempDirectory, new IntBufferedLogger());
+        final DiskHubResponseCache otherCache = new DiskHubResponseCache(tempDirectory, new IntBufferedLogger());
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                final String uri = "uri" + (i % 10);
+                final DiskHubResponseCache writer = i % 2 == 0 ? cache : otherCache;
+                final DiskHubResponseCache reader = i % 2 == 0 ? otherCache : cache;
+                futures.add(executorService.submit(() -> writer.put(new CachedResponse(uri, ProjectView.class, "{}", System.currentTimeMillis()))));
+                futures.add(executorService.submit(() -> reader.get(uri, ProjectView.class)));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertNotNull(cache.get("uri" + i, ProjectView.class));
+            assertNotNull(otherCache.get("uri" + i, ProjectView.class));
+        }
+    }
+
+    @Test
+    public void testTieredCacheWarmsTheFirstTier() throws Exception {
+        final DiskHubResponseCache diskCache = new DiskHubResponseCache(tempDirectory, new IntBufferedLogger());
+        diskCache.put(new CachedResponse("uri", ProjectView.class, "{}", System.currentTimeMillis()));
+
+        final InMemoryHubResponseCache memoryCache = new InMemoryHubResponseCache();
+        final TieredHubResponseCache tieredCache = new TieredHubResponseCache(memoryCache, diskCache);
+        assertNotNull(tieredCache.get("uri", ProjectView.class));
+        assertNotNull(memoryCache.get("uri", ProjectView.class));
+
+        tieredCache.invalidate("uri");
+        assertNull(tieredCache.get("uri", ProjectView.class));
+    }
+
+}
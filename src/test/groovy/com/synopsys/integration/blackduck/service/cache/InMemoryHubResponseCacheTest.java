@@ -0,0 +1,149 @@
+package com.synopsys.integration.blackduck.service.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.URL;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHeader;
+import org.junit.Test;
+
+import com.synopsys.integration.blackduck.api.UriSingleResponse;
+import com.synopsys.integration.blackduck.api.generated.view.LicenseView;
+import com.synopsys.integration.blackduck.api.generated.view.ProjectView;
+import com.synopsys.integration.blackduck.rest.BlackduckRestConnection;
+import com.synopsys.integration.blackduck.service.HubRequestExecutor;
+import com.synopsys.integration.blackduck.service.HubService;
+import com.synopsys.integration.blackduck.service.HubServicesFactory;
+import com.synopsys.integration.blackduck.service.bucket.HubBucket;
+import com.synopsys.integration.blackduck.service.bucket.HubBucketService;
+import com.synopsys.integration.blackduck.service.model.HubServiceOptions;
+import com.synopsys.integration.log.IntBufferedLogger;
+import com.synopsys.integration.rest.HttpMethod;
+import com.synopsys.integration.rest.exception.IntegrationRestException;
+import com.synopsys.integration.rest.request.Request;
+import com.synopsys.integration.rest.request.Response;
+
+public class InMemoryHubResponseCacheTest {
+    private static final String PROJECT_URI = "https://www.url.com/api/projects/1";
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreEvicted() {
+        final InMemoryHubResponseCache cache = new InMemoryHubResponseCache(2, Long.MAX_VALUE, 1000, () -> 0L);
+        cache.put(new CachedResponse("uri1", ProjectView.class, "{}", 0L));
+        cache.put(new CachedResponse("uri2", ProjectView.class, "{}", 0L));
+        assertNotNull(cache.get("uri1", ProjectView.class));
+        cache.put(new CachedResponse("uri3", ProjectView.class, "{}", 0L));
+
+        assertNotNull(cache.get("uri1", ProjectView.class));
+        assertNull(cache.get("uri2", ProjectView.class));
+        assertNotNull(cache.get("uri3", ProjectView.class));
+        assertEquals(1, cache.getStatistics().getEvictionCount());
+        assertEquals(3, cache.getStatistics().getHitCount());
+        assertEquals(1, cache.getStatistics().getMissCount());
+    }
+
+    @Test
+    public void testWeightIsBounded() {
+        final InMemoryHubResponseCache cache = new InMemoryHubResponseCache(100, 10, 1000, () -> 0L);
+        cache.put(new CachedResponse("uri1", ProjectView.class, "123456", 0L));
+        cache.put(new CachedResponse("uri2", ProjectView.class, "123456", 0L));
+        cache.put(new CachedResponse("uri3", ProjectView.class, "12345678901", 0L));
+
+        assertNull(cache.get("uri1", ProjectView.class));
+        assertNotNull(cache.get("uri2", ProjectView.class));
+        assertNull(cache.get("uri3", ProjectView.class));
+        assertEquals(6, cache.getStatistics().getWeight());
+    }
+
+    @Test
+    public void testTimeToLiveIsPerClass() {
+        final AtomicLong now = new AtomicLong(0);
+        final InMemoryHubResponseCache cache = new InMemoryHubResponseCache(100, Long.MAX_VALUE, 1000, now::get);
+        cache.setTimeToLive(LicenseView.class, 1, TimeUnit.HOURS);
+        cache.put(new CachedResponse("uri", ProjectView.class, "{}", 0L));
+        cache.put(new CachedResponse("uri", LicenseView.class, "{}", 0L));
+
+        now.set(5000);
+        assertNull(cache.get("uri", ProjectView.class));
+        assertNotNull(cache.get("uri", LicenseView.class));
+
+        cache.invalidate("uri");
+        assertNull(cache.get("uri", LicenseView.class));
+        assertEquals(0, cache.getStatistics().getEntryCount());
+    }
+
+    @Test
+    public void testHubServiceUsesCacheUntilInvalidated() throws Exception {
+        final AtomicInteger getCount = new AtomicInteger(0);
+        final BlackduckRestConnection restConnection = mock(BlackduckRestConnection.class);
+        when(restConnection.getBaseUrl()).thenReturn(new URL("https://www.url.com"));
+        when(restConnection.executeRequest(any(Request.class))).thenAnswer(invocation -> {
+            final Request request = invocation.getArgument(0);
+            if (HttpMethod.GET == request.getMethod()) {
+                getCount.incrementAndGet();
+            }
+            final CloseableHttpResponse closeableHttpResponse = mock(CloseableHttpResponse.class);
+            when(closeableHttpResponse.getEntity()).thenReturn(new StringEntity("{\"name\":\"project\"}", ContentType.APPLICATION_JSON));
+            return new Response(closeableHttpResponse);
+        });
+
+        final InMemoryHubResponseCache cache = new InMemoryHubResponseCache();
+        final HubService hubService = new HubService(new IntBufferedLogger(), new HubRequestExecutor(restConnection), HubServicesFactory.createDefaultGson(), HubServicesFactory.createDefaultJsonParser(),
+                new HubServiceOptions.Builder().responseCache(cache).build());
+
+        final ProjectView first = hubService.getResponse(PROJECT_URI, ProjectView.class);
+        final ProjectView second = hubService.getResponse(PROJECT_URI, ProjectView.class);
+        assertEquals(1, getCount.get());
+        assertEquals("project", second.name);
+        assertNotSame(first, second);
+
+        hubService.executeRequest(new Request.Builder(PROJECT_URI).method(HttpMethod.PUT).build()).close();
+        hubService.getResponse(PROJECT_URI, ProjectView.class);
+        assertEquals(2, getCount.get());
+    }
+
+    @Test
+    public void testBucketRevalidationServesCachedResponseWhenNotModified() throws Exception {
+        final AtomicInteger fullResponseCount = new AtomicInteger(0);
+        final BlackduckRestConnection restConnection = mock(BlackduckRestConnection.class);
+        when(restConnection.getBaseUrl()).thenReturn(new URL("https://www.url.com"));
+        when(restConnection.executeRequest(any(Request.class))).thenAnswer(invocation -> {
+            final Request request = invocation.getArgument(0);
+            if (request.getAdditionalHeaders() != null && "\"1\"".equals(request.getAdditionalHeaders().get("If-None-Match"))) {
+                throw new IntegrationRestException(304, "Not Modified", "", "Not Modified");
+            }
+            fullResponseCount.incrementAndGet();
+            final CloseableHttpResponse closeableHttpResponse = mock(CloseableHttpResponse.class);
+            when(closeableHttpResponse.getEntity()).thenReturn(new StringEntity("{\"name\":\"project\"}", ContentType.APPLICATION_JSON));
+            when(closeableHttpResponse.containsHeader("ETag")).thenReturn(true);
+            when(closeableHttpResponse.getFirstHeader("ETag")).thenReturn(new BasicHeader("ETag", "\"1\""));
+            return new Response(closeableHttpResponse);
+        });
+
+        final InMemoryHubResponseCache cache = new InMemoryHubResponseCache();
+        final HubService hubService = new HubService(new IntBufferedLogger(), new HubRequestExecutor(restConnection), HubServicesFactory.createDefaultGson(), HubServicesFactory.createDefaultJsonParser(),
+                new HubServiceOptions.Builder().responseCache(cache).build());
+        final HubBucketService hubBucketService = new HubBucketService(hubService, new IntBufferedLogger());
+        final HubBucket hubBucket = hubBucketService.startTheBucket(Collections.singletonList(new UriSingleResponse<>(PROJECT_URI, ProjectView.class)));
+        assertEquals(1, fullResponseCount.get());
+        assertEquals("\"1\"", cache.get(PROJECT_URI, ProjectView.class).getETag());
+
+        hubBucketService.revalidateTheBucket(hubBucket);
+        assertEquals(1, fullResponseCount.get());
+        assertEquals("project", hubBucket.get(PROJECT_URI, ProjectView.class).name);
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.synopsys.integration.blackduck.service.jfr;
+
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+
+public class HubFlightRecorderTest {
+    @Test
+    public void testNothingIsRecordedWhenRecordingIsOff() {
+        assertFalse(HubFlightRecorder.beginRequest("https://www.url.com/api/projects", null).isRecording());
+    }
+
+}
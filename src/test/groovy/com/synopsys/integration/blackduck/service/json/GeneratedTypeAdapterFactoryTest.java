@@ -0,0 +1,88 @@
+package com.synopsys.integration.blackduck.service.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import com.synopsys.integration.blackduck.api.generated.view.NotificationView;
+import com.synopsys.integration.blackduck.api.generated.view.ProjectView;
+import com.synopsys.integration.blackduck.notification.content.RuleViolationNotificationContent;
+import com.synopsys.integration.blackduck.service.HubServicesFactory;
+
+public class GeneratedTypeAdapterFactoryTest {
+    private static final String PROJECT_JSON = "{\"name\":\"CITestProject\",\"projectLevelAdjustments\":false,\"projectTier\":3,\"source\":\"CUSTOM\",\"createdAt\":\"2018-06-01T10:15:30.250Z\",\"unknown\":{\"nested\":[1,2]},"
+            + "\"cloneCategories\":[\"COMPONENT_DATA\",\"VULN_DATA\"],\"_meta\":{\"allow\":[\"GET\",\"PUT\"],\"href\":\"http://hub-server.com/api/projects/1\",\"links\":[{\"rel\":\"versions\",\"href\":\"http://hub-server.com/api/projects/1/versions\"}]}}";
+
+    private final Gson gson = HubServicesFactory.createDefaultGson();
+    private final Gson reflectiveGson = new GsonBuilder().registerTypeAdapter(Date.class, new HubDateTypeAdapter()).create();
+
+    @Test
+    public void testAdaptsViewsAndNotificationContents() {
+        assertTrue(GeneratedTypeAdapterFactory.getAdaptedClasses().contains(ProjectView.class));
+        assertTrue(GeneratedTypeAdapterFactory.getAdaptedClasses().contains(NotificationView.class));
+        assertTrue(GeneratedTypeAdapterFactory.getAdaptedClasses().contains(RuleViolationNotificationContent.class));
+        assertEquals("ProjectViewTypeAdapter", gson.getAdapter(ProjectView.class).getClass().getSimpleName());
+    }
+
+    @Test
+    public void testReadsLikeReflection() throws Exception {
+        assertSameAsReflection(PROJECT_JSON, ProjectView.class);
+        assertSameAsReflection("{\"name\":null,\"projectTier\":null}", ProjectView.class);
+
+        final JsonObject notification = new JsonParser().parse(readResource("/json/RuleViolationNotification_valid03.txt")).getAsJsonObject();
+        assertSameAsReflection(notification.toString(), NotificationView.class);
+        assertSameAsReflection(notification.get("content").toString(), RuleViolationNotificationContent.class);
+
+        final ProjectView projectView = gson.fromJson(PROJECT_JSON, ProjectView.class);
+        assertEquals("CITestProject", projectView.name);
+        assertEquals(Integer.valueOf(3), projectView.projectTier);
+        assertEquals(1, projectView._meta.links.size());
+        assertEquals(HubDateTypeAdapter.parse("2018-06-01T10:15:30.250Z"), projectView.createdAt);
+    }
+
+    @Test
+    public void testPrimitiveFieldKeepsItsDefaultForNull() {
+        final RuleViolationNotificationContent content = gson.fromJson("{\"projectName\":\"p\",\"componentVersionsInViolation\":null}", RuleViolationNotificationContent.class);
+        assertEquals("p", content.projectName);
+        assertEquals(0, content.componentVersionsInViolation);
+        assertNull(gson.fromJson("null", ProjectView.class));
+    }
+
+    @Test(expected = JsonSyntaxException.class)
+    public void testMalformedJson() {
+        gson.fromJson("{\"name\":[\"not\",\"a\",\"string\"]}", ProjectView.class);
+    }
+
+    @Test
+    public void testWritesLikeReflection() {
+        final ProjectView projectView = gson.fromJson(PROJECT_JSON, ProjectView.class);
+        assertEquals(reflectiveGson.toJson(projectView), gson.toJson(projectView));
+        assertFalse(gson.toJson(projectView).contains("unknown"));
+    }
+
+    private <T> void assertSameAsReflection(final String json, final Class<T> responseClass) {
+        final T generated = gson.fromJson(json, responseClass);
+        final T reflected = reflectiveGson.fromJson(json, responseClass);
+        assertEquals(reflectiveGson.toJson(reflected), reflectiveGson.toJson(generated));
+    }
+
+    private String readResource(final String resource) throws Exception {
+        try (InputStream inputStream = getClass().getResourceAsStream(resource)) {
+            return IOUtils.toString(inputStream, StandardCharsets.UTF_8);
+        }
+    }
+
+}
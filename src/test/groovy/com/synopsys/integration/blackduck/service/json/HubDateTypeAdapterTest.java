@@ -0,0 +1,68 @@
+package com.synopsys.integration.blackduck.service.json;
+
+import static org.junit.Assert.assertEquals;
+
+import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.util.Date;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.synopsys.integration.blackduck.service.HubServicesFactory;
+import com.synopsys.integration.rest.RestConstants;
+
+public class HubDateTypeAdapterTest {
+    @Test
+    public void testFormatsLikeSimpleDateFormatInUtc() throws Exception {
+        final SimpleDateFormat simpleDateFormat = new SimpleDateFormat(RestConstants.JSON_DATE_FORMAT);
+        simpleDateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        for (final long millis : new long[] { 0L, 1474480817457L, 1535760000000L, 951782400999L, -86400001L, 253402300799999L }) {
+            final Date date = new Date(millis);
+            assertEquals(simpleDateFormat.format(date), HubDateTypeAdapter.format(date));
+            assertEquals(date, HubDateTypeAdapter.parse(HubDateTypeAdapter.format(date)));
+        }
+    }
+
+    @Test
+    public void testParsesOtherOffsets() throws Exception {
+        final Date expected = HubDateTypeAdapter.parse("2016-09-21T18:00:17.457Z");
+        assertEquals(1474480817457L, expected.getTime());
+        assertEquals(expected, HubDateTypeAdapter.parse("2016-09-21T14:00:17.457-04:00"));
+        assertEquals(expected, HubDateTypeAdapter.parse("2016-09-21T14:00:17.457-0400"));
+        assertEquals(expected, HubDateTypeAdapter.parse("2016-09-21T20:00:17.457+02"));
+        assertEquals(new Date(1474480817000L), HubDateTypeAdapter.parse("2016-09-21T18:00:17Z"));
+        assertEquals(new Date(1474480817000L), HubDateTypeAdapter.parse("2016-09-21T18:00:17"));
+    }
+
+    @Test
+    public void testDefaultTimeZoneOnlyChangesHowDatesWereWritten() throws Exception {
+        final TimeZone defaultTimeZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+        try {
+            final String json = "\"2016-09-21T18:00:17.457Z\"";
+            final Gson baselineGson = new GsonBuilder().setDateFormat(RestConstants.JSON_DATE_FORMAT).create();
+            final Gson gson = HubServicesFactory.createDefaultGson();
+
+            // the pattern's X reads the Z as an offset, so the instant read never depended on the default time zone
+            assertEquals(1474480817457L, baselineGson.fromJson(json, Date.class).getTime());
+            assertEquals(1474480817457L, gson.fromJson(json, Date.class).getTime());
+
+            // but dates used to be written in the default time zone, and are now always written in UTC
+            final Date date = new Date(1474480817457L);
+            assertEquals("\"2016-09-21T14:00:17.457-04\"", baselineGson.toJson(date));
+            assertEquals(json, gson.toJson(date));
+            assertEquals(date, gson.fromJson(baselineGson.toJson(date), Date.class));
+        } finally {
+            TimeZone.setDefault(defaultTimeZone);
+        }
+    }
+
+    @Test(expected = DateTimeException.class)
+    public void testRejectsInvalidDate() {
+        HubDateTypeAdapter.parse("2016-13-21T18:00:17.457Z");
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.synopsys.integration.blackduck.service.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class HistogramTest {
+    @Test
+    public void testSmallValuesAreExact() {
+        final Histogram histogram = new Histogram();
+        for (int i = 1; i <= 10; i++) {
+            histogram.record(i);
+        }
+        assertEquals(10, histogram.getCount());
+        assertEquals(5, histogram.getValueAtPercentile(50));
+        assertEquals(10, histogram.getValueAtPercentile(100));
+        assertEquals(5.5, histogram.getMean(), 0.0);
+    }
+
+    @Test
+    public void testLargeValuesAreWithinTheBucketError() {
+        final Histogram histogram = new Histogram();
+        for (int i = 1; i <= 100000; i++) {
+            histogram.record(i);
+        }
+        assertWithinError(50000, histogram.getValueAtPercentile(50));
+        assertWithinError(99000, histogram.getValueAtPercentile(99));
+        assertEquals(100000, histogram.getValueAtPercentile(100));
+        assertEquals(100000, histogram.getMax());
+    }
+
+    @Test
+    public void testBucketsCoverEveryValue() {
+        assertEquals(Long.MAX_VALUE, Histogram.getBucketUpperBound(Histogram.getBucketIndex(Long.MAX_VALUE)));
+        for (long value = 1; value > 0 && value < Long.MAX_VALUE / 3; value = value * 3 + 1) {
+            final int index = Histogram.getBucketIndex(value);
+            assertTrue(Histogram.getBucketUpperBound(index) >= value);
+            assertTrue(index == 0 || Histogram.getBucketUpperBound(index - 1) < value);
+        }
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        final Histogram histogram = new Histogram();
+        histogram.record(100);
+        final Histogram copy = histogram.copy();
+        histogram.record(200);
+        assertEquals(1, copy.getCount());
+        assertEquals(100, copy.getMax());
+        assertEquals(2, histogram.getCount());
+    }
+
+    private void assertWithinError(final long expected, final long actual) {
+        assertTrue("Expected about " + expected + " but was " + actual, Math.abs(actual - expected) <= expected / 16);
+    }
+
+}
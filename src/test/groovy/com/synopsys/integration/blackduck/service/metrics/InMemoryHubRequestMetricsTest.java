@@ -0,0 +1,83 @@
+package com.synopsys.integration.blackduck.service.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.junit.Test;
+
+import com.synopsys.integration.blackduck.rest.BlackduckRestConnection;
+import com.synopsys.integration.blackduck.service.HubRequestExecutor;
+import com.synopsys.integration.rest.exception.IntegrationRestException;
+import com.synopsys.integration.rest.request.Request;
+import com.synopsys.integration.rest.request.Response;
+
+public class InMemoryHubRequestMetricsTest {
+    private static final String JSON = "{\"name\":\"project\"}";
+
+    @Test
+    public void testRequestsAreRecordedByEndpoint() throws Exception {
+        final InMemoryHubRequestMetrics metrics = new InMemoryHubRequestMetrics();
+        final HubRequestExecutor hubRequestExecutor = new HubRequestExecutor(createRestConnection());
+        hubRequestExecutor.addRequestListener(metrics);
+
+        for (int i = 1; i <= 3; i++) {
+            try (Response response = hubRequestExecutor.execute(new Request.Builder("https://www.url.com/api/projects/" + i + "/versions").build())) {
+                assertEquals(JSON, response.getContentString());
+            }
+        }
+        try {
+            hubRequestExecutor.execute(new Request.Builder("https://www.url.com/api/projects/4/missing").build());
+        } catch (final IntegrationRestException e) {
+            // expected
+        }
+        hubRequestExecutor.recordPages("https://www.url.com/api/projects/1/versions?limit=10", 4, 35);
+
+        final List<EndpointMetricsSnapshot> snapshots = metrics.getSnapshots();
+        assertEquals(2, snapshots.size());
+
+        final EndpointMetricsSnapshot versions = snapshots.get(1);
+        assertEquals("/api/projects/{id}/versions", versions.getEndpoint());
+        assertEquals(3, versions.getRequestCount());
+        assertEquals(0, versions.getErrorCount());
+        assertEquals(3 * JSON.length(), versions.getResponseBytes());
+        assertEquals(3, versions.getLatencyMicroseconds().getCount());
+        assertEquals(4, versions.getPagesPerCall().getMax());
+
+        final EndpointMetricsSnapshot missing = snapshots.get(0);
+        assertEquals("/api/projects/{id}/missing", missing.getEndpoint());
+        assertEquals(1, missing.getRequestCount());
+        assertEquals(Collections.singletonMap(404, 1L), missing.getErrorCounts());
+    }
+
+    @Test
+    public void testResetForgetsEverything() throws Exception {
+        final InMemoryHubRequestMetrics metrics = new InMemoryHubRequestMetrics();
+        metrics.requestSucceeded("/api/projects", null, 1000);
+        metrics.reset();
+        assertFalse(metrics.getSnapshot("/api/projects").isPresent());
+    }
+
+    private BlackduckRestConnection createRestConnection() throws Exception {
+        final BlackduckRestConnection restConnection = mock(BlackduckRestConnection.class);
+        when(restConnection.executeRequest(any(Request.class))).thenAnswer(invocation -> {
+            final Request request = invocation.getArgument(0);
+            if (request.getUri().endsWith("missing")) {
+                throw new IntegrationRestException(404, "Not Found", "", "Not Found");
+            }
+            final CloseableHttpResponse closeableHttpResponse = mock(CloseableHttpResponse.class);
+            when(closeableHttpResponse.getEntity()).thenReturn(new StringEntity(JSON, ContentType.APPLICATION_JSON));
+            return new Response(closeableHttpResponse);
+        });
+        return restConnection;
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.synopsys.integration.blackduck.service.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class AdaptiveConcurrencyLimiterTest {
+    @Test
+    public void testLimitGrowsWhileLatencyIsFlat() throws Exception {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 16, 2.0);
+        for (int i = 0; i < 200; i++) {
+            for (int j = 0; j < limiter.getLimit(); j++) {
+                limiter.acquire();
+            }
+            final int inFlight = limiter.getInFlight();
+            for (int j = 0; j < inFlight; j++) {
+                limiter.release(10, TimeUnit.MILLISECONDS, AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+            }
+        }
+        assertEquals(16, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testLimitIsHalvedWhenOverloaded() throws Exception {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 16, 2.0);
+        limiter.acquire();
+        limiter.acquire();
+        limiter.release(10, TimeUnit.MILLISECONDS, AdaptiveConcurrencyLimiter.Outcome.OVERLOADED);
+        assertEquals(4, limiter.getLimit());
+
+        // the second failure was already in flight, so it shouldn't cut the limit again
+        limiter.release(10, TimeUnit.MILLISECONDS, AdaptiveConcurrencyLimiter.Outcome.OVERLOADED);
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    public void testLatencyIsComparedPerEndpoint() throws Exception {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 16, 2.0);
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire();
+            limiter.acquire();
+            limiter.release("https://www.url.com/api/projects/" + i, 10, TimeUnit.MILLISECONDS, AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+            limiter.release("https://www.url.com/api/projects/" + i + "/versions/1/components?limit=500", 500, TimeUnit.MILLISECONDS, AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+        }
+        assertEquals(8, limiter.getLimit());
+
+        limiter.acquire();
+        limiter.release("https://www.url.com/api/projects/1", 50, TimeUnit.MILLISECONDS, AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+        assertEquals(7, limiter.getLimit());
+    }
+
+    @Test
+    public void testIgnoredOutcomeLeavesTheLimitAlone() throws Exception {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 16, 2.0);
+        limiter.acquire();
+        limiter.release(10, TimeUnit.SECONDS, AdaptiveConcurrencyLimiter.Outcome.IGNORED);
+        assertEquals(8, limiter.getLimit());
+    }
+
+    @Test
+    public void testCallersOverTheLimitWait() throws Exception {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 2.0);
+        limiter.acquire();
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            final Future<?> first = executorService.submit(() -> {
+                limiter.acquire();
+                return null;
+            });
+            final Future<?> second = executorService.submit(() -> {
+                limiter.acquire();
+                return null;
+            });
+            Thread.sleep(200);
+            assertEquals(2, limiter.getQueueDepth());
+            assertEquals(1, limiter.getInFlight());
+
+            limiter.release(10, TimeUnit.MILLISECONDS, AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+            Thread.sleep(200);
+            assertEquals(1, limiter.getQueueDepth());
+            assertTrue(first.isDone() || second.isDone());
+
+            limiter.release(10, TimeUnit.MILLISECONDS, AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+            assertEquals(0, limiter.getQueueDepth());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.synopsys.integration.blackduck.service.model;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class AdaptivePageSizePolicyTest {
+    private static final String VERSIONS_URI = "https://www.url.com/api/projects/0d7e5d5c-8e31-4a1b-9c5a-3f4e1a2b3c4d/versions?q=name:1.0";
+
+    @Test
+    public void testSmallItemsGrowGradually() {
+        final AdaptivePageSizePolicy pageSizePolicy = new AdaptivePageSizePolicy();
+        assertEquals(100, pageSizePolicy.getPageSize(VERSIONS_URI, 100));
+
+        pageSizePolicy.recordPage(VERSIONS_URI, 100, 100, 10000, 50);
+        assertEquals(200, pageSizePolicy.getPageSize(VERSIONS_URI, 100));
+
+        pageSizePolicy.recordPage(VERSIONS_URI, 200, 200, 20000, 50);
+        pageSizePolicy.recordPage(VERSIONS_URI, 400, 400, 40000, 50);
+        pageSizePolicy.recordPage(VERSIONS_URI, 800, 800, 80000, 50);
+        assertEquals(AdaptivePageSizePolicy.DEFAULT_MAXIMUM_PAGE_SIZE, pageSizePolicy.getPageSize(VERSIONS_URI, 100));
+    }
+
+    @Test
+    public void testLargeOrSlowPagesShrink() {
+        final AdaptivePageSizePolicy pageSizePolicy = new AdaptivePageSizePolicy();
+        pageSizePolicy.recordPage(VERSIONS_URI, 100, 100, 100 * 20 * 1024, 50);
+        assertEquals(25, pageSizePolicy.getPageSize(VERSIONS_URI, 100));
+
+        pageSizePolicy.recordPage(VERSIONS_URI, 25, 25, 25 * 1024, 10000);
+        assertEquals(AdaptivePageSizePolicy.DEFAULT_MINIMUM_PAGE_SIZE, pageSizePolicy.getPageSize(VERSIONS_URI, 100));
+    }
+
+    @Test
+    public void testCeilingsAndPinnedSizes() {
+        final AdaptivePageSizePolicy pageSizePolicy = new AdaptivePageSizePolicy();
+        pageSizePolicy.setMaximumPageSize("/api/projects/{id}/versions", 150);
+        pageSizePolicy.recordPage(VERSIONS_URI, 100, 100, 1000, 10);
+        assertEquals(150, pageSizePolicy.getPageSize(VERSIONS_URI, 100));
+
+        pageSizePolicy.pinPageSize(VERSIONS_URI, 42);
+        pageSizePolicy.recordPage(VERSIONS_URI, 42, 42, 1000, 10);
+        assertEquals(42, pageSizePolicy.getPageSize(VERSIONS_URI, 100));
+
+        pageSizePolicy.unpinPageSize("/api/projects/{id}/versions");
+        assertEquals(150, pageSizePolicy.getPageSize(VERSIONS_URI, 100));
+    }
+
+}
@@ -0,0 +1,150 @@
+package com.synopsys.integration.blackduck.service.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class BoundedIoExecutorServiceTest {
+    @Test
+    public void testConcurrentTasksAreBounded() throws Exception {
+        final BoundedIoExecutorService executorService = BoundedIoExecutorService.create(4);
+        try {
+            final AtomicInteger running = new AtomicInteger(0);
+            final AtomicInteger maximumRunning = new AtomicInteger(0);
+            final CountDownLatch finished = new CountDownLatch(50);
+            for (int i = 0; i < 50; i++) {
+                executorService.execute(() -> {
+                    maximumRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(5);
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    finished.countDown();
+                });
+            }
+
+            assertTrue(finished.await(10, TimeUnit.SECONDS));
+            assertTrue(maximumRunning.get() <= 4);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCallingThreadWaitsForAPermit() throws Exception {
+        final BoundedIoExecutorService executorService = BoundedIoExecutorService.create(1);
+        try {
+            final CountDownLatch started = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            executorService.execute(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            final AtomicBoolean ran = new AtomicBoolean(false);
+            final Thread caller = new Thread(() -> {
+                try {
+                    executorService.runInCallingThread(() -> ran.set(true));
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            caller.start();
+            caller.join(200);
+            assertFalse(ran.get());
+
+            release.countDown();
+            caller.join(TimeUnit.SECONDS.toMillis(10));
+            assertTrue(ran.get());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testTaskRunsNestedWorkWithItsOwnPermit() throws Exception {
+        final BoundedIoExecutorService executorService = BoundedIoExecutorService.create(1);
+        try {
+            final AtomicBoolean ran = new AtomicBoolean(false);
+            final Future<?> task = executorService.submit(() -> {
+                executorService.runInCallingThread(() -> ran.set(true));
+                return null;
+            });
+
+            task.get(10, TimeUnit.SECONDS);
+            assertTrue(ran.get());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testShutdownNowReturnsTheSubmittedTasks() throws Exception {
+        final BoundedIoExecutorService executorService = BoundedIoExecutorService.createPlatformThreadExecutor(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        executorService.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        final Future<?> queued = executorService.submit(() -> {
+        });
+
+        final List<Runnable> neverStarted = executorService.shutdownNow();
+        assertEquals(1, neverStarted.size());
+        assertSame(queued, neverStarted.get(0));
+        assertEquals(0, executorService.getWaitingTaskCount());
+    }
+
+    @Test
+    public void testTaskWaitingForAPermitIsCancelledByShutdownNow() throws Exception {
+        assumeTrue(BoundedIoExecutorService.isVirtualThreadsAvailable());
+        final BoundedIoExecutorService executorService = BoundedIoExecutorService.create(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        executorService.execute(() -> {
+            started.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        final Future<?> waiting = executorService.submit(() -> {
+        });
+
+        executorService.shutdownNow();
+        try {
+            waiting.get(10, TimeUnit.SECONDS);
+            fail("Expected the waiting task to be cancelled");
+        } catch (final CancellationException e) {
+            assertTrue(waiting.isCancelled());
+        }
+    }
+
+}
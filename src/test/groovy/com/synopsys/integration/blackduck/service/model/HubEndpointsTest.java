@@ -0,0 +1,15 @@
+package com.synopsys.integration.blackduck.service.model;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class HubEndpointsTest {
+    @Test
+    public void testEndpointReplacesIds() {
+        assertEquals("/api/projects/{id}/versions", HubEndpoints.getEndpoint("https://www.url.com/api/projects/0d7e5d5c-8e31-4a1b-9c5a-3f4e1a2b3c4d/versions?q=name:1.0"));
+        assertEquals("/api/projects/{id}/versions", HubEndpoints.getEndpoint("/api/projects/{id}/versions"));
+        assertEquals("/api/codelocations/{id}/scan-summaries", HubEndpoints.getEndpoint("https://www.url.com/api/codelocations/12345/scan-summaries"));
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.synopsys.integration.blackduck.service.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import com.synopsys.integration.blackduck.service.metrics.ExecutionPoolSnapshot;
+
+public class HubExecutionContextTest {
+    @Test
+    public void testNestedFanOutsDoNotDeadlock() throws Exception {
+        try (HubExecutionContext executionContext = new HubExecutionContext(1, 1, 1)) {
+            final List<Callable<Integer>> outerTasks = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                final int outer = i;
+                outerTasks.add(() -> {
+                    final List<Callable<Integer>> innerTasks = Arrays.asList(() -> outer * 10, () -> outer * 10 + 1);
+                    return HubExecutionContext.invokeAll(executionContext.getCpuExecutorService(), innerTasks).stream().mapToInt(Integer::intValue).sum();
+                });
+            }
+
+            assertEquals(Arrays.asList(1, 21, 41, 61), HubExecutionContext.invokeAll(executionContext.getCpuExecutorService(), outerTasks));
+        }
+    }
+
+    @Test
+    public void testFailuresAreReportedOnceEveryTaskIsDone() throws Exception {
+        try (HubExecutionContext executionContext = new HubExecutionContext()) {
+            final AtomicBoolean lastTaskRan = new AtomicBoolean(false);
+            final List<Callable<String>> tasks = Arrays.asList(() -> {
+                throw new IllegalStateException("first");
+            }, () -> {
+                lastTaskRan.set(true);
+                return "second";
+            });
+            try {
+                HubExecutionContext.invokeAll(executionContext.getIoExecutorService(), tasks);
+                fail("Expected the first task to fail");
+            } catch (final ExecutionException e) {
+                assertEquals("first", e.getCause().getMessage());
+            }
+            assertTrue(lastTaskRan.get());
+        }
+    }
+
+    @Test
+    public void testSnapshotsShowQueuedTasks() throws Exception {
+        try (HubExecutionContext executionContext = new HubExecutionContext(4, 2, 1)) {
+            final CountDownLatch started = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            final String[] threadName = new String[1];
+            final Future<?> running = executionContext.getProcessExecutorService().submit(() -> {
+                threadName[0] = Thread.currentThread().getName();
+                started.countDown();
+                release.await();
+                return null;
+            });
+            final Future<?> queued = executionContext.getProcessExecutorService().submit(() -> null);
+            started.await(5, TimeUnit.SECONDS);
+
+            final ExecutionPoolSnapshot snapshot = executionContext.getSnapshot(HubExecutionContext.PROCESS_POOL);
+            assertEquals(1, snapshot.getMaximumConcurrentTasks());
+            assertEquals(1, snapshot.getRunningTaskCount());
+            assertEquals(1, snapshot.getQueuedTaskCount());
+            assertEquals(1.0, snapshot.getUtilization(), 0.0);
+            assertTrue(threadName[0].startsWith("Hub Process Thread"));
+
+            release.countDown();
+            running.get(5, TimeUnit.SECONDS);
+            queued.get(5, TimeUnit.SECONDS);
+            assertEquals(3, executionContext.getSnapshots().size());
+            assertEquals(0, executionContext.getSnapshot(HubExecutionContext.PROCESS_POOL).getQueuedTaskCount());
+        }
+    }
+
+    @Test
+    public void testCloseLetsRunningTasksFinishUntilTheTimeout() throws Exception {
+        final HubExecutionContext executionContext = new HubExecutionContext();
+        final CountDownLatch started = new CountDownLatch(2);
+        final AtomicBoolean finished = new AtomicBoolean(false);
+        final AtomicBoolean interrupted = new AtomicBoolean(false);
+        executionContext.getCpuExecutorService().execute(() -> {
+            started.countDown();
+            sleep(200);
+            finished.set(true);
+        });
+        executionContext.getIoExecutorService().execute(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (final InterruptedException e) {
+                interrupted.set(true);
+            }
+        });
+        started.await(5, TimeUnit.SECONDS);
+
+        executionContext.setShutdownTimeoutMilliseconds(1000);
+        executionContext.close();
+        assertTrue(finished.get());
+        assertTrue(executionContext.isShutdown());
+        executionContext.getIoExecutorService().awaitTermination(5, TimeUnit.SECONDS);
+        assertTrue(interrupted.get());
+    }
+
+    private void sleep(final long milliseconds) {
+        try {
+            Thread.sleep(milliseconds);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
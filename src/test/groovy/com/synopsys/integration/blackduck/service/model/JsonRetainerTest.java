@@ -0,0 +1,92 @@
+package com.synopsys.integration.blackduck.service.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.synopsys.integration.blackduck.api.generated.view.NotificationView;
+import com.synopsys.integration.blackduck.api.generated.view.ProjectView;
+
+public class JsonRetainerTest {
+    private static final String PROJECT_JSON = "{\"name\":\"project\",\"_meta\":{\"href\":\"http://www.url.com/api/projects/1\"}}";
+
+    private final Gson gson = new Gson();
+    private final JsonElement projectJson = new JsonParser().parse(PROJECT_JSON);
+
+    @Test
+    public void testEagerPopulatesJson() {
+        final JsonRetainer jsonRetainer = new JsonRetainer(gson, JsonRetention.EAGER);
+        final ProjectView projectView = gson.fromJson(projectJson, ProjectView.class);
+        jsonRetainer.retain(projectView, projectJson);
+
+        assertEquals(PROJECT_JSON, projectView.json);
+    }
+
+    @Test
+    public void testLazyPopulatesJsonWhenAskedFor() {
+        final JsonRetainer jsonRetainer = new JsonRetainer(gson, JsonRetention.LAZY);
+        final ProjectView projectView = gson.fromJson(projectJson, ProjectView.class);
+        jsonRetainer.retain(projectView, projectJson);
+
+        assertNull(projectView.json);
+        assertEquals(PROJECT_JSON, jsonRetainer.getJson(projectView));
+        assertEquals(PROJECT_JSON, projectView.json);
+    }
+
+    @Test
+    public void testLazyWritesTheJsonOnlyWhenAskedFor() {
+        final JsonRetainer jsonRetainer = new JsonRetainer(gson, JsonRetention.LAZY);
+        final JsonObject json = new JsonParser().parse(PROJECT_JSON).getAsJsonObject();
+        final ProjectView projectView = gson.fromJson(json, ProjectView.class);
+        jsonRetainer.retain(projectView, json);
+        json.addProperty("description", "written later");
+
+        assertTrue(jsonRetainer.getJson(projectView).contains("written later"));
+    }
+
+    @Test
+    public void testLazyReadsTheJsonTextFromTheStream() throws IOException {
+        final JsonRetainer jsonRetainer = new JsonRetainer(gson, JsonRetention.LAZY);
+        final JsonReader jsonReader = new JsonReader(new StringReader("[" + PROJECT_JSON + ",{\"name\":\"other\"}]"));
+        jsonReader.beginArray();
+        final ProjectView projectView = jsonRetainer.readResponse(jsonReader, ProjectView.class);
+        final ProjectView otherView = jsonRetainer.readResponse(jsonReader, ProjectView.class);
+        jsonReader.endArray();
+
+        assertEquals("project", projectView.name);
+        assertNull(projectView.json);
+        assertEquals(PROJECT_JSON, jsonRetainer.getJson(projectView));
+        assertEquals("{\"name\":\"other\"}", jsonRetainer.getJson(otherView));
+    }
+
+    @Test
+    public void testNoneDropsJson() {
+        final JsonRetainer jsonRetainer = new JsonRetainer(gson, JsonRetention.NONE);
+        final ProjectView projectView = gson.fromJson(projectJson, ProjectView.class);
+        jsonRetainer.retain(projectView, projectJson);
+
+        assertNull(jsonRetainer.getJson(projectView));
+    }
+
+    @Test
+    public void testNotificationsAreAlwaysEager() {
+        final JsonRetainer jsonRetainer = new JsonRetainer(gson, JsonRetention.NONE);
+        final JsonElement notificationJson = new JsonParser().parse("{\"type\":\"POLICY_OVERRIDE\",\"content\":{}}");
+        final NotificationView notificationView = gson.fromJson(notificationJson, NotificationView.class);
+        jsonRetainer.retain(notificationView, notificationJson);
+
+        assertNotNull(notificationView.json);
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.synopsys.integration.blackduck.service.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.synopsys.integration.blackduck.api.generated.enumeration.PolicySummaryStatusType;
+import com.synopsys.integration.blackduck.api.generated.view.ProjectView;
+import com.synopsys.integration.blackduck.api.generated.view.VersionBomComponentView;
+import com.synopsys.integration.blackduck.service.HubRequestExecutor;
+import com.synopsys.integration.blackduck.service.HubResponseTransformer;
+import com.synopsys.integration.blackduck.service.HubResponsesTransformer;
+import com.synopsys.integration.blackduck.service.HubServicesFactory;
+
+public class LazyDecoderTest {
+    private static final String COMPONENT_JSON = "{\"componentName\":\"commons-io\",\"componentVersionName\":\"2.6\",\"approvalStatus\":\"IN_VIOLATION\",\"releasedOn\":\"2017-10-15T00:00:00.000Z\","
+            + "\"licenses\":[{\"licenseDisplay\":\"Apache License 2.0\",\"license\":\"http://hub/api/licenses/1\"}],\"origins\":[{\"name\":\"maven\",\"externalId\":\"commons-io:commons-io:2.6\"}],"
+            + "\"activityData\":{\"commitCount12Month\":12,\"trending\":\"STABLE\"},\"matchTypes\":[\"FILE_DEPENDENCY_DIRECT\"],\"_meta\":{\"href\":\"http://hub/api/components/1\",\"links\":[]}}";
+
+    private final Gson gson = HubServicesFactory.createDefaultGson();
+    private final JsonElement componentJson = new JsonParser().parse(COMPONENT_JSON);
+
+    @Test
+    public void testDefersNestedFieldsUntilLoaded() throws Exception {
+        final LazyDecoder lazyDecoder = new LazyDecoder(gson);
+        lazyDecoder.setLazy(VersionBomComponentView.class, true);
+        final VersionBomComponentView component = lazyDecoder.decode(componentJson, VersionBomComponentView.class);
+
+        assertEquals("commons-io", component.componentName);
+        assertEquals(PolicySummaryStatusType.IN_VIOLATION, component.approvalStatus);
+        assertNotNull(component.releasedOn);
+        assertEquals("http://hub/api/components/1", component._meta.href);
+        assertNull(component.licenses);
+        assertNull(component.origins);
+        assertEquals(gson.toJson(componentJson), component.json);
+        assertEquals(new LinkedHashSet<>(Arrays.asList("licenses", "origins", "activityData", "matchTypes")), lazyDecoder.getDeferredFields(component));
+
+        lazyDecoder.load(component, "licenses", "noSuchField");
+        assertEquals("Apache License 2.0", component.licenses.get(0).licenseDisplay);
+        assertNull(component.origins);
+        assertEquals(3, lazyDecoder.getDeferredFields(component).size());
+
+        lazyDecoder.loadAll(component);
+        assertTrue(lazyDecoder.getDeferredFields(component).isEmpty());
+        component.json = null;
+        assertEquals(gson.toJson(gson.fromJson(componentJson, VersionBomComponentView.class)), gson.toJson(component));
+    }
+
+    @Test
+    public void testJsonIsRetainedAsTheRetentionSays() throws Exception {
+        final JsonRetainer jsonRetainer = new JsonRetainer(gson, JsonRetention.LAZY);
+        final LazyDecoder lazyDecoder = new LazyDecoder(gson, jsonRetainer);
+        lazyDecoder.setLazy(VersionBomComponentView.class, true);
+        final VersionBomComponentView component = lazyDecoder.decode(componentJson, VersionBomComponentView.class);
+
+        assertNull(component.json);
+        assertEquals("Apache License 2.0", lazyDecoder.load(component, "licenses").licenses.get(0).licenseDisplay);
+        assertEquals(gson.toJson(componentJson), jsonRetainer.getJson(component));
+
+        jsonRetainer.setJsonRetention(VersionBomComponentView.class, JsonRetention.NONE);
+        final VersionBomComponentView unretainedComponent = lazyDecoder.decode(componentJson, VersionBomComponentView.class);
+        assertNull(jsonRetainer.getJson(unretainedComponent));
+        assertEquals("maven", lazyDecoder.loadAll(unretainedComponent).origins.get(0).name);
+    }
+
+    @Test
+    public void testOtherClassesAreDecodedEagerly() throws Exception {
+        final LazyDecoder lazyDecoder = new LazyDecoder(gson);
+        lazyDecoder.setLazy(ProjectView.class, true);
+        final VersionBomComponentView component = lazyDecoder.decode(componentJson, VersionBomComponentView.class);
+
+        assertEquals("maven", component.origins.get(0).name);
+        assertTrue(lazyDecoder.getDeferredFields(component).isEmpty());
+    }
+
+    @Test
+    public void testPagesAreDecodedLazily() throws Exception {
+        final JsonRetainer jsonRetainer = new JsonRetainer(gson, JsonRetention.NONE);
+        final LazyDecoder lazyDecoder = new LazyDecoder(gson, jsonRetainer);
+        lazyDecoder.setLazy(VersionBomComponentView.class, true);
+        final HubResponseTransformer hubResponseTransformer = new HubResponseTransformer((HubRequestExecutor) null, gson, new JsonParser(), jsonRetainer, lazyDecoder, Optional.empty());
+        final HubResponsesTransformer hubResponsesTransformer = new HubResponsesTransformer((HubRequestExecutor) null, hubResponseTransformer, new JsonParser(), Optional.empty());
+
+        final String page = "{\"totalCount\":2,\"items\":[" + COMPONENT_JSON + "," + COMPONENT_JSON + "]}";
+        final HubPage<VersionBomComponentView> components = hubResponsesTransformer.readPage(new JsonReader(new StringReader(page)), VersionBomComponentView.class, Collections.emptyMap());
+
+        assertEquals(2, components.getItems().size());
+        assertNull(components.getItems().get(1).licenses);
+        assertEquals("Apache License 2.0", lazyDecoder.load(components.getItems().get(1), "licenses").licenses.get(0).licenseDisplay);
+        final VersionBomComponentView loadedComponent = lazyDecoder.loadAll(components.getItems().get(0));
+        assertNull(loadedComponent.json);
+        assertEquals(gson.toJson(gson.fromJson(componentJson, VersionBomComponentView.class)), gson.toJson(loadedComponent));
+    }
+
+}
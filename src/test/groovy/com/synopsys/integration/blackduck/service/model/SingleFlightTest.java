@@ -0,0 +1,91 @@
+package com.synopsys.integration.blackduck.service.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.synopsys.integration.blackduck.exception.HubIntegrationException;
+
+public class SingleFlightTest {
+    @Test
+    public void testConcurrentCallsShareOneExecution() throws Exception {
+        final SingleFlight<String, Object> singleFlight = new SingleFlight<>();
+        final AtomicInteger executionCount = new AtomicInteger(0);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Object result = new Object();
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executorService.submit(() -> singleFlight.execute("uri", () -> {
+                    executionCount.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return result;
+                })));
+            }
+            // give every thread time to join the call in flight
+            Thread.sleep(200);
+            release.countDown();
+
+            for (final Future<Object> future : futures) {
+                assertSame(result, future.get());
+            }
+            assertEquals(1, executionCount.get());
+            assertEquals(0, singleFlight.getCallsInFlight());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testEveryCallerGetsTheException() throws Exception {
+        final SingleFlight<String, Object> singleFlight = new SingleFlight<>();
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executorService.submit(() -> singleFlight.execute("uri", () -> {
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new HubIntegrationException("not found");
+                })));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            for (final Future<Object> future : futures) {
+                try {
+                    future.get();
+                    fail("Expected the exception to reach every caller");
+                } catch (final ExecutionException e) {
+                    assertEquals("not found", e.getCause().getMessage());
+                }
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.synopsys.integration.blackduck.service.trace;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+public class CriticalPathTest {
+    @Test
+    public void testSequentialChildrenAreAllCritical() {
+        final Span root = new Span("root", null, 0);
+        addChild(root, "GET /api/projects", 10, 40);
+        addChild(root, "GET /api/projects/{id}/versions", 50, 90);
+        root.end(100);
+
+        final CriticalPath criticalPath = CriticalPath.compute(root);
+        assertEquals(Arrays.asList("root", "GET /api/projects", "GET /api/projects/{id}/versions"), getNames(criticalPath));
+        assertEquals(100, criticalPath.getTotalNanos());
+
+        final Map<String, Long> nanosByName = criticalPath.getNanosByName();
+        assertEquals(Long.valueOf(40), nanosByName.get("GET /api/projects/{id}/versions"));
+        assertEquals(Long.valueOf(30), nanosByName.get("GET /api/projects"));
+        assertEquals(Long.valueOf(30), nanosByName.get("root"));
+        assertEquals("GET /api/projects/{id}/versions", nanosByName.keySet().iterator().next());
+    }
+
+    @Test
+    public void testOnlyTheSlowestParallelChildIsCritical() {
+        final Span root = new Span("root", null, 0);
+        addChild(root, "fast", 10, 30);
+        addChild(root, "slow", 10, 80);
+        addChild(root, "medium", 10, 50);
+        root.end(100);
+
+        final CriticalPath criticalPath = CriticalPath.compute(root);
+        assertEquals(Arrays.asList("root", "slow"), getNames(criticalPath));
+        assertEquals(Long.valueOf(70), criticalPath.getNanosByName().get("slow"));
+        assertEquals(Long.valueOf(30), criticalPath.getNanosByName().get("root"));
+    }
+
+    @Test
+    public void testCriticalPathFollowsGrandchildren() {
+        final Span root = new Span("root", null, 0);
+        final Span service = addChild(root, "service", 0, 100);
+        addChild(service, "GET /api/components/{id}", 10, 20);
+        addChild(service, "GET /api/components/{id}", 20, 90);
+        root.end(100);
+
+        final Map<String, Long> nanosByName = CriticalPath.compute(root).getNanosByName();
+        assertEquals(Long.valueOf(80), nanosByName.get("GET /api/components/{id}"));
+        assertEquals(Long.valueOf(20), nanosByName.get("service"));
+        assertEquals(Long.valueOf(0), nanosByName.get("root"));
+    }
+
+    private Span addChild(final Span parent, final String name, final long start, final long end) {
+        final Span child = new Span(name, parent, start);
+        parent.addChild(child);
+        child.end(end);
+        return child;
+    }
+
+    private List<String> getNames(final CriticalPath criticalPath) {
+        return criticalPath.getSegments().stream().map(segment -> segment.getSpan().getName()).collect(Collectors.toList());
+    }
+
+}
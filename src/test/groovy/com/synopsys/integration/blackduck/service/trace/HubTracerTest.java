@@ -0,0 +1,114 @@
+package com.synopsys.integration.blackduck.service.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.synopsys.integration.log.IntBufferedLogger;
+
+public class HubTracerTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testSpansNestAndRootsAreExported() {
+        final List<Span> exported = new CopyOnWriteArrayList<>();
+        final HubTracer hubTracer = new HubTracer(exported::add);
+
+        try (SpanScope service = hubTracer.startSpan("ProjectService.getComponentVersionVulnerabilities")) {
+            try (SpanScope request = hubTracer.startSpan("GET /api/components/{id}")) {
+                assertEquals("GET /api/components/{id}", hubTracer.getCurrentSpan().get().getName());
+            }
+            hubTracer.startLeafSpan("GET /api/components/{id}/vulnerabilities").setAttribute("responseBytes", 10).close();
+            assertEquals("ProjectService.getComponentVersionVulnerabilities", hubTracer.getCurrentSpan().get().getName());
+            assertTrue(exported.isEmpty());
+        }
+
+        assertFalse(hubTracer.getCurrentSpan().isPresent());
+        assertEquals(1, exported.size());
+        final Span root = exported.get(0);
+        assertEquals(2, root.getChildren().size());
+        assertEquals("10", root.getChildren().get(1).getAttributes().get("responseBytes"));
+    }
+
+    @Test
+    public void testWrappedWorkJoinsTheTrace() throws Exception {
+        final List<Span> exported = new CopyOnWriteArrayList<>();
+        final HubTracer hubTracer = new HubTracer(exported::add);
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try (SpanScope service = hubTracer.startSpan("HubBucketService.addToTheBucket")) {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executorService.submit(hubTracer.wrap(() -> hubTracer.startSpan("GET /api/projects/{id}").close())));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertEquals(1, exported.size());
+        assertEquals(4, exported.get(0).getChildren().size());
+    }
+
+    @Test
+    public void testLeafSpanOutsideOfAnySpanIsNotExported() throws Exception {
+        final List<Span> exported = new CopyOnWriteArrayList<>();
+        final HubTracer hubTracer = new HubTracer(exported::add);
+        hubTracer.startLeafSpan("GET /api/projects").close();
+        assertTrue(exported.isEmpty());
+
+        final String result = hubTracer.trace("ProjectService.getProjectByName", () -> {
+            hubTracer.startLeafSpan("GET /api/projects").close();
+            return "project";
+        });
+        assertEquals("project", result);
+        assertEquals(1, exported.size());
+        assertEquals("ProjectService.getProjectByName", exported.get(0).getName());
+        assertEquals(1, exported.get(0).getChildren().size());
+        assertFalse(hubTracer.getCurrentSpan().isPresent());
+    }
+
+    @Test
+    public void testDisabledTracerCreatesNothing() {
+        final HubTracer hubTracer = HubTracer.disabled();
+        try (SpanScope span = hubTracer.startSpan("ReportService.getRiskReportData")) {
+            assertFalse(hubTracer.getCurrentSpan().isPresent());
+        }
+    }
+
+    @Test
+    public void testJsonExport() throws Exception {
+        final File directory = temporaryFolder.newFolder();
+        final HubTracer hubTracer = new HubTracer(new JsonSpanExporter(new IntBufferedLogger(), directory));
+        try (SpanScope service = hubTracer.startSpan("ReportService.getRiskReportData")) {
+            hubTracer.startSpan("GET /api/projects/{id}").close();
+        }
+
+        final File[] traceFiles = directory.listFiles();
+        assertEquals(1, traceFiles.length);
+        final String json = new String(Files.readAllBytes(traceFiles[0].toPath()), StandardCharsets.UTF_8);
+        final JsonObject trace = new JsonParser().parse(json).getAsJsonObject();
+        assertEquals("ReportService.getRiskReportData", trace.get("name").getAsString());
+        assertEquals("GET /api/projects/{id}", trace.getAsJsonArray("children").get(0).getAsJsonObject().get("name").getAsString());
+        assertEquals(2, trace.getAsJsonArray("criticalPath").size());
+    }
+
+}
@@ -0,0 +1,214 @@
+package com.synopsys.integration.blackduck.simulator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.client.utils.URLEncodedUtils;
+
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.synopsys.integration.blackduck.rest.BlackduckRestConnection;
+import com.synopsys.integration.blackduck.rest.CredentialsRestConnection;
+import com.synopsys.integration.blackduck.service.record.HubTrafficArchive;
+import com.synopsys.integration.blackduck.service.record.HubTrafficRecorder;
+import com.synopsys.integration.blackduck.service.record.RecordedExchange;
+import com.synopsys.integration.log.IntLogger;
+import com.synopsys.integration.rest.proxy.ProxyInfo;
+
+/**
+ * Serves a HubTrafficArchive back over http on a local port, so the traffic recorded against a real Hub can be replayed without it. A request is answered with the recorded response for the same method, path and query
+ * parameters - requests that were recorded more than once get their responses in the recorded order, and then the last one again. The recorded Hub's address is replaced with the replay server's in every body and header.
+ * Each response waits as long as the Hub took, times the latency scale. Logging in always succeeds, since logins are never recorded.
+ */
+public class HubReplayServer implements AutoCloseable {
+    private static final Set<String> SKIPPED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        SKIPPED_HEADERS.addAll(Arrays.asList("Content-Length", "Content-Encoding", "Transfer-Encoding", "Connection", "Keep-Alive", "Date"));
+    }
+
+    private final HubTrafficArchive archive;
+    private final Map<String, List<RecordedExchange>> exchangesByRequest = new HashMap<>();
+    private final Map<String, AtomicInteger> servedCounts = new HashMap<>();
+    private final Set<String> unmatchedRequests = Collections.synchronizedSet(new HashSet<>());
+
+    private HttpServer httpServer;
+    private ExecutorService executorService;
+    private String baseUrl;
+    private volatile double latencyScale = 1.0;
+
+    public HubReplayServer(final HubTrafficArchive archive) {
+        this.archive = archive;
+        for (final RecordedExchange exchange : archive.getExchanges()) {
+            final URI uri = URI.create(exchange.getUri());
+            final String key = createKey(exchange.getMethod(), uri.getRawPath(), uri.getRawQuery());
+            exchangesByRequest.computeIfAbsent(key, ignored -> new ArrayList<>()).add(exchange);
+            servedCounts.put(key, new AtomicInteger(0));
+        }
+    }
+
+    public HubReplayServer start() throws IOException {
+        httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        executorService = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "Hub Replay Server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        httpServer.setExecutor(executorService);
+        httpServer.createContext("/", this::handle);
+        httpServer.start();
+        baseUrl = "http://" + httpServer.getAddress().getHostString() + ":" + httpServer.getAddress().getPort();
+        return this;
+    }
+
+    @Override
+    public void close() {
+        if (httpServer != null) {
+            httpServer.stop(0);
+            executorService.shutdownNow();
+            httpServer = null;
+        }
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public BlackduckRestConnection createRestConnection(final IntLogger logger) throws IOException {
+        return new CredentialsRestConnection(logger, new URL(baseUrl), HubSimulator.USERNAME, HubSimulator.PASSWORD, 120, ProxyInfo.NO_PROXY_INFO);
+    }
+
+    /**
+     * 1.0 replays the recorded latencies, 0.5 halves them and 0 answers as fast as possible.
+     */
+    public void setLatencyScale(final double latencyScale) {
+        this.latencyScale = latencyScale;
+    }
+
+    /**
+     * @return the requests, like "GET /api/projects?limit=100&offset=0", that weren't in the archive
+     */
+    public Set<String> getUnmatchedRequests() {
+        synchronized (unmatchedRequests) {
+            return new TreeSet<>(unmatchedRequests);
+        }
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try {
+            final String method = exchange.getRequestMethod();
+            final String path = exchange.getRequestURI().getRawPath();
+            try (InputStream requestBody = exchange.getRequestBody()) {
+                IOUtils.copy(requestBody, new NullOutputStream());
+            }
+
+            if (path.equals("/j_spring_security_check") || path.equals("/api/tokens/authenticate")) {
+                respondAuthenticated(exchange, path);
+                return;
+            }
+
+            final String key = createKey(method, path, exchange.getRequestURI().getRawQuery());
+            final List<RecordedExchange> recorded = exchangesByRequest.get(key);
+            if (recorded == null) {
+                unmatchedRequests.add(key);
+                respondError(exchange, 404, "Not recorded: " + key);
+                return;
+            }
+            final int served = servedCounts.get(key).getAndIncrement();
+            final RecordedExchange recordedExchange = recorded.get(Math.min(served, recorded.size() - 1));
+            final long delay = Math.round(recordedExchange.getElapsedMillis() * latencyScale);
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+            respond(exchange, recordedExchange);
+        } catch (final Exception e) {
+            respondError(exchange, 500, e.getClass().getSimpleName() + ": " + e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private String createKey(final String method, final String rawPath, final String rawQuery) {
+        if (StringUtils.isBlank(rawQuery)) {
+            return method + " " + rawPath;
+        }
+        final String query = URLEncodedUtils.parse(rawQuery, StandardCharsets.UTF_8).stream()
+                .map(parameter -> parameter.getName() + "=" + StringUtils.defaultString(parameter.getValue()))
+                .sorted()
+                .collect(Collectors.joining("&"));
+        return method + " " + rawPath + "?" + query;
+    }
+
+    private void respond(final HttpExchange exchange, final RecordedExchange recordedExchange) throws IOException {
+        final String origin = archive.getOrigin();
+        recordedExchange.getResponseHeaders().forEach((name, value) -> {
+            if (!SKIPPED_HEADERS.contains(name) && !HubTrafficRecorder.isScrubbed(name)) {
+                exchange.getResponseHeaders().add(name, value.replace(origin, baseUrl));
+            }
+        });
+        byte[] body = recordedExchange.getResponseBodyBytes();
+        if (body != null && !recordedExchange.isResponseBodyBase64()) {
+            body = recordedExchange.getResponseBody().replace(origin, baseUrl).getBytes(StandardCharsets.UTF_8);
+            if (!exchange.getResponseHeaders().containsKey("Content-Type")) {
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+            }
+        }
+        send(exchange, recordedExchange.getStatusCode(), body);
+    }
+
+    private void respondAuthenticated(final HttpExchange exchange, final String path) throws IOException {
+        exchange.getResponseHeaders().add("X-CSRF-TOKEN", "replayed-csrf-token");
+        if (path.equals("/j_spring_security_check")) {
+            send(exchange, 204, null);
+            return;
+        }
+        final JsonObject token = new JsonObject();
+        token.addProperty("bearerToken", "replayed-bearer-token");
+        token.addProperty("expiresInMilliseconds", 7200000L);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        send(exchange, 200, token.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void respondError(final HttpExchange exchange, final int statusCode, final String message) throws IOException {
+        final JsonObject error = new JsonObject();
+        error.addProperty("errorMessage", message);
+        error.addProperty("errorCode", "{replay.error}");
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        send(exchange, statusCode, error.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void send(final HttpExchange exchange, final int statusCode, final byte[] body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(statusCode, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(statusCode, body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+
+}
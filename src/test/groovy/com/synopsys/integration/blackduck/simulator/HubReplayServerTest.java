@@ -0,0 +1,89 @@
+package com.synopsys.integration.blackduck.simulator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.synopsys.integration.blackduck.api.generated.discovery.ApiDiscovery;
+import com.synopsys.integration.blackduck.api.generated.view.ProjectView;
+import com.synopsys.integration.blackduck.report.api.ReportData;
+import com.synopsys.integration.blackduck.rest.BlackduckRestConnection;
+import com.synopsys.integration.blackduck.service.HubServicesFactory;
+import com.synopsys.integration.blackduck.service.record.HubTrafficArchive;
+import com.synopsys.integration.blackduck.service.record.HubTrafficRecorder;
+import com.synopsys.integration.blackduck.service.record.RecordedExchange;
+import com.synopsys.integration.log.IntBufferedLogger;
+import com.synopsys.integration.log.IntLogger;
+
+public class HubReplayServerTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final IntLogger logger = new IntBufferedLogger();
+
+    @Test
+    public void testReplaysRecordedTraffic() throws Exception {
+        final SyntheticHubData data = new SyntheticHubData();
+        data.setProjectCount(250);
+        data.setComponentsPerVersion(30);
+        final File archiveFile = temporaryFolder.newFile("traffic.jsonl.gz");
+
+        final List<ProjectView> recordedProjects;
+        final ReportData recordedReport;
+        final long simulatorRequestCount;
+        try (HubSimulator hubSimulator = new HubSimulator(data).start(); HubTrafficRecorder recorder = new HubTrafficRecorder(logger, archiveFile)) {
+            final HubServicesFactory hubServicesFactory = createHubServicesFactory(hubSimulator.createRestConnection(logger));
+            hubServicesFactory.setTrafficRecorder(recorder);
+            hubSimulator.resetRequestCounts();
+            recordedProjects = hubServicesFactory.createHubService().getAllResponses(ApiDiscovery.PROJECTS_LINK_RESPONSE);
+            recordedReport = hubServicesFactory.createReportService(30000).getRiskReportData(data.getProjectName(5), data.getVersionName(0));
+            // the connection logs in by itself, outside the executor, so logging in isn't recorded
+            simulatorRequestCount = hubSimulator.getRequestCount() - hubSimulator.getEndpointRequestCounts().getOrDefault("POST /j_spring_security_check", 0L);
+        }
+
+        final HubTrafficArchive archive = HubTrafficArchive.read(archiveFile);
+        assertEquals(simulatorRequestCount, archive.getExchanges().size());
+        assertFalse(readArchive(archiveFile).contains("simulated-csrf-token"));
+        for (final RecordedExchange exchange : archive.getExchanges()) {
+            assertTrue(exchange.getStatusCode() < 300);
+        }
+
+        try (HubReplayServer hubReplayServer = new HubReplayServer(archive).start()) {
+            hubReplayServer.setLatencyScale(0);
+            final HubServicesFactory hubServicesFactory = createHubServicesFactory(hubReplayServer.createRestConnection(logger));
+
+            final List<ProjectView> replayedProjects = hubServicesFactory.createHubService().getAllResponses(ApiDiscovery.PROJECTS_LINK_RESPONSE);
+            assertEquals(recordedProjects.size(), replayedProjects.size());
+            assertEquals(recordedProjects.get(249).name, replayedProjects.get(249).name);
+            assertTrue(replayedProjects.get(0)._meta.href.startsWith(hubReplayServer.getBaseUrl()));
+
+            final ReportData replayedReport = hubServicesFactory.createReportService(30000).getRiskReportData(data.getProjectName(5), data.getVersionName(0));
+            assertEquals(recordedReport.getComponents().size(), replayedReport.getComponents().size());
+            assertEquals(recordedReport.getComponents().get(0).getPolicyRulesViolated().size(), replayedReport.getComponents().get(0).getPolicyRulesViolated().size());
+            assertTrue(hubReplayServer.getUnmatchedRequests().isEmpty());
+        }
+    }
+
+    private HubServicesFactory createHubServicesFactory(final BlackduckRestConnection restConnection) {
+        return new HubServicesFactory(HubServicesFactory.createDefaultGson(), HubServicesFactory.createDefaultJsonParser(), restConnection, logger);
+    }
+
+    private String readArchive(final File archiveFile) throws IOException {
+        try (GZIPInputStream inputStream = new GZIPInputStream(new FileInputStream(archiveFile))) {
+            return IOUtils.toString(inputStream, StandardCharsets.UTF_8);
+        }
+    }
+
+}
@@ -0,0 +1,588 @@
+package com.synopsys.integration.blackduck.simulator;
+
+import static com.synopsys.integration.blackduck.simulator.SyntheticHubData.CODE_LOCATION;
+import static com.synopsys.integration.blackduck.simulator.SyntheticHubData.COMPONENT;
+import static com.synopsys.integration.blackduck.simulator.SyntheticHubData.COMPONENT_VERSION;
+import static com.synopsys.integration.blackduck.simulator.SyntheticHubData.POLICY_RULE;
+import static com.synopsys.integration.blackduck.simulator.SyntheticHubData.PROJECT;
+import static com.synopsys.integration.blackduck.simulator.SyntheticHubData.REPORT;
+import static com.synopsys.integration.blackduck.simulator.SyntheticHubData.SCAN_SUMMARY;
+import static com.synopsys.integration.blackduck.simulator.SyntheticHubData.USER;
+import static com.synopsys.integration.blackduck.simulator.SyntheticHubData.VERSION;
+import static com.synopsys.integration.blackduck.simulator.SyntheticHubData.createId;
+import static com.synopsys.integration.blackduck.simulator.SyntheticHubData.getIndex;
+import static com.synopsys.integration.blackduck.simulator.SyntheticHubData.getSubIndex;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.commons.lang3.StringUtils;
+
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.synopsys.integration.blackduck.rest.BlackduckRestConnection;
+import com.synopsys.integration.blackduck.rest.CredentialsRestConnection;
+import com.synopsys.integration.blackduck.service.model.HubEndpoints;
+import com.synopsys.integration.log.IntLogger;
+import com.synopsys.integration.rest.RestConstants;
+import com.synopsys.integration.rest.proxy.ProxyInfo;
+
+/**
+ * An embedded stand-in for the Hub's REST api, serving SyntheticHubData over http on a local port. It answers the endpoints this library uses - projects, versions, BOM components, components, code locations, scan summaries, notifications, users, policy rules and
+ * license reports - and honors limit, offset, q and filter the way the Hub does.
+ * Every request can be delayed by a configurable latency, and a configurable fraction of them can fail, to see how callers behave against a slow or unhealthy Hub.
+ */
+public class HubSimulator implements AutoCloseable {
+    public static final String USERNAME = "sysadmin";
+    public static final String PASSWORD = "blackduck";
+
+    private static final String ID = "([0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12})";
+    private static final String VERSION_PATH = "/api/projects/" + ID + "/versions/" + ID;
+    private static final String BOM_COMPONENT_PATH = VERSION_PATH + "/components/" + ID + "/versions/" + ID;
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final SyntheticHubData data;
+    private final List<Route> routes = new ArrayList<>();
+    private final LongAdder requestCount = new LongAdder();
+    private final Map<String, LongAdder> endpointRequestCounts = new ConcurrentHashMap<>();
+    private final AtomicInteger reportCount = new AtomicInteger(0);
+
+    private HttpServer httpServer;
+    private ExecutorService executorService;
+    private SyntheticHubResources resources;
+    private String baseUrl;
+    private volatile long latencyMilliseconds;
+    private volatile long latencyJitterMilliseconds;
+    private volatile double errorRate;
+    private volatile int errorStatusCode = 503;
+
+    public HubSimulator(final SyntheticHubData data) {
+        this.data = data;
+        addRoutes();
+    }
+
+    public HubSimulator start() throws IOException {
+        httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        executorService = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "Hub Simulator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        httpServer.setExecutor(executorService);
+        httpServer.createContext("/", this::handle);
+        httpServer.start();
+        baseUrl = "http://" + httpServer.getAddress().getHostString() + ":" + httpServer.getAddress().getPort();
+        resources = new SyntheticHubResources(data, baseUrl);
+        return this;
+    }
+
+    @Override
+    public void close() {
+        if (httpServer != null) {
+            httpServer.stop(0);
+            executorService.shutdownNow();
+            httpServer = null;
+        }
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public SyntheticHubData getData() {
+        return data;
+    }
+
+    /**
+     * @return a connection that logs in to the simulator the way it would log in to a Hub
+     */
+    public BlackduckRestConnection createRestConnection(final IntLogger logger) throws IOException {
+        return new CredentialsRestConnection(logger, new URL(baseUrl), USERNAME, PASSWORD, 120, ProxyInfo.NO_PROXY_INFO);
+    }
+
+    /**
+     * Every response waits latencyMilliseconds plus a random amount up to jitterMilliseconds.
+     */
+    public void setLatency(final long latencyMilliseconds, final long jitterMilliseconds) {
+        this.latencyMilliseconds = latencyMilliseconds;
+        this.latencyJitterMilliseconds = jitterMilliseconds;
+    }
+
+    /**
+     * The given fraction of api requests fail with the status code. Logging in never fails.
+     */
+    public void setErrorRate(final double errorRate, final int errorStatusCode) {
+        this.errorRate = errorRate;
+        this.errorStatusCode = errorStatusCode;
+    }
+
+    public long getRequestCount() {
+        return requestCount.sum();
+    }
+
+    /**
+     * @return the number of requests for each endpoint, like "GET /api/projects/{id}/versions", sorted by endpoint
+     */
+    public Map<String, Long> getEndpointRequestCounts() {
+        final Map<String, Long> counts = new TreeMap<>();
+        endpointRequestCounts.forEach((endpoint, count) -> counts.put(endpoint, count.sum()));
+        return counts;
+    }
+
+    public void resetRequestCounts() {
+        requestCount.reset();
+        endpointRequestCounts.clear();
+    }
+
+    private void addRoutes() {
+        addRoute("POST", "/j_spring_security_check", (request, matcher) -> SimulatedResponse.authenticated(null));
+        addRoute("POST", "/api/tokens/authenticate", (request, matcher) -> {
+            final JsonObject token = new JsonObject();
+            token.addProperty("bearerToken", "simulated-bearer-token");
+            token.addProperty("expiresInMilliseconds", TimeUnit.HOURS.toMillis(2));
+            return SimulatedResponse.authenticated(token);
+        });
+        addRoute("GET", "/api/current-user", (request, matcher) -> SimulatedResponse.ok(resources.createUser(0)));
+
+        addRoute("GET", "/api/projects", (request, matcher) -> {
+            final IntPredicate matches = request.createQueryPredicate("name", data::getProjectName);
+            return SimulatedResponse.ok(request.createPage(data.getProjectCount(), matches, resources::createProject));
+        });
+        addRoute("GET", "/api/projects/" + ID, (request, matcher) -> {
+            final int projectIndex = getProjectIndex(matcher);
+            return projectIndex < 0 ? null : SimulatedResponse.ok(resources.createProject(projectIndex));
+        });
+        addRoute("GET", "/api/projects/" + ID + "/versions", (request, matcher) -> {
+            final int projectIndex = getProjectIndex(matcher);
+            if (projectIndex < 0) {
+                return null;
+            }
+            final IntPredicate matches = request.createQueryPredicate("versionName", data::getVersionName);
+            return SimulatedResponse.ok(request.createPage(data.getVersionsPerProject(), matches, versionIndex -> resources.createVersion(projectIndex, versionIndex)));
+        });
+        addRoute("GET", VERSION_PATH, (request, matcher) -> {
+            final int[] version = getVersion(matcher);
+            return version == null ? null : SimulatedResponse.ok(resources.createVersion(version[0], version[1]));
+        });
+        addRoute("GET", VERSION_PATH + "/components", (request, matcher) -> {
+            final int[] version = getVersion(matcher);
+            if (version == null) {
+                return null;
+            }
+            return SimulatedResponse.ok(request.createPage(data.getComponentsPerVersion(), position -> true, position -> resources.createBomComponent(version[0], version[1], position)));
+        });
+        addRoute("GET", BOM_COMPONENT_PATH, (request, matcher) -> {
+            final int[] bomComponent = getBomComponent(matcher);
+            return bomComponent == null ? null : SimulatedResponse.ok(resources.createBomComponent(bomComponent[0], bomComponent[1], bomComponent[2]));
+        });
+        addRoute("GET", BOM_COMPONENT_PATH + "/policy-rules", (request, matcher) -> {
+            final int[] bomComponent = getBomComponent(matcher);
+            if (bomComponent == null) {
+                return null;
+            }
+            final int violatedRule = data.isBomComponentInViolation(bomComponent[2]) ? bomComponent[2] % Math.max(1, data.getPolicyRuleCount()) : -1;
+            return SimulatedResponse.ok(request.createPage(data.getPolicyRuleCount(), policyRuleIndex -> policyRuleIndex == violatedRule, resources::createPolicyRule));
+        });
+        addRoute("GET", BOM_COMPONENT_PATH + "/policy-status", (request, matcher) -> {
+            final int[] bomComponent = getBomComponent(matcher);
+            if (bomComponent == null) {
+                return null;
+            }
+            final int violationCount = data.isBomComponentInViolation(bomComponent[2]) ? 1 : 0;
+            return SimulatedResponse.ok(resources.createPolicyStatus(violationCount, 1));
+        });
+        addRoute("GET", VERSION_PATH + "/policy-status", (request, matcher) -> {
+            if (getVersion(matcher) == null) {
+                return null;
+            }
+            int violationCount = 0;
+            for (int position = 0; position < data.getComponentsPerVersion(); position++) {
+                if (data.isBomComponentInViolation(position)) {
+                    violationCount++;
+                }
+            }
+            return SimulatedResponse.ok(resources.createPolicyStatus(violationCount, data.getComponentsPerVersion()));
+        });
+        addRoute("GET", VERSION_PATH + "/codelocations", (request, matcher) -> {
+            final int[] version = getVersion(matcher);
+            if (version == null) {
+                return null;
+            }
+            final IntPredicate matches = codeLocationIndex -> version[1] == 0 && data.getCodeLocationProjectIndex(codeLocationIndex) == version[0];
+            return SimulatedResponse.ok(request.createPage(data.getCodeLocationCount(), matches, resources::createCodeLocation));
+        });
+        addRoute("POST", VERSION_PATH + "/license-reports", (request, matcher) -> {
+            final int[] version = getVersion(matcher);
+            if (version == null) {
+                return null;
+            }
+            final String reportUrl = resources.getVersionUrl(version[0], version[1]) + "/reports/" + createId(REPORT, reportCount.incrementAndGet(), 0);
+            return SimulatedResponse.created(reportUrl);
+        });
+        addRoute("GET", VERSION_PATH + "/reports/" + ID, (request, matcher) -> {
+            final int[] version = getVersion(matcher);
+            if (version == null || getIndex(matcher.group(3), REPORT) < 0) {
+                return null;
+            }
+            return SimulatedResponse.ok(resources.createReport(baseUrl + request.path));
+        });
+        addRoute("DELETE", VERSION_PATH + "/reports/" + ID, (request, matcher) -> SimulatedResponse.noContent());
+        addRoute("GET", VERSION_PATH + "/reports/" + ID + "/content", (request, matcher) -> {
+            final int[] version = getVersion(matcher);
+            return version == null ? null : SimulatedResponse.ok(resources.createReportContent(version[0], version[1]));
+        });
+
+        addRoute("GET", "/api/components/" + ID, (request, matcher) -> {
+            final int componentIndex = getIndex(matcher.group(1), COMPONENT);
+            return isInRange(componentIndex, data.getComponentCount()) ? SimulatedResponse.ok(resources.createComponent(componentIndex)) : null;
+        });
+        addRoute("GET", "/api/components/" + ID + "/versions/" + ID, (request, matcher) -> {
+            final int componentIndex = getIndex(matcher.group(1), COMPONENT);
+            final boolean found = isInRange(componentIndex, data.getComponentCount()) && getIndex(matcher.group(2), COMPONENT_VERSION) == componentIndex;
+            return found ? SimulatedResponse.ok(resources.createComponentVersion(componentIndex)) : null;
+        });
+
+        addRoute("GET", "/api/codelocations", (request, matcher) -> {
+            final IntPredicate nameMatches = request.createQueryPredicate("name", data::getCodeLocationName);
+            final String codeLocationType = request.getFirstParameter("codeLocationType");
+            final IntPredicate matches = codeLocationType == null || "SCAN".equals(codeLocationType) ? nameMatches : codeLocationIndex -> false;
+            return SimulatedResponse.ok(request.createPage(data.getCodeLocationCount(), matches, resources::createCodeLocation));
+        });
+        addRoute("GET", "/api/codelocations/" + ID, (request, matcher) -> {
+            final int codeLocationIndex = getIndex(matcher.group(1), CODE_LOCATION);
+            return isInRange(codeLocationIndex, data.getCodeLocationCount()) ? SimulatedResponse.ok(resources.createCodeLocation(codeLocationIndex)) : null;
+        });
+        addRoute("GET", "/api/codelocations/" + ID + "/scan-summaries", (request, matcher) -> {
+            final int codeLocationIndex = getIndex(matcher.group(1), CODE_LOCATION);
+            if (!isInRange(codeLocationIndex, data.getCodeLocationCount())) {
+                return null;
+            }
+            return SimulatedResponse.ok(request.createPage(1, scanIndex -> true, scanIndex -> resources.createScanSummary(codeLocationIndex)));
+        });
+        addRoute("GET", "/api/scan-summaries/" + ID, (request, matcher) -> {
+            final int codeLocationIndex = getIndex(matcher.group(1), SCAN_SUMMARY);
+            return isInRange(codeLocationIndex, data.getCodeLocationCount()) ? SimulatedResponse.ok(resources.createScanSummary(codeLocationIndex)) : null;
+        });
+
+        addRoute("GET", "/api/notifications", (request, matcher) -> SimulatedResponse.ok(createNotificationPage(request, false)));
+        addRoute("GET", "/api/users", (request, matcher) -> {
+            final IntPredicate matches = request.createQueryPredicate("userName", data::getUserName);
+            return SimulatedResponse.ok(request.createPage(data.getUserCount(), matches, resources::createUser));
+        });
+        addRoute("GET", "/api/users/" + ID, (request, matcher) -> {
+            final int userIndex = getIndex(matcher.group(1), USER);
+            return isInRange(userIndex, data.getUserCount()) ? SimulatedResponse.ok(resources.createUser(userIndex)) : null;
+        });
+        addRoute("GET", "/api/users/" + ID + "/notifications", (request, matcher) -> {
+            final int userIndex = getIndex(matcher.group(1), USER);
+            return isInRange(userIndex, data.getUserCount()) ? SimulatedResponse.ok(createNotificationPage(request, true)) : null;
+        });
+
+        addRoute("GET", "/api/policy-rules", (request, matcher) -> {
+            final IntPredicate matches = request.createQueryPredicate("name", data::getPolicyRuleName);
+            return SimulatedResponse.ok(request.createPage(data.getPolicyRuleCount(), matches, resources::createPolicyRule));
+        });
+        addRoute("GET", "/api/policy-rules/" + ID, (request, matcher) -> {
+            final int policyRuleIndex = getIndex(matcher.group(1), POLICY_RULE);
+            return isInRange(policyRuleIndex, data.getPolicyRuleCount()) ? SimulatedResponse.ok(resources.createPolicyRule(policyRuleIndex)) : null;
+        });
+    }
+
+    /**
+     * Notifications are newest first, so the ones between startDate and endDate are a contiguous range of indexes.
+     */
+    private JsonObject createNotificationPage(final SimulatedRequest request, final boolean userNotifications) throws ParseException {
+        final long interval = Math.max(1, data.getNotificationIntervalMilliseconds());
+        int from = 0;
+        int to = data.getNotificationCount();
+        final String endDate = request.getFirstParameter("endDate");
+        if (endDate != null) {
+            final long newerBy = SyntheticHubData.NEWEST_NOTIFICATION_TIME - parseDate(endDate);
+            from = (int) Math.max(from, newerBy <= 0 ? 0 : (newerBy + interval - 1) / interval);
+        }
+        final String startDate = request.getFirstParameter("startDate");
+        if (startDate != null) {
+            final long newerBy = SyntheticHubData.NEWEST_NOTIFICATION_TIME - parseDate(startDate);
+            to = (int) Math.min(to, newerBy < 0 ? 0 : newerBy / interval + 1);
+        }
+        final Set<String> notificationTypes = request.getFilterValues("notificationType");
+        final IntPredicate matches = notificationIndex -> notificationTypes.isEmpty() || notificationTypes.contains(resources.getNotificationType(notificationIndex));
+        if (userNotifications) {
+            return request.createPage(from, to, matches, resources::createUserNotification);
+        }
+        return request.createPage(from, to, matches, resources::createNotification);
+    }
+
+    private long parseDate(final String date) throws ParseException {
+        final SimpleDateFormat sdf = new SimpleDateFormat(RestConstants.JSON_DATE_FORMAT);
+        sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return sdf.parse(date).getTime();
+    }
+
+    private int getProjectIndex(final Matcher matcher) {
+        final int projectIndex = getIndex(matcher.group(1), PROJECT);
+        return isInRange(projectIndex, data.getProjectCount()) ? projectIndex : -1;
+    }
+
+    /**
+     * @return the project and version index, or null if the path doesn't name a version
+     */
+    private int[] getVersion(final Matcher matcher) {
+        final int projectIndex = getProjectIndex(matcher);
+        if (projectIndex < 0 || getIndex(matcher.group(2), VERSION) != projectIndex) {
+            return null;
+        }
+        final long versionIndex = getSubIndex(matcher.group(2));
+        if (versionIndex < 0 || versionIndex >= data.getVersionsPerProject()) {
+            return null;
+        }
+        return new int[] { projectIndex, (int) versionIndex };
+    }
+
+    /**
+     * @return the project index, version index and BOM position, or null if the path doesn't name a BOM component
+     */
+    private int[] getBomComponent(final Matcher matcher) {
+        final int[] version = getVersion(matcher);
+        if (version == null) {
+            return null;
+        }
+        final long position = getSubIndex(matcher.group(3));
+        if (position < 0 || position >= data.getComponentsPerVersion()) {
+            return null;
+        }
+        final int componentIndex = data.getBomComponentIndex(version[0], version[1], (int) position);
+        if (getIndex(matcher.group(3), COMPONENT) != componentIndex || getIndex(matcher.group(4), COMPONENT_VERSION) != componentIndex) {
+            return null;
+        }
+        return new int[] { version[0], version[1], (int) position };
+    }
+
+    private boolean isInRange(final int index, final int count) {
+        return index >= 0 && index < count;
+    }
+
+    private void addRoute(final String method, final String pathPattern, final RouteHandler handler) {
+        routes.add(new Route(method, Pattern.compile(pathPattern), handler));
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try {
+            final String method = exchange.getRequestMethod();
+            final String path = exchange.getRequestURI().getRawPath();
+            requestCount.increment();
+            endpointRequestCounts.computeIfAbsent(method + " " + HubEndpoints.getEndpoint(path), endpoint -> new LongAdder()).increment();
+            try (InputStream requestBody = exchange.getRequestBody()) {
+                IOUtils.copy(requestBody, new NullOutputStream());
+            }
+
+            delay();
+            final boolean authenticating = path.equals("/j_spring_security_check") || path.equals("/api/tokens/authenticate");
+            if (!authenticating && errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                respond(exchange, SimulatedResponse.error(errorStatusCode, "Simulated failure"));
+                return;
+            }
+
+            final SimulatedRequest request = new SimulatedRequest(path, exchange.getRequestURI().getRawQuery());
+            SimulatedResponse response = null;
+            boolean pathMatched = false;
+            for (final Route route : routes) {
+                final Matcher matcher = route.pathPattern.matcher(path);
+                if (matcher.matches()) {
+                    pathMatched = true;
+                    if (route.method.equals(method)) {
+                        response = route.handler.handle(request, matcher);
+                        if (response == null) {
+                            response = SimulatedResponse.error(404, "Not found: " + path);
+                        }
+                        break;
+                    }
+                }
+            }
+            if (response == null) {
+                response = pathMatched ? SimulatedResponse.error(405, "Method not allowed: " + method) : SimulatedResponse.error(404, "Not found: " + path);
+            }
+            respond(exchange, response);
+        } catch (final Exception e) {
+            respond(exchange, SimulatedResponse.error(500, e.getClass().getSimpleName() + ": " + e.getMessage()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void delay() throws InterruptedException {
+        long delay = latencyMilliseconds;
+        if (latencyJitterMilliseconds > 0) {
+            delay += ThreadLocalRandom.current().nextLong(latencyJitterMilliseconds + 1);
+        }
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
+    }
+
+    private void respond(final HttpExchange exchange, final SimulatedResponse response) throws IOException {
+        response.headers.forEach((name, value) -> exchange.getResponseHeaders().add(name, value));
+        if (response.body == null) {
+            exchange.sendResponseHeaders(response.statusCode, -1);
+            return;
+        }
+        final byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(response.statusCode, body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RouteHandler {
+        /**
+         * @return the response, or null if the ids in the path don't name anything
+         */
+        SimulatedResponse handle(SimulatedRequest request, Matcher matcher) throws Exception;
+    }
+
+    private static class Route {
+        private final String method;
+        private final Pattern pathPattern;
+        private final RouteHandler handler;
+
+        public Route(final String method, final Pattern pathPattern, final RouteHandler handler) {
+            this.method = method;
+            this.pathPattern = pathPattern;
+            this.handler = handler;
+        }
+    }
+
+    private class SimulatedRequest {
+        private final String path;
+        private final Map<String, List<String>> parameters = new HashMap<>();
+
+        public SimulatedRequest(final String path, final String rawQuery) throws IOException {
+            this.path = path;
+            if (rawQuery != null) {
+                for (final String pair : StringUtils.split(rawQuery, '&')) {
+                    final String name = URLDecoder.decode(StringUtils.substringBefore(pair, "="), StandardCharsets.UTF_8.name());
+                    final String value = URLDecoder.decode(StringUtils.substringAfter(pair, "="), StandardCharsets.UTF_8.name());
+                    parameters.computeIfAbsent(name, key -> new ArrayList<>()).add(value);
+                }
+            }
+        }
+
+        public String getFirstParameter(final String name) {
+            final List<String> values = parameters.get(name);
+            return values == null || values.isEmpty() ? null : values.get(0);
+        }
+
+        public int getIntParameter(final String name, final int defaultValue) {
+            final String value = getFirstParameter(name);
+            return StringUtils.isNumeric(value) ? Integer.parseInt(value) : defaultValue;
+        }
+
+        /**
+         * The Hub's q is key:value, and matches the items whose key contains the value, ignoring case. Queries on other keys aren't filtered.
+         */
+        public IntPredicate createQueryPredicate(final String key, final IntFunction<String> keyValue) {
+            final String q = getFirstParameter("q");
+            if (q == null || !q.startsWith(key + ":")) {
+                return index -> true;
+            }
+            final String value = q.substring(key.length() + 1);
+            return index -> StringUtils.containsIgnoreCase(keyValue.apply(index), value);
+        }
+
+        /**
+         * @return the values of the filter parameters (filter=key:value) for the key, which the Hub ORs together
+         */
+        public Set<String> getFilterValues(final String key) {
+            final List<String> filters = parameters.getOrDefault("filter", Collections.emptyList());
+            final Set<String> values = new HashSet<>();
+            for (final String filter : filters) {
+                if (filter.startsWith(key + ":")) {
+                    values.add(filter.substring(key.length() + 1));
+                }
+            }
+            return values;
+        }
+
+        public JsonObject createPage(final int count, final IntPredicate matches, final IntFunction<JsonObject> item) {
+            return createPage(0, count, matches, item);
+        }
+
+        public JsonObject createPage(final int from, final int to, final IntPredicate matches, final IntFunction<JsonObject> item) {
+            final int offset = getIntParameter("offset", 0);
+            final int limit = getIntParameter("limit", DEFAULT_LIMIT);
+            return resources.createPage(from, to, offset, limit, matches, item);
+        }
+    }
+
+    private static class SimulatedResponse {
+        private final int statusCode;
+        private final String body;
+        private final Map<String, String> headers = new HashMap<>();
+
+        private SimulatedResponse(final int statusCode, final String body) {
+            this.statusCode = statusCode;
+            this.body = body;
+        }
+
+        public static SimulatedResponse ok(final JsonObject body) {
+            return new SimulatedResponse(200, body.toString());
+        }
+
+        public static SimulatedResponse authenticated(final JsonObject body) {
+            final SimulatedResponse response = body == null ? new SimulatedResponse(204, null) : ok(body);
+            response.headers.put("X-CSRF-TOKEN", "simulated-csrf-token");
+            return response;
+        }
+
+        public static SimulatedResponse created(final String location) {
+            final SimulatedResponse response = new SimulatedResponse(201, null);
+            response.headers.put("Location", location);
+            return response;
+        }
+
+        public static SimulatedResponse noContent() {
+            return new SimulatedResponse(204, null);
+        }
+
+        public static SimulatedResponse error(final int statusCode, final String message) {
+            final JsonObject error = new JsonObject();
+            error.addProperty("errorMessage", message);
+            error.addProperty("errorCode", "{simulator.error}");
+            return new SimulatedResponse(statusCode, error.toString());
+        }
+    }
+
+}
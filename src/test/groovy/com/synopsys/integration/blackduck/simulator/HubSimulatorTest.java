@@ -0,0 +1,138 @@
+package com.synopsys.integration.blackduck.simulator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.synopsys.integration.blackduck.api.generated.discovery.ApiDiscovery;
+import com.synopsys.integration.blackduck.api.generated.view.NotificationView;
+import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionView;
+import com.synopsys.integration.blackduck.api.generated.view.ProjectView;
+import com.synopsys.integration.blackduck.api.generated.view.VersionBomComponentView;
+import com.synopsys.integration.blackduck.report.api.BomComponent;
+import com.synopsys.integration.blackduck.report.api.ReportData;
+import com.synopsys.integration.blackduck.service.HubService;
+import com.synopsys.integration.blackduck.service.HubServicesFactory;
+import com.synopsys.integration.blackduck.service.ReportService;
+import com.synopsys.integration.log.IntBufferedLogger;
+import com.synopsys.integration.log.IntLogger;
+import com.synopsys.integration.rest.exception.IntegrationRestException;
+
+public class HubSimulatorTest {
+    private final IntLogger logger = new IntBufferedLogger();
+
+    @Test
+    public void testFindsProjectByNameAmongManyProjects() throws Exception {
+        final SyntheticHubData data = new SyntheticHubData();
+        data.setProjectCount(100000);
+        try (HubSimulator hubSimulator = new HubSimulator(data).start()) {
+            final HubServicesFactory hubServicesFactory = createHubServicesFactory(hubSimulator);
+
+            final ProjectView project = hubServicesFactory.createProjectService().getProjectByName(data.getProjectName(98765));
+            assertEquals(data.getProjectName(98765), project.name);
+            assertEquals(data.getVersionName(1), hubServicesFactory.createProjectService().getProjectVersion(project, data.getVersionName(1)).versionName);
+        }
+    }
+
+    @Test
+    public void testPagesHonorLimitAndOffset() throws Exception {
+        final SyntheticHubData data = new SyntheticHubData();
+        data.setProjectCount(250);
+        try (HubSimulator hubSimulator = new HubSimulator(data).start()) {
+            final HubService hubService = createHubServicesFactory(hubSimulator).createHubService();
+
+            final List<ProjectView> projects = hubService.getAllResponses(ApiDiscovery.PROJECTS_LINK_RESPONSE);
+            assertEquals(250, projects.size());
+            for (int i = 0; i < projects.size(); i++) {
+                assertEquals(data.getProjectName(i), projects.get(i).name);
+            }
+            assertEquals(Long.valueOf(3), hubSimulator.getEndpointRequestCounts().get("GET /api/projects"));
+        }
+    }
+
+    @Test
+    public void testRiskReportOfSimulatedVersion() throws Exception {
+        final SyntheticHubData data = new SyntheticHubData();
+        data.setComponentsPerVersion(30);
+        try (HubSimulator hubSimulator = new HubSimulator(data).start()) {
+            final ReportService reportService = createHubServicesFactory(hubSimulator).createReportService(30000);
+
+            final ReportData reportData = reportService.getRiskReportData(data.getProjectName(5), data.getVersionName(0));
+            assertEquals(30, reportData.getComponents().size());
+            assertEquals(1, reportData.getComponents().get(0).getPolicyRulesViolated().size());
+            assertEquals(Long.valueOf(3), hubSimulator.getEndpointRequestCounts().get("GET /api/projects/{id}/versions/{id}/components/{id}/versions/{id}/policy-rules"));
+        }
+    }
+
+    @Test
+    public void testRiskReportWithLazyDecoding() throws Exception {
+        final SyntheticHubData data = new SyntheticHubData();
+        data.setComponentsPerVersion(30);
+        try (HubSimulator hubSimulator = new HubSimulator(data).start()) {
+            final HubServicesFactory hubServicesFactory = createHubServicesFactory(hubSimulator);
+            hubServicesFactory.setLazyDecoding(VersionBomComponentView.class, true);
+
+            final ReportData reportData = hubServicesFactory.createReportService(30000).getRiskReportData(data.getProjectName(5), data.getVersionName(0));
+            assertEquals(30, reportData.getComponents().size());
+            final BomComponent component = reportData.getComponents().get(0);
+            assertNotNull(component.getLicense());
+            assertTrue(component.getSecurityRiskHighCount() + component.getSecurityRiskMediumCount() + component.getSecurityRiskLowCount() > 0);
+
+            final HubService lazyHubService = hubServicesFactory.createLazyHubService();
+            final ProjectView project = hubServicesFactory.createProjectService().getProjectByName(data.getProjectName(5));
+            final ProjectVersionView version = hubServicesFactory.createProjectService().getProjectVersion(project, data.getVersionName(0));
+            final VersionBomComponentView bomComponent = lazyHubService.getAllResponses(version, ProjectVersionView.COMPONENTS_LINK_RESPONSE).get(0);
+            assertNull(bomComponent.licenses);
+            assertEquals(1, lazyHubService.load(bomComponent, "licenses").licenses.size());
+        }
+    }
+
+    @Test
+    public void testNotificationsAreFilteredByDateAndType() throws Exception {
+        final SyntheticHubData data = new SyntheticHubData();
+        data.setNotificationCount(1000);
+        try (HubSimulator hubSimulator = new HubSimulator(data).start()) {
+            final HubServicesFactory hubServicesFactory = createHubServicesFactory(hubSimulator);
+            final Date endDate = new Date(data.getNotificationTime(100));
+            final Date startDate = new Date(data.getNotificationTime(399));
+
+            final List<NotificationView> notifications = hubServicesFactory.createNotificationService().getAllNotifications(startDate, endDate);
+            assertEquals(300, notifications.size());
+            assertEquals(endDate, notifications.get(0).createdAt);
+
+            final List<NotificationView> vulnerabilities = hubServicesFactory.createNotificationService().getFilteredNotifications(startDate, endDate, Arrays.asList("VULNERABILITY"));
+            assertEquals(100, vulnerabilities.size());
+            assertTrue(vulnerabilities.stream().allMatch(notification -> "VULNERABILITY".equals(notification.type.name())));
+        }
+    }
+
+    @Test
+    public void testInjectedErrors() throws Exception {
+        try (HubSimulator hubSimulator = new HubSimulator(new SyntheticHubData()).start()) {
+            hubSimulator.setErrorRate(1.0, 503);
+            final HubService hubService = createHubServicesFactory(hubSimulator).createHubService();
+            try {
+                hubService.getResponses(ApiDiscovery.PROJECTS_LINK_RESPONSE, false);
+                fail("Expected the injected 503");
+            } catch (final IntegrationRestException e) {
+                assertEquals(503, e.getHttpStatusCode());
+            }
+
+            hubSimulator.setErrorRate(0, 503);
+            assertNotNull(hubService.getResponses(ApiDiscovery.PROJECTS_LINK_RESPONSE, false));
+        }
+    }
+
+    private HubServicesFactory createHubServicesFactory(final HubSimulator hubSimulator) throws Exception {
+        return new HubServicesFactory(HubServicesFactory.createDefaultGson(), HubServicesFactory.createDefaultJsonParser(), hubSimulator.createRestConnection(logger), logger);
+    }
+
+}
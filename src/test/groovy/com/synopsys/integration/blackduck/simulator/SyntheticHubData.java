@@ -0,0 +1,200 @@
+package com.synopsys.integration.blackduck.simulator;
+
+import java.util.UUID;
+
+/**
+ * Describes the data a HubSimulator serves. Nothing is stored - every resource is generated from its index when it is requested, so 100k projects cost no more memory than 10.
+ * Ids are uuids that encode the kind of resource and its index, so an href can always be turned back into the resource it names.
+ */
+public class SyntheticHubData {
+    public static final int PROJECT = 1;
+    public static final int VERSION = 2;
+    public static final int COMPONENT = 3;
+    public static final int COMPONENT_VERSION = 4;
+    public static final int CODE_LOCATION = 5;
+    public static final int SCAN_SUMMARY = 6;
+    public static final int USER = 7;
+    public static final int POLICY_RULE = 8;
+    public static final int REPORT = 9;
+    public static final int NOTIFICATION = 10;
+    public static final int LICENSE = 11;
+
+    /**
+     * 2018-09-01T00:00:00.000Z - the newest notification is created at this time and each older one a notification interval before the last.
+     */
+    public static final long NEWEST_NOTIFICATION_TIME = 1535760000000L;
+
+    private int projectCount = 1000;
+    private int versionsPerProject = 3;
+    private int componentsPerVersion = 50;
+    private int componentCount = 5000;
+    private int codeLocationCount = 1000;
+    private int notificationCount = 10000;
+    private long notificationIntervalMilliseconds = 60 * 1000;
+    private int userCount = 100;
+    private int policyRuleCount = 20;
+    private int violationEveryNthComponent = 10;
+
+    public static String createId(final int kind, final int index, final long subIndex) {
+        return new UUID(((long) kind << 32) | (index & 0xffffffffL), subIndex).toString();
+    }
+
+    /**
+     * @return the index encoded in the id, or -1 if the id is not one of the given kind
+     */
+    public static int getIndex(final String id, final int kind) {
+        final UUID uuid;
+        try {
+            uuid = UUID.fromString(id);
+        } catch (final IllegalArgumentException e) {
+            return -1;
+        }
+        if ((uuid.getMostSignificantBits() >>> 32) != kind) {
+            return -1;
+        }
+        return (int) uuid.getMostSignificantBits();
+    }
+
+    public static long getSubIndex(final String id) {
+        return UUID.fromString(id).getLeastSignificantBits();
+    }
+
+    public String getProjectName(final int projectIndex) {
+        return "project-" + pad(projectIndex, 6);
+    }
+
+    public String getVersionName(final int versionIndex) {
+        return "1." + versionIndex;
+    }
+
+    public String getComponentName(final int componentIndex) {
+        return "component-" + pad(componentIndex, 5);
+    }
+
+    public String getCodeLocationName(final int codeLocationIndex) {
+        return getProjectName(getCodeLocationProjectIndex(codeLocationIndex)) + "/" + getVersionName(0) + " scan " + codeLocationIndex;
+    }
+
+    public String getUserName(final int userIndex) {
+        return "user-" + pad(userIndex, 4);
+    }
+
+    public String getPolicyRuleName(final int policyRuleIndex) {
+        return "policy-rule-" + pad(policyRuleIndex, 3);
+    }
+
+    /**
+     * @return the component the BOM entry at componentPosition of the version refers to - BOMs share components, the way real ones do
+     */
+    public int getBomComponentIndex(final int projectIndex, final int versionIndex, final int componentPosition) {
+        return (int) ((projectIndex * 7919L + versionIndex * 31L + componentPosition) % componentCount);
+    }
+
+    public boolean isBomComponentInViolation(final int componentPosition) {
+        return violationEveryNthComponent > 0 && componentPosition % violationEveryNthComponent == 0;
+    }
+
+    /**
+     * Code locations are mapped to the first version of the projects, round robin.
+     */
+    public int getCodeLocationProjectIndex(final int codeLocationIndex) {
+        return codeLocationIndex % projectCount;
+    }
+
+    public long getNotificationTime(final int notificationIndex) {
+        return NEWEST_NOTIFICATION_TIME - notificationIndex * notificationIntervalMilliseconds;
+    }
+
+    private static String pad(final int index, final int width) {
+        final String digits = Integer.toString(index);
+        if (digits.length() >= width) {
+            return digits;
+        }
+        final StringBuilder padded = new StringBuilder(width);
+        for (int i = digits.length(); i < width; i++) {
+            padded.append('0');
+        }
+        return padded.append(digits).toString();
+    }
+
+    public int getProjectCount() {
+        return projectCount;
+    }
+
+    public void setProjectCount(final int projectCount) {
+        this.projectCount = projectCount;
+    }
+
+    public int getVersionsPerProject() {
+        return versionsPerProject;
+    }
+
+    public void setVersionsPerProject(final int versionsPerProject) {
+        this.versionsPerProject = versionsPerProject;
+    }
+
+    public int getComponentsPerVersion() {
+        return componentsPerVersion;
+    }
+
+    public void setComponentsPerVersion(final int componentsPerVersion) {
+        this.componentsPerVersion = componentsPerVersion;
+    }
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    public void setComponentCount(final int componentCount) {
+        this.componentCount = componentCount;
+    }
+
+    public int getCodeLocationCount() {
+        return codeLocationCount;
+    }
+
+    public void setCodeLocationCount(final int codeLocationCount) {
+        this.codeLocationCount = codeLocationCount;
+    }
+
+    public int getNotificationCount() {
+        return notificationCount;
+    }
+
+    public void setNotificationCount(final int notificationCount) {
+        this.notificationCount = notificationCount;
+    }
+
+    public long getNotificationIntervalMilliseconds() {
+        return notificationIntervalMilliseconds;
+    }
+
+    public void setNotificationIntervalMilliseconds(final long notificationIntervalMilliseconds) {
+        this.notificationIntervalMilliseconds = notificationIntervalMilliseconds;
+    }
+
+    public int getUserCount() {
+        return userCount;
+    }
+
+    public void setUserCount(final int userCount) {
+        this.userCount = userCount;
+    }
+
+    public int getPolicyRuleCount() {
+        return policyRuleCount;
+    }
+
+    public void setPolicyRuleCount(final int policyRuleCount) {
+        this.policyRuleCount = policyRuleCount;
+    }
+
+    public int getViolationEveryNthComponent() {
+        return violationEveryNthComponent;
+    }
+
+    public void setViolationEveryNthComponent(final int violationEveryNthComponent) {
+        this.violationEveryNthComponent = violationEveryNthComponent;
+    }
+
+}
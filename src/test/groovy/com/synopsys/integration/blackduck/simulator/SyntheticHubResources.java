@@ -0,0 +1,411 @@
+package com.synopsys.integration.blackduck.simulator;
+
+import static com.synopsys.integration.blackduck.simulator.SyntheticHubData.CODE_LOCATION;
+import static com.synopsys.integration.blackduck.simulator.SyntheticHubData.COMPONENT;
+import static com.synopsys.integration.blackduck.simulator.SyntheticHubData.COMPONENT_VERSION;
+import static com.synopsys.integration.blackduck.simulator.SyntheticHubData.LICENSE;
+import static com.synopsys.integration.blackduck.simulator.SyntheticHubData.NOTIFICATION;
+import static com.synopsys.integration.blackduck.simulator.SyntheticHubData.POLICY_RULE;
+import static com.synopsys.integration.blackduck.simulator.SyntheticHubData.PROJECT;
+import static com.synopsys.integration.blackduck.simulator.SyntheticHubData.SCAN_SUMMARY;
+import static com.synopsys.integration.blackduck.simulator.SyntheticHubData.USER;
+import static com.synopsys.integration.blackduck.simulator.SyntheticHubData.VERSION;
+import static com.synopsys.integration.blackduck.simulator.SyntheticHubData.createId;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.synopsys.integration.rest.RestConstants;
+
+/**
+ * Builds the json of the synthetic resources, with hrefs pointing at the simulator's base url.
+ */
+class SyntheticHubResources {
+    private static final String[] NOTIFICATION_TYPES = { "RULE_VIOLATION", "RULE_VIOLATION_CLEARED", "VULNERABILITY" };
+    private static final String[] RISK_COUNT_TYPES = { "HIGH", "MEDIUM", "LOW", "OK", "UNKNOWN" };
+
+    private final SyntheticHubData data;
+    private final String baseUrl;
+
+    public SyntheticHubResources(final SyntheticHubData data, final String baseUrl) {
+        this.data = data;
+        this.baseUrl = baseUrl;
+    }
+
+    public static String formatDate(final long time) {
+        final SimpleDateFormat sdf = new SimpleDateFormat(RestConstants.JSON_DATE_FORMAT);
+        sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return sdf.format(new Date(time));
+    }
+
+    /**
+     * @return the page of the items in [0, count) that match, in index order
+     */
+    public JsonObject createPage(final int count, final int offset, final int limit, final IntPredicate matches, final IntFunction<JsonObject> item) {
+        return createPage(0, count, offset, limit, matches, item);
+    }
+
+    public JsonObject createPage(final int from, final int to, final int offset, final int limit, final IntPredicate matches, final IntFunction<JsonObject> item) {
+        final JsonArray items = new JsonArray();
+        int totalCount = 0;
+        for (int i = from; i < to; i++) {
+            if (matches.test(i)) {
+                if (totalCount >= offset && items.size() < limit) {
+                    items.add(item.apply(i));
+                }
+                totalCount++;
+            }
+        }
+        final JsonObject page = new JsonObject();
+        page.addProperty("totalCount", totalCount);
+        page.add("items", items);
+        return page;
+    }
+
+    public String getProjectUrl(final int projectIndex) {
+        return baseUrl + "/api/projects/" + createId(PROJECT, projectIndex, 0);
+    }
+
+    public String getVersionUrl(final int projectIndex, final int versionIndex) {
+        return getProjectUrl(projectIndex) + "/versions/" + createId(VERSION, projectIndex, versionIndex);
+    }
+
+    public String getComponentUrl(final int componentIndex) {
+        return baseUrl + "/api/components/" + createId(COMPONENT, componentIndex, 0);
+    }
+
+    public String getComponentVersionUrl(final int componentIndex) {
+        return getComponentUrl(componentIndex) + "/versions/" + createId(COMPONENT_VERSION, componentIndex, 0);
+    }
+
+    public String getBomComponentUrl(final int projectIndex, final int versionIndex, final int componentPosition) {
+        final int componentIndex = data.getBomComponentIndex(projectIndex, versionIndex, componentPosition);
+        return getVersionUrl(projectIndex, versionIndex) + "/components/" + createId(COMPONENT, componentIndex, componentPosition) + "/versions/" + createId(COMPONENT_VERSION, componentIndex, 0);
+    }
+
+    public String getCodeLocationUrl(final int codeLocationIndex) {
+        return baseUrl + "/api/codelocations/" + createId(CODE_LOCATION, codeLocationIndex, 0);
+    }
+
+    public String getUserUrl(final int userIndex) {
+        return baseUrl + "/api/users/" + createId(USER, userIndex, 0);
+    }
+
+    public String getPolicyRuleUrl(final int policyRuleIndex) {
+        return baseUrl + "/api/policy-rules/" + createId(POLICY_RULE, policyRuleIndex, 0);
+    }
+
+    public JsonObject createProject(final int projectIndex) {
+        final String projectUrl = getProjectUrl(projectIndex);
+        final JsonObject project = new JsonObject();
+        project.addProperty("name", data.getProjectName(projectIndex));
+        project.addProperty("description", "A synthetic project");
+        project.addProperty("projectLevelAdjustments", true);
+        project.addProperty("projectTier", 1 + projectIndex % 5);
+        project.addProperty("source", "CUSTOM");
+        project.addProperty("createdAt", formatDate(SyntheticHubData.NEWEST_NOTIFICATION_TIME - projectIndex * 1000L));
+        project.add("_meta", createMeta(projectUrl,
+                "versions", projectUrl + "/versions",
+                "canonicalVersion", getVersionUrl(projectIndex, 0),
+                "users", projectUrl + "/users",
+                "usergroups", projectUrl + "/usergroups"));
+        return project;
+    }
+
+    public JsonObject createVersion(final int projectIndex, final int versionIndex) {
+        final String versionUrl = getVersionUrl(projectIndex, versionIndex);
+        final JsonObject version = new JsonObject();
+        version.addProperty("versionName", data.getVersionName(versionIndex));
+        version.addProperty("phase", "DEVELOPMENT");
+        version.addProperty("distribution", "EXTERNAL");
+        version.addProperty("source", "CUSTOM");
+        version.addProperty("createdAt", formatDate(SyntheticHubData.NEWEST_NOTIFICATION_TIME - projectIndex * 1000L + versionIndex));
+        version.add("_meta", createMeta(versionUrl,
+                "components", versionUrl + "/components",
+                "policy-status", versionUrl + "/policy-status",
+                "codelocations", versionUrl + "/codelocations",
+                "licenseReports", versionUrl + "/license-reports",
+                "versionReport", versionUrl + "/reports",
+                "project", getProjectUrl(projectIndex)));
+        return version;
+    }
+
+    public JsonObject createBomComponent(final int projectIndex, final int versionIndex, final int componentPosition) {
+        final int componentIndex = data.getBomComponentIndex(projectIndex, versionIndex, componentPosition);
+        final String bomComponentUrl = getBomComponentUrl(projectIndex, versionIndex, componentPosition);
+        final boolean inViolation = data.isBomComponentInViolation(componentPosition);
+        final JsonObject bomComponent = new JsonObject();
+        bomComponent.addProperty("componentName", data.getComponentName(componentIndex));
+        bomComponent.addProperty("componentVersionName", componentIndex + ".0");
+        bomComponent.addProperty("component", getComponentUrl(componentIndex));
+        bomComponent.addProperty("componentVersion", getComponentVersionUrl(componentIndex));
+        bomComponent.addProperty("approvalStatus", inViolation ? "IN_VIOLATION" : "NOT_IN_VIOLATION");
+        bomComponent.addProperty("policyStatus", inViolation ? "IN_VIOLATION" : "NOT_IN_VIOLATION");
+        bomComponent.addProperty("reviewStatus", "NOT_REVIEWED");
+        bomComponent.addProperty("totalFileMatchCount", componentPosition % 7);
+        bomComponent.add("licenses", createLicenses());
+        final JsonArray usages = new JsonArray();
+        usages.add("DYNAMICALLY_LINKED");
+        bomComponent.add("usages", usages);
+        final JsonArray matchTypes = new JsonArray();
+        matchTypes.add("FILE_DEPENDENCY_DIRECT");
+        bomComponent.add("matchTypes", matchTypes);
+        bomComponent.add("securityRiskProfile", createRiskProfile(componentIndex));
+        bomComponent.add("licenseRiskProfile", createRiskProfile(componentIndex + 1));
+        bomComponent.add("operationalRiskProfile", createRiskProfile(componentIndex + 2));
+        bomComponent.add("_meta", createMeta(bomComponentUrl,
+                "policy-rules", bomComponentUrl + "/policy-rules",
+                "matched-files", bomComponentUrl + "/matched-files",
+                "vulnerabilities", bomComponentUrl + "/vulnerabilities"));
+        return bomComponent;
+    }
+
+    public JsonObject createComponent(final int componentIndex) {
+        final String componentUrl = getComponentUrl(componentIndex);
+        final JsonObject component = new JsonObject();
+        component.addProperty("name", data.getComponentName(componentIndex));
+        component.addProperty("description", "A synthetic component");
+        component.addProperty("approvalStatus", "UNREVIEWED");
+        component.add("_meta", createMeta(componentUrl, "versions", componentUrl + "/versions"));
+        return component;
+    }
+
+    public JsonObject createComponentVersion(final int componentIndex) {
+        final String componentVersionUrl = getComponentVersionUrl(componentIndex);
+        final JsonObject componentVersion = new JsonObject();
+        componentVersion.addProperty("versionName", componentIndex + ".0");
+        componentVersion.addProperty("releasedOn", formatDate(SyntheticHubData.NEWEST_NOTIFICATION_TIME - componentIndex * 86400000L));
+        componentVersion.add("_meta", createMeta(componentVersionUrl, "component", getComponentUrl(componentIndex)));
+        return componentVersion;
+    }
+
+    public JsonObject createPolicyStatus(final int violationCount, final int componentCount) {
+        final JsonObject policyStatus = new JsonObject();
+        policyStatus.addProperty("overallStatus", violationCount > 0 ? "IN_VIOLATION" : "NOT_IN_VIOLATION");
+        policyStatus.addProperty("updatedAt", formatDate(SyntheticHubData.NEWEST_NOTIFICATION_TIME));
+        final JsonArray counts = new JsonArray();
+        counts.add(createNameValuePair("IN_VIOLATION", violationCount));
+        counts.add(createNameValuePair("NOT_IN_VIOLATION", componentCount - violationCount));
+        policyStatus.add("componentVersionStatusCounts", counts);
+        return policyStatus;
+    }
+
+    public JsonObject createCodeLocation(final int codeLocationIndex) {
+        final String codeLocationUrl = getCodeLocationUrl(codeLocationIndex);
+        final JsonObject codeLocation = new JsonObject();
+        codeLocation.addProperty("name", data.getCodeLocationName(codeLocationIndex));
+        codeLocation.addProperty("url", "file:///opt/build/workspace/" + data.getProjectName(data.getCodeLocationProjectIndex(codeLocationIndex)));
+        codeLocation.addProperty("type", "SCAN");
+        codeLocation.addProperty("scanSize", 1024L * 1024L * (1 + codeLocationIndex % 100));
+        codeLocation.addProperty("mappedProjectVersion", getVersionUrl(data.getCodeLocationProjectIndex(codeLocationIndex), 0));
+        codeLocation.addProperty("createdAt", formatDate(SyntheticHubData.NEWEST_NOTIFICATION_TIME - codeLocationIndex * 1000L));
+        codeLocation.addProperty("updatedAt", formatDate(SyntheticHubData.NEWEST_NOTIFICATION_TIME));
+        codeLocation.add("_meta", createMeta(codeLocationUrl, "scans", codeLocationUrl + "/scan-summaries"));
+        return codeLocation;
+    }
+
+    public JsonObject createScanSummary(final int codeLocationIndex) {
+        final String scanSummaryUrl = baseUrl + "/api/scan-summaries/" + createId(SCAN_SUMMARY, codeLocationIndex, 0);
+        final JsonObject scanSummary = new JsonObject();
+        scanSummary.addProperty("status", "COMPLETE");
+        scanSummary.addProperty("createdAt", formatDate(SyntheticHubData.NEWEST_NOTIFICATION_TIME - codeLocationIndex * 1000L));
+        scanSummary.addProperty("updatedAt", formatDate(SyntheticHubData.NEWEST_NOTIFICATION_TIME));
+        scanSummary.add("_meta", createMeta(scanSummaryUrl, "codelocation", getCodeLocationUrl(codeLocationIndex)));
+        return scanSummary;
+    }
+
+    public JsonObject createUser(final int userIndex) {
+        final String userUrl = getUserUrl(userIndex);
+        final JsonObject user = new JsonObject();
+        user.addProperty("userName", data.getUserName(userIndex));
+        user.addProperty("firstName", "First" + userIndex);
+        user.addProperty("lastName", "Last" + userIndex);
+        user.addProperty("email", data.getUserName(userIndex) + "@example.com");
+        user.addProperty("type", "INTERNAL");
+        user.addProperty("active", true);
+        user.add("_meta", createMeta(userUrl,
+                "notifications", userUrl + "/notifications",
+                "projects", userUrl + "/projects",
+                "roles", userUrl + "/roles"));
+        return user;
+    }
+
+    public JsonObject createPolicyRule(final int policyRuleIndex) {
+        final JsonObject policyRule = new JsonObject();
+        policyRule.addProperty("name", data.getPolicyRuleName(policyRuleIndex));
+        policyRule.addProperty("description", "A synthetic policy rule");
+        policyRule.addProperty("enabled", true);
+        policyRule.addProperty("overridable", true);
+        policyRule.addProperty("severity", "MAJOR");
+        policyRule.addProperty("createdAt", formatDate(SyntheticHubData.NEWEST_NOTIFICATION_TIME));
+        policyRule.add("_meta", createMeta(getPolicyRuleUrl(policyRuleIndex)));
+        return policyRule;
+    }
+
+    public String getNotificationType(final int notificationIndex) {
+        return NOTIFICATION_TYPES[notificationIndex % NOTIFICATION_TYPES.length];
+    }
+
+    /**
+     * Each notification is about the first version of a project, and a component of its BOM.
+     */
+    public JsonObject createNotification(final int notificationIndex) {
+        final String type = getNotificationType(notificationIndex);
+        final int projectIndex = notificationIndex % data.getProjectCount();
+        final int componentPosition = notificationIndex % Math.max(1, data.getComponentsPerVersion());
+        final int componentIndex = data.getBomComponentIndex(projectIndex, 0, componentPosition);
+
+        final JsonObject content = new JsonObject();
+        if ("VULNERABILITY".equals(type)) {
+            content.addProperty("newVulnerabilityCount", 1);
+            content.addProperty("updatedVulnerabilityCount", 0);
+            content.addProperty("deletedVulnerabilityCount", 0);
+            final JsonArray newVulnerabilityIds = new JsonArray();
+            final JsonObject vulnerabilityId = new JsonObject();
+            vulnerabilityId.addProperty("source", "NVD");
+            vulnerabilityId.addProperty("vulnerabilityId", "CVE-2018-" + (10000 + notificationIndex % 90000));
+            newVulnerabilityIds.add(vulnerabilityId);
+            content.add("newVulnerabilityIds", newVulnerabilityIds);
+            content.add("updatedVulnerabilityIds", new JsonArray());
+            content.add("deletedVulnerabilityIds", new JsonArray());
+            content.addProperty("componentVersion", getComponentVersionUrl(componentIndex));
+            content.addProperty("componentName", data.getComponentName(componentIndex));
+            content.addProperty("versionName", componentIndex + ".0");
+            final JsonArray affectedProjectVersions = new JsonArray();
+            final JsonObject affectedProjectVersion = new JsonObject();
+            affectedProjectVersion.addProperty("projectName", data.getProjectName(projectIndex));
+            affectedProjectVersion.addProperty("projectVersionName", data.getVersionName(0));
+            affectedProjectVersion.addProperty("projectVersion", getVersionUrl(projectIndex, 0));
+            affectedProjectVersion.addProperty("bomComponent", getBomComponentUrl(projectIndex, 0, componentPosition));
+            affectedProjectVersions.add(affectedProjectVersion);
+            content.add("affectedProjectVersions", affectedProjectVersions);
+        } else {
+            final String policyRuleUrl = getPolicyRuleUrl(notificationIndex % Math.max(1, data.getPolicyRuleCount()));
+            final String bomComponentUrl = getBomComponentUrl(projectIndex, 0, componentPosition);
+            content.addProperty("projectName", data.getProjectName(projectIndex));
+            content.addProperty("projectVersionName", data.getVersionName(0));
+            content.addProperty("projectVersion", getVersionUrl(projectIndex, 0));
+            content.addProperty("componentVersionsInViolation", 1);
+            final JsonArray componentVersionStatuses = new JsonArray();
+            final JsonObject componentVersionStatus = new JsonObject();
+            componentVersionStatus.addProperty("componentName", data.getComponentName(componentIndex));
+            componentVersionStatus.addProperty("component", getComponentUrl(componentIndex));
+            componentVersionStatus.addProperty("componentVersion", getComponentVersionUrl(componentIndex));
+            componentVersionStatus.addProperty("componentVersionName", componentIndex + ".0");
+            final JsonArray policies = new JsonArray();
+            policies.add(policyRuleUrl);
+            componentVersionStatus.add("policies", policies);
+            componentVersionStatus.addProperty("bomComponentVersionPolicyStatus", bomComponentUrl + "/policy-status");
+            componentVersionStatus.addProperty("componentIssueLink", bomComponentUrl + "/component-issues");
+            componentVersionStatus.addProperty("bomComponent", bomComponentUrl);
+            componentVersionStatuses.add(componentVersionStatus);
+            content.add("componentVersionStatuses", componentVersionStatuses);
+            final JsonArray policyInfos = new JsonArray();
+            final JsonObject policyInfo = new JsonObject();
+            policyInfo.addProperty("policyName", data.getPolicyRuleName(notificationIndex % Math.max(1, data.getPolicyRuleCount())));
+            policyInfo.addProperty("policy", policyRuleUrl);
+            policyInfos.add(policyInfo);
+            content.add("policyInfos", policyInfos);
+        }
+
+        final JsonObject notification = new JsonObject();
+        notification.add("content", content);
+        notification.addProperty("contentType", "application/json");
+        notification.addProperty("type", type);
+        notification.addProperty("createdAt", formatDate(data.getNotificationTime(notificationIndex)));
+        notification.add("_meta", createMeta(baseUrl + "/api/notifications/" + createId(NOTIFICATION, notificationIndex, 0)));
+        return notification;
+    }
+
+    public JsonObject createUserNotification(final int notificationIndex) {
+        final JsonObject notification = createNotification(notificationIndex);
+        notification.addProperty("notificationState", "NEW");
+        return notification;
+    }
+
+    public JsonObject createReport(final String reportUrl) {
+        final JsonObject report = new JsonObject();
+        report.addProperty("reportFormat", "TEXT");
+        report.addProperty("reportType", "VERSION_LICENSE");
+        report.addProperty("fileName", "notices.txt");
+        report.addProperty("createdAt", formatDate(SyntheticHubData.NEWEST_NOTIFICATION_TIME));
+        report.addProperty("finishedAt", formatDate(SyntheticHubData.NEWEST_NOTIFICATION_TIME));
+        report.add("_meta", createMeta(reportUrl,
+                "content", reportUrl + "/content",
+                "download", reportUrl + "/download"));
+        return report;
+    }
+
+    public JsonObject createReportContent(final int projectIndex, final int versionIndex) {
+        final StringBuilder notices = new StringBuilder();
+        notices.append(data.getProjectName(projectIndex)).append(' ').append(data.getVersionName(versionIndex)).append(" notices\n");
+        for (int position = 0; position < data.getComponentsPerVersion(); position++) {
+            notices.append(data.getComponentName(data.getBomComponentIndex(projectIndex, versionIndex, position))).append(" - Apache License 2.0\n");
+        }
+        final JsonObject reportFile = new JsonObject();
+        reportFile.addProperty("fileName", "notices.txt");
+        reportFile.addProperty("fileContent", notices.toString());
+        final JsonArray reportContent = new JsonArray();
+        reportContent.add(reportFile);
+        final JsonObject content = new JsonObject();
+        content.add("reportContent", reportContent);
+        return content;
+    }
+
+    private JsonArray createLicenses() {
+        final JsonObject license = new JsonObject();
+        license.addProperty("licenseDisplay", "Apache License 2.0");
+        license.addProperty("license", baseUrl + "/api/licenses/" + createId(LICENSE, 0, 0));
+        final JsonArray licenses = new JsonArray();
+        licenses.add(license);
+        return licenses;
+    }
+
+    private JsonObject createRiskProfile(final int seed) {
+        final JsonArray counts = new JsonArray();
+        for (int i = 0; i < RISK_COUNT_TYPES.length; i++) {
+            final JsonObject count = new JsonObject();
+            count.addProperty("countType", RISK_COUNT_TYPES[i]);
+            count.addProperty("count", (seed + i) % 3);
+            counts.add(count);
+        }
+        final JsonObject riskProfile = new JsonObject();
+        riskProfile.add("counts", counts);
+        return riskProfile;
+    }
+
+    private JsonObject createNameValuePair(final String name, final int value) {
+        final JsonObject nameValuePair = new JsonObject();
+        nameValuePair.addProperty("name", name);
+        nameValuePair.addProperty("value", value);
+        return nameValuePair;
+    }
+
+    /**
+     * @param relsAndHrefs pairs of a link's rel followed by its href
+     */
+    private JsonObject createMeta(final String href, final String... relsAndHrefs) {
+        final JsonArray allow = new JsonArray();
+        allow.add("GET");
+        allow.add("PUT");
+        allow.add("DELETE");
+        final JsonArray links = new JsonArray();
+        for (int i = 0; i + 1 < relsAndHrefs.length; i += 2) {
+            final JsonObject link = new JsonObject();
+            link.addProperty("rel", relsAndHrefs[i]);
+            link.addProperty("href", relsAndHrefs[i + 1]);
+            links.add(link);
+        }
+        final JsonObject meta = new JsonObject();
+        meta.add("allow", allow);
+        meta.addProperty("href", href);
+        meta.add("links", links);
+        return meta;
+    }
+
+}